@@ -0,0 +1,53 @@
+package org.project.model.crossword;
+
+import java.util.Random;
+
+/**
+ * Reproducible word lists for benchmarks. Words are built from common Polish syllables,
+ * so they cross each other about as often as dictionary words do.
+ */
+final class BenchmarkWords {
+
+    private static final String[] SYLLABLES = {
+            "KA", "TO", "MA", "RO", "WO", "ZE", "LI", "NA", "PO", "SA", "DE", "KO", "RA", "MI", "TA", "LE", "NO", "WA"
+    };
+
+    private static final String[] ENDINGS = {"", "", "K", "N", "R", "S", "T", "Z"};
+
+    private BenchmarkWords(){
+    }
+
+    /**
+     * Generates words of 2 to 4 syllables.
+     * @param seed The seed, the same seed gives the same words.
+     * @param count The number of words.
+     * @return The words.
+     */
+    static String[] generate(long seed, int count){
+        Random random = new Random(seed);
+        String[] words = new String[count];
+        for(int i = 0; i < count; i++){
+            StringBuilder word = new StringBuilder();
+            int syllables = 2 + random.nextInt(3);
+            for(int syllable = 0; syllable < syllables; syllable++){
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            word.append(ENDINGS[random.nextInt(ENDINGS.length)]);
+            words[i] = word.toString();
+        }
+        return words;
+    }
+
+    /**
+     * Builds a crossword from the words, skipping the ones which do not fit.
+     * @param words The words.
+     * @return The factory holding the crossword.
+     */
+    static CrosswordFactory fill(String[] words){
+        CrosswordFactory factory = new CrosswordFactory();
+        for(String word : words){
+            factory.insertWord(word, "meaning of " + word);
+        }
+        return factory;
+    }
+}
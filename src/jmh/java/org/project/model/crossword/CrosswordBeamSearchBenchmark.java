@@ -0,0 +1,84 @@
+package org.project.model.crossword;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall-clock time of the greedy {@link CrosswordFactory} against {@link CrosswordBeamSearch} of several widths.
+ * Both are deterministic, so the quality of the built crossword is printed once per trial
+ * as the number of placed words and the score.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CrosswordBeamSearchBenchmark {
+
+    private static final long SEED = 42;
+
+    @Param({"30", "60"})
+    public int wordsCount;
+
+    @Param({"1", "4", "16"})
+    public int beamWidth;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private List<WordEntry> entries;
+
+    private ForkJoinPool forkJoinPool;
+
+    @Setup
+    public void setUp(){
+        entries = Arrays.stream(BenchmarkWords.generate(SEED, wordsCount))
+                .map(word -> new WordEntry(word, "meaning of " + word))
+                .toList();
+        forkJoinPool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    @TearDown(Level.Trial)
+    public void printQuality(){
+        Crossword greedy = greedy();
+        Crossword beam = beamSearch();
+        System.out.printf("%nwords %d, beam width %d: greedy %d words, score %.3f; beam %d words, score %.3f%n",
+                wordsCount, beamWidth, greedy.getWordsCount(), score(greedy), beam.getWordsCount(), score(beam));
+        if(forkJoinPool != null) forkJoinPool.shutdown();
+    }
+
+    private static float score(Crossword crossword){
+        return new CrosswordFactory().getCrosswordScore((CrosswordMatrixModel) crossword);
+    }
+
+    @Benchmark
+    public Crossword greedy(){
+        CrosswordFactory factory = new CrosswordFactory();
+        for(WordEntry entry : entries){
+            factory.insertWord(entry.word(), entry.meaning());
+        }
+        return factory.build();
+    }
+
+    @Benchmark
+    public Crossword beamSearch(){
+        return new CrosswordBeamSearch(beamWidth, forkJoinPool).generate(entries);
+    }
+}
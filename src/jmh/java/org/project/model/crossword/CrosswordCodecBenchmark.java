@@ -0,0 +1,74 @@
+package org.project.model.crossword;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing crosswords with {@link CrosswordCodec} and serving them from the buffer.
+ * Run with "-prof gc" to see allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CrosswordCodecBenchmark {
+
+    private static final long SEED = 42;
+
+    @Param({"10", "30", "60"})
+    public int wordsCount;
+
+    private Crossword crossword;
+
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setUp(){
+        crossword = BenchmarkWords.fill(BenchmarkWords.generate(SEED, wordsCount)).build();
+        buffer = CrosswordCodec.encode(crossword).asReadOnlyBuffer();
+        System.out.println("\n" + wordsCount + " words, " + crossword.getSize() + " cells, "
+                + buffer.remaining() + " bytes");
+    }
+
+    @Benchmark
+    public ByteBuffer encode(){
+        return CrosswordCodec.encode(crossword);
+    }
+
+    /**
+     * Opening a stored crossword, as done before serving it.
+     */
+    @Benchmark
+    public Crossword read(){
+        return CrosswordCodec.read(buffer.duplicate());
+    }
+
+    /**
+     * Opening a stored crossword and reading every cell of its grid.
+     */
+    @Benchmark
+    public int readGrid(){
+        Crossword read = CrosswordCodec.read(buffer.duplicate());
+        int checksum = 0;
+        for(int index = 0; index < read.getSize(); index++){
+            Optional<CrosswordLetter> letter = read.getCrosswordLetter(index);
+            if(letter.isPresent()) checksum += letter.get().getLetter() + (letter.get().isFirstLetter() ? 1 : 0);
+        }
+        return checksum;
+    }
+}
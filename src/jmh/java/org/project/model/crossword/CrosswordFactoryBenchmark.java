@@ -0,0 +1,100 @@
+package org.project.model.crossword;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot paths of {@link CrosswordFactory} on grids filled with a given number of seeded words.
+ * Run with "-prof gc" to see allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CrosswordFactoryBenchmark {
+
+    private static final long SEED = 42;
+
+    @Param({"10", "30", "60"})
+    public int wordsCount;
+
+    private String[] words;
+
+    private CrosswordFactory filledFactory;
+
+    private CrosswordMatrixModel filledModel;
+
+    private String nextWord;
+
+    private List<CrosswordWordPlacement> placements;
+
+    private int filled;
+
+    @Setup
+    public void setUp(){
+        words = BenchmarkWords.generate(SEED, wordsCount);
+        filledFactory = BenchmarkWords.fill(words);
+        filledModel = (CrosswordMatrixModel) filledFactory.build();
+        // first seeded word which crosses the grid, so there are candidates to score
+        for(String word : BenchmarkWords.generate(SEED + 1, 100)){
+            nextWord = word;
+            placements = filledFactory.getPlacements(word);
+            if(!placements.isEmpty()) break;
+        }
+        filled = filledModel.getLettersCount();
+    }
+
+    /**
+     * Builds a whole crossword, one insertWord per word.
+     */
+    @Benchmark
+    public Crossword insertWords(){
+        return BenchmarkWords.fill(words).build();
+    }
+
+    /**
+     * Candidate discovery and validation of insertWord on the filled grid.
+     */
+    @Benchmark
+    public List<CrosswordWordPlacement> getPlacements(){
+        return filledFactory.getPlacements(nextWord);
+    }
+
+    /**
+     * Scoring done by setBestCrossword for every candidate.
+     */
+    @Benchmark
+    public void getPlacementScores(Blackhole blackhole){
+        for(CrosswordWordPlacement placement : placements){
+            blackhole.consume(filledFactory.getPlacementScore(placement, filled));
+        }
+    }
+
+    /**
+     * Scoring of a whole grid.
+     */
+    @Benchmark
+    public float getCrosswordScore(){
+        return filledFactory.getCrosswordScore(filledModel);
+    }
+
+    @Benchmark
+    public boolean tryToInsertClueWord(){
+        return filledFactory.tryToInsertClueWord("KOTARA", "curtain");
+    }
+}
@@ -0,0 +1,105 @@
+package org.project.model.crossword;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The grid of large crosswords: building it word by word, copying it and writing the copy,
+ * and reading every cell. Run with "-prof gc" to see how much of the grid is allocated.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CrosswordGridBenchmark {
+
+    private static final long SEED = 42;
+
+    @Param({"50", "200", "1000"})
+    public int wordsCount;
+
+    private String[] words;
+
+    private CrosswordMatrixModel filledModel;
+
+    /**
+     * A letter cell in the middle of the grid, written in the copies.
+     */
+    private int rowIndex;
+
+    private int columnIndex;
+
+    /**
+     * A word from the middle of the placement order, taken out of the copies.
+     */
+    private int wordId;
+
+    @Setup
+    public void setUp(){
+        words = BenchmarkWords.generate(SEED, wordsCount);
+        filledModel = (CrosswordMatrixModel) BenchmarkWords.fill(words).build();
+        int middle = filledModel.getSize() / 2;
+        while(filledModel.isEmpty(middle)) middle++;
+        rowIndex = filledModel.calculateRowIndex(middle);
+        columnIndex = filledModel.calculateColumnIndex(middle);
+        wordId = filledModel.getWordGraph().size() / 2;
+    }
+
+    /**
+     * Builds a whole crossword, one insertWord per word.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Crossword insertWords(){
+        return BenchmarkWords.fill(words).build();
+    }
+
+    /**
+     * Snapshot and write done for every candidate kept by the beam search.
+     */
+    @Benchmark
+    public CrosswordMatrixModel copyAndWrite(){
+        CrosswordMatrixModel copy = new CrosswordMatrixModel(filledModel);
+        copy.placeLetter(rowIndex, columnIndex, filledModel.getLetter(rowIndex, columnIndex));
+        return copy;
+    }
+
+    /**
+     * Snapshot and removal of a word, as a local search moving words does.
+     */
+    @Benchmark
+    public CrosswordMatrixModel copyAndRemoveWord(){
+        CrosswordMatrixModel copy = new CrosswordMatrixModel(filledModel);
+        copy.removeWord(wordId);
+        return copy;
+    }
+
+    /**
+     * Reads every cell with its neighbours, as the validation of placements does.
+     */
+    @Benchmark
+    public int readNeighbours(){
+        int filled = 0;
+        for(int row = 0; row < filledModel.getNumberOfRows(); row++){
+            for(int column = 0; column < filledModel.getNumberOfColumns(); column++){
+                if(filledModel.getLetterIfInBounds(row, column) != CrosswordMatrixModel.EMPTY
+                        && filledModel.getLetterIfInBounds(row - 1, column) == CrosswordMatrixModel.EMPTY
+                        && filledModel.getLetterIfInBounds(row, column + 1) != CrosswordMatrixModel.EMPTY) filled++;
+            }
+        }
+        return filled;
+    }
+}
@@ -0,0 +1,83 @@
+package org.project.model.crossword.structures;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Growth of the dynamic matrices by {@code setValueOutOfBounds}, writing one cell outside the matrix per step.
+ * Run with "-prof gc" to see how much is copied on growth.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DynamicMatrixBenchmark {
+
+    private static final int STEPS = 200;
+
+    /**
+     * RIGHT and DOWN grow past the end, LEFT and UP past the beginning, RANDOM around the current bounds.
+     */
+    @Param({"RIGHT", "DOWN", "LEFT", "UP", "RANDOM"})
+    public String pattern;
+
+    private int[] rowIndexes;
+
+    private int[] columnIndexes;
+
+    @Setup
+    public void setUp(){
+        Random random = new Random(42);
+        rowIndexes = new int[STEPS];
+        columnIndexes = new int[STEPS];
+        int rows = 1;
+        int columns = 1;
+        for(int step = 0; step < STEPS; step++){
+            switch(pattern){
+                case "RIGHT" -> columnIndexes[step] = columns;
+                case "DOWN" -> rowIndexes[step] = rows;
+                case "LEFT" -> columnIndexes[step] = -1;
+                case "UP" -> rowIndexes[step] = -1;
+                default -> {
+                    rowIndexes[step] = random.nextBoolean() ? -1 : rows;
+                    columnIndexes[step] = random.nextInt(columns + 2) - 1;
+                }
+            }
+            // the first cell makes the matrix 1x1, every later step adds a row or a column
+            rows = step == 0 ? 1 : rows + (rowIndexes[step] < 0 || rowIndexes[step] >= rows ? 1 : 0);
+            columns = step == 0 ? 1 : columns + (columnIndexes[step] < 0 || columnIndexes[step] >= columns ? 1 : 0);
+        }
+    }
+
+    @Benchmark
+    public DynamicMatrix<Character> dynamicMatrix(){
+        DynamicMatrix<Character> matrix = new DynamicMatrix<>();
+        for(int step = 0; step < STEPS; step++){
+            matrix.setValueOutOfBounds(rowIndexes[step], columnIndexes[step], 'A');
+        }
+        return matrix;
+    }
+
+    @Benchmark
+    public DynamicLetterMatrix dynamicLetterMatrix(){
+        DynamicLetterMatrix matrix = new DynamicLetterMatrix();
+        for(int step = 0; step < STEPS; step++){
+            matrix.setValueOutOfBounds(rowIndexes[step], columnIndexes[step], 'A', (byte) 0, (short) 0);
+        }
+        return matrix;
+    }
+}
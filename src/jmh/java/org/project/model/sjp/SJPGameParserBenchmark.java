@@ -0,0 +1,76 @@
+package org.project.model.sjp;
+
+import org.jsoup.Jsoup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of saved sjp.pl pages, without the network round trip of {@link SJPGameParser#nextWord()}.
+ * Run with "-prof gc" to see allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SJPGameParserBenchmark {
+
+    @Param({"kot.html", "pies.html", "qwerty.html", "zamek.html"})
+    public String page;
+
+    private String html;
+
+    private String text;
+
+    private SJPGameParser parser;
+
+    @Setup
+    public void setUp() throws IOException{
+        try(InputStream input = SJPGameParserBenchmark.class.getResourceAsStream(page)){
+            if(input == null) throw new IOException("Missing fixture " + page);
+            html = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        text = Jsoup.parse(html).body().text();
+        parser = new SJPGameParser();
+    }
+
+    /**
+     * Whole page, from HTML to the word and meanings.
+     */
+    @Benchmark
+    public SJPEntry parsePage() throws SJPException{
+        return parser.parseText(Jsoup.parse(html).body().text()).toEntry();
+    }
+
+    /**
+     * Whole page, streaming the HTML instead of building its document.
+     */
+    @Benchmark
+    public SJPEntry parseStream() throws SJPException{
+        return parser.parse(new StringReader(html)).toEntry();
+    }
+
+    /**
+     * Word and meanings extraction from the page text only.
+     */
+    @Benchmark
+    public SJPEntry parseText() throws SJPException{
+        return parser.parseText(text).toEntry();
+    }
+}
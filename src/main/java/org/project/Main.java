@@ -1,36 +1,57 @@
 package org.project;
 
 import org.project.model.crossword.Crossword;
+import org.project.model.crossword.CrosswordDeadline;
 import org.project.model.crossword.CrosswordFactory;
 import org.project.model.crossword.CrosswordException;
+import org.project.model.crossword.CrosswordParameters;
+import org.project.model.crossword.CrosswordResult;
+import org.project.model.crossword.WordEntry;
+import org.project.model.sjp.SJPEntry;
 import org.project.model.sjp.SJPException;
-import org.project.model.sjp.SJPGameParser;
+import org.project.model.sjp.SJPPrefetcher;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.IntStream;
 
 public class Main {
 
+    private static final int CLUE_CANDIDATES = 4;
+
     public static Crossword getCrossword(int wordCounter, boolean withClue) throws CrosswordException{
-        SJPGameParser sjpGameParser = new SJPGameParser();
+        try(SJPPrefetcher prefetcher = new SJPPrefetcher()){
+            return getCrossword(prefetcher, wordCounter, withClue);
+        }
+    }
+
+    public static Crossword getCrossword(SJPPrefetcher prefetcher, int wordCounter, boolean withClue) throws CrosswordException{
         CrosswordFactory crosswordBuilder = new CrosswordFactory();
-        String clueWord = "default";
-        String clueDefinition = "default";
 
         try{
 
+            // words are fetched in the background while the previous ones are inserted
             while (wordCounter > 0) {
-                if(!sjpGameParser.nextWord().isForbiddenInGames()
-                        && crosswordBuilder.insertWord(sjpGameParser.getWord(), sjpGameParser.getRandomMeaning().orElse("default"))){
+                SJPEntry entry = prefetcher.nextEntry();
+                if(!entry.isForbiddenInGames()
+                        && crosswordBuilder.insertWord(entry.word(), entry.getRandomMeaning().orElse("default"))){
                     wordCounter--;
                 }
             }
 
             if(withClue){
+                // candidates are tried in batches, words which cannot fit are rejected without touching the grid
+                Optional<WordEntry> clue;
                 do {
-                    sjpGameParser.nextWord();
-                } while (!crosswordBuilder.tryToInsertClueWord(clueWord = sjpGameParser.getWord(),
-                        clueDefinition = sjpGameParser.getRandomMeaning().orElse("default") ));
+                    List<WordEntry> candidates = new ArrayList<>(CLUE_CANDIDATES);
+                    for(int i = 0; i < CLUE_CANDIDATES; i++){
+                        SJPEntry entry = prefetcher.nextEntry();
+                        candidates.add(new WordEntry(entry.word(), entry.getRandomMeaning().orElse("default")));
+                    }
+                    clue = crosswordBuilder.tryToInsertClueWord(candidates);
+                } while (clue.isEmpty());
             }
 
         }catch (SJPException e) {
@@ -42,12 +63,25 @@ public class Main {
         return crosswordBuilder.build();
     }
 
+    public static CrosswordResult getCrossword(SJPPrefetcher prefetcher, int wordCounter, boolean withClue,
+                                               Duration timeBudget) throws CrosswordException{
+        // returns whatever was built when the budget runs out, instead of waiting for every word
+        return new CrosswordFactory().generate(prefetcher, new CrosswordParameters(wordCounter, withClue),
+                CrosswordDeadline.after(timeBudget));
+    }
+
     public static void testPrint(int crosswordSize){
 
-        Crossword crossword = getCrossword(crosswordSize, true);
+        Crossword crossword;
+        double starvedTime;
+        try(SJPPrefetcher prefetcher = new SJPPrefetcher()){
+            crossword = getCrossword(prefetcher, crosswordSize, true);
+            starvedTime = prefetcher.getStarvedTimeInMilliseconds();
+        }
 
         System.out.println();
         System.out.println("Generation time (crossword): " + crossword.getTimeInMilliseconds());
+        System.out.println("Waiting for words: " + starvedTime);
         System.out.println("Words count: " + crossword.getWordsCount());
         System.out.println("Letters: " + crossword.getLettersCount());
         System.out.println("Size: " + crossword.getSize());
@@ -0,0 +1,204 @@
+package org.project.model.crossword;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Crosswords of a batch started by {@link CrosswordBatchGenerator}, handed out in completion order.
+ * Generation runs ahead of the caller by at most the maximum concurrency of the generator,
+ * then waits until the caller takes finished crosswords.
+ * Crosswords should be taken by a single thread, statistics may be read from any thread.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public final class CrosswordBatch implements Iterator<Crossword>, AutoCloseable {
+
+    /**
+     * Generated crossword or the exception thrown while generating it.
+     */
+    private record Result(Crossword crossword, CrosswordException failure) {
+    }
+
+    /**
+     * Put into the queue by {@link #close()} to wake a caller waiting for a crossword.
+     */
+    private static final Result CLOSED = new Result(null, null);
+
+    final private int count;
+
+    final private Function<CrosswordDeadline, Crossword> generator;
+
+    /**
+     * Deadline of every generation of the batch, cancelled when the batch is closed.
+     */
+    final private CrosswordDeadline deadline;
+
+    final private BlockingQueue<Result> results;
+
+    final private Semaphore permits;
+
+    final private ExecutorService executor;
+
+    final private Thread dispatcher;
+
+    /**
+     * Generation time of every finished crossword in nanoseconds, in completion order.
+     */
+    final private AtomicLongArray latencies;
+
+    final private AtomicInteger finished;
+
+    final private AtomicInteger failed;
+
+    final private long startTime;
+
+    private volatile long endTime;
+
+    private int delivered;
+
+    private volatile boolean closed;
+
+    CrosswordBatch(int count, int maximumConcurrency, Function<CrosswordDeadline, Crossword> generator){
+        this.count = count;
+        this.generator = generator;
+        this.deadline = CrosswordDeadline.none();
+        this.results = new ArrayBlockingQueue<>(maximumConcurrency);
+        this.permits = new Semaphore(maximumConcurrency);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.latencies = new AtomicLongArray(count);
+        this.finished = new AtomicInteger();
+        this.failed = new AtomicInteger();
+        this.startTime = System.nanoTime();
+        this.endTime = count == 0 ? startTime : 0;
+        this.dispatcher = Thread.ofVirtual().start(this::dispatch);
+    }
+
+    private void dispatch(){
+        try{
+            for(int i = 0; i < count; i++){
+                permits.acquire();
+                executor.execute(this::generate);
+            }
+        }catch(InterruptedException | RejectedExecutionException e){
+            // batch closed before all crosswords were started
+        }
+    }
+
+    private void generate(){
+        long start = System.nanoTime();
+        Result result;
+        VirtualMachineError error = null;
+        try{
+            result = new Result(generator.apply(deadline), null);
+        }catch(CrosswordException e){
+            result = new Result(null, e);
+            failed.incrementAndGet();
+        }catch(Throwable e){
+            // errors are handed to the caller as well, otherwise it would wait for the crossword forever
+            result = new Result(null, new CrosswordException("Crossword generation failed", e));
+            failed.incrementAndGet();
+            // errors of the virtual machine are not swallowed, they end the thread once the caller is told
+            if(e instanceof VirtualMachineError virtualMachineError) error = virtualMachineError;
+        }
+        long end = System.nanoTime();
+        int position = finished.getAndIncrement();
+        latencies.set(position, end - start);
+        if(position == count - 1) endTime = end;
+        try{
+            // the permit is kept until the crossword is queued, so a slow caller stops new generations
+            results.put(result);
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+        }finally{
+            permits.release();
+        }
+        if(error != null) throw error;
+    }
+
+    /**
+     * Checks if there are crosswords not handed out yet.
+     * @return True if {@link #next()} will return or fail for another crossword, false if all were handed out
+     * or the batch is closed.
+     */
+    @Override
+    public boolean hasNext(){
+        return !closed && delivered < count;
+    }
+
+    /**
+     * Waits for the next finished crossword.
+     * @return The crossword.
+     * @throws CrosswordException If generation of the crossword failed, the batch was closed
+     * or the thread was interrupted while waiting.
+     */
+    @Override
+    public Crossword next(){
+        if(!hasNext()) throw new NoSuchElementException();
+        Result result;
+        try{
+            result = results.take();
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new CrosswordException("Interrupted while waiting for crossword", e);
+        }
+        if(result == CLOSED || closed){
+            results.offer(CLOSED);
+            throw new CrosswordException("Batch was closed while waiting for crossword");
+        }
+        delivered++;
+        if(result.failure() != null) throw result.failure();
+        return result.crossword();
+    }
+
+    /**
+     * Streams the remaining crosswords in completion order. Closing the stream closes the batch.
+     * @return The stream of crosswords.
+     */
+    public Stream<Crossword> stream(){
+        return StreamSupport.stream(Spliterators.spliterator(this, count - delivered, Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * Retrieves statistics of the batch so far.
+     * @return The statistics.
+     */
+    public CrosswordBatchStatistics getStatistics(){
+        int finishedCount = Math.min(finished.get(), count);
+        long[] finishedLatencies = new long[finishedCount];
+        for(int i = 0; i < finishedCount; i++){
+            // a slot may still be empty if its crossword finished a moment ago
+            finishedLatencies[i] = latencies.get(i);
+        }
+        long end = endTime;
+        long elapsed = (end != 0 ? end : System.nanoTime()) - startTime;
+        return new CrosswordBatchStatistics(count, finishedCount - failed.get(), failed.get(), elapsed, finishedLatencies);
+    }
+
+    /**
+     * Stops generation of crosswords not finished yet, their deadline is cancelled so they stop drawing words.
+     * Crosswords not taken are dropped, a caller waiting for one is woken with an exception.
+     */
+    @Override
+    public void close(){
+        closed = true;
+        deadline.cancel();
+        dispatcher.interrupt();
+        executor.shutdownNow();
+        results.clear();
+        results.offer(CLOSED);
+    }
+}
@@ -0,0 +1,84 @@
+package org.project.model.crossword;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Generates many crosswords at once. Every crossword is built by its own {@link CrosswordFactory} on a virtual thread,
+ * at most {@code maximumConcurrency} of them at a time, and finished crosswords are handed out by a {@link CrosswordBatch}
+ * as soon as they complete.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public final class CrosswordBatchGenerator {
+
+    /**
+     * Default number of crosswords generated at the same time.
+     */
+    public static final int DEFAULT_MAXIMUM_CONCURRENCY = Runtime.getRuntime().availableProcessors();
+
+    final private WordSource wordSource;
+
+    final private int maximumConcurrency;
+
+    final private CrosswordMetricsRecorder metricsRecorder;
+
+    /**
+     * Creates a generator which generates up to {@link #DEFAULT_MAXIMUM_CONCURRENCY} crosswords at the same time.
+     * @param wordSource The thread safe source of words shared by all crosswords.
+     */
+    public CrosswordBatchGenerator(@NotNull WordSource wordSource){
+        this(wordSource, DEFAULT_MAXIMUM_CONCURRENCY);
+    }
+
+    /**
+     * Creates a generator. Sources waiting on network may use a concurrency much higher than the number of processors.
+     * @param wordSource The thread safe source of words shared by all crosswords.
+     * @param maximumConcurrency The maximal number of crosswords generated at the same time.
+     */
+    public CrosswordBatchGenerator(@NotNull WordSource wordSource, int maximumConcurrency){
+        this(wordSource, maximumConcurrency, CrosswordMetricsRecorder.NONE);
+    }
+
+    /**
+     * Creates a generator whose factories report their measurements to the recorder.
+     * @param wordSource The thread safe source of words shared by all crosswords.
+     * @param maximumConcurrency The maximal number of crosswords generated at the same time.
+     * @param metricsRecorder The thread safe recorder shared by all crosswords.
+     */
+    public CrosswordBatchGenerator(@NotNull WordSource wordSource, int maximumConcurrency,
+                                   @NotNull CrosswordMetricsRecorder metricsRecorder){
+        if(maximumConcurrency <= 0) throw new CrosswordException("Maximum concurrency has to be positive");
+        this.wordSource = wordSource;
+        this.maximumConcurrency = maximumConcurrency;
+        this.metricsRecorder = metricsRecorder;
+    }
+
+    /**
+     * Starts generation of a batch of crosswords. Generation stalls while the caller does not take finished crosswords,
+     * so a batch never holds more than twice the maximum concurrency of crosswords in memory.
+     * The batch should be closed once it is no longer needed.
+     * @param count The number of crosswords to generate.
+     * @param parameters The parameters of every crossword.
+     * @return The batch handing out the crosswords in completion order.
+     */
+    public CrosswordBatch generate(int count, @NotNull CrosswordParameters parameters){
+        if(count < 0) throw new CrosswordException("Count cannot be negative");
+        return new CrosswordBatch(count, maximumConcurrency,
+                deadline -> generateCrossword(wordSource, parameters, metricsRecorder, deadline));
+    }
+
+    /**
+     * Generates a single crossword on the calling thread.
+     * @param wordSource The source of words.
+     * @param parameters The parameters of the crossword.
+     * @param metricsRecorder The recorder of the factory.
+     * @param deadline The deadline cancelled when the crossword is no longer needed.
+     * @return The crossword, the one reached so far if the deadline was cancelled.
+     */
+    static Crossword generateCrossword(WordSource wordSource, CrosswordParameters parameters,
+                                       CrosswordMetricsRecorder metricsRecorder, CrosswordDeadline deadline){
+        CrosswordFactory factory = new CrosswordFactory();
+        factory.setMetricsRecorder(metricsRecorder);
+        return factory.generate(wordSource, parameters, deadline).crossword();
+    }
+}
@@ -0,0 +1,113 @@
+package org.project.model.crossword;
+
+import java.util.Arrays;
+
+/**
+ * Throughput and latency of a {@link CrosswordBatch}. Latency is the time spent generating a single crossword,
+ * waiting for the caller to take it is not included.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public final class CrosswordBatchStatistics {
+
+    final private int requestedCount;
+
+    final private int generatedCount;
+
+    final private int failedCount;
+
+    final private long elapsedNanoseconds;
+
+    /**
+     * Latencies of finished crosswords in nanoseconds, sorted.
+     */
+    final private long[] latencies;
+
+    CrosswordBatchStatistics(int requestedCount, int generatedCount, int failedCount,
+                             long elapsedNanoseconds, long[] latencies){
+        this.requestedCount = requestedCount;
+        this.generatedCount = generatedCount;
+        this.failedCount = failedCount;
+        this.elapsedNanoseconds = elapsedNanoseconds;
+        this.latencies = latencies.clone();
+        Arrays.sort(this.latencies);
+    }
+
+    /**
+     * Retrieves the number of crosswords requested in the batch.
+     * @return The number of crosswords.
+     */
+    public int getRequestedCount(){
+        return requestedCount;
+    }
+
+    /**
+     * Retrieves the number of crosswords generated successfully so far.
+     * @return The number of crosswords.
+     */
+    public int getGeneratedCount(){
+        return generatedCount;
+    }
+
+    /**
+     * Retrieves the number of crosswords whose generation failed so far.
+     * @return The number of crosswords.
+     */
+    public int getFailedCount(){
+        return failedCount;
+    }
+
+    /**
+     * Retrieves the time from the start of the batch until the last crossword finished, or until now.
+     * @return The time in milliseconds.
+     */
+    public double getElapsedTimeInMilliseconds(){
+        return elapsedNanoseconds / (double) 1_000_000;
+    }
+
+    /**
+     * Retrieves the number of crosswords generated per second.
+     * @return The throughput, 0 if no time has elapsed.
+     */
+    public double getThroughputPerSecond(){
+        if(elapsedNanoseconds == 0) return 0;
+        return generatedCount / (elapsedNanoseconds / (double) 1_000_000_000);
+    }
+
+    /**
+     * Retrieves the mean time of generating a crossword.
+     * @return The time in milliseconds, 0 if no crossword finished.
+     */
+    public double getMeanLatencyInMilliseconds(){
+        if(latencies.length == 0) return 0;
+        return Arrays.stream(latencies).average().orElse(0) / 1_000_000;
+    }
+
+    /**
+     * Retrieves the time within which the given percentage of crosswords were generated (nearest rank).
+     * @param percentile The percentile, from 0 to 100.
+     * @return The time in milliseconds, 0 if no crossword finished.
+     */
+    public double getLatencyPercentileInMilliseconds(double percentile){
+        if(percentile < 0 || percentile > 100) throw new CrosswordException("Percentile has to be between 0 and 100");
+        if(latencies.length == 0) return 0;
+        int rank = (int) Math.ceil(percentile / 100 * latencies.length);
+        return latencies[Math.max(rank - 1, 0)] / (double) 1_000_000;
+    }
+
+    /**
+     * Retrieves the longest time of generating a crossword.
+     * @return The time in milliseconds, 0 if no crossword finished.
+     */
+    public double getMaxLatencyInMilliseconds(){
+        return getLatencyPercentileInMilliseconds(100);
+    }
+
+    @Override
+    public String toString(){
+        return String.format("%d/%d crosswords (%d failed) in %.1f ms, %.1f/s, latency mean %.2f ms, p50 %.2f ms, p95 %.2f ms, max %.2f ms",
+                generatedCount, requestedCount, failedCount, getElapsedTimeInMilliseconds(), getThroughputPerSecond(),
+                getMeanLatencyInMilliseconds(), getLatencyPercentileInMilliseconds(50),
+                getLatencyPercentileInMilliseconds(95), getMaxLatencyInMilliseconds());
+    }
+}
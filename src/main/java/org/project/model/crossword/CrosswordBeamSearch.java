@@ -0,0 +1,154 @@
+package org.project.model.crossword;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Generates a crossword by beam search. Unlike {@link CrosswordFactory}, which commits the best placement of every word
+ * and never revisits it, the search keeps the {@code beamWidth} best partial crosswords after every word and expands
+ * all of them with the next one. Partial crosswords are ranked by the number of placed words first
+ * and by the crossword score second, the same score the factory uses. Expansions of different partial crosswords
+ * run in parallel, while the result does not depend on the pool. With the beam width of one the search builds
+ * the same crossword as the factory.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public final class CrosswordBeamSearch {
+
+    /**
+     * Default number of partial crosswords kept after every word.
+     */
+    public static final int DEFAULT_BEAM_WIDTH = 8;
+
+    final private int beamWidth;
+
+    final private ForkJoinPool forkJoinPool;
+
+    /**
+     * Partial crossword with its score.
+     */
+    private record State(CrosswordMatrixModel crosswordModel, float score){
+    }
+
+    /**
+     * Way of extending a partial crossword with the next word, the placement is null when the word does not fit.
+     */
+    private record Candidate(State parent, CrosswordWordPlacement placement, int wordsCount, float score){
+    }
+
+    private static final Comparator<Candidate> RANKING = Comparator
+            .comparingInt(Candidate::wordsCount).reversed()
+            .thenComparing(Comparator.comparingDouble(Candidate::score).reversed());
+
+    /**
+     * Creates a search keeping {@link #DEFAULT_BEAM_WIDTH} partial crosswords, expanded on the common pool.
+     */
+    public CrosswordBeamSearch(){
+        this(DEFAULT_BEAM_WIDTH, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a search. The number of threads expanding partial crosswords is the parallelism of the pool.
+     * @param beamWidth The number of partial crosswords kept after every word.
+     * @param forkJoinPool The pool expanding partial crosswords, null to expand them on the calling thread.
+     */
+    public CrosswordBeamSearch(int beamWidth, ForkJoinPool forkJoinPool){
+        if(beamWidth <= 0) throw new CrosswordException("Beam width has to be positive");
+        this.beamWidth = beamWidth;
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    /**
+     * Builds the best crossword found for the words, inserted in the given order. Words which do not fit
+     * into a partial crossword are skipped for it.
+     * @param words The words with their meanings.
+     * @return The crossword.
+     */
+    public Crossword generate(@NotNull List<WordEntry> words){
+        long start = System.nanoTime();
+        List<State> beam = List.of(new State(new CrosswordMatrixModel(), 0));
+
+        for(WordEntry entry : words){
+            if(entry.word() == null || entry.word().isEmpty() || entry.meaning() == null || entry.meaning().isEmpty()){
+                throw new CrosswordException("Provided value is null or empty");
+            }
+            beam = step(beam, entry.word().toUpperCase(), entry.meaning());
+        }
+
+        CrosswordMatrixModel best = beam.getFirst().crosswordModel();
+        best.setGenerationTime((System.nanoTime() - start) / (double) 1_000_000);
+        best.releaseLetterIndex();
+        best.trimToSize();
+        return best;
+    }
+
+    /**
+     * Extends every partial crossword with the word and keeps the best distinct results.
+     */
+    private List<State> step(List<State> beam, String wordUpperCase, String meaning){
+        List<List<Candidate>> expansions;
+        if(forkJoinPool != null && beam.size() > 1){
+            expansions = forkJoinPool.submit(() -> beam.parallelStream()
+                    .map(state -> expand(state, wordUpperCase))
+                    .toList()
+            ).join();
+        }else{
+            expansions = beam.stream().map(state -> expand(state, wordUpperCase)).toList();
+        }
+
+        // stable sort, so equally ranked candidates keep the order of the beam and of the placements
+        List<Candidate> candidates = new ArrayList<>();
+        expansions.forEach(candidates::addAll);
+        candidates.sort(RANKING);
+
+        List<State> nextBeam = new ArrayList<>(beamWidth);
+        Set<CrosswordMatrixModel> grids = new HashSet<>();
+        for(Candidate candidate : candidates){
+            if(nextBeam.size() == beamWidth) break;
+            State state = candidate.parent();
+            if(candidate.placement() != null){
+                CrosswordMatrixModel crosswordModel = new CrosswordMatrixModel(state.crosswordModel());
+                candidate.placement().placeWord(crosswordModel);
+                crosswordModel.addWordWithMeaning(wordUpperCase, meaning);
+                state = new State(crosswordModel, candidate.score());
+            }
+            // different placements may lead to the same grid, which would only take a place of another one
+            if(grids.add(state.crosswordModel())){
+                nextBeam.add(state);
+            }
+        }
+        return nextBeam;
+    }
+
+    /**
+     * Lists every way of placing the word into the partial crossword, or keeping it when the word does not fit.
+     */
+    private static List<Candidate> expand(State state, String wordUpperCase){
+        CrosswordMatrixModel crosswordModel = state.crosswordModel();
+        int wordsCount = crosswordModel.getWordsCount();
+
+        // first word is always HORIZONTAL
+        if(crosswordModel.getSize() == 0){
+            return List.of(new Candidate(state, new CrosswordWordPlacement(0, 0,
+                    CrosswordWordPlacement.Direction.HORIZONTAL, wordUpperCase, 1), wordsCount + 1, 0));
+        }
+
+        CrosswordFactory factory = new CrosswordFactory(crosswordModel);
+        List<CrosswordWordPlacement> placements = factory.getPlacements(wordUpperCase);
+        if(placements.isEmpty()){
+            return List.of(new Candidate(state, null, wordsCount, state.score()));
+        }
+        int filled = crosswordModel.getLettersCount();
+        return IntStream.range(0, placements.size())
+                .mapToObj(i -> new Candidate(state, placements.get(i), wordsCount + 1,
+                        factory.getPlacementScore(placements.get(i), filled)))
+                .toList();
+    }
+}
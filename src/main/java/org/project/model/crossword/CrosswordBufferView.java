@@ -0,0 +1,277 @@
+package org.project.model.crossword;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.project.model.crossword.CrosswordCodec.*;
+
+/**
+ * Crossword read by {@link CrosswordCodec#read(ByteBuffer)}, every call reads the buffer holding it.
+ * Letters guessed through the view are kept in its own bit set, created on the first guess,
+ * so the buffer is never written.
+ */
+final class CrosswordBufferView implements Crossword {
+
+    final private ByteBuffer buffer;
+
+    final private int size;
+
+    final private int numberOfColumns;
+
+    final private int flagsOffset;
+
+    final private int numberedOffset;
+
+    final private int numberedCount;
+
+    final private int stringsOffset;
+
+    final private int wordsCount;
+
+    private BitSet guessed;
+
+    /**
+     * Number of guessed letters, counted on the first call and kept with the guesses made through the view, -1 before.
+     */
+    private int guessedLettersCount = -1;
+
+    CrosswordBufferView(ByteBuffer buffer){
+        this.buffer = buffer;
+        int numberOfRows = buffer.getInt(ROWS_OFFSET);
+        this.numberOfColumns = buffer.getInt(COLUMNS_OFFSET);
+        this.wordsCount = buffer.getInt(WORDS_COUNT_OFFSET);
+        this.numberedCount = buffer.getInt(NUMBERED_COUNT_OFFSET);
+        long size = (long) numberOfRows * numberOfColumns;
+        long stringsOffset = HEADER_SIZE + size * (Character.BYTES + Byte.BYTES)
+                + (long) numberedCount * NUMBERED_CELL_SIZE;
+        if(numberOfRows < 0 || numberOfColumns < 0 || numberedCount < 0 || wordsCount < 0
+                || stringsOffset + (long) (CLUE_STRINGS + wordsCount) * Integer.BYTES > buffer.limit())
+            throw new CrosswordException("Crossword is truncated");
+        this.size = (int) size;
+        this.flagsOffset = HEADER_SIZE + this.size * Character.BYTES;
+        this.numberedOffset = flagsOffset + this.size;
+        this.stringsOffset = (int) stringsOffset;
+    }
+
+    @Override
+    public List<String> getDescriptions(){
+        return new Descriptions();
+    }
+
+    @Override
+    public Optional<CrosswordLetter> getCrosswordLetter(int index){
+        Objects.checkIndex(index, size);
+        if(getLetter(index) == '\0') return Optional.empty();
+        return Optional.of(new Letter(index));
+    }
+
+    @Override
+    public Optional<CrosswordLetter> getCrosswordLetter(int rowIndex, int columnIndex){
+        if(rowIndex < 0 || rowIndex >= getNumberOfRows() || columnIndex < 0 || columnIndex >= numberOfColumns)
+            return Optional.empty();
+        return getCrosswordLetter(rowIndex * numberOfColumns + columnIndex);
+    }
+
+    @Override
+    public Optional<String> getCrosswordClueWord(){
+        return Optional.ofNullable(getString(0));
+    }
+
+    @Override
+    public Optional<String> getCrosswordClueDefinition(){
+        return Optional.ofNullable(getString(1));
+    }
+
+    @Override
+    public int getGuessedLettersCount(){
+        if(guessedLettersCount < 0){
+            int count = 0;
+            for(int index = 0; index < size; index++){
+                if(getLetter(index) != '\0' && isGuessed(index)) count++;
+            }
+            guessedLettersCount = count;
+        }
+        return guessedLettersCount;
+    }
+
+    @Override
+    public int getLettersCount(){
+        return buffer.getInt(LETTERS_COUNT_OFFSET);
+    }
+
+    @Override
+    public int getRemainingLettersCount(){
+        return getLettersCount() - getGuessedLettersCount();
+    }
+
+    @Override
+    public int getSize(){
+        return size;
+    }
+
+    @Override
+    public int getNumberOfColumns(){
+        return numberOfColumns;
+    }
+
+    @Override
+    public int getNumberOfRows(){
+        return numberOfColumns == 0 ? 0 : size / numberOfColumns;
+    }
+
+    @Override
+    public void printCrosswordInConsole(){
+        for(int index = 0; index < size; index++){
+            char letter = getLetter(index);
+            if(letter == '\0'){
+                System.out.print("   ");
+            }else if(isFlagSet(index, CrosswordMatrixModel.FIRST_LETTER_FLAG)){
+                System.out.print("{" + letter + "}");
+            }else if(isFlagSet(index, CrosswordMatrixModel.CLUE_LETTER_FLAG)){
+                System.out.print("(" + letter + ")");
+            }else{
+                System.out.print("[" + letter + "]");
+            }
+            if((index + 1) % numberOfColumns == 0)
+                System.out.println();
+        }
+    }
+
+    @Override
+    public @NotNull Stream<CrosswordLetter> streamLetters(){
+        return IntStream.range(0, size)
+                .mapToObj(index -> getLetter(index) == '\0' ? null : new Letter(index));
+    }
+
+    @Override
+    public double getTimeInMilliseconds(){
+        return buffer.getDouble(GENERATION_TIME_OFFSET);
+    }
+
+    @Override
+    public int getWordsCount(){
+        return wordsCount;
+    }
+
+    private char getLetter(int index){
+        return buffer.getChar(HEADER_SIZE + index * Character.BYTES);
+    }
+
+    private boolean isFlagSet(int index, byte flag){
+        return (buffer.get(flagsOffset + index) & flag) != 0;
+    }
+
+    private boolean isGuessed(int index){
+        return isFlagSet(index, CrosswordMatrixModel.GUESSED_FLAG) || (guessed != null && guessed.get(index));
+    }
+
+    /**
+     * Finds the word number of the cell among the numbered cells, sorted by index.
+     * @return The word number, 0 if the cell is not numbered.
+     */
+    private short getNumber(int index){
+        int low = 0;
+        int high = numberedCount - 1;
+        while(low <= high){
+            int middle = (low + high) >>> 1;
+            int cell = numberedOffset + middle * NUMBERED_CELL_SIZE;
+            int cellIndex = buffer.getInt(cell);
+            if(cellIndex < index){
+                low = middle + 1;
+            }else if(cellIndex > index){
+                high = middle - 1;
+            }else{
+                return buffer.getShort(cell + Integer.BYTES);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Decodes the string with the given number, the clue word and definition come first.
+     * @return The string, null if missing.
+     * @throws CrosswordException If the offset or length of the string points outside the crossword.
+     */
+    private String getString(int number){
+        int offset = buffer.getInt(stringsOffset + number * Integer.BYTES);
+        int firstString = stringsOffset + (CLUE_STRINGS + wordsCount) * Integer.BYTES;
+        if(offset < firstString || offset > buffer.limit() - Integer.BYTES)
+            throw new CrosswordException("String " + number + " of crossword is out of bounds");
+        int length = buffer.getInt(offset);
+        if(length == -1) return null;
+        if(length < 0 || length > buffer.limit() - offset - Integer.BYTES)
+            throw new CrosswordException("String " + number + " of crossword is out of bounds");
+        byte[] bytes = new byte[length];
+        buffer.get(offset + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private final class Descriptions extends AbstractList<String> implements RandomAccess {
+
+        @Override
+        public String get(int index){
+            Objects.checkIndex(index, wordsCount);
+            return getString(CLUE_STRINGS + index);
+        }
+
+        @Override
+        public int size(){
+            return wordsCount;
+        }
+    }
+
+    private final class Letter implements CrosswordLetter {
+
+        final private int index;
+
+        private Letter(int index){
+            this.index = index;
+        }
+
+        @Override
+        public char getLetter(){
+            return CrosswordBufferView.this.getLetter(index);
+        }
+
+        @Override
+        public Optional<Integer> getWordNumber(){
+            short wordNumber = getNumber(index);
+            return wordNumber == 0 ? Optional.empty() : Optional.of((int) wordNumber);
+        }
+
+        @Override
+        public boolean isGuessed(){
+            return CrosswordBufferView.this.isGuessed(index);
+        }
+
+        @Override
+        public boolean guessLetter(char letter){
+            if(!isGuessed() && getLetter() == Character.toUpperCase(letter)){
+                if(guessed == null) guessed = new BitSet(size);
+                guessed.set(index);
+                if(guessedLettersCount >= 0) guessedLettersCount++;
+            }
+            return isGuessed();
+        }
+
+        @Override
+        public boolean isFirstLetter(){
+            return isFlagSet(index, CrosswordMatrixModel.FIRST_LETTER_FLAG);
+        }
+
+        @Override
+        public boolean isClueLetter(){
+            return isFlagSet(index, CrosswordMatrixModel.CLUE_LETTER_FLAG);
+        }
+    }
+}
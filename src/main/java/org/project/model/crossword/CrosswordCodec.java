@@ -0,0 +1,220 @@
+package org.project.model.crossword;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Binary format of crosswords, written from any {@link Crossword} and read back as a view over the buffer,
+ * so stored crosswords are served without rebuilding their grid. Many crosswords may follow each other
+ * in one buffer, e.g. a memory-mapped file or a {@code MemorySegment} seen through {@code asByteBuffer()}.
+ * <p>
+ * A crossword starts with a header: magic, version (short), reserved (short), number of rows, number of columns,
+ * number of letters, number of words, number of numbered cells, generation time in milliseconds (double)
+ * and the length of the whole crossword in bytes. The header is followed by the letter of every cell (char,
+ * {@code '\0'} if empty), the flags of every cell (byte: first letter, clue letter, guessed), the numbered cells
+ * sorted by index (index as int, word number as short), the offsets of the strings (clue word, clue definition
+ * and the descriptions) relative to the start of the crossword, and the strings, each stored as its UTF-8 length
+ * (int, -1 if missing) and bytes. All values are big-endian.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public final class CrosswordCodec {
+
+    static final int MAGIC = 0x43575244; // "CWRD"
+
+    static final short VERSION = 1;
+
+    static final int ROWS_OFFSET = 8;
+
+    static final int COLUMNS_OFFSET = 12;
+
+    static final int LETTERS_COUNT_OFFSET = 16;
+
+    static final int WORDS_COUNT_OFFSET = 20;
+
+    static final int NUMBERED_COUNT_OFFSET = 24;
+
+    static final int GENERATION_TIME_OFFSET = 28;
+
+    static final int LENGTH_OFFSET = 36;
+
+    static final int HEADER_SIZE = 40;
+
+    /**
+     * Size of a numbered cell, its index and word number.
+     */
+    static final int NUMBERED_CELL_SIZE = Integer.BYTES + Short.BYTES;
+
+    /**
+     * Number of strings preceding the descriptions, the clue word and definition.
+     */
+    static final int CLUE_STRINGS = 2;
+
+    /**
+     * Length of a crossword and its strings in UTF-8, the clue word and definition first, null if missing.
+     * Computed once per written crossword, as it takes a scan of the cells and encoding of every string.
+     */
+    private record Layout(int length, byte[][] strings) {
+    }
+
+    private CrosswordCodec(){
+    }
+
+    /**
+     * Calculates the number of bytes the crossword takes when written.
+     * @param crossword The crossword.
+     * @return The number of bytes.
+     */
+    public static int encodedSize(@NotNull Crossword crossword){
+        return layout(crossword).length();
+    }
+
+    /**
+     * Writes the crossword into a new buffer.
+     * @param crossword The crossword.
+     * @return The buffer holding the crossword, ready to be read.
+     */
+    public static ByteBuffer encode(@NotNull Crossword crossword){
+        Layout layout = layout(crossword);
+        ByteBuffer buffer = ByteBuffer.allocate(layout.length());
+        write(crossword, buffer, layout);
+        return buffer.flip();
+    }
+
+    /**
+     * Writes the crossword at the position of the buffer and moves the position past it.
+     * @param crossword The crossword.
+     * @param buffer The buffer.
+     * @throws BufferOverflowException If the buffer has less than {@link #encodedSize(Crossword)} bytes remaining.
+     */
+    public static void write(@NotNull Crossword crossword, @NotNull ByteBuffer buffer){
+        write(crossword, buffer, layout(crossword));
+    }
+
+    private static void write(Crossword crossword, ByteBuffer buffer, Layout layout){
+        int length = layout.length();
+        if(buffer.remaining() < length) throw new BufferOverflowException();
+        int start = buffer.position();
+        int size = crossword.getSize();
+        byte[][] strings = layout.strings();
+
+        buffer.putInt(start, MAGIC)
+                .putShort(start + 4, VERSION)
+                .putShort(start + 6, (short) 0)
+                .putInt(start + ROWS_OFFSET, crossword.getNumberOfRows())
+                .putInt(start + COLUMNS_OFFSET, crossword.getNumberOfColumns())
+                .putInt(start + WORDS_COUNT_OFFSET, crossword.getWordsCount())
+                .putDouble(start + GENERATION_TIME_OFFSET, crossword.getTimeInMilliseconds())
+                .putInt(start + LENGTH_OFFSET, length);
+
+        int letters = start + HEADER_SIZE;
+        int flags = letters + size * Character.BYTES;
+        int numbered = flags + size;
+        int lettersCount = 0;
+        int numberedCount = 0;
+        for(int index = 0; index < size; index++){
+            Optional<CrosswordLetter> optionalLetter = crossword.getCrosswordLetter(index);
+            if(optionalLetter.isEmpty()){
+                buffer.putChar(letters + index * Character.BYTES, '\0').put(flags + index, (byte) 0);
+                continue;
+            }
+            CrosswordLetter letter = optionalLetter.get();
+            buffer.putChar(letters + index * Character.BYTES, letter.getLetter()).put(flags + index, flagsOf(letter));
+            lettersCount++;
+            Optional<Integer> wordNumber = letter.getWordNumber();
+            if(wordNumber.isPresent()){
+                int cell = numbered + numberedCount * NUMBERED_CELL_SIZE;
+                buffer.putInt(cell, index).putShort(cell + Integer.BYTES, (short) (int) wordNumber.get());
+                numberedCount++;
+            }
+        }
+        buffer.putInt(start + LETTERS_COUNT_OFFSET, lettersCount)
+                .putInt(start + NUMBERED_COUNT_OFFSET, numberedCount);
+
+        int offsets = numbered + numberedCount * NUMBERED_CELL_SIZE;
+        int string = offsets + strings.length * Integer.BYTES;
+        for(int i = 0; i < strings.length; i++){
+            string = putString(buffer, start, offsets + i * Integer.BYTES, string, strings[i]);
+        }
+        buffer.position(start + length);
+    }
+
+    /**
+     * Reads the crossword at the position of the buffer and moves the position past it.
+     * The crossword is a view over the buffer, nothing but its header is read until asked for,
+     * so the buffer cannot be modified while the crossword is in use.
+     * Letters guessed on the crossword are kept by the view, the buffer may be read-only and shared by many views.
+     * @param buffer The buffer.
+     * @return The crossword.
+     * @throws CrosswordException If the buffer does not hold a crossword written by this version.
+     */
+    public static Crossword read(@NotNull ByteBuffer buffer){
+        int start = buffer.position();
+        if(buffer.remaining() < HEADER_SIZE || buffer.getInt(start) != MAGIC)
+            throw new CrosswordException("Buffer does not hold a crossword");
+        short version = buffer.getShort(start + 4);
+        if(version != VERSION) throw new CrosswordException("Unsupported crossword version " + version);
+        int length = buffer.getInt(start + LENGTH_OFFSET);
+        if(length < HEADER_SIZE || length > buffer.remaining())
+            throw new CrosswordException("Crossword is truncated");
+        CrosswordBufferView crossword = new CrosswordBufferView(buffer.slice(start, length));
+        buffer.position(start + length);
+        return crossword;
+    }
+
+    static byte flagsOf(CrosswordLetter letter){
+        byte flags = 0;
+        if(letter.isFirstLetter()) flags |= CrosswordMatrixModel.FIRST_LETTER_FLAG;
+        if(letter.isClueLetter()) flags |= CrosswordMatrixModel.CLUE_LETTER_FLAG;
+        if(letter.isGuessed()) flags |= CrosswordMatrixModel.GUESSED_FLAG;
+        return flags;
+    }
+
+    /**
+     * Counts the numbered cells and encodes the strings of the crossword.
+     */
+    private static Layout layout(Crossword crossword){
+        int numberedCount = 0;
+        for(int index = 0; index < crossword.getSize(); index++){
+            Optional<CrosswordLetter> letter = crossword.getCrosswordLetter(index);
+            if(letter.isPresent() && letter.get().getWordNumber().isPresent()) numberedCount++;
+        }
+        List<String> descriptions = crossword.getDescriptions();
+        byte[][] strings = new byte[CLUE_STRINGS + descriptions.size()][];
+        strings[0] = encode(crossword.getCrosswordClueWord().orElse(null));
+        strings[1] = encode(crossword.getCrosswordClueDefinition().orElse(null));
+        for(int i = 0; i < descriptions.size(); i++){
+            strings[CLUE_STRINGS + i] = encode(descriptions.get(i));
+        }
+        long length = HEADER_SIZE + (long) crossword.getSize() * (Character.BYTES + Byte.BYTES)
+                + (long) numberedCount * NUMBERED_CELL_SIZE + (long) strings.length * Integer.BYTES;
+        for(byte[] string : strings){
+            length += Integer.BYTES + (string == null ? 0 : string.length);
+        }
+        if(length > Integer.MAX_VALUE) throw new CrosswordException("Crossword is too large to be written");
+        return new Layout((int) length, strings);
+    }
+
+    private static byte[] encode(String string){
+        return string == null ? null : string.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the string and its offset.
+     * @return The position following the string.
+     */
+    private static int putString(ByteBuffer buffer, int start, int offset, int position, byte[] string){
+        buffer.putInt(offset, position - start);
+        if(string == null){
+            buffer.putInt(position, -1);
+            return position + Integer.BYTES;
+        }
+        buffer.putInt(position, string.length).put(position + Integer.BYTES, string);
+        return position + Integer.BYTES + string.length;
+    }
+}
@@ -0,0 +1,83 @@
+package org.project.model.crossword;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * Time budget of a crossword generation, which may also be cancelled from another thread at any time.
+ * Once expired or cancelled, {@link CrosswordFactory#generate(WordSource, CrosswordParameters, CrosswordDeadline)}
+ * stops and builds the crossword reached so far.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public final class CrosswordDeadline {
+
+    /**
+     * The value of {@link System#nanoTime()} at which the deadline expires.
+     */
+    final private long expirationTime;
+
+    final private boolean bounded;
+
+    private volatile boolean cancelled;
+
+    private CrosswordDeadline(long expirationTime, boolean bounded){
+        this.expirationTime = expirationTime;
+        this.bounded = bounded;
+    }
+
+    /**
+     * Creates a deadline expiring after the time budget, counted from now.
+     * @param timeBudget The time budget.
+     * @return The deadline.
+     */
+    public static CrosswordDeadline after(@NotNull Duration timeBudget){
+        if(timeBudget.isNegative()) throw new CrosswordException("Time budget cannot be negative");
+        // budgets beyond about 146 years do not fit into nanoseconds and are as good as none
+        long nanoseconds = timeBudget.compareTo(Duration.ofNanos(Long.MAX_VALUE / 2)) > 0
+                ? Long.MAX_VALUE / 2 : timeBudget.toNanos();
+        return new CrosswordDeadline(System.nanoTime() + nanoseconds, true);
+    }
+
+    /**
+     * Creates a deadline which expires only when cancelled.
+     * @return The deadline.
+     */
+    public static CrosswordDeadline none(){
+        return new CrosswordDeadline(0, false);
+    }
+
+    /**
+     * Expires the deadline immediately. May be called from any thread.
+     */
+    public void cancel(){
+        cancelled = true;
+    }
+
+    /**
+     * Tells whether the deadline was cancelled.
+     * @return True if cancelled, false otherwise.
+     */
+    public boolean isCancelled(){
+        return cancelled;
+    }
+
+    /**
+     * Tells whether the deadline expired or was cancelled.
+     * @return True if the generation has to stop, false otherwise.
+     */
+    public boolean isExpired(){
+        return cancelled || (bounded && System.nanoTime() - expirationTime >= 0);
+    }
+
+    /**
+     * Retrieves the time left before the deadline expires.
+     * @return The time in nanoseconds, 0 if expired, {@link Long#MAX_VALUE} if the deadline has no time budget.
+     */
+    long remainingNanoseconds(){
+        if(cancelled) return 0;
+        if(!bounded) return Long.MAX_VALUE;
+        return Math.max(0, expirationTime - System.nanoTime());
+    }
+}
@@ -4,4 +4,8 @@ public class CrosswordException extends RuntimeException{
     public CrosswordException(String message){
         super(message);
     }
+
+    public CrosswordException(String message, Throwable cause){
+        super(message, cause);
+    }
 }
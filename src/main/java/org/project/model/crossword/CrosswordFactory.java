@@ -1,50 +1,149 @@
 package org.project.model.crossword;
 
 import org.jetbrains.annotations.NotNull;
-import org.project.model.crossword.structures.DynamicMatrix;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.IntStream;
 
 public class CrosswordFactory {
 
-    private CrosswordMatrixModel crosswordModel;
+    /**
+     * Default minimal number of grid cells for which candidates are evaluated in parallel.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1024;
 
-    final private Stopwatch stopwatch;
+    /**
+     * Maximal time of waiting for a word before the deadline is checked for cancellation again.
+     */
+    private static final long CANCELLATION_CHECK_INTERVAL = TimeUnit.MILLISECONDS.toNanos(10);
 
-    private static class Stopwatch{
+    private CrosswordMatrixModel crosswordModel;
 
-        private long totalTime = 0;
+    final private ForkJoinPool forkJoinPool;
 
-        private long temporalTime = 0;
+    final private int parallelThreshold;
 
-        private void start(){
-            temporalTime = System.nanoTime();
-        }
+    /**
+     * Time spent inserting words and the clue word in nanoseconds, reported as the generation time of the crossword.
+     */
+    final private AtomicLong generationTime;
 
-        private void stop(){
-            long endTime = System.nanoTime();
-            totalTime += endTime - temporalTime;
-            temporalTime = endTime;
-        }
+    private CrosswordMetricsRecorder metricsRecorder;
 
-        private double elapsedMilliseconds(){
-            return totalTime / (double) 1_000_000;
-        }
+    /**
+     * Indexes of cells holding a letter, reused by every lookup of the calling thread.
+     */
+    private int[] letterIndexes = new int[0];
 
+    public CrosswordFactory(){
+        this(null, Integer.MAX_VALUE);
     }
 
-    public CrosswordFactory(){
+    /**
+     * Creates a factory which discovers, validates and scores placement candidates on the given pool,
+     * once the grid has at least {@link #DEFAULT_PARALLEL_THRESHOLD} cells.
+     * @param forkJoinPool The pool used for candidate evaluation.
+     */
+    public CrosswordFactory(@NotNull ForkJoinPool forkJoinPool){
+        this(forkJoinPool, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Creates a factory which discovers, validates and scores placement candidates on the given pool.
+     * Smaller grids are processed on the calling thread, as splitting the work does not pay off there.
+     * Crosswords are the same as the ones built sequentially.
+     * @param forkJoinPool The pool used for candidate evaluation, null to always work sequentially.
+     * @param parallelThreshold The minimal number of grid cells for which the pool is used.
+     */
+    public CrosswordFactory(ForkJoinPool forkJoinPool, int parallelThreshold){
+        if(parallelThreshold < 0) throw new CrosswordException("Parallel threshold cannot be negative");
         crosswordModel = new CrosswordMatrixModel();
-        stopwatch = new Stopwatch();
+        generationTime = new AtomicLong();
+        metricsRecorder = CrosswordMetricsRecorder.NONE;
+        this.forkJoinPool = forkJoinPool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Creates a sequential factory which keeps inserting words into the given crossword.
+     * @param crosswordModel The crossword to work on.
+     */
+    CrosswordFactory(@NotNull CrosswordMatrixModel crosswordModel){
+        this(null, Integer.MAX_VALUE);
+        this.crosswordModel = crosswordModel;
+    }
+
+    /**
+     * Sets the recorder receiving the time of every phase of insertions and the rejected placement candidates.
+     * @param metricsRecorder The recorder, {@link CrosswordMetricsRecorder#NONE} by default.
+     */
+    public void setMetricsRecorder(@NotNull CrosswordMetricsRecorder metricsRecorder){
+        this.metricsRecorder = metricsRecorder;
     }
 
     public Crossword build(){
-        crosswordModel.setGenerationTime(stopwatch.elapsedMilliseconds());
+        crosswordModel.setGenerationTime(generationTime.get() / 1e6);
+        crosswordModel.releaseLetterIndex();
+        crosswordModel.trimToSize();
         return crosswordModel;
     }
 
+    /**
+     * Inserts words drawn from the source until the parameters are met, the attempts run out or the deadline expires,
+     * and builds the crossword reached. The deadline is checked before every word, and waiting for a word is bounded
+     * by it, so the deadline is exceeded at most by the time of a single insertion.
+     * @param wordSource The source of words.
+     * @param parameters The number of words, the clue word and the maximal number of attempts.
+     * @param deadline The time budget or cancellation of the generation.
+     * @return The crossword with the information whether it is complete.
+     */
+    public CrosswordResult generate(@NotNull WordSource wordSource, @NotNull CrosswordParameters parameters,
+                                    @NotNull CrosswordDeadline deadline){
+        int wordsCount = parameters.wordsCount();
+        int attempts = 0;
+        WordEntry entry;
+        while(wordsCount > 0 && attempts < parameters.maximumAttempts() && (entry = nextWord(wordSource, deadline)) != null){
+            attempts++;
+            if(insertWord(entry.word(), entry.meaning())){
+                wordsCount--;
+                attempts = 0;
+            }
+        }
+
+        boolean clueInserted = !parameters.withClue();
+        if(parameters.withClue()){
+            for(attempts = 0; attempts < parameters.maximumAttempts() && !clueInserted; attempts++){
+                entry = nextWord(wordSource, deadline);
+                if(entry == null) break;
+                clueInserted = tryToInsertClueWord(entry.word(), entry.meaning());
+            }
+        }
+
+        return new CrosswordResult(build(), wordsCount == 0 && clueInserted);
+    }
+
+    /**
+     * Waits for the next word while the deadline has not expired.
+     * @return The word entry, or null if the deadline expired first.
+     */
+    private WordEntry nextWord(WordSource wordSource, CrosswordDeadline deadline){
+        long start = System.nanoTime();
+        try{
+            while(!deadline.isExpired()){
+                long timeout = Math.min(deadline.remainingNanoseconds(), CANCELLATION_CHECK_INTERVAL);
+                WordEntry entry = wordSource.nextWord(timeout, TimeUnit.NANOSECONDS);
+                if(entry != null) return entry;
+            }
+            return null;
+        }finally{
+            metricsRecorder.recordPhase(CrosswordPhase.WORD_FETCH, System.nanoTime() - start);
+        }
+    }
+
     public List<Crossword> getPossibleCrosswords(String word, String meaning){
         //TODO Method will return all possible crossword.
         // Next is to rebuild insertWord, it will use getPossibleCrosswords
@@ -53,296 +152,352 @@ public class CrosswordFactory {
     
     public boolean insertWord(String word, String meaning){
 
-        stopwatch.start();
-
-        if(word == null || word.isEmpty() || meaning == null || meaning.isEmpty()) {
-            stopwatch.stop();
-            throw new CrosswordException("Provided value is null or empty");
-        }
-
-        final String wordUpperCase = word.toUpperCase();
-
-        // Default insertion. First word is always HORIZONTAL
-        if(crosswordModel.getSize() == 0){
-            CrosswordWordPlacement cWP = new CrosswordWordPlacement(0, 0,
-                    CrosswordWordPlacement.Direction.HORIZONTAL, wordUpperCase, 1);
-            cWP.placeWord(crosswordModel);
-
-        }else{
-
-            List<CrosswordWordPlacement> placements = new ArrayList<>();
+        long start = System.nanoTime();
+        try{
+            if(word == null || word.isEmpty() || meaning == null || meaning.isEmpty()) {
+                throw new CrosswordException("Provided value is null or empty");
+            }
 
-            // Main loop of the algorithm.
-            IntStream.range(0, wordUpperCase.length()).forEach(letterIndex -> {
+            final String wordUpperCase = word.toUpperCase();
 
-                AtomicInteger crosswordIndex = new AtomicInteger(0);
+            // Default insertion. First word is always HORIZONTAL
+            if(crosswordModel.getSize() == 0){
+                CrosswordWordPlacement cWP = new CrosswordWordPlacement(0, 0,
+                        CrosswordWordPlacement.Direction.HORIZONTAL, wordUpperCase, 1);
+                long placementStart = System.nanoTime();
+                cWP.placeWord(crosswordModel);
+                metricsRecorder.recordPhase(CrosswordPhase.GRID_UPDATE, System.nanoTime() - placementStart);
 
-                char currentLetter = wordUpperCase.charAt(letterIndex);
+            }else{
 
-                crosswordModel.streamLetters()
-                        .map(Optional::ofNullable)
-                        .forEachOrdered(tempLetterOptional ->{
-                            if(tempLetterOptional.isPresent()){
-                                CrosswordLetter tempLetter = tempLetterOptional.get();
-                                if((!tempLetter.isFirstLetter() || letterIndex != 0) && tempLetter.getLetter() == currentLetter){
-                                    Optional<CrosswordWordPlacement> optionalCWP = getPlacement(crosswordIndex.get(), letterIndex, wordUpperCase);
-                                    optionalCWP.ifPresent(placements::add);
-                                }
-                            }
-                            crosswordIndex.incrementAndGet();
-                        });
-            });
+                List<CrosswordWordPlacement> placements = getPlacements(wordUpperCase);
 
-            if(placements.isEmpty()){
-                stopwatch.stop();
-                return false;
-            }else{
-                setBestCrossword(placements);
+                if(placements.isEmpty()){
+                    return false;
+                }else{
+                    setBestCrossword(placements);
+                }
             }
+            crosswordModel.addWordWithMeaning(wordUpperCase, meaning);
+            return true;
+        }finally{
+            generationTime.addAndGet(System.nanoTime() - start);
         }
-        crosswordModel.addWordWithMeaning(wordUpperCase, meaning);
-        stopwatch.stop();
-        return true;
     }
 
-    public boolean tryToInsertClueWord(String word, String definition){
-        stopwatch.start();
-
-        if(word == null || word.isEmpty() || definition == null || definition.isEmpty() ){
-            stopwatch.stop();
-            throw new CrosswordException("Provided word value is null or empty");
-        }
+    List<CrosswordWordPlacement> getPlacements(String wordUpperCase){
 
-        // exclude non-matching words
-        if(word.length() > (crosswordModel.getLettersCount() - crosswordModel.getWordsCount())){
-            stopwatch.stop();
-            return false;
+        if(isParallel()){
+            return getPlacementsInParallel(wordUpperCase);
         }
 
-        final String wordUpperCase = word.toUpperCase();
-
-        // create map with each letter occurrence
-        Map<Character, Integer> clueWordLetterMap = new HashMap<>();
-        for(char letter : wordUpperCase.toCharArray()){
-            clueWordLetterMap.put(letter, clueWordLetterMap.getOrDefault(letter, 0) + 1);
-        }
+        List<CrosswordWordPlacement> placements = new ArrayList<>();
+        long scanTime = 0;
+        long validationTime = 0;
+        long time = System.nanoTime();
 
-        // I will modify CrosswordLetterModel objects, so we need to use DynamicMatrix stream method
-        ArrayList<CrosswordLetterModel> possibleClueCrosswordLetters = new ArrayList<>(
-                crosswordModel.stream()
-                        .filter(letter -> (letter != null && !letter.isFirstLetter() && wordUpperCase.indexOf(letter.getLetter()) != -1))
-                        .toList()
-        );
+        // Main loop of the algorithm. Only cells already holding the current letter are visited,
+        // in row-major order for every letter of the word.
+        for(int letterIndex = 0; letterIndex < wordUpperCase.length(); letterIndex++){
 
-        // shuffle to get random positions of clue letters
-        Collections.shuffle(possibleClueCrosswordLetters);
-
-        // list with matching objects
-        List<CrosswordLetterModel> matchingClueCrosswordLetters = new ArrayList<>() ;
-
-        // count letters occurrence and fill list of matching CrosswordLetters
-        possibleClueCrosswordLetters.forEach(crosswordLetterModel ->
-                clueWordLetterMap.compute(crosswordLetterModel.getLetter(), (_, currentCount) -> {
-                    if(currentCount == null || currentCount <= 0){
-                        return 0;
-                    }else{
-                        matchingClueCrosswordLetters.add(crosswordLetterModel);
-                        return currentCount - 1;
-                    }
-                })
-        );
+            char currentLetter = wordUpperCase.charAt(letterIndex);
 
-        // check if is possible to insert clue word
-        if(matchingClueCrosswordLetters.size() == wordUpperCase.length()){
+            int crosswordIndexesCount = loadLetterIndexes(currentLetter);
+            long scanned = System.nanoTime();
+            scanTime += scanned - time;
 
-            // erase previous clue number letters
-            if(crosswordModel.getCrosswordClueWord().isPresent()){
-                possibleClueCrosswordLetters.stream()
-                        .filter(CrosswordLetterModel::isClueLetter)
-                        .forEach(CrosswordLetterModel::clearFirstOrClueLetterSetting);
+            for(int i = 0; i < crosswordIndexesCount; i++){
+                int crosswordIndex = letterIndexes[i];
+                if(!crosswordModel.isFirstLetter(crosswordIndex) || letterIndex != 0){
+                    CrosswordWordPlacement placement = getPlacement(crosswordIndex, letterIndex, wordUpperCase);
+                    if(placement != null) placements.add(placement);
+                }
             }
-
-            // set letters as clue letters with number of
-            matchingClueCrosswordLetters.forEach(crosswordLetterModel -> {
-                char letter = crosswordLetterModel.getLetter();
-                crosswordLetterModel.setClueLetter(wordUpperCase.indexOf(letter) + 1);
-            });
-
-            crosswordModel.setCrosswordClueWord(word);
-            crosswordModel.setCrosswordClueDefinition(definition);
-            stopwatch.stop();
-            return true;
-        }else{
-            stopwatch.stop();
-            return false;
+            time = System.nanoTime();
+            validationTime += time - scanned;
         }
+        metricsRecorder.recordPhase(CrosswordPhase.CANDIDATE_SCAN, scanTime);
+        metricsRecorder.recordPhase(CrosswordPhase.PLACEMENT_VALIDATION, validationTime);
+        return placements;
     }
 
-    private Optional<CrosswordWordPlacement> getPlacement(int crosswordIndex, int letterIndex, String word){
-        CrosswordMatrixModel crosswordData = crosswordModel;
-        int rowIndex = crosswordData.calculateRowIndex(crosswordIndex);
-        int columnsIndex = crosswordData.calculateColumnIndex(crosswordIndex);
-        Optional<CrosswordWordPlacement> optionalCWP = getVerticalPlacement(crosswordData, rowIndex, columnsIndex, letterIndex, word);
-        if(optionalCWP.isEmpty()){
-            optionalCWP = getHorizontalPlacement(crosswordData, rowIndex, columnsIndex, letterIndex, word);
+    private List<CrosswordWordPlacement> getPlacementsInParallel(String wordUpperCase){
+
+        long start = System.nanoTime();
+        // collect crossing cells in the same order as the sequential loop, index lookups are not thread safe
+        int count = 0;
+        for(int letterIndex = 0; letterIndex < wordUpperCase.length(); letterIndex++){
+            count += crosswordModel.getLetterCount(wordUpperCase.charAt(letterIndex));
+        }
+        final int[] letterIndexOfCell = new int[count];
+        final int[] crosswordIndexOfCell = new int[count];
+        int cell = 0;
+        for(int letterIndex = 0; letterIndex < wordUpperCase.length(); letterIndex++){
+            int written = crosswordModel.getLetterIndexes(wordUpperCase.charAt(letterIndex), crosswordIndexOfCell, cell);
+            Arrays.fill(letterIndexOfCell, cell, cell + written, letterIndex);
+            cell += written;
         }
-        return optionalCWP;
-    }
 
-    private Optional<CrosswordWordPlacement> getVerticalPlacement(@NotNull DynamicMatrix<CrosswordLetterModel> crosswordData, int rowIndex, int columnIndex, int letterIndex, String word){
-        final int numberOfRows = crosswordData.getNumberOfRows();
-        final int numberOfColumns = crosswordData.getNumberOfColumns();
+        long scanned = System.nanoTime();
+        metricsRecorder.recordPhase(CrosswordPhase.CANDIDATE_SCAN, scanned - start);
+
+        // ordered stream keeps encounter order, so the list is equal to the sequential one
+        List<CrosswordWordPlacement> placements = forkJoinPool.submit(() -> IntStream.range(0, letterIndexOfCell.length)
+                .parallel()
+                .filter(i -> !crosswordModel.isFirstLetter(crosswordIndexOfCell[i]) || letterIndexOfCell[i] != 0)
+                .mapToObj(i -> getPlacement(crosswordIndexOfCell[i], letterIndexOfCell[i], wordUpperCase))
+                .filter(Objects::nonNull)
+                .toList()
+        ).join();
+        metricsRecorder.recordPhase(CrosswordPhase.PLACEMENT_VALIDATION, System.nanoTime() - scanned);
+        return placements;
+    }
 
-        int startRowIndex = rowIndex - letterIndex;
+    /**
+     * Writes indexes of cells holding the letter, in row-major order, into the reused array, growing it if needed.
+     * @return The number of indexes.
+     */
+    private int loadLetterIndexes(char letter){
+        int count = crosswordModel.getLetterCount(letter);
+        if(letterIndexes.length < count) letterIndexes = new int[Math.max(count, letterIndexes.length * 2)];
+        return crosswordModel.getLetterIndexes(letter, letterIndexes, 0);
+    }
 
-        Optional<CrosswordWordPlacement> optionalCWP = Optional.of( new CrosswordWordPlacement(
-                startRowIndex,
-                columnIndex,
-                CrosswordWordPlacement.Direction.VERTICAL,
-                word,
-                crosswordModel.getWordsCount() + 1
-        ));
+    private boolean isParallel(){
+        return forkJoinPool != null && crosswordModel.getSize() >= parallelThreshold;
+    }
 
-        if(startRowIndex < 0){
-            letterIndex = Math.abs(startRowIndex);
-            startRowIndex = 0;
-        }else{
-            letterIndex = 0;
+    public boolean tryToInsertClueWord(String word, String definition){
+        long start = System.nanoTime();
+        try{
+            return insertClueWord(word, definition);
+        }finally{
+            long time = System.nanoTime() - start;
+            generationTime.addAndGet(time);
+            metricsRecorder.recordPhase(CrosswordPhase.CLUE_INSERTION, time);
         }
+    }
 
-        // check one behind
-        if(startRowIndex - 1 > 0 && crosswordModel.getCrosswordLetter(startRowIndex - 1, columnIndex).isPresent()){
-            return Optional.empty();
+    private boolean insertClueWord(String word, String definition){
+        if(word == null || word.isEmpty() || definition == null || definition.isEmpty() ){
+            throw new CrosswordException("Provided word value is null or empty");
         }
 
-        // check top, bottom, letter
-        for(; letterIndex < word.length(); letterIndex++){
+        final String wordUpperCase = word.toUpperCase();
 
-            Optional<CrosswordLetter> optionalLetter = crosswordModel.getCrosswordLetter(startRowIndex, columnIndex);
+        // exclude words needing more of a letter than there are cells to mark, first letters of words cannot be marked
+        if(!crosswordModel.canMarkClueWord(wordUpperCase)){
+            return false;
+        }
 
-            if(optionalLetter.isEmpty()){
-                if((columnIndex > 0 && crosswordModel.getCrosswordLetter(startRowIndex, columnIndex - 1).isPresent())
-                        || (columnIndex < numberOfColumns - 1 && crosswordModel.getCrosswordLetter(startRowIndex, columnIndex + 1).isPresent())){
-                    return Optional.empty();
+        // erase previous clue letters
+        crosswordModel.getCrosswordClueWord().ifPresent(clueWord -> {
+            String clueWordUpperCase = clueWord.toUpperCase();
+            for(int i = 0; i < clueWordUpperCase.length(); i++){
+                char letter = clueWordUpperCase.charAt(i);
+                if(clueWordUpperCase.indexOf(letter) != i) continue;
+                int indexesCount = loadLetterIndexes(letter);
+                for(int j = 0; j < indexesCount; j++){
+                    if(crosswordModel.isClueLetter(letterIndexes[j])) crosswordModel.clearFirstOrClueLetterSetting(letterIndexes[j]);
                 }
-                if((columnIndex == 0 && crosswordModel.getCrosswordLetter(startRowIndex, columnIndex + 1).isPresent())
-                        || (columnIndex == numberOfColumns - 1 && crosswordModel.getCrosswordLetter(startRowIndex, columnIndex - 1).isPresent())){
-                    return Optional.empty();
-                }
-            }else if((optionalLetter.get().getLetter() != word.charAt(letterIndex) || (optionalLetter.get().isFirstLetter() && letterIndex == 0))){
-                return Optional.empty();
             }
-
-            if(startRowIndex >= numberOfRows){
-                return optionalCWP;
+        });
+
+        // mark random cells of every letter, numbered with the first position of the letter in the clue word
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for(int i = 0; i < wordUpperCase.length(); i++){
+            char letter = wordUpperCase.charAt(i);
+            if(wordUpperCase.indexOf(letter) != i) continue;
+            int needed = 0;
+            for(int j = i; j < wordUpperCase.length(); j++){
+                if(wordUpperCase.charAt(j) == letter) needed++;
+            }
+            int indexesCount = loadLetterIndexes(letter);
+            int[] indexes = letterIndexes;
+            int available = 0;
+            for(int j = 0; j < indexesCount; j++){
+                if(!crosswordModel.isFirstLetter(indexes[j])) indexes[available++] = indexes[j];
+            }
+            for(int marked = 0; marked < needed; marked++){
+                int drawn = marked + random.nextInt(available - marked);
+                int index = indexes[drawn];
+                indexes[drawn] = indexes[marked];
+                crosswordModel.setClueLetter(index, i + 1);
             }
-            startRowIndex++;
-
         }
-        // check one forward
-        if(startRowIndex >= numberOfRows || crosswordModel.getCrosswordLetter(startRowIndex, columnIndex).isEmpty()){
-            return optionalCWP;
-        }else{
+
+        crosswordModel.setCrosswordClueWord(word);
+        crosswordModel.setCrosswordClueDefinition(definition);
+        return true;
+    }
+
+    /**
+     * Inserts the first of the candidate clue words which fits, candidates without enough cells to mark are skipped
+     * without touching the grid.
+     * @param candidates The candidate clue words with their definitions, in order of preference.
+     * @return The inserted clue word, empty if none of the candidates fits.
+     */
+    public Optional<WordEntry> tryToInsertClueWord(@NotNull List<WordEntry> candidates){
+        long start = System.nanoTime();
+        try{
+            for(WordEntry entry : candidates){
+                if(insertClueWord(entry.word(), entry.meaning())) return Optional.of(entry);
+            }
             return Optional.empty();
+        }finally{
+            long time = System.nanoTime() - start;
+            generationTime.addAndGet(time);
+            metricsRecorder.recordPhase(CrosswordPhase.CLUE_INSERTION, time);
         }
     }
 
-    private Optional<CrosswordWordPlacement> getHorizontalPlacement(@NotNull DynamicMatrix<CrosswordLetterModel> crosswordData, int rowIndex, int columnIndex, int letterIndex, String word){
-        final int numberOfRows = crosswordData.getNumberOfRows();
-        final int numberOfColumns = crosswordData.getNumberOfColumns();
-
-        int startColumnIndex = columnIndex - letterIndex;
-
-        Optional<CrosswordWordPlacement> optionalCWP = Optional.of( new CrosswordWordPlacement(
-                rowIndex,
-                startColumnIndex,
-                CrosswordWordPlacement.Direction.HORIZONTAL,
-                word,
-                crosswordModel.getWordsCount() + 1
-        ));
-
-        if(startColumnIndex < 0){
-            letterIndex = Math.abs(startColumnIndex);
-            startColumnIndex = 0;
+    /**
+     * Draws words crossing a letter already in the grid from the index and inserts the first one which fits.
+     * Words without any letter of the grid are never drawn. Any word may start an empty grid.
+     * @param wordIndex The index to draw words from.
+     * @param random The source of randomness.
+     * @param maximumAttempts The maximal number of words tried.
+     * @return The inserted word, empty if none of the tried words fits.
+     */
+    public Optional<WordEntry> insertWordFrom(@NotNull WordIndex wordIndex, @NotNull Random random, int maximumAttempts){
+        BitSet candidates;
+        if(crosswordModel.getSize() == 0){
+            candidates = wordIndex.withLength(1, Integer.MAX_VALUE);
         }else{
-            letterIndex = 0;
-        }
-        // check one behind
-        if(startColumnIndex - 1 > 0 && crosswordModel.getCrosswordLetter(rowIndex, startColumnIndex - 1).isPresent()){
-            return Optional.empty();
+            candidates = new BitSet();
+            for(char letter : wordIndex.getLetters()){
+                if(crosswordModel.getLetterCount(letter) > 0) candidates.or(wordIndex.containing(letter));
+            }
         }
 
-        // check top, bottom, letter
+        int attempts = 0;
+        while(attempts < maximumAttempts){
+            int number = WordIndex.pick(candidates, random);
+            if(number < 0) break;
+            candidates.clear(number);
+            WordEntry entry = wordIndex.get(number);
+            if(crosswordModel.containsWord(entry.word().toUpperCase())) continue;
+            attempts++;
+            if(insertWord(entry.word(), entry.meaning())) return Optional.of(entry);
+        }
+        return Optional.empty();
+    }
 
-        for(; letterIndex < word.length(); letterIndex++){
+    /**
+     * Draws words made only of letters available for the clue from the index and inserts the first one which fits.
+     * Words needing more of a letter than there are cells to mark are never tried.
+     * @param wordIndex The index to draw words from.
+     * @param random The source of randomness.
+     * @param maximumAttempts The maximal number of words tried.
+     * @return The inserted clue word, empty if none of the tried words fits.
+     */
+    public Optional<WordEntry> tryToInsertClueWordFrom(@NotNull WordIndex wordIndex, @NotNull Random random, int maximumAttempts){
+        // letters which may be marked, first letters of words cannot
+        BitSet candidates = wordIndex.withLength(1, crosswordModel.getClueLettersCount());
+        for(char letter : wordIndex.getLetters()){
+            if(crosswordModel.getClueLetterCount(letter) == 0) candidates.andNot(wordIndex.containing(letter));
+        }
 
-            Optional<CrosswordLetter> optionalLetter = crosswordModel.getCrosswordLetter(rowIndex, startColumnIndex);
+        int attempts = 0;
+        while(attempts < maximumAttempts){
+            int number = WordIndex.pick(candidates, random);
+            if(number < 0) break;
+            candidates.clear(number);
+            WordEntry entry = wordIndex.get(number);
+            if(!crosswordModel.canMarkClueWord(entry.word().toUpperCase())) continue;
+            attempts++;
+            if(tryToInsertClueWord(entry.word(), entry.meaning())) return Optional.of(entry);
+        }
+        return Optional.empty();
+    }
 
-            if(optionalLetter.isEmpty()){
-                if((rowIndex > 0 && crosswordModel.getCrosswordLetter(rowIndex - 1, startColumnIndex).isPresent())
-                        || (rowIndex < numberOfRows - 1 && crosswordModel.getCrosswordLetter(rowIndex + 1, startColumnIndex).isPresent())){
-                    return Optional.empty();
-                }
-                if((rowIndex == 0 && crosswordModel.getCrosswordLetter(rowIndex + 1, startColumnIndex).isPresent())
-                        || (rowIndex == numberOfRows - 1 && crosswordModel.getCrosswordLetter(rowIndex - 1, startColumnIndex).isPresent())){
-                    return Optional.empty();
-                }
-            }else if((optionalLetter.get().getLetter() != word.charAt(letterIndex) || (optionalLetter.get().isFirstLetter() && letterIndex == 0))){
-                return Optional.empty();
-            }
+    /**
+     * Finds a placement of the word across the cell, vertical first.
+     * Nothing is allocated for rejected candidates, only an accepted placement is created.
+     * @return The placement, null if the word fits neither way.
+     */
+    private CrosswordWordPlacement getPlacement(int crosswordIndex, int letterIndex, String word){
+        CrosswordMatrixModel crosswordData = crosswordModel;
+        int rowIndex = crosswordData.calculateRowIndex(crosswordIndex);
+        int columnIndex = crosswordData.calculateColumnIndex(crosswordIndex);
 
-            if(startColumnIndex >= numberOfColumns){
-                return optionalCWP;
-            }
-            startColumnIndex++;
+        CrosswordRejection rejection = CrosswordPlacementValidator.validateVertical(
+                crosswordData, rowIndex, columnIndex, letterIndex, word);
+        if(rejection == null){
+            return new CrosswordWordPlacement(rowIndex - letterIndex, columnIndex,
+                    CrosswordWordPlacement.Direction.VERTICAL, word, crosswordData.getNextWordNumber());
         }
-        // check one forward
-        if(startColumnIndex >= numberOfColumns || crosswordModel.getCrosswordLetter(rowIndex, startColumnIndex).isEmpty()){
-            return optionalCWP;
-        }else{
-            return Optional.empty();
+        metricsRecorder.recordRejection(rejection);
+
+        rejection = CrosswordPlacementValidator.validateHorizontal(crosswordData, rowIndex, columnIndex, letterIndex, word);
+        if(rejection == null){
+            return new CrosswordWordPlacement(rowIndex, columnIndex - letterIndex,
+                    CrosswordWordPlacement.Direction.HORIZONTAL, word, crosswordData.getNextWordNumber());
         }
+        metricsRecorder.recordRejection(rejection);
+        return null;
     }
 
     private void setBestCrossword(@NotNull List<CrosswordWordPlacement> placements){
 
-        float bestScore = 0;
-
-        CrosswordMatrixModel bestCrossword = new CrosswordMatrixModel(crosswordModel);
+        // every candidate is scored against the current grid, only the best one is placed
+        long start = System.nanoTime();
+        final int filled = crosswordModel.getLettersCount();
 
-        for(CrosswordWordPlacement placement : placements){
-
-            CrosswordMatrixModel newCrossword = new CrosswordMatrixModel(crosswordModel);
-            placement.placeWord(newCrossword);
-            float newScore = getCrosswordScore(newCrossword);
+        final float[] scores = new float[placements.size()];
+        if(isParallel()){
+            forkJoinPool.submit(() -> IntStream.range(0, scores.length)
+                    .parallel()
+                    .forEach(i -> scores[i] = getPlacementScore(placements.get(i), filled))
+            ).join();
+        }else{
+            for(int i = 0; i < scores.length; i++){
+                scores[i] = getPlacementScore(placements.get(i), filled);
+            }
+        }
 
-            if(newScore > bestScore){
-                bestScore = newScore;
-                bestCrossword = newCrossword;
+        // the first of equally scored placements wins, whichever way the scores were computed
+        float bestScore = 0;
+        CrosswordWordPlacement bestPlacement = null;
+        for(int i = 0; i < scores.length; i++){
+            if(scores[i] > bestScore){
+                bestScore = scores[i];
+                bestPlacement = placements.get(i);
             }
         }
+        long scored = System.nanoTime();
+        metricsRecorder.recordPhase(CrosswordPhase.SCORING, scored - start);
         if(bestScore > 0){
-            crosswordModel = bestCrossword;
+            bestPlacement.placeWord(crosswordModel);
+            metricsRecorder.recordPhase(CrosswordPhase.GRID_UPDATE, System.nanoTime() - scored);
         }
     }
 
-    private float getCrosswordScore(@NotNull DynamicMatrix<CrosswordLetterModel> crossword){
-        final int crosswordRows = crossword.getNumberOfRows();
-        final int crosswordColumns = crossword.getNumberOfColumns();
-        if(crosswordRows == 0 || crosswordColumns == 0) return 0;
+    float getPlacementScore(@NotNull CrosswordWordPlacement placement, int filled){
+        return getCrosswordScore(
+                placement.getNumberOfRowsAfterPlacement(crosswordModel),
+                placement.getNumberOfColumnsAfterPlacement(crosswordModel),
+                filled + placement.countNewLetters(crosswordModel)
+        );
+    }
+
+    float getCrosswordScore(@NotNull CrosswordMatrixModel crossword){
         int filled = 0;
-        int empty = 0;
+        for(int index = 0; index < crossword.getSize(); index++){
+            if(!crossword.isEmpty(index)){
+                filled++;
+            }
+        }
+        return getCrosswordScore(crossword.getNumberOfRows(), crossword.getNumberOfColumns(), filled);
+    }
+
+    static float getCrosswordScore(int crosswordRows, int crosswordColumns, int filled){
+        if(crosswordRows == 0 || crosswordColumns == 0) return 0;
+        int empty = crosswordRows * crosswordColumns - filled;
         float sizeRatio = crosswordColumns / (float) crosswordRows;
         if(sizeRatio > 1){
             sizeRatio = crosswordRows / (float) crosswordColumns;
         }
-        for(CrosswordLetterModel letter : crossword){
-            if(letter == null){
-                empty++;
-            }else{
-                filled++;
-            }
-        }
         float filledRatio = filled / (float) empty;
         return (sizeRatio * 10) + (filledRatio * 20);
     }
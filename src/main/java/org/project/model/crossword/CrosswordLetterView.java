@@ -0,0 +1,51 @@
+package org.project.model.crossword;
+
+import java.util.Optional;
+
+/**
+ * Lightweight view of a single cell of {@link CrosswordMatrixModel}.
+ * It does not hold any letter data on its own, every call reads or writes the primitive arrays of the model.
+ * The view points to a linear index, so it should not be kept after the crossword grid was resized.
+ */
+final class CrosswordLetterView implements CrosswordLetter {
+
+    final private CrosswordMatrixModel crossword;
+
+    final private int index;
+
+    CrosswordLetterView(CrosswordMatrixModel crossword, int index){
+        this.crossword = crossword;
+        this.index = index;
+    }
+
+    @Override
+    public char getLetter(){
+        return crossword.getLetter(index);
+    }
+
+    @Override
+    public Optional<Integer> getWordNumber(){
+        short wordNumber = crossword.getNumber(index);
+        return wordNumber == 0 ? Optional.empty() : Optional.of((int) wordNumber);
+    }
+
+    @Override
+    public boolean isGuessed(){
+        return crossword.isGuessed(index);
+    }
+
+    @Override
+    public boolean guessLetter(char letter){
+        return crossword.guessLetter(index, letter);
+    }
+
+    @Override
+    public boolean isFirstLetter(){
+        return crossword.isFirstLetter(index);
+    }
+
+    @Override
+    public boolean isClueLetter(){
+        return crossword.isClueLetter(index);
+    }
+}
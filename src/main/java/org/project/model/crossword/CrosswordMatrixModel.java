@@ -2,16 +2,52 @@ package org.project.model.crossword;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
-import org.project.model.crossword.structures.DynamicMatrix;
+import org.project.model.crossword.structures.DynamicLetterMatrix;
+import org.project.model.crossword.structures.LetterHistogram;
 
-final class CrosswordMatrixModel extends DynamicMatrix<CrosswordLetterModel> implements Crossword {
+final class CrosswordMatrixModel extends DynamicLetterMatrix implements Crossword {
 
-    final private HashMap<String, String> wordsWithMeanings;
+    static final byte FIRST_LETTER_FLAG = 1;
+
+    static final byte CLUE_LETTER_FLAG = 1 << 1;
+
+    static final byte GUESSED_FLAG = 1 << 2;
+
+    /**
+     * When set by the {@code org.project.crossword.checkConsistency} system property,
+     * every change of the grid compares the kept counts against a full scan of the cells.
+     */
+    static final boolean CHECK_CONSISTENCY = Boolean.getBoolean("org.project.crossword.checkConsistency");
+
+    /**
+     * Ints kept for every word number: number of letters and number of guessed letters of its words.
+     */
+    private static final int NUMBER_SIZE = 2;
+
+    private static final int NUMBER_LETTERS = 0;
+
+    private static final int NUMBER_GUESSED = 1;
+
+    /**
+     * Meaning of a word and the number of its placements, so a removed word keeps its meaning
+     * while it is placed elsewhere.
+     */
+    private record PlacedWord(String meaning, int placementsCount) {
+    }
+
+    private HashMap<String, PlacedWord> wordsWithMeanings;
+
+    /**
+     * True while the words are shared with a copy, so they have to be copied before a change.
+     */
+    private boolean wordsShared;
 
     private double generationTime;
 
@@ -19,62 +55,138 @@ final class CrosswordMatrixModel extends DynamicMatrix<CrosswordLetterModel> imp
 
     private String wordClueDefinition;
 
+    private int lettersCount;
+
+    private int guessedLettersCount;
+
+    private int guessedWordsCount;
+
+    /**
+     * Number of rows and columns added before the first ones since the grid was created, so positions of words
+     * are kept apart from the growth of the grid.
+     */
+    private int rowShift;
+
+    private int columnShift;
+
+    /**
+     * Placed words and their crossings. Positions are relative to the first cell of the grid before it grew.
+     */
+    private CrosswordWordGraph wordGraph;
+
+    /**
+     * True while the word graph is shared with a copy, so it has to be copied before a change.
+     */
+    private boolean wordGraphShared;
+
+    /**
+     * Number of word numbers left unused by removed words, so numbers of new words do not repeat them.
+     */
+    private int removedNumbersCount;
+
+    /**
+     * Completion of every word number, {@link #NUMBER_SIZE} ints at {@code (wordNumber - 1) * NUMBER_SIZE}.
+     * Every placement has its own number, so each placement of a word placed twice is guessed on its own.
+     */
+    private int[] wordNumbers;
+
+    /**
+     * Letters of the cells which may become clue letters, every letter but the first letters of words.
+     */
+    private LetterHistogram clueLetters;
+
+    /**
+     * True while the clue letters are shared with a copy, so they have to be copied before a change.
+     */
+    private boolean clueLettersShared;
+
+    /**
+     * True while the word numbers are shared with a copy, so they have to be copied before a change.
+     */
+    private boolean wordStatesShared;
+
     CrosswordMatrixModel(){
         super();
         generationTime = 0;
         wordsWithMeanings = new HashMap<>();
+        wordGraph = new CrosswordWordGraph();
+        wordNumbers = new int[0];
+        clueLetters = new LetterHistogram();
+    }
+
+    CrosswordMatrixModel(int rows, int columns){
+        super(rows, columns);
+        generationTime = 0;
+        wordsWithMeanings = new HashMap<>();
+        wordGraph = new CrosswordWordGraph();
+        wordNumbers = new int[0];
+        clueLetters = new LetterHistogram();
     }
 
     CrosswordMatrixModel(CrosswordMatrixModel crosswordMatrixModel){
         super(crosswordMatrixModel);
         this.generationTime = crosswordMatrixModel.generationTime;
         this.wordsWithMeanings = crosswordMatrixModel.wordsWithMeanings;
+        this.wordsShared = true;
+        crosswordMatrixModel.wordsShared = true;
         this.wordClue = crosswordMatrixModel.wordClue;
         this.wordClueDefinition = crosswordMatrixModel.wordClueDefinition;
+        this.lettersCount = crosswordMatrixModel.lettersCount;
+        this.guessedLettersCount = crosswordMatrixModel.guessedLettersCount;
+        this.guessedWordsCount = crosswordMatrixModel.guessedWordsCount;
+        this.rowShift = crosswordMatrixModel.rowShift;
+        this.columnShift = crosswordMatrixModel.columnShift;
+        this.wordGraph = crosswordMatrixModel.wordGraph;
+        this.wordGraphShared = true;
+        crosswordMatrixModel.wordGraphShared = true;
+        this.removedNumbersCount = crosswordMatrixModel.removedNumbersCount;
+        this.wordNumbers = crosswordMatrixModel.wordNumbers;
+        this.wordStatesShared = true;
+        crosswordMatrixModel.wordStatesShared = true;
+        this.clueLetters = crosswordMatrixModel.clueLetters;
+        this.clueLettersShared = true;
+        crosswordMatrixModel.clueLettersShared = true;
     }
 
     @Override
     public List<String> getDescriptions(){
         return wordsWithMeanings.values()
                 .stream()
+                .map(PlacedWord::meaning)
                 .toList();
     }
 
     @Override
     public @NotNull Stream<CrosswordLetter> streamLetters(){
-        return stream().map(letter -> letter);
+        return IntStream.range(0, getSize())
+                .mapToObj(index -> isEmpty(index) ? null : new CrosswordLetterView(this, index));
     }
 
     @Override
     public Optional<CrosswordLetter> getCrosswordLetter(int index){
-        Optional<CrosswordLetterModel> optionalCrosswordLetterModel = getValue(index);
-        return optionalCrosswordLetterModel.map(letter -> letter);
+        if(isEmpty(index)) return Optional.empty();
+        return Optional.of(new CrosswordLetterView(this, index));
     }
 
     @Override
     public Optional<CrosswordLetter> getCrosswordLetter(int rowIndex, int columnIndex){
-        Optional<CrosswordLetterModel> optionalCrosswordLetterModel = getValueIfInBounds(rowIndex, columnIndex);
-        return optionalCrosswordLetterModel.map(letter -> letter);
+        if(getLetterIfInBounds(rowIndex, columnIndex) == EMPTY) return Optional.empty();
+        return Optional.of(new CrosswordLetterView(this, calculateIndex(rowIndex, columnIndex)));
     }
 
     @Override
     public int getGuessedLettersCount(){
-        return (int)this.streamLetters()
-                .filter(Objects::nonNull)
-                .filter(CrosswordLetter::isGuessed)
-                .count();
+        return guessedLettersCount;
     }
 
     @Override
     public int getLettersCount(){
-        return (int)this.streamLetters()
-                .filter(Objects::nonNull)
-                .count();
+        return lettersCount;
     }
 
     @Override
     public int getRemainingLettersCount(){
-        return getLettersCount() - getGuessedLettersCount();
+        return lettersCount - guessedLettersCount;
     }
 
     @Override
@@ -118,8 +230,352 @@ final class CrosswordMatrixModel extends DynamicMatrix<CrosswordLetterModel> imp
         }
     }
 
+    boolean isFirstLetter(int index){
+        return (getFlags(index) & FIRST_LETTER_FLAG) != 0;
+    }
+
+    boolean isFirstLetter(int rowIndex, int columnIndex){
+        return isInBounds(rowIndex, columnIndex) && isFirstLetter(calculateIndex(rowIndex, columnIndex));
+    }
+
+    boolean isClueLetter(int index){
+        return (getFlags(index) & CLUE_LETTER_FLAG) != 0;
+    }
+
+    boolean isGuessed(int index){
+        return (getFlags(index) & GUESSED_FLAG) != 0;
+    }
+
+    boolean guessLetter(int index, char letter){
+        if(!isGuessed(index) && getLetter(index) == Character.toUpperCase(letter)){
+            setFlags(index, (byte) (getFlags(index) | GUESSED_FLAG));
+            countGuess(calculateRowIndex(index), calculateColumnIndex(index), 1);
+            if(CHECK_CONSISTENCY) checkConsistency();
+        }
+        return isGuessed(index);
+    }
+
+    void placeLetter(int rowIndex, int columnIndex, char letter){
+        place(rowIndex, columnIndex, Character.toUpperCase(letter), (byte) 0, (short) 0);
+    }
+
+    void placeFirstLetter(int rowIndex, int columnIndex, char letter, int wordNumber){
+        place(rowIndex, columnIndex, Character.toUpperCase(letter), FIRST_LETTER_FLAG, toCellNumber(wordNumber));
+    }
+
+    /**
+     * Records a word whose letters are already placed, so its completion is followed as letters are guessed
+     * and its crossings are known.
+     * @param word The word in upper case.
+     * @param wordNumber The number of the word.
+     * @param rowIndex The row of the first letter.
+     * @param columnIndex The column of the first letter.
+     * @param vertical True if the word goes down, false if it goes right.
+     * @param length The number of letters of the word.
+     * @return The id of the word in the word graph.
+     */
+    int addWord(String word, int wordNumber, int rowIndex, int columnIndex, boolean vertical, int length){
+        toCellNumber(wordNumber);
+        int numberOffset = (wordNumber - 1) * NUMBER_SIZE;
+        if(wordStatesShared || numberOffset >= wordNumbers.length){
+            wordNumbers = Arrays.copyOf(wordNumbers, Math.max(numberOffset + NUMBER_SIZE, wordNumbers.length));
+            wordStatesShared = false;
+        }
+        int guessed = 0;
+        for(int i = 0; i < length; i++){
+            int index = vertical ? calculateIndex(rowIndex + i, columnIndex) : calculateIndex(rowIndex, columnIndex + i);
+            if(isGuessed(index)) guessed++;
+        }
+        int id = writableWordGraph().addWord(wordNumber, rowIndex - rowShift, columnIndex - columnShift, vertical, length);
+        if(isWordGuessed(wordNumber)) guessedWordsCount--;
+        wordNumbers[numberOffset + NUMBER_LETTERS] += length;
+        wordNumbers[numberOffset + NUMBER_GUESSED] += guessed;
+        if(isWordGuessed(wordNumber)) guessedWordsCount++;
+        PlacedWord placedWord = writableWords().get(word);
+        wordsWithMeanings.put(word, placedWord == null ? new PlacedWord(null, 1)
+                : new PlacedWord(placedWord.meaning(), placedWord.placementsCount() + 1));
+        if(CHECK_CONSISTENCY) checkConsistency();
+        return id;
+    }
+
+    /**
+     * Takes the word out of the crossword. Letters shared with other words are kept, the first letter of the word
+     * stays a first letter only if another word starts there too. The meaning goes with the last placement
+     * of the word, followed by its placements count. The grid does not shrink.
+     * The number of a removed word is not given to later words.
+     * @param id The id of the word in the word graph.
+     * @return The removed word.
+     * @throws CrosswordException If there is no such word or the clue word is already marked.
+     */
+    String removeWord(int id){
+        if(wordClue != null) throw new CrosswordException("Cannot remove a word after the clue word is marked");
+        CrosswordWordGraph graph = writableWordGraph();
+        int length = graph.getLength(id);
+        int wordNumber = graph.getNumber(id);
+        if(wordStatesShared){
+            wordNumbers = wordNumbers.clone();
+            wordStatesShared = false;
+        }
+        int numberOffset = (wordNumber - 1) * NUMBER_SIZE;
+        if(isWordGuessed(wordNumber)) guessedWordsCount--;
+        char[] letters = new char[length];
+        for(int i = 0; i < length; i++){
+            int index = calculateIndex(graph.getCellRow(id, i) + rowShift, graph.getCellColumn(id, i) + columnShift);
+            letters[i] = getLetter(index);
+            boolean guessed = isGuessed(index);
+            if(guessed) wordNumbers[numberOffset + NUMBER_GUESSED]--;
+            if(graph.getNextWordOnCell(id, i) == CrosswordWordGraph.NONE){
+                if(guessed) guessedLettersCount--;
+                if(!isFirstLetter(index)) writableClueLetters().remove(letters[i]);
+                setValue(index, EMPTY, (byte) 0, (short) 0);
+                lettersCount--;
+            }else if(i == 0 && isFirstLetter(index)){
+                int starting = CrosswordWordGraph.NONE;
+                for(int other = graph.getNextWordOnCell(id, 0); other != id; other = graph.getNextWordOnCell(other,
+                        letterIndexOf(graph, other, graph.getRow(id), graph.getColumn(id)))){
+                    if(graph.getRow(other) == graph.getRow(id) && graph.getColumn(other) == graph.getColumn(id)) starting = other;
+                }
+                if(starting != CrosswordWordGraph.NONE){
+                    setNumber(index, toCellNumber(graph.getNumber(starting)));
+                }else{
+                    clearFirstOrClueLetterSetting(index);
+                }
+            }
+        }
+        wordNumbers[numberOffset + NUMBER_LETTERS] -= length;
+        if(isWordGuessed(wordNumber)) guessedWordsCount++;
+        graph.removeWord(id);
+        removedNumbersCount++;
+        String word = new String(letters);
+        // a word placed twice keeps its meaning until both placements are removed
+        PlacedWord placedWord = writableWords().get(word);
+        if(placedWord.placementsCount() > 1){
+            wordsWithMeanings.put(word, new PlacedWord(placedWord.meaning(), placedWord.placementsCount() - 1));
+        }else{
+            wordsWithMeanings.remove(word);
+        }
+        if(CHECK_CONSISTENCY) checkConsistency();
+        return word;
+    }
+
+    /**
+     * Reads the letters of a placed word from the grid.
+     * @param id The id of the word in the word graph.
+     * @return The word in upper case.
+     */
+    String getWord(int id){
+        char[] letters = new char[wordGraph.getLength(id)];
+        for(int i = 0; i < letters.length; i++){
+            letters[i] = getLetter(wordGraph.getCellRow(id, i) + rowShift, wordGraph.getCellColumn(id, i) + columnShift);
+        }
+        return new String(letters);
+    }
+
+    /**
+     * Retrieves the meaning given with the word.
+     * @param word The word in upper case.
+     * @return The meaning, null if the crossword has no such word.
+     */
+    String getMeaning(String word){
+        PlacedWord placedWord = wordsWithMeanings.get(word);
+        return placedWord == null ? null : placedWord.meaning();
+    }
+
+    /**
+     * Retrieves the number for the next word placed, numbers of removed words are skipped.
+     * Every placement gets its own number, a word placed twice too.
+     * @return The word number.
+     */
+    int getNextWordNumber(){
+        return wordGraph.getWordsCount() + removedNumbersCount + 1;
+    }
+
+    /**
+     * Gives the number of a removed word back, before a word is placed again under it,
+     * so the next word number stays right after the numbers in use.
+     * @param wordNumber The number of a removed word.
+     * @throws CrosswordException If no number was removed or the number was never given.
+     */
+    void reuseWordNumber(int wordNumber){
+        if(removedNumbersCount == 0 || wordNumber <= 0 || wordNumber >= getNextWordNumber())
+            throw new CrosswordException("Word number " + wordNumber + " was not removed");
+        removedNumbersCount--;
+    }
+
+    /**
+     * Checks whether any placed word has the given letters, by a scan of the word graph.
+     */
+    private boolean isPlaced(String word){
+        for(int id = 0; id < wordGraph.size(); id++){
+            if(!wordGraph.contains(id) || wordGraph.getLength(id) != word.length()) continue;
+            int i = 0;
+            while(i < word.length() && getLetter(wordGraph.getCellRow(id, i) + rowShift,
+                    wordGraph.getCellColumn(id, i) + columnShift) == word.charAt(i)) i++;
+            if(i == word.length()) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Retrieves the placed words and their crossings. Positions in the graph are translated to the grid
+     * by {@link #getWordRowIndex(int)} and {@link #getWordColumnIndex(int)}, the graph must not be changed.
+     * @return The word graph.
+     */
+    CrosswordWordGraph getWordGraph(){
+        return wordGraph;
+    }
+
+    /**
+     * Retrieves the row of the grid holding the first letter of the word.
+     * @param id The id of the word in the word graph.
+     * @return The row index.
+     */
+    int getWordRowIndex(int id){
+        return wordGraph.getRow(id) + rowShift;
+    }
+
+    /**
+     * Retrieves the column of the grid holding the first letter of the word.
+     * @param id The id of the word in the word graph.
+     * @return The column index.
+     */
+    int getWordColumnIndex(int id){
+        return wordGraph.getColumn(id) + columnShift;
+    }
+
+    /**
+     * Finds the word of the given direction covering the cell.
+     * @param rowIndex The row index of the cell.
+     * @param columnIndex The column index of the cell.
+     * @param vertical The direction of the word.
+     * @return The id of the word in the word graph, {@link CrosswordWordGraph#NONE} if there is no such word.
+     */
+    int getWordAt(int rowIndex, int columnIndex, boolean vertical){
+        return wordGraph.getWordAt(rowIndex - rowShift, columnIndex - columnShift, vertical);
+    }
+
+    /**
+     * Checks whether every letter of the word is guessed.
+     * @param wordNumber The number of the word.
+     * @return True if the word is guessed, false if it is not or there is no such word.
+     */
+    boolean isWordGuessed(int wordNumber){
+        int offset = (wordNumber - 1) * NUMBER_SIZE;
+        return wordNumber > 0 && offset < wordNumbers.length && wordNumbers[offset + NUMBER_LETTERS] != 0
+                && wordNumbers[offset + NUMBER_GUESSED] == wordNumbers[offset + NUMBER_LETTERS];
+    }
+
+    int getGuessedWordsCount(){
+        return guessedWordsCount;
+    }
+
+    /**
+     * Compares the kept counts against a full scan of the cells.
+     * @throws CrosswordException If any of them differs.
+     */
+    void checkConsistency(){
+        int letters = 0;
+        int guessedLetters = 0;
+        int clueLettersCount = 0;
+        for(int index = 0; index < getSize(); index++){
+            if(!isEmpty(index)){
+                letters++;
+                if(isGuessed(index)) guessedLetters++;
+                if(!isFirstLetter(index)) clueLettersCount++;
+            }
+        }
+        for(int slot = 0; slot < clueLetters.size(); slot++){
+            char letter = clueLetters.getLetter(slot);
+            int count = 0;
+            for(int index = 0; index < getSize(); index++){
+                if(getLetter(index) == letter && !isFirstLetter(index)) count++;
+            }
+            if(count != clueLetters.count(letter))
+                throw new CrosswordException("Crossword has " + count + " letters " + letter
+                        + " which may be clue letters, counted " + clueLetters.count(letter));
+        }
+        if(clueLettersCount != clueLetters.total())
+            throw new CrosswordException("Crossword has " + clueLettersCount + " letters which may be clue letters, counted "
+                    + clueLetters.total());
+        int guessedWords = 0;
+        for(int numberOffset = 0; numberOffset < wordNumbers.length; numberOffset += NUMBER_SIZE){
+            int wordNumber = numberOffset / NUMBER_SIZE + 1;
+            int guessed = 0;
+            for(int id = 0; id < wordGraph.size(); id++){
+                if(!wordGraph.contains(id) || wordGraph.getNumber(id) != wordNumber) continue;
+                for(int i = 0; i < wordGraph.getLength(id); i++){
+                    int rowIndex = wordGraph.getCellRow(id, i) + rowShift;
+                    int columnIndex = wordGraph.getCellColumn(id, i) + columnShift;
+                    if(getLetterIfInBounds(rowIndex, columnIndex) != EMPTY
+                            && isGuessed(calculateIndex(rowIndex, columnIndex))) guessed++;
+                }
+            }
+            if(guessed != wordNumbers[numberOffset + NUMBER_GUESSED])
+                throw new CrosswordException("Word " + wordNumber + " has " + guessed
+                        + " guessed letters, counted " + wordNumbers[numberOffset + NUMBER_GUESSED]);
+            if(isWordGuessed(wordNumber)) guessedWords++;
+        }
+        // a word is placed before its meaning is added, so only meanings of words no longer placed are found here
+        int placements = 0;
+        for(Map.Entry<String, PlacedWord> placedWord : wordsWithMeanings.entrySet()){
+            if(placedWord.getValue().placementsCount() == 0 || !isPlaced(placedWord.getKey()))
+                throw new CrosswordException("Word " + placedWord.getKey() + " has a meaning but is not placed");
+            placements += placedWord.getValue().placementsCount();
+        }
+        if(placements != wordGraph.getWordsCount())
+            throw new CrosswordException("Crossword has " + wordGraph.getWordsCount() + " placed words, counted " + placements);
+        if(letters != lettersCount) throw new CrosswordException("Crossword has " + letters + " letters, counted " + lettersCount);
+        if(guessedLetters != guessedLettersCount)
+            throw new CrosswordException("Crossword has " + guessedLetters + " guessed letters, counted " + guessedLettersCount);
+        if(guessedWords != guessedWordsCount)
+            throw new CrosswordException("Crossword has " + guessedWords + " guessed words, counted " + guessedWordsCount);
+    }
+
+    void setClueLetter(int index, int clueWordNumber){
+        if(isFirstLetter(index)) throw new CrosswordException("Cannot assign first letter as clue letter");
+        setNumber(index, toCellNumber(clueWordNumber));
+        setFlags(index, (byte) (getFlags(index) | CLUE_LETTER_FLAG));
+    }
+
+    void clearFirstOrClueLetterSetting(int index){
+        if(isFirstLetter(index) && !isEmpty(index)) writableClueLetters().add(getLetter(index));
+        setNumber(index, (short) 0);
+        setFlags(index, (byte) (getFlags(index) & ~(FIRST_LETTER_FLAG | CLUE_LETTER_FLAG)));
+    }
+
+    /**
+     * Retrieves the number of cells holding the letter which may become clue letters.
+     * @param letter The letter in upper case.
+     * @return The number of cells.
+     */
+    int getClueLetterCount(char letter){
+        return clueLetters.count(letter);
+    }
+
+    /**
+     * Retrieves the number of cells which may become clue letters.
+     * @return The number of letters which are not first letters of words.
+     */
+    int getClueLettersCount(){
+        return clueLetters.total();
+    }
+
+    /**
+     * Checks whether the crossword has enough cells which may become clue letters for every letter of the word.
+     * @param word The word in upper case.
+     * @return True if the word may become the clue word.
+     */
+    boolean canMarkClueWord(String word){
+        return clueLetters.covers(word);
+    }
+
+    boolean containsWord(String word){
+        return wordsWithMeanings.containsKey(word);
+    }
+
     void addWordWithMeaning(String word, String meaning){
-        wordsWithMeanings.put(word, meaning);
+        PlacedWord placedWord = writableWords().get(word);
+        wordsWithMeanings.put(word, new PlacedWord(meaning, placedWord == null ? 0 : placedWord.placementsCount()));
     }
 
     void setGenerationTime(double time){
@@ -133,4 +589,82 @@ final class CrosswordMatrixModel extends DynamicMatrix<CrosswordLetterModel> imp
     void setCrosswordClueDefinition(String definition){
         wordClueDefinition = definition;
     }
+
+    /**
+     * Sets the cell, keeping the counts. Guessing of a letter placed again is dropped, as the flags are replaced.
+     */
+    private void place(int rowIndex, int columnIndex, char letter, byte flags, short number){
+        char oldLetter = getLetterIfInBounds(rowIndex, columnIndex);
+        if(oldLetter != EMPTY){
+            int index = calculateIndex(rowIndex, columnIndex);
+            if(isGuessed(index)) countGuess(rowIndex, columnIndex, -1);
+            if(!isFirstLetter(index)) writableClueLetters().remove(oldLetter);
+        }
+        setValueOutOfBounds(rowIndex, columnIndex, letter, flags, number);
+        if((flags & FIRST_LETTER_FLAG) == 0) writableClueLetters().add(letter);
+        if(rowIndex < 0) rowShift -= rowIndex;
+        if(columnIndex < 0) columnShift -= columnIndex;
+        if(oldLetter == EMPTY) lettersCount++;
+        if(CHECK_CONSISTENCY) checkConsistency();
+    }
+
+    private HashMap<String, PlacedWord> writableWords(){
+        if(wordsShared){
+            wordsWithMeanings = new HashMap<>(wordsWithMeanings);
+            wordsShared = false;
+        }
+        return wordsWithMeanings;
+    }
+
+    private LetterHistogram writableClueLetters(){
+        if(clueLettersShared){
+            clueLetters = new LetterHistogram(clueLetters);
+            clueLettersShared = false;
+        }
+        return clueLetters;
+    }
+
+    private CrosswordWordGraph writableWordGraph(){
+        if(wordGraphShared){
+            wordGraph = new CrosswordWordGraph(wordGraph);
+            wordGraphShared = false;
+        }
+        return wordGraph;
+    }
+
+    /**
+     * Adds a guessed or no longer guessed cell to the counts of the crossword and of every word on the cell.
+     */
+    private void countGuess(int rowIndex, int columnIndex, int change){
+        guessedLettersCount += change;
+        int row = rowIndex - rowShift;
+        int column = columnIndex - columnShift;
+        int first = wordGraph.getWordAt(row, column);
+        if(first == CrosswordWordGraph.NONE) return;
+        if(wordStatesShared){
+            wordNumbers = wordNumbers.clone();
+            wordStatesShared = false;
+        }
+        int id = first;
+        do{
+            int wordNumber = wordGraph.getNumber(id);
+            if(isWordGuessed(wordNumber)) guessedWordsCount--;
+            wordNumbers[(wordNumber - 1) * NUMBER_SIZE + NUMBER_GUESSED] += change;
+            if(isWordGuessed(wordNumber)) guessedWordsCount++;
+            id = wordGraph.getNextWordOnCell(id, letterIndexOf(wordGraph, id, row, column));
+        }while(id != first && id != CrosswordWordGraph.NONE);
+    }
+
+    /**
+     * Calculates the position in the word of its letter on the cell, in the coordinates of the graph.
+     */
+    private static int letterIndexOf(CrosswordWordGraph graph, int id, int row, int column){
+        return graph.isVertical(id) ? row - graph.getRow(id) : column - graph.getColumn(id);
+    }
+
+    private static short toCellNumber(int number){
+        if(number <= 0 || number > Short.MAX_VALUE)
+            throw new CrosswordException("Word number " + number + " cannot be stored in crossword grid");
+        return (short) number;
+    }
 }
@@ -0,0 +1,270 @@
+package org.project.model.crossword;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe {@link CrosswordMetricsRecorder} keeping a latency histogram of every {@link CrosswordPhase}
+ * and the number of candidates rejected for every {@link CrosswordRejection}.
+ * A histogram counts times in power of two buckets of nanoseconds, so recording never allocates or locks
+ * and percentiles are accurate to a factor of two. Metrics may be exposed as platform MBeans.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public final class CrosswordMetrics implements CrosswordMetricsRecorder {
+
+    /**
+     * Domain of the registered MBeans.
+     */
+    public static final String JMX_DOMAIN = "org.project.crossword";
+
+    private static final int BUCKETS = Long.SIZE;
+
+    /**
+     * Latencies of a single phase.
+     */
+    private static final class Histogram implements CrosswordPhaseMXBean {
+
+        /**
+         * Number of times falling into every bucket, bucket b holds times from 2^(b-1) to 2^b - 1 nanoseconds.
+         */
+        final private AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        final private LongAdder count = new LongAdder();
+
+        final private LongAdder totalTime = new LongAdder();
+
+        final private LongAccumulator maxTime = new LongAccumulator(Math::max, 0);
+
+        private void record(long nanoseconds){
+            nanoseconds = Math.max(0, nanoseconds);
+            buckets.incrementAndGet(Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(nanoseconds)));
+            count.increment();
+            totalTime.add(nanoseconds);
+            maxTime.accumulate(nanoseconds);
+        }
+
+        /**
+         * Finds the bucket holding the percentile.
+         * @return The upper bound of the bucket in nanoseconds, 0 if nothing was recorded.
+         */
+        private long percentile(double percentile){
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for(int bucket = 0; bucket < BUCKETS; bucket++){
+                counts[bucket] = buckets.get(bucket);
+                total += counts[bucket];
+            }
+            if(total == 0) return 0;
+            long rank = (long) Math.ceil(total * percentile / 100);
+            long seen = 0;
+            for(int bucket = 0; bucket < BUCKETS; bucket++){
+                seen += counts[bucket];
+                if(seen >= Math.max(1, rank)) return Math.min(bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1,
+                        maxTime.get());
+            }
+            return maxTime.get();
+        }
+
+        @Override
+        public long getCount(){
+            return count.sum();
+        }
+
+        @Override
+        public double getTotalTimeInMilliseconds(){
+            return totalTime.sum() / 1e6;
+        }
+
+        @Override
+        public double getMeanTimeInMicroseconds(){
+            long recorded = count.sum();
+            return recorded == 0 ? 0 : totalTime.sum() / 1e3 / recorded;
+        }
+
+        @Override
+        public double getMaxTimeInMicroseconds(){
+            return maxTime.get() / 1e3;
+        }
+
+        @Override
+        public double getMedianTimeInMicroseconds(){
+            return percentile(50) / 1e3;
+        }
+
+        @Override
+        public double get90thPercentileTimeInMicroseconds(){
+            return percentile(90) / 1e3;
+        }
+
+        @Override
+        public double get99thPercentileTimeInMicroseconds(){
+            return percentile(99) / 1e3;
+        }
+    }
+
+    private final class Rejections implements CrosswordRejectionsMXBean {
+
+        @Override
+        public long getBlockedBeforeCount(){
+            return getRejectionCount(CrosswordRejection.BLOCKED_BEFORE);
+        }
+
+        @Override
+        public long getBlockedAfterCount(){
+            return getRejectionCount(CrosswordRejection.BLOCKED_AFTER);
+        }
+
+        @Override
+        public long getAdjacentLetterCount(){
+            return getRejectionCount(CrosswordRejection.ADJACENT_LETTER);
+        }
+
+        @Override
+        public long getLetterMismatchCount(){
+            return getRejectionCount(CrosswordRejection.LETTER_MISMATCH);
+        }
+
+        @Override
+        public long getFirstLetterCrossingCount(){
+            return getRejectionCount(CrosswordRejection.FIRST_LETTER_CROSSING);
+        }
+
+        @Override
+        public long getTotalCount(){
+            long total = 0;
+            for(LongAdder counter : rejections.values()) total += counter.sum();
+            return total;
+        }
+    }
+
+    final private Map<CrosswordPhase, Histogram> phases;
+
+    final private Map<CrosswordRejection, LongAdder> rejections;
+
+    final private List<ObjectName> registeredNames;
+
+    public CrosswordMetrics(){
+        phases = new EnumMap<>(CrosswordPhase.class);
+        for(CrosswordPhase phase : CrosswordPhase.values()) phases.put(phase, new Histogram());
+        rejections = new EnumMap<>(CrosswordRejection.class);
+        for(CrosswordRejection rejection : CrosswordRejection.values()) rejections.put(rejection, new LongAdder());
+        registeredNames = new ArrayList<>();
+    }
+
+    @Override
+    public void recordPhase(@NotNull CrosswordPhase phase, long nanoseconds){
+        phases.get(phase).record(nanoseconds);
+    }
+
+    @Override
+    public void recordRejection(@NotNull CrosswordRejection rejection){
+        rejections.get(rejection).increment();
+    }
+
+    /**
+     * Retrieves the number of times the phase was recorded.
+     * @param phase The phase.
+     * @return The number of times.
+     */
+    public long getCount(@NotNull CrosswordPhase phase){
+        return phases.get(phase).getCount();
+    }
+
+    /**
+     * Retrieves the total time spent in the phase.
+     * @param phase The phase.
+     * @return The time in milliseconds.
+     */
+    public double getTotalTimeInMilliseconds(@NotNull CrosswordPhase phase){
+        return phases.get(phase).getTotalTimeInMilliseconds();
+    }
+
+    /**
+     * Retrieves the longest time spent in the phase at once.
+     * @param phase The phase.
+     * @return The time in microseconds.
+     */
+    public double getMaxTimeInMicroseconds(@NotNull CrosswordPhase phase){
+        return phases.get(phase).getMaxTimeInMicroseconds();
+    }
+
+    /**
+     * Retrieves the time within which the given percent of recordings of the phase completed.
+     * @param phase The phase.
+     * @param percentile The percentile from 0 to 100.
+     * @return The upper bound of the time in microseconds, 0 if the phase was not recorded.
+     */
+    public double getPercentileInMicroseconds(@NotNull CrosswordPhase phase, double percentile){
+        if(percentile < 0 || percentile > 100) throw new CrosswordException("Percentile has to be between 0 and 100");
+        return phases.get(phase).percentile(percentile) / 1e3;
+    }
+
+    /**
+     * Retrieves the number of candidates rejected for the reason.
+     * @param rejection The reason.
+     * @return The number of candidates.
+     */
+    public long getRejectionCount(@NotNull CrosswordRejection rejection){
+        return rejections.get(rejection).sum();
+    }
+
+    /**
+     * Registers the metrics in the platform MBean server, as one MBean per phase
+     * ({@code org.project.crossword:type=CrosswordMetrics,name=<name>,phase=<phase>})
+     * and one for the rejections ({@code org.project.crossword:type=CrosswordMetrics,name=<name>,phase=REJECTIONS}).
+     * @param name The name distinguishing these metrics from others.
+     * @throws CrosswordException If the metrics are already registered or the MBeans cannot be registered.
+     */
+    public synchronized void registerMBeans(@NotNull String name){
+        if(!registeredNames.isEmpty()) throw new CrosswordException("Metrics are already registered");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try{
+            for(Map.Entry<CrosswordPhase, Histogram> phase : phases.entrySet()){
+                register(server, objectName(name, phase.getKey().name()), phase.getValue());
+            }
+            register(server, objectName(name, "REJECTIONS"), new Rejections());
+        }catch(JMException e){
+            unregisterMBeans();
+            throw new CrosswordException("Cannot register metrics " + name, e);
+        }
+    }
+
+    /**
+     * Removes the MBeans registered by {@link #registerMBeans(String)}, if any.
+     */
+    public synchronized void unregisterMBeans(){
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for(ObjectName objectName : registeredNames){
+            try{
+                server.unregisterMBean(objectName);
+            }catch(InstanceNotFoundException e){
+                // unregistered by someone else
+            }catch(JMException e){
+                throw new CrosswordException("Cannot unregister " + objectName, e);
+            }
+        }
+        registeredNames.clear();
+    }
+
+    private void register(MBeanServer server, ObjectName objectName, Object mBean) throws JMException{
+        server.registerMBean(mBean, objectName);
+        registeredNames.add(objectName);
+    }
+
+    private static ObjectName objectName(String name, String phase) throws JMException{
+        return new ObjectName(JMX_DOMAIN + ":type=CrosswordMetrics,name=" + ObjectName.quote(name) + ",phase=" + phase);
+    }
+}
@@ -0,0 +1,38 @@
+package org.project.model.crossword;
+
+/**
+ * Receives measurements of crossword generation from {@link CrosswordFactory}.
+ * Factories evaluating candidates in parallel call it from many threads at once,
+ * so implementations have to be thread safe and should not block.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public interface CrosswordMetricsRecorder {
+
+    /**
+     * Recorder which drops all measurements.
+     */
+    CrosswordMetricsRecorder NONE = new CrosswordMetricsRecorder() {
+
+        @Override
+        public void recordPhase(CrosswordPhase phase, long nanoseconds){
+        }
+
+        @Override
+        public void recordRejection(CrosswordRejection rejection){
+        }
+    };
+
+    /**
+     * Records the time spent in a phase of a single word or clue word insertion.
+     * @param phase The phase.
+     * @param nanoseconds The time in nanoseconds.
+     */
+    void recordPhase(CrosswordPhase phase, long nanoseconds);
+
+    /**
+     * Records a placement candidate which does not fit.
+     * @param rejection The reason.
+     */
+    void recordRejection(CrosswordRejection rejection);
+}
@@ -0,0 +1,49 @@
+package org.project.model.crossword;
+
+/**
+ * Crossword improved by {@link CrosswordOptimizer} with the score it gained and the time it took.
+ * Scores are the ones {@link CrosswordFactory} ranks placements with, balancing the shape of the grid
+ * and the ratio of filled cells.
+ * @param crossword The best crossword found, the given one if no restart improved it.
+ * @param initialScore The score of the given crossword.
+ * @param score The score of the best crossword found.
+ * @param iterations The number of moves tried by all restarts.
+ * @param elapsedNanoseconds The time of the optimization, from the start until the best crossword was built.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public record CrosswordOptimization(Crossword crossword, float initialScore, float score, long iterations,
+                                    long elapsedNanoseconds) {
+
+    /**
+     * Retrieves the score gained by the optimization.
+     * @return The difference of the scores, never negative.
+     */
+    public float getScoreGain(){
+        return score - initialScore;
+    }
+
+    /**
+     * Retrieves the time of the optimization.
+     * @return The time in milliseconds.
+     */
+    public double getElapsedTimeInMilliseconds(){
+        return elapsedNanoseconds / (double) 1_000_000;
+    }
+
+    /**
+     * Retrieves the score gained per millisecond spent, to weigh the time budget against the gain.
+     * @return The gain per millisecond, 0 if no time has elapsed.
+     */
+    public double getScoreGainPerMillisecond(){
+        if(elapsedNanoseconds == 0) return 0;
+        return getScoreGain() / getElapsedTimeInMilliseconds();
+    }
+
+    @Override
+    public String toString(){
+        return String.format("score %.3f -> %.3f (+%.3f) in %.1f ms, %.4f per ms, %d iterations",
+                initialScore, score, getScoreGain(), getElapsedTimeInMilliseconds(), getScoreGainPerMillisecond(),
+                iterations);
+    }
+}
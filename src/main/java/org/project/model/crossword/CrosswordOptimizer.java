@@ -0,0 +1,353 @@
+package org.project.model.crossword;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Improves a generated crossword by local search. {@link CrosswordFactory} places every word at the best place
+ * for the words placed before it, which often leaves the crossword sprawling. The optimizer takes a word out,
+ * keeping the rest of the crossword connected, and places it again, or an alternative word instead of it,
+ * at the best place for all other words. Moves are kept by simulated annealing: a better crossword always,
+ * a worse one with a probability falling as the search cools down, so the search can leave a local optimum.
+ * <p>
+ * Crosswords are scored as the factory scores them, over the rows and columns holding letters. Independent
+ * restarts run in parallel from the same crossword, each with its own random numbers drawn from the seed,
+ * and the best crossword of all of them is kept. With the same seed and an iteration budget running out before
+ * the time budget, the result does not depend on the pool.
+ * <p>
+ * The clue word has to be inserted after the optimization, as the words and cells of the crossword change.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public final class CrosswordOptimizer {
+
+    /**
+     * Default number of moves tried by every restart.
+     */
+    public static final int DEFAULT_ITERATIONS = 1_000;
+
+    /**
+     * Temperature of the first move, in points of the score. A move losing that much is kept with probability 1/e,
+     * the temperature falls linearly to zero at the last move.
+     */
+    private static final double INITIAL_TEMPERATURE = 0.5;
+
+    final private int restarts;
+
+    final private int iterations;
+
+    final private long seed;
+
+    final private ForkJoinPool forkJoinPool;
+
+    /**
+     * Creates an optimizer running a restart per thread of the common pool, {@link #DEFAULT_ITERATIONS} moves each.
+     * @param seed The seed of the random numbers of all restarts.
+     */
+    public CrosswordOptimizer(long seed){
+        this(ForkJoinPool.commonPool().getParallelism(), DEFAULT_ITERATIONS, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an optimizer.
+     * @param restarts The number of independent searches, the best crossword of all of them is kept.
+     * @param iterations The number of moves tried by every restart.
+     * @param seed The seed of the random numbers of all restarts.
+     * @param forkJoinPool The pool running restarts in parallel, null to run them one by one on the calling thread.
+     */
+    public CrosswordOptimizer(int restarts, int iterations, long seed, ForkJoinPool forkJoinPool){
+        if(restarts <= 0) throw new CrosswordException("Number of restarts has to be positive");
+        if(iterations < 0) throw new CrosswordException("Number of iterations cannot be negative");
+        this.restarts = restarts;
+        this.iterations = iterations;
+        this.seed = seed;
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    /**
+     * Improves the crossword with its own words until the iterations or the time budget run out.
+     * @param crossword The crossword built by {@link CrosswordFactory}, it is not changed.
+     * @param timeBudget The time budget of the whole optimization.
+     * @return The best crossword found with its score.
+     */
+    public CrosswordOptimization optimize(@NotNull Crossword crossword, @NotNull Duration timeBudget){
+        return optimize(crossword, List.of(), CrosswordDeadline.after(timeBudget));
+    }
+
+    /**
+     * Improves the crossword until the iterations run out or the deadline expires. Words of the crossword
+     * may be swapped for the alternative words, the number of words stays the same.
+     * @param crossword The crossword built by {@link CrosswordFactory}, it is not changed.
+     * @param alternatives Words which may replace words of the crossword.
+     * @param deadline The time budget of the whole optimization.
+     * @return The best crossword found with its score.
+     * @throws CrosswordException If the crossword was not built by the factory or already has a clue word.
+     */
+    public CrosswordOptimization optimize(@NotNull Crossword crossword, @NotNull List<WordEntry> alternatives,
+                                          @NotNull CrosswordDeadline deadline){
+        long start = System.nanoTime();
+        if(!(crossword instanceof CrosswordMatrixModel crosswordModel)){
+            throw new CrosswordException("Only crosswords built by the factory can be optimized");
+        }
+        if(crosswordModel.getCrosswordClueWord().isPresent()){
+            throw new CrosswordException("Crossword has to be optimized before the clue word is inserted");
+        }
+        for(WordEntry entry : alternatives){
+            if(entry.word() == null || entry.word().isEmpty() || entry.meaning() == null || entry.meaning().isEmpty()){
+                throw new CrosswordException("Provided value is null or empty");
+            }
+        }
+        float initialScore = getScore(crosswordModel);
+
+        // copies and random numbers are made up front, a copy changes the sharing flags of its source
+        SplittableRandom random = new SplittableRandom(seed);
+        Restart[] searches = new Restart[restarts];
+        for(int i = 0; i < restarts; i++){
+            searches[i] = new Restart(new CrosswordMatrixModel(crosswordModel), alternatives, random.split(), initialScore);
+        }
+        if(forkJoinPool != null && restarts > 1){
+            forkJoinPool.submit(() -> Arrays.stream(searches).parallel().forEach(search -> search.run(iterations, deadline)))
+                    .join();
+        }else{
+            for(Restart search : searches) search.run(iterations, deadline);
+        }
+
+        // the first of equally scored restarts wins, whichever thread finished first
+        Restart best = searches[0];
+        long iterationsCount = 0;
+        for(Restart search : searches){
+            iterationsCount += search.iterationsCount;
+            if(search.bestScore > best.bestScore) best = search;
+        }
+        if(best.bestScore <= initialScore){
+            return new CrosswordOptimization(crossword, initialScore, initialScore, iterationsCount,
+                    System.nanoTime() - start);
+        }
+        CrosswordMatrixModel optimized = rebuild(best.bestModel);
+        long elapsed = System.nanoTime() - start;
+        optimized.setGenerationTime(crosswordModel.getTimeInMilliseconds() + elapsed / (double) 1_000_000);
+        return new CrosswordOptimization(optimized, initialScore, best.bestScore, iterationsCount, elapsed);
+    }
+
+    /**
+     * Scores the crossword over the rows and columns holding letters of its words.
+     */
+    static float getScore(CrosswordMatrixModel crosswordModel){
+        int[] bounds = getBounds(crosswordModel);
+        if(bounds == null) return 0;
+        return CrosswordFactory.getCrosswordScore(bounds[2] - bounds[0] + 1, bounds[3] - bounds[1] + 1,
+                crosswordModel.getLettersCount());
+    }
+
+    /**
+     * Finds the first and last row and column holding letters of words.
+     * @return The top row, left column, bottom row and right column, null if the crossword has no words.
+     */
+    private static int[] getBounds(CrosswordMatrixModel crosswordModel){
+        CrosswordWordGraph graph = crosswordModel.getWordGraph();
+        int[] bounds = null;
+        for(int id = 0; id < graph.size(); id++){
+            if(!graph.contains(id)) continue;
+            int row = crosswordModel.getWordRowIndex(id);
+            int column = crosswordModel.getWordColumnIndex(id);
+            int lastRow = graph.isVertical(id) ? row + graph.getLength(id) - 1 : row;
+            int lastColumn = graph.isVertical(id) ? column : column + graph.getLength(id) - 1;
+            if(bounds == null){
+                bounds = new int[]{row, column, lastRow, lastColumn};
+            }else{
+                bounds[0] = Math.min(bounds[0], row);
+                bounds[1] = Math.min(bounds[1], column);
+                bounds[2] = Math.max(bounds[2], lastRow);
+                bounds[3] = Math.max(bounds[3], lastColumn);
+            }
+        }
+        return bounds;
+    }
+
+    /**
+     * Places the words of the crossword again into a new grid, cut to the cells of the words,
+     * in the order they were placed. Words are numbered again from one as the factory numbers them,
+     * every placement in turn.
+     */
+    static CrosswordMatrixModel rebuild(CrosswordMatrixModel crosswordModel){
+        CrosswordWordGraph graph = crosswordModel.getWordGraph();
+        int[] bounds = getBounds(crosswordModel);
+        CrosswordMatrixModel rebuilt = new CrosswordMatrixModel();
+        for(int id = 0; id < graph.size(); id++){
+            if(!graph.contains(id)) continue;
+            String word = crosswordModel.getWord(id);
+            new CrosswordWordPlacement(crosswordModel.getWordRowIndex(id) - bounds[0],
+                    crosswordModel.getWordColumnIndex(id) - bounds[1],
+                    graph.isVertical(id) ? CrosswordWordPlacement.Direction.VERTICAL : CrosswordWordPlacement.Direction.HORIZONTAL,
+                    word, rebuilt.getNextWordNumber()).placeWord(rebuilt);
+            rebuilt.addWordWithMeaning(word, crosswordModel.getMeaning(word));
+        }
+        rebuilt.releaseLetterIndex();
+        rebuilt.trimToSize();
+        return rebuilt;
+    }
+
+    /**
+     * Single search, run by one thread.
+     */
+    private static final class Restart {
+
+        final private SplittableRandom random;
+
+        final private List<WordEntry> alternatives;
+
+        private CrosswordMatrixModel crosswordModel;
+
+        private float score;
+
+        private CrosswordMatrixModel bestModel;
+
+        private float bestScore;
+
+        private long iterationsCount;
+
+        /**
+         * Ids of the words which are not removed, refilled before every move.
+         */
+        private int[] wordIds = new int[0];
+
+        private Restart(CrosswordMatrixModel crosswordModel, List<WordEntry> alternatives, SplittableRandom random,
+                        float score){
+            this.crosswordModel = crosswordModel;
+            this.alternatives = new ArrayList<>(alternatives);
+            this.random = random;
+            this.score = score;
+            this.bestModel = crosswordModel;
+            this.bestScore = score;
+        }
+
+        private void run(int iterations, CrosswordDeadline deadline){
+            if(crosswordModel.getWordGraph().getWordsCount() < 2) return;
+            for(int iteration = 0; iteration < iterations && !deadline.isExpired(); iteration++){
+                iterationsCount++;
+                double temperature = INITIAL_TEMPERATURE * (1 - iteration / (double) iterations);
+                move(temperature);
+            }
+        }
+
+        /**
+         * Takes a random word out and places it or an alternative word again, keeping the result by annealing.
+         * The crossword before the move is kept as a copy, so a rejected move is undone by going back to it.
+         */
+        private void move(double temperature){
+            CrosswordWordGraph graph = crosswordModel.getWordGraph();
+            int wordsCount = 0;
+            if(wordIds.length < graph.size()) wordIds = new int[graph.size()];
+            for(int id = 0; id < graph.size(); id++){
+                if(graph.contains(id)) wordIds[wordsCount++] = id;
+            }
+            int id = wordIds[random.nextInt(wordsCount)];
+            int alternative = !alternatives.isEmpty() && random.nextBoolean() ? random.nextInt(alternatives.size()) : -1;
+
+            CrosswordMatrixModel previous = crosswordModel;
+            crosswordModel = new CrosswordMatrixModel(previous);
+            int wordNumber = graph.getNumber(id);
+            String removedWord = crosswordModel.getWord(id);
+            String removedMeaning = crosswordModel.getMeaning(removedWord);
+            crosswordModel.removeWord(id);
+            if(!isConnected(crosswordModel.getWordGraph())){
+                crosswordModel = previous;
+                return;
+            }
+
+            String word = removedWord;
+            String meaning = removedMeaning;
+            if(alternative >= 0){
+                String alternativeWord = alternatives.get(alternative).word().toUpperCase();
+                if(!crosswordModel.containsWord(alternativeWord)){
+                    word = alternativeWord;
+                    meaning = alternatives.get(alternative).meaning();
+                }else{
+                    alternative = -1;
+                }
+            }
+            CrosswordWordPlacement placement = getBestPlacement(word);
+            if(placement == null){
+                crosswordModel = previous;
+                return;
+            }
+            // the word keeps the number of the removed one, the next word number stays as it was
+            crosswordModel.reuseWordNumber(wordNumber);
+            placement.withWordNumber(wordNumber).placeWord(crosswordModel);
+            crosswordModel.addWordWithMeaning(word, meaning);
+
+            float newScore = getScore(crosswordModel);
+            if(newScore >= score || random.nextDouble() < Math.exp((newScore - score) / temperature)){
+                score = newScore;
+                if(alternative >= 0) alternatives.set(alternative, new WordEntry(removedWord, removedMeaning));
+                if(score > bestScore){
+                    bestScore = score;
+                    bestModel = crosswordModel;
+                    // the best crossword is kept as it is, later moves change a copy of it
+                    crosswordModel = new CrosswordMatrixModel(bestModel);
+                }
+            }else{
+                crosswordModel = previous;
+            }
+        }
+
+        /**
+         * Finds the placement of the word giving the best score over the cells of the other words,
+         * the first of equally scored placements wins.
+         */
+        private CrosswordWordPlacement getBestPlacement(String word){
+            int[] bounds = getBounds(crosswordModel);
+            int filled = crosswordModel.getLettersCount();
+            CrosswordWordPlacement bestPlacement = null;
+            float bestPlacementScore = 0;
+            for(CrosswordWordPlacement placement : new CrosswordFactory(crosswordModel).getPlacements(word)){
+                boolean vertical = placement.getDirection() == CrosswordWordPlacement.Direction.VERTICAL;
+                int row = placement.getRowIndex();
+                int column = placement.getColumnIndex();
+                int rows = Math.max(bounds[2], vertical ? row + word.length() - 1 : row) - Math.min(bounds[0], row) + 1;
+                int columns = Math.max(bounds[3], vertical ? column : column + word.length() - 1)
+                        - Math.min(bounds[1], column) + 1;
+                float placementScore = CrosswordFactory.getCrosswordScore(rows, columns,
+                        filled + placement.countNewLetters(crosswordModel));
+                if(placementScore > bestPlacementScore){
+                    bestPlacementScore = placementScore;
+                    bestPlacement = placement;
+                }
+            }
+            return bestPlacement;
+        }
+
+        /**
+         * Checks whether every word can be reached from any other through shared cells.
+         */
+        private static boolean isConnected(CrosswordWordGraph graph){
+            int first = 0;
+            while(first < graph.size() && !graph.contains(first)) first++;
+            if(first == graph.size()) return true;
+            boolean[] visited = new boolean[graph.size()];
+            int[] stack = new int[graph.getWordsCount()];
+            int stackSize = 0;
+            int visitedCount = 1;
+            visited[first] = true;
+            stack[stackSize++] = first;
+            while(stackSize > 0){
+                int id = stack[--stackSize];
+                for(int i = 0; i < graph.getLength(id); i++){
+                    int other = graph.getNextWordOnCell(id, i);
+                    if(other != CrosswordWordGraph.NONE && !visited[other]){
+                        visited[other] = true;
+                        visitedCount++;
+                        stack[stackSize++] = other;
+                    }
+                }
+            }
+            return visitedCount == graph.getWordsCount();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.project.model.crossword;
+
+/**
+ * Parameters of a single crossword generated by {@link CrosswordBatchGenerator}.
+ * @param wordsCount The number of words to insert.
+ * @param withClue True if a clue word has to be inserted as well.
+ * @param maximumAttempts The maximal number of words taken from the source, per inserted word and for the clue word.
+ *                        Once it is reached, the crossword is built with the words inserted so far.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public record CrosswordParameters(int wordsCount, boolean withClue, int maximumAttempts) {
+
+    /**
+     * Default maximal number of words taken from the source for a single inserted word.
+     */
+    public static final int DEFAULT_MAXIMUM_ATTEMPTS = 1000;
+
+    public CrosswordParameters {
+        if(wordsCount <= 0) throw new CrosswordException("Words count has to be positive");
+        if(maximumAttempts <= 0) throw new CrosswordException("Maximum attempts has to be positive");
+    }
+
+    /**
+     * Creates parameters with {@link #DEFAULT_MAXIMUM_ATTEMPTS}.
+     * @param wordsCount The number of words to insert.
+     * @param withClue True if a clue word has to be inserted as well.
+     */
+    public CrosswordParameters(int wordsCount, boolean withClue){
+        this(wordsCount, withClue, DEFAULT_MAXIMUM_ATTEMPTS);
+    }
+}
@@ -0,0 +1,39 @@
+package org.project.model.crossword;
+
+/**
+ * Phases of crossword generation measured by a {@link CrosswordMetricsRecorder}.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public enum CrosswordPhase {
+
+    /**
+     * Looking up the cells of the grid holding letters of the inserted word.
+     */
+    CANDIDATE_SCAN,
+
+    /**
+     * Checking whether the word fits across every found cell, vertically or horizontally.
+     */
+    PLACEMENT_VALIDATION,
+
+    /**
+     * Scoring the placements which fit.
+     */
+    SCORING,
+
+    /**
+     * Placing the best word into the grid, copying and resizing it if needed.
+     */
+    GRID_UPDATE,
+
+    /**
+     * Inserting the clue word, successfully or not.
+     */
+    CLUE_INSERTION,
+
+    /**
+     * Waiting for the next word from the {@link WordSource}.
+     */
+    WORD_FETCH
+}
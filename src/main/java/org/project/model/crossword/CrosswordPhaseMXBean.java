@@ -0,0 +1,24 @@
+package org.project.model.crossword;
+
+/**
+ * Management interface of the latency of a single {@link CrosswordPhase}, registered by
+ * {@link CrosswordMetrics#registerMBeans(String)}. Percentiles are the upper bounds of power of two buckets.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public interface CrosswordPhaseMXBean {
+
+    long getCount();
+
+    double getTotalTimeInMilliseconds();
+
+    double getMeanTimeInMicroseconds();
+
+    double getMaxTimeInMicroseconds();
+
+    double getMedianTimeInMicroseconds();
+
+    double get90thPercentileTimeInMicroseconds();
+
+    double get99thPercentileTimeInMicroseconds();
+}
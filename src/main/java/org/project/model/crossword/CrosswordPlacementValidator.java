@@ -0,0 +1,127 @@
+package org.project.model.crossword;
+
+import static org.project.model.crossword.structures.DynamicLetterMatrix.EMPTY;
+
+/**
+ * Checks whether a word fits across a cell of the grid, reading only letters and flags of the cells,
+ * so a rejected candidate allocates nothing. Cells out of the grid are read as empty.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+final class CrosswordPlacementValidator {
+
+    private CrosswordPlacementValidator(){
+    }
+
+    /**
+     * Checks whether the word fits vertically, with its letter crossing the cell.
+     * @param crossword The grid.
+     * @param rowIndex The row of the crossed cell.
+     * @param columnIndex The column of the crossed cell.
+     * @param letterIndex The index of the letter of the word in the crossed cell.
+     * @param word The word in upper case.
+     * @return The reason why the word does not fit, null if it fits
+     *         starting at {@code rowIndex - letterIndex} of the column.
+     */
+    static CrosswordRejection validateVertical(CrosswordMatrixModel crossword, int rowIndex, int columnIndex,
+                                               int letterIndex, String word){
+        final int numberOfRows = crossword.getNumberOfRows();
+        final int numberOfColumns = crossword.getNumberOfColumns();
+
+        int row = rowIndex - letterIndex;
+        if(row < 0){
+            letterIndex = -row;
+            row = 0;
+        }else{
+            letterIndex = 0;
+        }
+
+        // check one behind, the first row is never checked
+        if(row - 1 > 0 && crossword.getLetterIfInBounds(row - 1, columnIndex) != EMPTY){
+            return CrosswordRejection.BLOCKED_BEFORE;
+        }
+
+        // check left, right, letter
+        for(; letterIndex < word.length(); letterIndex++){
+            char letter = crossword.getLetterIfInBounds(row, columnIndex);
+            if(letter == EMPTY){
+                boolean left = crossword.getLetterIfInBounds(row, columnIndex - 1) != EMPTY;
+                boolean right = crossword.getLetterIfInBounds(row, columnIndex + 1) != EMPTY;
+                if((columnIndex > 0 && left) || (columnIndex < numberOfColumns - 1 && right)
+                        || (columnIndex == 0 && right) || (columnIndex == numberOfColumns - 1 && left)){
+                    return CrosswordRejection.ADJACENT_LETTER;
+                }
+            }else if(letter != word.charAt(letterIndex)){
+                return CrosswordRejection.LETTER_MISMATCH;
+            }else if(letterIndex == 0 && crossword.isFirstLetter(row, columnIndex)){
+                return CrosswordRejection.FIRST_LETTER_CROSSING;
+            }
+
+            if(row >= numberOfRows){
+                return null;
+            }
+            row++;
+        }
+        // check one forward
+        if(row >= numberOfRows || crossword.getLetterIfInBounds(row, columnIndex) == EMPTY){
+            return null;
+        }
+        return CrosswordRejection.BLOCKED_AFTER;
+    }
+
+    /**
+     * Checks whether the word fits horizontally, with its letter crossing the cell.
+     * @param crossword The grid.
+     * @param rowIndex The row of the crossed cell.
+     * @param columnIndex The column of the crossed cell.
+     * @param letterIndex The index of the letter of the word in the crossed cell.
+     * @param word The word in upper case.
+     * @return The reason why the word does not fit, null if it fits
+     *         starting at {@code columnIndex - letterIndex} of the row.
+     */
+    static CrosswordRejection validateHorizontal(CrosswordMatrixModel crossword, int rowIndex, int columnIndex,
+                                                 int letterIndex, String word){
+        final int numberOfRows = crossword.getNumberOfRows();
+        final int numberOfColumns = crossword.getNumberOfColumns();
+
+        int column = columnIndex - letterIndex;
+        if(column < 0){
+            letterIndex = -column;
+            column = 0;
+        }else{
+            letterIndex = 0;
+        }
+
+        // check one behind, the first column is never checked
+        if(column - 1 > 0 && crossword.getLetterIfInBounds(rowIndex, column - 1) != EMPTY){
+            return CrosswordRejection.BLOCKED_BEFORE;
+        }
+
+        // check top, bottom, letter
+        for(; letterIndex < word.length(); letterIndex++){
+            char letter = crossword.getLetterIfInBounds(rowIndex, column);
+            if(letter == EMPTY){
+                boolean top = crossword.getLetterIfInBounds(rowIndex - 1, column) != EMPTY;
+                boolean bottom = crossword.getLetterIfInBounds(rowIndex + 1, column) != EMPTY;
+                if((rowIndex > 0 && top) || (rowIndex < numberOfRows - 1 && bottom)
+                        || (rowIndex == 0 && bottom) || (rowIndex == numberOfRows - 1 && top)){
+                    return CrosswordRejection.ADJACENT_LETTER;
+                }
+            }else if(letter != word.charAt(letterIndex)){
+                return CrosswordRejection.LETTER_MISMATCH;
+            }else if(letterIndex == 0 && crossword.isFirstLetter(rowIndex, column)){
+                return CrosswordRejection.FIRST_LETTER_CROSSING;
+            }
+
+            if(column >= numberOfColumns){
+                return null;
+            }
+            column++;
+        }
+        // check one forward
+        if(column >= numberOfColumns || crossword.getLetterIfInBounds(rowIndex, column) == EMPTY){
+            return null;
+        }
+        return CrosswordRejection.BLOCKED_AFTER;
+    }
+}
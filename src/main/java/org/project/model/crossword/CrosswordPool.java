@@ -0,0 +1,305 @@
+package org.project.model.crossword;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Stock of ready crosswords, so requests do not wait for the network and the search.
+ * Every size class, given by {@link CrosswordParameters}, has a target number of ready crosswords.
+ * Once the stock of a class falls to its low watermark, it is refilled to the target in the background
+ * by a fixed set of workers, each building one crossword at a time with its own {@link CrosswordFactory}.
+ * Crosswords are handed out in constant time from any thread. The pool should be closed once it is no longer needed.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public final class CrosswordPool implements AutoCloseable {
+
+    /**
+     * Default part of the target stock at or below which a refill starts.
+     */
+    public static final double DEFAULT_LOW_WATERMARK_RATIO = 0.5;
+
+    /**
+     * Ready crosswords of a size class with the state of its refill.
+     */
+    private static final class Stock {
+
+        final private CrosswordParameters parameters;
+
+        final private int targetDepth;
+
+        final private int lowWatermark;
+
+        final private Queue<Crossword> crosswords = new ConcurrentLinkedQueue<>();
+
+        /**
+         * Number of crosswords in the queue, kept apart as the size of the queue is not constant time.
+         */
+        final private AtomicInteger depth = new AtomicInteger();
+
+        /**
+         * Number of crosswords being generated.
+         */
+        final private AtomicInteger reserved = new AtomicInteger();
+
+        /**
+         * True from the moment a refill starts until its last worker stops.
+         */
+        final private AtomicBoolean refilling = new AtomicBoolean();
+
+        final private AtomicInteger refillingWorkers = new AtomicInteger();
+
+        final private AtomicLong hitCount = new AtomicLong();
+
+        final private AtomicLong missCount = new AtomicLong();
+
+        final private AtomicLong refilledCount = new AtomicLong();
+
+        final private AtomicLong failedCount = new AtomicLong();
+
+        private Stock(CrosswordParameters parameters, int targetDepth, int lowWatermark){
+            this.parameters = parameters;
+            this.targetDepth = targetDepth;
+            this.lowWatermark = lowWatermark;
+        }
+
+        /**
+         * Reserves a place for a crossword to be generated, if ready and generated crosswords are below the target.
+         * @return True if reserved, false if the stock is full.
+         */
+        private boolean reserve(){
+            while(true){
+                int current = reserved.get();
+                if(depth.get() + current >= targetDepth) return false;
+                if(reserved.compareAndSet(current, current + 1)) return true;
+            }
+        }
+    }
+
+    final private BiFunction<CrosswordParameters, CrosswordDeadline, Crossword> generator;
+
+    /**
+     * Deadline of crosswords generated by the workers, cancelled when the pool is closed.
+     */
+    final private CrosswordDeadline deadline;
+
+    final private Map<CrosswordParameters, Stock> stocks;
+
+    final private BlockingQueue<Stock> refills;
+
+    final private List<Thread> workers;
+
+    final private long startTime;
+
+    private volatile boolean closed;
+
+    /**
+     * Creates a pool with {@link #DEFAULT_LOW_WATERMARK_RATIO} and starts filling every size class.
+     * @param wordSource The thread safe source of words shared by all crosswords.
+     * @param targetDepths The number of ready crosswords kept for every size class.
+     * @param workersCount The number of crosswords generated at the same time.
+     */
+    public CrosswordPool(@NotNull WordSource wordSource, @NotNull Map<CrosswordParameters, Integer> targetDepths,
+                         int workersCount){
+        this(wordSource, targetDepths, workersCount, DEFAULT_LOW_WATERMARK_RATIO);
+    }
+
+    /**
+     * Creates a pool and starts filling every size class.
+     * Sources waiting on network may use many more workers than the number of processors.
+     * @param wordSource The thread safe source of words shared by all crosswords.
+     * @param targetDepths The number of ready crosswords kept for every size class.
+     * @param workersCount The number of crosswords generated at the same time.
+     * @param lowWatermarkRatio The part of the target stock, from 0 inclusive to 1 exclusive,
+     *                          at or below which a refill starts.
+     */
+    public CrosswordPool(@NotNull WordSource wordSource, @NotNull Map<CrosswordParameters, Integer> targetDepths,
+                         int workersCount, double lowWatermarkRatio){
+        this(wordSource, targetDepths, workersCount, lowWatermarkRatio, CrosswordMetricsRecorder.NONE);
+    }
+
+    /**
+     * Creates a pool whose factories report their measurements to the recorder, and starts filling every size class.
+     * @param wordSource The thread safe source of words shared by all crosswords.
+     * @param targetDepths The number of ready crosswords kept for every size class.
+     * @param workersCount The number of crosswords generated at the same time.
+     * @param lowWatermarkRatio The part of the target stock, from 0 inclusive to 1 exclusive,
+     *                          at or below which a refill starts.
+     * @param metricsRecorder The thread safe recorder shared by all crosswords.
+     */
+    public CrosswordPool(@NotNull WordSource wordSource, @NotNull Map<CrosswordParameters, Integer> targetDepths,
+                         int workersCount, double lowWatermarkRatio, @NotNull CrosswordMetricsRecorder metricsRecorder){
+        this((parameters, deadline) -> CrosswordBatchGenerator.generateCrossword(wordSource, parameters,
+                        metricsRecorder, deadline),
+                targetDepths, workersCount, lowWatermarkRatio);
+    }
+
+    CrosswordPool(BiFunction<CrosswordParameters, CrosswordDeadline, Crossword> generator,
+                  Map<CrosswordParameters, Integer> targetDepths, int workersCount, double lowWatermarkRatio){
+        if(workersCount <= 0) throw new CrosswordException("Workers count has to be positive");
+        if(!(lowWatermarkRatio >= 0 && lowWatermarkRatio < 1))
+            throw new CrosswordException("Low watermark ratio has to be at least 0 and below 1");
+        this.generator = generator;
+        this.deadline = CrosswordDeadline.none();
+        this.stocks = new HashMap<>();
+        targetDepths.forEach((parameters, targetDepth) -> {
+            if(targetDepth <= 0) throw new CrosswordException("Target depth has to be positive");
+            stocks.put(parameters, new Stock(parameters, targetDepth, (int) (targetDepth * lowWatermarkRatio)));
+        });
+        this.refills = new LinkedBlockingQueue<>();
+        this.startTime = System.nanoTime();
+        this.workers = new ArrayList<>(workersCount);
+        for(int i = 0; i < workersCount; i++){
+            workers.add(Thread.ofVirtual().name("crossword-pool-" + i).start(this::work));
+        }
+        stocks.values().forEach(this::checkWatermark);
+    }
+
+    /**
+     * Takes a ready crossword of the size class, without waiting.
+     * @param parameters The parameters of the size class.
+     * @return The crossword, empty if the stock is empty.
+     * @throws CrosswordException If the pool has no such size class.
+     */
+    public Optional<Crossword> poll(@NotNull CrosswordParameters parameters){
+        Stock stock = getStock(parameters);
+        Crossword crossword = stock.crosswords.poll();
+        if(crossword != null){
+            stock.depth.decrementAndGet();
+            stock.hitCount.incrementAndGet();
+        }else{
+            stock.missCount.incrementAndGet();
+        }
+        checkWatermark(stock);
+        return Optional.ofNullable(crossword);
+    }
+
+    /**
+     * Takes a ready crossword of the size class, or generates one on the calling thread if the stock is empty.
+     * The crossword generated on the calling thread is finished even if the pool is closed meanwhile.
+     * @param parameters The parameters of the size class.
+     * @return The crossword.
+     * @throws CrosswordException If the pool has no such size class or the crossword cannot be generated.
+     */
+    public Crossword take(@NotNull CrosswordParameters parameters){
+        return poll(parameters).orElseGet(() -> generator.apply(parameters, CrosswordDeadline.none()));
+    }
+
+    /**
+     * Retrieves the number of ready crosswords of the size class.
+     * @param parameters The parameters of the size class.
+     * @return The number of crosswords.
+     * @throws CrosswordException If the pool has no such size class.
+     */
+    public int getDepth(@NotNull CrosswordParameters parameters){
+        return getStock(parameters).depth.get();
+    }
+
+    /**
+     * Retrieves statistics of the size class so far.
+     * @param parameters The parameters of the size class.
+     * @return The statistics.
+     * @throws CrosswordException If the pool has no such size class.
+     */
+    public CrosswordPoolStatistics getStatistics(@NotNull CrosswordParameters parameters){
+        Stock stock = getStock(parameters);
+        return new CrosswordPoolStatistics(stock.parameters, stock.depth.get(), stock.targetDepth, stock.lowWatermark,
+                stock.hitCount.get(), stock.missCount.get(), stock.refilledCount.get(), stock.failedCount.get(),
+                System.nanoTime() - startTime);
+    }
+
+    /**
+     * Retrieves statistics of all size classes so far.
+     * @return The statistics, in no particular order.
+     */
+    public List<CrosswordPoolStatistics> getStatistics(){
+        return stocks.keySet().stream().map(this::getStatistics).toList();
+    }
+
+    /**
+     * Stops the workers, crosswords being generated are dropped as soon as they draw their next word.
+     * Ready crosswords may still be taken.
+     */
+    @Override
+    public void close(){
+        closed = true;
+        deadline.cancel();
+        workers.forEach(Thread::interrupt);
+    }
+
+    private Stock getStock(CrosswordParameters parameters){
+        Stock stock = stocks.get(parameters);
+        if(stock == null) throw new CrosswordException("Pool has no crosswords of " + parameters);
+        return stock;
+    }
+
+    /**
+     * Starts a refill of the size class if its stock is at or below the low watermark and no refill is running.
+     * As many workers as crosswords are missing, up to all of them, are asked to refill it.
+     */
+    private void checkWatermark(Stock stock){
+        if(closed || stock.depth.get() > stock.lowWatermark || !stock.refilling.compareAndSet(false, true)) return;
+        int refillingWorkers = Math.max(1, Math.min(workers.size(), stock.targetDepth - stock.depth.get()));
+        stock.refillingWorkers.set(refillingWorkers);
+        for(int i = 0; i < refillingWorkers; i++){
+            refills.add(stock);
+        }
+    }
+
+    private void work(){
+        try{
+            while(!closed){
+                refill(refills.take());
+            }
+        }catch(InterruptedException e){
+            // closed
+        }
+    }
+
+    /**
+     * Generates crosswords of the size class until its stock is full.
+     */
+    private void refill(Stock stock){
+        boolean failed = false;
+        try{
+            while(!closed && !failed && stock.reserve()){
+                try{
+                    Crossword crossword = generator.apply(stock.parameters, deadline);
+                    // a crossword cut short by the closing pool is not finished
+                    if(closed) break;
+                    stock.crosswords.add(crossword);
+                    stock.depth.incrementAndGet();
+                    stock.refilledCount.incrementAndGet();
+                }catch(Throwable e){
+                    // errors are counted too, so the worker keeps serving refills
+                    // the refill is retried with the next request, not in a loop while the source is failing
+                    stock.failedCount.incrementAndGet();
+                    failed = true;
+                    // errors of the virtual machine are not swallowed, the refill is released on the way out
+                    if(e instanceof VirtualMachineError) throw e;
+                }finally{
+                    stock.reserved.decrementAndGet();
+                }
+            }
+        }finally{
+            if(stock.refillingWorkers.decrementAndGet() == 0){
+                stock.refilling.set(false);
+                // crosswords taken while the last ones were being generated
+                if(!failed) checkWatermark(stock);
+            }
+        }
+    }
+}
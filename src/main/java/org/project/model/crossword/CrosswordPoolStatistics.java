@@ -0,0 +1,37 @@
+package org.project.model.crossword;
+
+/**
+ * Stock and refills of a single size class of a {@link CrosswordPool}, taken at one moment.
+ * @param parameters The parameters of the crosswords of the size class.
+ * @param depth The number of ready crosswords.
+ * @param targetDepth The number of ready crosswords the pool refills to.
+ * @param lowWatermark The number of ready crosswords at or below which a refill starts.
+ * @param hitCount The number of crosswords handed out from the stock.
+ * @param missCount The number of requests which found the stock empty.
+ * @param refilledCount The number of crosswords generated in the background.
+ * @param failedCount The number of background generations which failed.
+ * @param elapsedNanoseconds The time since the pool was created in nanoseconds.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public record CrosswordPoolStatistics(CrosswordParameters parameters, int depth, int targetDepth, int lowWatermark,
+                                      long hitCount, long missCount, long refilledCount, long failedCount,
+                                      long elapsedNanoseconds) {
+
+    /**
+     * Retrieves the number of crosswords generated in the background per second, since the pool was created.
+     * @return The number of crosswords per second.
+     */
+    public double refillRatePerSecond(){
+        return elapsedNanoseconds == 0 ? 0 : refilledCount * 1e9 / elapsedNanoseconds;
+    }
+
+    /**
+     * Retrieves the part of requests served from the stock.
+     * @return The hit ratio from 0 to 1, 0 if there were no requests.
+     */
+    public double hitRatio(){
+        long requests = hitCount + missCount;
+        return requests == 0 ? 0 : (double) hitCount / requests;
+    }
+}
@@ -0,0 +1,34 @@
+package org.project.model.crossword;
+
+/**
+ * Reasons why a word cannot be placed across a cell of the grid, counted by a {@link CrosswordMetricsRecorder}.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public enum CrosswordRejection {
+
+    /**
+     * The cell before the first letter of the word holds a letter.
+     */
+    BLOCKED_BEFORE,
+
+    /**
+     * The cell after the last letter of the word holds a letter.
+     */
+    BLOCKED_AFTER,
+
+    /**
+     * A cell the word would fill touches a letter of another word on its side.
+     */
+    ADJACENT_LETTER,
+
+    /**
+     * A cell the word crosses holds a different letter.
+     */
+    LETTER_MISMATCH,
+
+    /**
+     * The word would start at the first letter of another word.
+     */
+    FIRST_LETTER_CROSSING
+}
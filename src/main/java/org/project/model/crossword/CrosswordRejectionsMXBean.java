@@ -0,0 +1,22 @@
+package org.project.model.crossword;
+
+/**
+ * Management interface of the numbers of rejected placement candidates by {@link CrosswordRejection},
+ * registered by {@link CrosswordMetrics#registerMBeans(String)}.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public interface CrosswordRejectionsMXBean {
+
+    long getBlockedBeforeCount();
+
+    long getBlockedAfterCount();
+
+    long getAdjacentLetterCount();
+
+    long getLetterMismatchCount();
+
+    long getFirstLetterCrossingCount();
+
+    long getTotalCount();
+}
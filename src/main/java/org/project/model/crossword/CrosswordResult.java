@@ -0,0 +1,12 @@
+package org.project.model.crossword;
+
+/**
+ * Crossword built by {@link CrosswordFactory#generate(WordSource, CrosswordParameters, CrosswordDeadline)}.
+ * @param crossword The best crossword reached, complete or not.
+ * @param targetReached True if all requested words, and the clue word if requested, were inserted.
+ *                      False if the deadline expired or the attempts ran out first.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public record CrosswordResult(Crossword crossword, boolean targetReached) {
+}
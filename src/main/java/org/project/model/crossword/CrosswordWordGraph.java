@@ -0,0 +1,395 @@
+package org.project.model.crossword;
+
+import java.util.Arrays;
+
+/**
+ * Placed words of a crossword and the cells they share. Words are identified by the order
+ * of their placement, an id is never reused after its word is removed.
+ * <p>
+ * Cells of a word are its first cell, direction and length, so any of them is found in constant time.
+ * A cell is usually shared by two crossing words, but a word may also lie inside a longer word
+ * of the same direction, like AKTOR inside TRAKTOR. Every letter of a word keeps the next word
+ * on its cell, so the words of a cell form a ring, which gives the neighbours of a word without looking
+ * at the grid. Horizontal words are linked into lists by rows and vertical words by columns,
+ * so a word covering a cell is searched among the few words of its line only.
+ * <p>
+ * Positions are relative to the first cell of the grid before it grew, the model translates them.
+ * A copy shares the rings with its source, the ring links of a word are copied before they are first changed.
+ *
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+final class CrosswordWordGraph {
+
+    /**
+     * Id standing for no word.
+     */
+    static final int NONE = -1;
+
+    /**
+     * Ints kept for every word: first row, first column, length (0 once removed), 1 if vertical, word number,
+     * number of letters shared with other words, next and previous word of the same line.
+     */
+    private static final int WORD_SIZE = 8;
+
+    private static final int WORD_ROW = 0;
+
+    private static final int WORD_COLUMN = 1;
+
+    private static final int WORD_LENGTH = 2;
+
+    private static final int WORD_VERTICAL = 3;
+
+    private static final int WORD_NUMBER = 4;
+
+    private static final int WORD_SHARED = 5;
+
+    private static final int WORD_NEXT = 6;
+
+    private static final int WORD_PREVIOUS = 7;
+
+    private static final int[] EMPTY_INTS = new int[0];
+
+    private static final int[][] EMPTY_LINKS = new int[0][];
+
+    private static final boolean[] EMPTY_FLAGS = new boolean[0];
+
+    private int[] words;
+
+    /**
+     * Number of ids given, including removed words.
+     */
+    private int size;
+
+    private int wordsCount;
+
+    /**
+     * Id of the next word on the cell of every letter of a word, {@link #NONE} for letters of this word only.
+     */
+    private int[][] nextOnCell;
+
+    /**
+     * True for the ring links owned by this graph, the others are shared with a copy.
+     */
+    private boolean[] nextOnCellOwned;
+
+    /**
+     * First horizontal word of every row, from {@link #firstRow}.
+     */
+    private int[] rowHeads;
+
+    private int firstRow;
+
+    /**
+     * First vertical word of every column, from {@link #firstColumn}.
+     */
+    private int[] columnHeads;
+
+    private int firstColumn;
+
+    /**
+     * Creates an empty graph, its arrays are allocated with the first word.
+     */
+    CrosswordWordGraph(){
+        words = EMPTY_INTS;
+        nextOnCell = EMPTY_LINKS;
+        nextOnCellOwned = EMPTY_FLAGS;
+        rowHeads = EMPTY_INTS;
+        columnHeads = EMPTY_INTS;
+    }
+
+    /**
+     * Creates a graph with the same words as the given one. The ring links are shared, so the given graph
+     * must not be changed afterwards, the model copies it again instead.
+     * @param crosswordWordGraph The graph to copy.
+     */
+    CrosswordWordGraph(CrosswordWordGraph crosswordWordGraph){
+        words = crosswordWordGraph.words.clone();
+        size = crosswordWordGraph.size;
+        wordsCount = crosswordWordGraph.wordsCount;
+        nextOnCell = crosswordWordGraph.nextOnCell.clone();
+        nextOnCellOwned = new boolean[nextOnCell.length];
+        rowHeads = crosswordWordGraph.rowHeads.clone();
+        firstRow = crosswordWordGraph.firstRow;
+        columnHeads = crosswordWordGraph.columnHeads.clone();
+        firstColumn = crosswordWordGraph.firstColumn;
+    }
+
+    /**
+     * Records a word and links it into the rings of its cells.
+     * @param wordNumber The number of the word.
+     * @param rowIndex The row of the first letter.
+     * @param columnIndex The column of the first letter.
+     * @param vertical True if the word goes down, false if it goes right.
+     * @param length The number of letters of the word.
+     * @return The id of the word.
+     */
+    int addWord(int wordNumber, int rowIndex, int columnIndex, boolean vertical, int length){
+        if(length <= 0) throw new CrosswordException("Word has to have letters");
+        int id = size;
+        if((id + 1) * WORD_SIZE > words.length){
+            int capacity = Math.max(4, 2 * size);
+            words = Arrays.copyOf(words, capacity * WORD_SIZE);
+            nextOnCell = Arrays.copyOf(nextOnCell, capacity);
+            nextOnCellOwned = Arrays.copyOf(nextOnCellOwned, capacity);
+        }
+        int offset = id * WORD_SIZE;
+        words[offset + WORD_ROW] = rowIndex;
+        words[offset + WORD_COLUMN] = columnIndex;
+        words[offset + WORD_LENGTH] = length;
+        words[offset + WORD_VERTICAL] = vertical ? 1 : 0;
+        words[offset + WORD_NUMBER] = wordNumber;
+        words[offset + WORD_SHARED] = 0;
+        size++;
+        wordsCount++;
+
+        int[] wordNextOnCell = new int[length];
+        nextOnCell[id] = wordNextOnCell;
+        nextOnCellOwned[id] = true;
+        for(int i = 0; i < length; i++){
+            int cellRow = vertical ? rowIndex + i : rowIndex;
+            int cellColumn = vertical ? columnIndex : columnIndex + i;
+            int other = getWordAt(cellRow, cellColumn);
+            if(other == NONE){
+                wordNextOnCell[i] = NONE;
+                continue;
+            }
+            // the word is put into the ring right after the word found
+            int otherNext = getNextOnCell(other, cellRow, cellColumn);
+            wordNextOnCell[i] = otherNext == NONE ? other : otherNext;
+            if(otherNext == NONE) words[other * WORD_SIZE + WORD_SHARED]++;
+            setNextOnCell(other, cellRow, cellColumn, id);
+            words[offset + WORD_SHARED]++;
+        }
+        link(id);
+        return id;
+    }
+
+    /**
+     * Forgets the word, it is taken out of the rings of its cells. Takes time proportional to the length of the word,
+     * as a cell is shared by a few words at most.
+     * @param id The id of the word.
+     */
+    void removeWord(int id){
+        checkWord(id);
+        int offset = id * WORD_SIZE;
+        int[] wordNextOnCell = nextOnCell[id];
+        for(int i = 0; i < wordNextOnCell.length; i++){
+            int next = wordNextOnCell[i];
+            if(next == NONE) continue;
+            int cellRow = getCellRow(id, i);
+            int cellColumn = getCellColumn(id, i);
+            int previous = next;
+            while(getNextOnCell(previous, cellRow, cellColumn) != id) previous = getNextOnCell(previous, cellRow, cellColumn);
+            // a ring of two words leaves the other one alone on the cell
+            if(previous == next){
+                setNextOnCell(previous, cellRow, cellColumn, NONE);
+                words[previous * WORD_SIZE + WORD_SHARED]--;
+            }else{
+                setNextOnCell(previous, cellRow, cellColumn, next);
+            }
+        }
+        unlink(id);
+        words[offset + WORD_LENGTH] = 0;
+        words[offset + WORD_SHARED] = 0;
+        nextOnCell[id] = null;
+        nextOnCellOwned[id] = false;
+        wordsCount--;
+    }
+
+    /**
+     * Retrieves the number of ids given, words with ids from 0 to this number exclusive may exist.
+     * @return The number of ids.
+     */
+    int size(){
+        return size;
+    }
+
+    /**
+     * Retrieves the number of words which are not removed.
+     * @return The number of words.
+     */
+    int getWordsCount(){
+        return wordsCount;
+    }
+
+    /**
+     * Checks whether the word is placed and not removed.
+     * @param id The id of the word.
+     * @return True if the word exists.
+     */
+    boolean contains(int id){
+        return id >= 0 && id < size && words[id * WORD_SIZE + WORD_LENGTH] != 0;
+    }
+
+    int getRow(int id){
+        checkWord(id);
+        return words[id * WORD_SIZE + WORD_ROW];
+    }
+
+    int getColumn(int id){
+        checkWord(id);
+        return words[id * WORD_SIZE + WORD_COLUMN];
+    }
+
+    int getLength(int id){
+        checkWord(id);
+        return words[id * WORD_SIZE + WORD_LENGTH];
+    }
+
+    boolean isVertical(int id){
+        checkWord(id);
+        return words[id * WORD_SIZE + WORD_VERTICAL] == 1;
+    }
+
+    int getNumber(int id){
+        checkWord(id);
+        return words[id * WORD_SIZE + WORD_NUMBER];
+    }
+
+    /**
+     * Retrieves the row of a letter of the word.
+     * @param id The id of the word.
+     * @param letterIndex The position of the letter in the word.
+     * @return The row of the cell.
+     */
+    int getCellRow(int id, int letterIndex){
+        return isVertical(id) ? getRow(id) + letterIndex : getRow(id);
+    }
+
+    /**
+     * Retrieves the column of a letter of the word.
+     * @param id The id of the word.
+     * @param letterIndex The position of the letter in the word.
+     * @return The column of the cell.
+     */
+    int getCellColumn(int id, int letterIndex){
+        return isVertical(id) ? getColumn(id) : getColumn(id) + letterIndex;
+    }
+
+    /**
+     * Retrieves the next word on the cell of a letter of the word. Following the next words
+     * leads through every word of the cell back to the given one.
+     * @param id The id of the word.
+     * @param letterIndex The position of the letter in the word.
+     * @return The id of the next word, {@link #NONE} if no other word has the cell.
+     */
+    int getNextWordOnCell(int id, int letterIndex){
+        checkWord(id);
+        return nextOnCell[id][letterIndex];
+    }
+
+    /**
+     * Retrieves the number of letters of the word shared with other words.
+     * @param id The id of the word.
+     * @return The number of shared letters.
+     */
+    int getSharedLettersCount(int id){
+        checkWord(id);
+        return words[id * WORD_SIZE + WORD_SHARED];
+    }
+
+    /**
+     * Finds the word of the given direction covering the cell, among the words of its row or column.
+     * @param rowIndex The row of the cell.
+     * @param columnIndex The column of the cell.
+     * @param vertical The direction of the word.
+     * @return The id of the word, {@link #NONE} if there is no such word.
+     */
+    int getWordAt(int rowIndex, int columnIndex, boolean vertical){
+        int line = vertical ? columnIndex - firstColumn : rowIndex - firstRow;
+        int[] heads = vertical ? columnHeads : rowHeads;
+        if(line < 0 || line >= heads.length) return NONE;
+        int along = vertical ? rowIndex : columnIndex;
+        for(int id = heads[line] - 1; id != NONE; id = words[id * WORD_SIZE + WORD_NEXT] - 1){
+            int start = words[id * WORD_SIZE + (vertical ? WORD_ROW : WORD_COLUMN)];
+            if(along >= start && along < start + words[id * WORD_SIZE + WORD_LENGTH]) return id;
+        }
+        return NONE;
+    }
+
+    /**
+     * Finds a word covering the cell, horizontal first.
+     * @param rowIndex The row of the cell.
+     * @param columnIndex The column of the cell.
+     * @return The id of the word, {@link #NONE} if the cell has no word.
+     */
+    int getWordAt(int rowIndex, int columnIndex){
+        int id = getWordAt(rowIndex, columnIndex, false);
+        return id != NONE ? id : getWordAt(rowIndex, columnIndex, true);
+    }
+
+    private void checkWord(int id){
+        if(!contains(id)) throw new CrosswordException("Word " + id + " is not placed");
+    }
+
+    private int getNextOnCell(int id, int rowIndex, int columnIndex){
+        return nextOnCell[id][letterIndexOf(id, rowIndex, columnIndex)];
+    }
+
+    /**
+     * Sets the next word on the cell of the word, copying the ring links of the word if shared.
+     */
+    private void setNextOnCell(int id, int rowIndex, int columnIndex, int next){
+        if(!nextOnCellOwned[id]){
+            nextOnCell[id] = nextOnCell[id].clone();
+            nextOnCellOwned[id] = true;
+        }
+        nextOnCell[id][letterIndexOf(id, rowIndex, columnIndex)] = next;
+    }
+
+    private int letterIndexOf(int id, int rowIndex, int columnIndex){
+        int offset = id * WORD_SIZE;
+        return words[offset + WORD_VERTICAL] == 1
+                ? rowIndex - words[offset + WORD_ROW] : columnIndex - words[offset + WORD_COLUMN];
+    }
+
+    /**
+     * Puts the word at the front of the list of its row or column, growing the heads of lines when needed.
+     * Heads are kept as ids plus one, so zeroed slots stand for empty lines.
+     */
+    private void link(int id){
+        int offset = id * WORD_SIZE;
+        boolean vertical = words[offset + WORD_VERTICAL] == 1;
+        int lineIndex = vertical ? words[offset + WORD_COLUMN] : words[offset + WORD_ROW];
+        int[] heads = vertical ? columnHeads : rowHeads;
+        int first = vertical ? firstColumn : firstRow;
+        if(heads.length == 0) first = lineIndex;
+        if(lineIndex < first || lineIndex >= first + heads.length){
+            // the free lines added on the side which ran out grow with the number of lines
+            int newFirst = Math.min(first, lineIndex);
+            int newEnd = Math.max(first + heads.length, lineIndex + 1);
+            if(lineIndex < first) newFirst -= heads.length; else newEnd += heads.length;
+            int[] newHeads = new int[newEnd - newFirst];
+            System.arraycopy(heads, 0, newHeads, first - newFirst, heads.length);
+            heads = newHeads;
+            first = newFirst;
+            if(vertical){
+                columnHeads = heads;
+                firstColumn = first;
+            }else{
+                rowHeads = heads;
+                firstRow = first;
+            }
+        }
+        int line = lineIndex - first;
+        words[offset + WORD_NEXT] = heads[line];
+        words[offset + WORD_PREVIOUS] = 0;
+        if(heads[line] != 0) words[(heads[line] - 1) * WORD_SIZE + WORD_PREVIOUS] = id + 1;
+        heads[line] = id + 1;
+    }
+
+    private void unlink(int id){
+        int offset = id * WORD_SIZE;
+        int next = words[offset + WORD_NEXT];
+        int previous = words[offset + WORD_PREVIOUS];
+        if(previous != 0){
+            words[(previous - 1) * WORD_SIZE + WORD_NEXT] = next;
+        }else if(words[offset + WORD_VERTICAL] == 1){
+            columnHeads[words[offset + WORD_COLUMN] - firstColumn] = next;
+        }else{
+            rowHeads[words[offset + WORD_ROW] - firstRow] = next;
+        }
+        if(next != 0) words[(next - 1) * WORD_SIZE + WORD_PREVIOUS] = previous;
+    }
+}
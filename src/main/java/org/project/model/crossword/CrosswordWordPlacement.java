@@ -1,7 +1,5 @@
 package org.project.model.crossword;
 
-import java.util.Optional;
-
 final class CrosswordWordPlacement {
     enum Direction {
         HORIZONTAL,
@@ -21,43 +19,105 @@ final class CrosswordWordPlacement {
         this.wordNumber = wordNumber;
     }
 
-    void placeWord(CrosswordMatrixModel crossword){
+    int getRowIndex(){
+        return rowIndex;
+    }
+
+    int getColumnIndex(){
+        return columnIndex;
+    }
+
+    Direction getDirection(){
+        return direction;
+    }
+
+    String getWord(){
+        return word;
+    }
+
+    /**
+     * Creates the same placement of the word under another number.
+     */
+    CrosswordWordPlacement withWordNumber(int wordNumber){
+        return new CrosswordWordPlacement(rowIndex, columnIndex, direction, word, wordNumber);
+    }
+
+    /**
+     * Writes the letters of the word into the crossword and records the word in its word graph.
+     * @return The id of the word in the word graph.
+     */
+    int placeWord(CrosswordMatrixModel crossword){
         int tempRowIndex = rowIndex;
         int tempColumnIndex = columnIndex;
-        CrosswordLetterModel firstLetter = new CrosswordLetterModel(word.charAt(0));
-        firstLetter.setFirstLetter(wordNumber);
+        char firstLetter = word.charAt(0);
         if(direction == Direction.HORIZONTAL){
             if(columnIndex < 0){
-                crossword.setValueOutOfBounds(tempRowIndex, tempColumnIndex, firstLetter);
+                crossword.placeFirstLetter(tempRowIndex, tempColumnIndex, firstLetter, wordNumber);
                 tempColumnIndex = 1;
             }else{
-                crossword.setValueOutOfBounds(tempRowIndex, tempColumnIndex++, firstLetter);
+                crossword.placeFirstLetter(tempRowIndex, tempColumnIndex++, firstLetter, wordNumber);
             }
             for(int i = 1; i < word.length(); i++){
-                Optional<CrosswordLetterModel> optionalLetter = crossword.getValueIfInBounds(tempRowIndex, tempColumnIndex);
-                if(optionalLetter.isPresent() && optionalLetter.get().isFirstLetter()){
+                if(crossword.isFirstLetter(tempRowIndex, tempColumnIndex)){
                     tempColumnIndex++;
                 }else{
-                    crossword.setValueOutOfBounds(tempRowIndex, tempColumnIndex++, new CrosswordLetterModel(word.charAt(i)));
+                    crossword.placeLetter(tempRowIndex, tempColumnIndex++, word.charAt(i));
                 }
 
             }
         }else if (direction == Direction.VERTICAL){
             if(rowIndex < 0){
-                crossword.setValueOutOfBounds(tempRowIndex, tempColumnIndex, firstLetter);
+                crossword.placeFirstLetter(tempRowIndex, tempColumnIndex, firstLetter, wordNumber);
                 tempRowIndex = 1;
             }else{
-                crossword.setValueOutOfBounds(tempRowIndex++, tempColumnIndex, firstLetter);
+                crossword.placeFirstLetter(tempRowIndex++, tempColumnIndex, firstLetter, wordNumber);
             }
             for(int i = 1; i < word.length(); i++){
-                Optional<CrosswordLetterModel> optionalLetter = crossword.getValueIfInBounds(tempRowIndex, tempColumnIndex);
-                if(optionalLetter.isPresent() && optionalLetter.get().isFirstLetter()){
+                if(crossword.isFirstLetter(tempRowIndex, tempColumnIndex)){
                     tempRowIndex++;
                 }else{
-                    crossword.setValueOutOfBounds(tempRowIndex++, tempColumnIndex, new CrosswordLetterModel(word.charAt(i)));
+                    crossword.placeLetter(tempRowIndex++, tempColumnIndex, word.charAt(i));
                 }
 
             }
         }
+        // a negative index grew the grid, so the word starts at its edge
+        return crossword.addWord(word, wordNumber, Math.max(0, rowIndex), Math.max(0, columnIndex),
+                direction == Direction.VERTICAL, word.length());
+    }
+
+    /**
+     * Calculates the number of rows the crossword will have after this placement, without placing the word.
+     */
+    int getNumberOfRowsAfterPlacement(CrosswordMatrixModel crossword){
+        if(direction == Direction.VERTICAL){
+            return Math.max(crossword.getNumberOfRows(), rowIndex + word.length()) - Math.min(0, rowIndex);
+        }
+        return Math.max(crossword.getNumberOfRows(), rowIndex + 1) - Math.min(0, rowIndex);
+    }
+
+    /**
+     * Calculates the number of columns the crossword will have after this placement, without placing the word.
+     */
+    int getNumberOfColumnsAfterPlacement(CrosswordMatrixModel crossword){
+        if(direction == Direction.HORIZONTAL){
+            return Math.max(crossword.getNumberOfColumns(), columnIndex + word.length()) - Math.min(0, columnIndex);
+        }
+        return Math.max(crossword.getNumberOfColumns(), columnIndex + 1) - Math.min(0, columnIndex);
+    }
+
+    /**
+     * Counts cells which are empty now and will hold a letter after this placement.
+     */
+    int countNewLetters(CrosswordMatrixModel crossword){
+        int count = 0;
+        for(int i = 0; i < word.length(); i++){
+            int tempRowIndex = direction == Direction.VERTICAL ? rowIndex + i : rowIndex;
+            int tempColumnIndex = direction == Direction.HORIZONTAL ? columnIndex + i : columnIndex;
+            if(crossword.getLetterIfInBounds(tempRowIndex, tempColumnIndex) == CrosswordMatrixModel.EMPTY){
+                count++;
+            }
+        }
+        return count;
     }
 }
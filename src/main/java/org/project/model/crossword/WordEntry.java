@@ -0,0 +1,11 @@
+package org.project.model.crossword;
+
+/**
+ * A word with its meaning, as provided by a {@link WordSource}.
+ * @param word The word.
+ * @param meaning The meaning used as the description of the word.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public record WordEntry(String word, String meaning) {
+}
@@ -0,0 +1,202 @@
+package org.project.model.crossword;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Index of words by length, by letter at a position and by letters they contain, kept as bit sets over word numbers.
+ * It answers which words fit a slot pattern or cross a given letter without trying every word,
+ * so generators draw only words which have a chance to fit instead of fetching words until one does.
+ * Only the bit sets are kept, words themselves are looked up by number when drawn.
+ * Words are indexed in upper case. An index is read only once built and can be shared by many threads.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public final class WordIndex {
+
+    /**
+     * Wildcard matching any letter in {@link #matching(String)} patterns.
+     */
+    public static final char ANY_LETTER = '.';
+
+    final private int size;
+
+    final private IntFunction<WordEntry> entries;
+
+    /**
+     * Words of every length, indexed by length.
+     */
+    final private BitSet[] byLength;
+
+    /**
+     * Words having a letter at a position, indexed by position.
+     */
+    final private Map<Character, BitSet[]> byLetterAtPosition;
+
+    /**
+     * Words containing a letter anywhere.
+     */
+    final private Map<Character, BitSet> byLetter;
+
+    /**
+     * Creates an index of words held in memory.
+     * @param entries The words with meanings.
+     * @return The index.
+     */
+    public static WordIndex of(@NotNull List<WordEntry> entries){
+        return new WordIndex(entries.size(), entries::get);
+    }
+
+    /**
+     * Creates an index of words looked up by number, e.g. in a dictionary file. Every word is looked up once here,
+     * then only when drawn.
+     * @param size The number of words.
+     * @param entries The function returning the word with the given number, from 0 to size - 1.
+     */
+    public WordIndex(int size, @NotNull IntFunction<WordEntry> entries){
+        if(size < 0) throw new CrosswordException("Size cannot be negative");
+        this.size = size;
+        this.entries = entries;
+        this.byLetterAtPosition = new HashMap<>();
+        this.byLetter = new HashMap<>();
+
+        int maximalLength = 0;
+        BitSet[] lengths = new BitSet[1];
+        for(int number = 0; number < size; number++){
+            String word = entries.apply(number).word().toUpperCase();
+            if(word.length() >= lengths.length){
+                lengths = Arrays.copyOf(lengths, Math.max(word.length() + 1, lengths.length * 2));
+            }
+            if(lengths[word.length()] == null) lengths[word.length()] = new BitSet();
+            lengths[word.length()].set(number);
+            maximalLength = Math.max(maximalLength, word.length());
+            for(int position = 0; position < word.length(); position++){
+                char letter = word.charAt(position);
+                BitSet[] positions = byLetterAtPosition.computeIfAbsent(letter, _ -> new BitSet[0]);
+                if(positions.length <= position){
+                    positions = Arrays.copyOf(positions, position + 1);
+                    byLetterAtPosition.put(letter, positions);
+                }
+                if(positions[position] == null) positions[position] = new BitSet();
+                positions[position].set(number);
+                byLetter.computeIfAbsent(letter, _ -> new BitSet()).set(number);
+            }
+        }
+        this.byLength = Arrays.copyOf(lengths, maximalLength + 1);
+    }
+
+    /**
+     * Retrieves the number of indexed words.
+     * @return The number of words.
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Retrieves the word with the specified number.
+     * @param number The number of the word.
+     * @return The word with its meaning.
+     */
+    public WordEntry get(int number){
+        return entries.apply(Objects.checkIndex(number, size));
+    }
+
+    /**
+     * Retrieves the letters of the indexed words.
+     * @return The upper case letters.
+     */
+    public Set<Character> getLetters(){
+        return byLetter.keySet();
+    }
+
+    /**
+     * Finds words of the specified length.
+     * @param length The length of the words.
+     * @return A new set of word numbers.
+     */
+    public BitSet withLength(int length){
+        if(length < 0 || length >= byLength.length || byLength[length] == null) return new BitSet();
+        return (BitSet) byLength[length].clone();
+    }
+
+    /**
+     * Finds words of any length from the given range.
+     * @param minimalLength The minimal length, inclusive.
+     * @param maximalLength The maximal length, inclusive.
+     * @return A new set of word numbers.
+     */
+    public BitSet withLength(int minimalLength, int maximalLength){
+        BitSet result = new BitSet();
+        for(int length = Math.max(minimalLength, 0); length <= Math.min(maximalLength, byLength.length - 1); length++){
+            if(byLength[length] != null) result.or(byLength[length]);
+        }
+        return result;
+    }
+
+    /**
+     * Finds words containing the specified letter anywhere.
+     * @param letter The letter.
+     * @return A new set of word numbers.
+     */
+    public BitSet containing(char letter){
+        BitSet words = byLetter.get(Character.toUpperCase(letter));
+        return words == null ? new BitSet() : (BitSet) words.clone();
+    }
+
+    /**
+     * Finds words with the specified letter at the specified position.
+     * @param letter The letter.
+     * @param position The position in the word, from 0.
+     * @return A new set of word numbers.
+     */
+    public BitSet withLetterAt(char letter, int position){
+        BitSet[] positions = byLetterAtPosition.get(Character.toUpperCase(letter));
+        if(positions == null || position < 0 || position >= positions.length || positions[position] == null)
+            return new BitSet();
+        return (BitSet) positions[position].clone();
+    }
+
+    /**
+     * Finds words fitting a slot, e.g. "..T.A" for a five letter slot crossing T and A.
+     * @param pattern The letters of the slot, {@link #ANY_LETTER} for free cells.
+     * @return A new set of word numbers.
+     */
+    public BitSet matching(@NotNull String pattern){
+        BitSet result = withLength(pattern.length());
+        for(int position = 0; position < pattern.length() && !result.isEmpty(); position++){
+            char letter = pattern.charAt(position);
+            if(letter == ANY_LETTER) continue;
+            BitSet[] positions = byLetterAtPosition.get(Character.toUpperCase(letter));
+            if(positions == null || position >= positions.length || positions[position] == null) return new BitSet();
+            result.and(positions[position]);
+        }
+        return result;
+    }
+
+    /**
+     * Picks a random word number from the set.
+     * @param words The set of word numbers.
+     * @param random The source of randomness.
+     * @return The word number, -1 if the set is empty.
+     */
+    public static int pick(@NotNull BitSet words, @NotNull Random random){
+        int cardinality = words.cardinality();
+        if(cardinality == 0) return -1;
+        int skipped = random.nextInt(cardinality);
+        int number = words.nextSetBit(0);
+        for(int i = 0; i < skipped; i++){
+            number = words.nextSetBit(number + 1);
+        }
+        return number;
+    }
+}
@@ -0,0 +1,33 @@
+package org.project.model.crossword;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A source of words with meanings used to fill crosswords, for example a dictionary or an online word service.
+ * Sources shared by a {@link CrosswordBatchGenerator} are called from many threads at once and have to be thread safe.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface WordSource {
+
+    /**
+     * Retrieves the next word with its meaning.
+     * @return The next word entry.
+     * @throws CrosswordException If the source cannot provide a word.
+     */
+    WordEntry nextWord() throws CrosswordException;
+
+    /**
+     * Retrieves the next word with its meaning, waiting at most the specified time for it.
+     * Sources which wait for words, for example on network, should override it, the default implementation
+     * does not wait on anything but {@link #nextWord()}.
+     * @param timeout The maximal time to wait.
+     * @param unit The unit of the timeout.
+     * @return The next word entry, or null if no word was available in time.
+     * @throws CrosswordException If the source cannot provide a word.
+     */
+    default WordEntry nextWord(long timeout, TimeUnit unit) throws CrosswordException{
+        return nextWord();
+    }
+}
@@ -2,15 +2,18 @@ package org.project.model.crossword.structures;
 
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Arrays;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
  * Class that represents adjustable array structure.
  * It's main feature is to insert new values even in non-existing index.
+ * Elements are kept in a bigger array with free slack before and after them, so growing in either direction
+ * copies the elements only once the slack on that side is used up. The slack grows geometrically.
  * @param <T>
  *
  * @author Pawe&#x142; Drzazga
@@ -19,10 +22,25 @@ import java.util.stream.Stream;
 public class DynamicArray<T> implements Iterable<T>{
 
     /**
-     * An array to store elements of type T. Main data container.
+     * Minimal number of free slots added to a side of the array when it has to grow.
+     */
+    protected static final int MINIMAL_SLACK = 4;
+
+    /**
+     * An array to store elements of type T. Main data container, its length is the capacity.
      */
     protected T[] data;
 
+    /**
+     * Position of the first element in the data array.
+     */
+    private int offset;
+
+    /**
+     * Number of elements in the DynamicArray.
+     */
+    private int size;
+
     /**
      * Constructs a new instance of the DynamicArray class with the default size of 0.
      */
@@ -38,6 +56,7 @@ public class DynamicArray<T> implements Iterable<T>{
     @SuppressWarnings("unchecked")
     public DynamicArray(int size){
         data = (T[]) new Object[size];
+        this.size = size;
     }
 
     /**
@@ -46,6 +65,8 @@ public class DynamicArray<T> implements Iterable<T>{
      */
     public DynamicArray(DynamicArray<T> dynamicArray){
         data = dynamicArray.data.clone();
+        offset = dynamicArray.offset;
+        size = dynamicArray.size;
     }
 
     /**
@@ -67,7 +88,11 @@ public class DynamicArray<T> implements Iterable<T>{
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         DynamicArray<?> that = (DynamicArray<?>) o;
-        return Objects.deepEquals(data, that.data);
+        if(getSize() != that.getSize()) return false;
+        for(int i = 0; i < getSize(); i++){
+            if(!Objects.deepEquals(data[physicalIndex(i)], that.data[that.physicalIndex(i)])) return false;
+        }
+        return true;
     }
 
     /**
@@ -76,7 +101,11 @@ public class DynamicArray<T> implements Iterable<T>{
      */
     @Override
     public int hashCode() {
-        return Arrays.hashCode(data);
+        int result = 1;
+        for(T value : this){
+            result = 31 * result + Objects.hashCode(value);
+        }
+        return result;
     }
 
     /**
@@ -91,7 +120,7 @@ public class DynamicArray<T> implements Iterable<T>{
          */
         @Override
         public boolean hasNext() {
-            return currentIndex < data.length;
+            return currentIndex < getSize();
         }
 
         /**
@@ -100,7 +129,8 @@ public class DynamicArray<T> implements Iterable<T>{
          */
         @Override
         public T next() {
-            return data[currentIndex++];
+            if(!hasNext()) throw new NoSuchElementException();
+            return data[physicalIndex(currentIndex++)];
         }
     }
 
@@ -110,7 +140,7 @@ public class DynamicArray<T> implements Iterable<T>{
      * @param value The value to be stored at the specified index.
      */
     public void setValue(int index, T value){
-        data[index] = value;
+        data[physicalIndex(Objects.checkIndex(index, getSize()))] = value;
     }
 
     /**
@@ -121,10 +151,10 @@ public class DynamicArray<T> implements Iterable<T>{
      */
     @SuppressWarnings("unchecked")
     final public void setValueOutOfBounds(int index, T value){
-        if(index < data.length && index >= 0){
+        if(index < size && index >= 0){
             setValue(index, value);
+            return;
         }
-        int size = getSize();
         int newSize;
         int shift = 0;
         if(index < 0){
@@ -138,10 +168,20 @@ public class DynamicArray<T> implements Iterable<T>{
         }else{
             newSize = Math.max(index + 1, size);
         }
-        T[] tempData = (T[]) new Object[newSize];
-        if (size >= 0) System.arraycopy(data, 0, tempData, shift, size);
-        data = tempData;
-        data[index + shift] = value;
+        int newOffset = offset - shift;
+        if(newOffset < 0 || newOffset + newSize > data.length){
+            // only the side which ran out of slack gets a new one, proportional to the size
+            int frontSlack = newOffset < 0 ? Math.max(newSize, MINIMAL_SLACK) : newOffset;
+            int backSlack = newOffset + newSize > data.length
+                    ? Math.max(newSize, MINIMAL_SLACK) : data.length - newOffset - newSize;
+            T[] tempData = (T[]) new Object[frontSlack + newSize + backSlack];
+            System.arraycopy(data, offset, tempData, frontSlack + shift, size);
+            data = tempData;
+            newOffset = frontSlack;
+        }
+        offset = newOffset;
+        size = newSize;
+        data[offset + index + shift] = value;
     }
 
     /**
@@ -149,7 +189,7 @@ public class DynamicArray<T> implements Iterable<T>{
      * @return a sequential stream of elements from this collection
      */
     public Stream<T> stream(){
-        return Arrays.stream(data).sequential();
+        return IntStream.range(0, getSize()).mapToObj(index -> data[physicalIndex(index)]);
     }
 
     /**
@@ -159,7 +199,7 @@ public class DynamicArray<T> implements Iterable<T>{
      */
     public Optional<T> getValue(int index)
     {
-        return Optional.ofNullable(data[index]);
+        return Optional.ofNullable(data[physicalIndex(Objects.checkIndex(index, getSize()))]);
     }
 
     /**
@@ -167,9 +207,26 @@ public class DynamicArray<T> implements Iterable<T>{
      * @return the number of elements currently stored in the DynamicArray.
      */
     public int getSize(){
+        return size;
+    }
+
+    /**
+     * Retrieves the number of elements the DynamicArray can hold without copying them.
+     * @return The length of the data array.
+     */
+    public int getCapacity(){
         return data.length;
     }
 
+    /**
+     * Translates an index of an element to its position in the data array.
+     * @param index The index of the element.
+     * @return The position in the data array.
+     */
+    protected int physicalIndex(int index){
+        return offset + index;
+    }
+
     /**
      * Checks whether the DynamicArray contains the specified object.
      * @param value The object to be checked for presence in the DynamicArray.
@@ -177,7 +234,7 @@ public class DynamicArray<T> implements Iterable<T>{
      */
     public boolean contains(T value){
         if(value == null) throw new NullPointerException("Cannot invoke \"DynamicArray.contains(Object)\" because \"value\" is null");
-        for (T val : data) {
+        for (T val : this) {
             if (val != null && val.equals(value)) return true;
         }
         return false;
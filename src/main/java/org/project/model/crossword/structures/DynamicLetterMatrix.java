@@ -0,0 +1,678 @@
+package org.project.model.crossword.structures;
+
+import java.util.Objects;
+
+/**
+ * Class that represents adjustable matrix of letters. Unlike DynamicMatrix it does not keep an object per cell.
+ * Every cell is described by a letter, a set of flags and a number, stored in three parallel primitive arrays.
+ * The arrays are split into tiles of {@link #TILE_ROWS} rows by {@link #TILE_COLUMNS} columns, held by a directory
+ * of tiles. Tiles are wide, as words of a grid run in both directions but a row of a tile takes no more memory
+ * than the headers of its arrays. Tiles without any written cell are not allocated, so mostly empty parts of large grids take only
+ * a null reference per tile. Copies of the DynamicLetterMatrix share the tiles until one of them
+ * writes to a tile, which makes a copy cost O(1) and a write copy only the tile it touches.
+ * A cell holding the {@link #EMPTY} letter is considered empty.
+ * The directory keeps free slack on every side and grows geometrically, so growing in any direction,
+ * the negative ones included, never copies cells, only tile references once the slack on that side is used up.
+ *
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public class DynamicLetterMatrix {
+
+    /**
+     * Letter value used to mark empty cells.
+     */
+    public static final char EMPTY = '\0';
+
+    /**
+     * Binary logarithm of the number of rows of a tile.
+     */
+    private static final int TILE_ROW_SHIFT = 2;
+
+    /**
+     * Binary logarithm of the number of columns of a tile.
+     */
+    private static final int TILE_COLUMN_SHIFT = 5;
+
+    /**
+     * Number of rows of cells stored in a single tile.
+     */
+    private static final int TILE_ROWS = 1 << TILE_ROW_SHIFT;
+
+    /**
+     * Number of columns of cells stored in a single tile.
+     */
+    private static final int TILE_COLUMNS = 1 << TILE_COLUMN_SHIFT;
+
+    private static final int TILE_CELLS = TILE_ROWS * TILE_COLUMNS;
+
+    /**
+     * Cells of {@link #TILE_ROWS} rows and {@link #TILE_COLUMNS} columns, laid out row by row.
+     * A tile may only be written by the matrix owning it, other matrices sharing it have to copy it first.
+     */
+    private static final class Tile {
+
+        private final char[] letters;
+
+        private final byte[] flags;
+
+        private final short[] numbers;
+
+        private final Object owner;
+
+        private Tile(Object owner){
+            this.letters = new char[TILE_CELLS];
+            this.flags = new byte[TILE_CELLS];
+            this.numbers = new short[TILE_CELLS];
+            this.owner = owner;
+        }
+
+        private Tile(Tile tile, Object owner){
+            this.letters = tile.letters.clone();
+            this.flags = tile.flags.clone();
+            this.numbers = tile.numbers.clone();
+            this.owner = owner;
+        }
+    }
+
+    /**
+     * Directory of tiles, row by row with {@link #tileColumnCapacity} tiles per row, null for tiles
+     * without any written cell.
+     */
+    private Tile[] tiles;
+
+    /**
+     * Token identifying tiles and the directory this matrix may write without copying.
+     * It is replaced on every copy, so neither the copy nor the original writes to shared tiles.
+     */
+    private Object owner;
+
+    /**
+     * Owner of the directory itself.
+     */
+    private Object tilesOwner;
+
+    /**
+     * Index of cells holding every letter. It is built on first lookup and then kept up to date on each write
+     * and resize, null until needed.
+     */
+    private LetterPositionIndex letterPositionIndex;
+
+    /**
+     * Represents the number of rows in the DynamicLetterMatrix.
+     */
+    private int numberOfRows;
+
+    /**
+     * Represents the number of columns in the DynamicLetterMatrix.
+     */
+    private int numberOfColumns;
+
+    /**
+     * Represents the number of rows of tiles in the directory.
+     */
+    private int tileRowCapacity;
+
+    /**
+     * Represents the number of tiles in every row of the directory.
+     */
+    private int tileColumnCapacity;
+
+    /**
+     * Row of cells of the directory where the first row of the DynamicLetterMatrix is stored.
+     */
+    private int rowOrigin;
+
+    /**
+     * Column of cells of the directory where the first column of the DynamicLetterMatrix is stored.
+     */
+    private int columnOrigin;
+
+    /**
+     * Constructs a new instance of the DynamicLetterMatrix class with the default size of 0.
+     */
+    public DynamicLetterMatrix(){
+        this(0, 0);
+    }
+
+    /**
+     * Constructs a new instance of the DynamicLetterMatrix class with specified row and column number.
+     * All cells are empty.
+     * @param rows A specified number of rows.
+     * @param columns A specified number of columns.
+     */
+    public DynamicLetterMatrix(int rows, int columns){
+        this.numberOfRows = rows;
+        this.numberOfColumns = columns;
+        this.tileRowCapacity = tilesFor(rows, TILE_ROW_SHIFT);
+        this.tileColumnCapacity = tilesFor(columns, TILE_COLUMN_SHIFT);
+        this.tiles = new Tile[tileRowCapacity * tileColumnCapacity];
+        this.owner = new Object();
+        this.tilesOwner = owner;
+    }
+
+    /**
+     * Constructs a new instance of the DynamicLetterMatrix class with the same cells as another DynamicLetterMatrix.
+     * No cells are copied, both matrices share their tiles and copy a tile only before writing to it.
+     * The other matrix must not be written to concurrently.
+     * @param dynamicLetterMatrix Another DynamicLetterMatrix object whose cells will be shared.
+     */
+    public DynamicLetterMatrix(DynamicLetterMatrix dynamicLetterMatrix){
+        this.numberOfRows = dynamicLetterMatrix.numberOfRows;
+        this.numberOfColumns = dynamicLetterMatrix.numberOfColumns;
+        this.tileRowCapacity = dynamicLetterMatrix.tileRowCapacity;
+        this.tileColumnCapacity = dynamicLetterMatrix.tileColumnCapacity;
+        this.rowOrigin = dynamicLetterMatrix.rowOrigin;
+        this.columnOrigin = dynamicLetterMatrix.columnOrigin;
+        this.tiles = dynamicLetterMatrix.tiles;
+        this.owner = new Object();
+        this.tilesOwner = dynamicLetterMatrix.tilesOwner;
+        dynamicLetterMatrix.owner = new Object();
+        if(dynamicLetterMatrix.letterPositionIndex != null)
+            this.letterPositionIndex = dynamicLetterMatrix.letterPositionIndex.snapshot();
+    }
+
+    /**
+     * Retrieves the letter at the specified index.
+     * @param index The index from which to retrieve the letter.
+     * @return The letter at the specified index or {@link #EMPTY}.
+     */
+    public char getLetter(int index){
+        int physicalRow = physicalRow(index);
+        int physicalColumn = physicalColumn(index);
+        Tile tile = tiles[tileIndex(physicalRow, physicalColumn)];
+        return tile == null ? EMPTY : tile.letters[offset(physicalRow, physicalColumn)];
+    }
+
+    /**
+     * Retrieves the letter at the specified row and column index.
+     * @param rowIndex The row index from which to retrieve the letter.
+     * @param columnIndex The column index from which to retrieve the letter.
+     * @return The letter at the specified position or {@link #EMPTY}.
+     */
+    public char getLetter(int rowIndex, int columnIndex){
+        int physicalRow = physicalRow(rowIndex, columnIndex);
+        int physicalColumn = columnOrigin + columnIndex;
+        Tile tile = tiles[tileIndex(physicalRow, physicalColumn)];
+        return tile == null ? EMPTY : tile.letters[offset(physicalRow, physicalColumn)];
+    }
+
+    /**
+     * Retrieves the letter at the specified row and column index.
+     * @param rowIndex The row index from which to retrieve the letter.
+     * @param columnIndex The column index from which to retrieve the letter.
+     * @return The letter at the specified position, {@link #EMPTY} if the cell is empty or out of bounds.
+     */
+    public char getLetterIfInBounds(int rowIndex, int columnIndex){
+        if(!isInBounds(rowIndex, columnIndex))
+            return EMPTY;
+        return getLetter(rowIndex, columnIndex);
+    }
+
+    /**
+     * Retrieves the flag set at the specified index.
+     * @param index The index from which to retrieve the flags.
+     * @return The flag set of the cell.
+     */
+    public byte getFlags(int index){
+        int physicalRow = physicalRow(index);
+        int physicalColumn = physicalColumn(index);
+        Tile tile = tiles[tileIndex(physicalRow, physicalColumn)];
+        return tile == null ? 0 : tile.flags[offset(physicalRow, physicalColumn)];
+    }
+
+    /**
+     * Retrieves the number at the specified index.
+     * @param index The index from which to retrieve the number.
+     * @return The number of the cell, 0 when there is none.
+     */
+    public short getNumber(int index){
+        int physicalRow = physicalRow(index);
+        int physicalColumn = physicalColumn(index);
+        Tile tile = tiles[tileIndex(physicalRow, physicalColumn)];
+        return tile == null ? 0 : tile.numbers[offset(physicalRow, physicalColumn)];
+    }
+
+    /**
+     * Checks if the cell at the specified index is empty.
+     * @param index The index to check.
+     * @return True if the cell holds no letter, otherwise false.
+     */
+    public boolean isEmpty(int index){
+        return getLetter(index) == EMPTY;
+    }
+
+    /**
+     * Checks if the specified row and column index are inside the DynamicLetterMatrix.
+     * @param rowIndex The row index.
+     * @param columnIndex The column index.
+     * @return True if the position is in bounds, otherwise false.
+     */
+    public boolean isInBounds(int rowIndex, int columnIndex){
+        return rowIndex >= 0 && columnIndex >= 0 && rowIndex < numberOfRows && columnIndex < numberOfColumns;
+    }
+
+    /**
+     * Sets the cell at the specified index.
+     * @param index The index at which to set the cell.
+     * @param letter The letter to be stored.
+     * @param flags The flag set to be stored.
+     * @param number The number to be stored.
+     */
+    public void setValue(int index, char letter, byte flags, short number){
+        int physicalRow = physicalRow(index);
+        int physicalColumn = physicalColumn(index);
+        int tileIndex = tileIndex(physicalRow, physicalColumn);
+        if(tiles[tileIndex] == null && letter == EMPTY && flags == 0 && number == 0) return;
+        Tile tile = writableTile(tileIndex);
+        int offset = offset(physicalRow, physicalColumn);
+        char oldLetter = tile.letters[offset];
+        if(oldLetter != letter && letterPositionIndex != null){
+            int rowIndex = calculateRowIndex(index);
+            int columnIndex = calculateColumnIndex(index);
+            if(oldLetter != EMPTY) letterPositionIndex.remove(oldLetter, rowIndex, columnIndex);
+            if(letter != EMPTY) letterPositionIndex.add(letter, rowIndex, columnIndex);
+        }
+        tile.letters[offset] = letter;
+        tile.flags[offset] = flags;
+        tile.numbers[offset] = number;
+    }
+
+    /**
+     * Sets the flag set at the specified index.
+     * @param index The index at which to set the flags.
+     * @param flags The flag set to be stored.
+     */
+    public void setFlags(int index, byte flags){
+        int physicalRow = physicalRow(index);
+        int physicalColumn = physicalColumn(index);
+        writableTile(tileIndex(physicalRow, physicalColumn)).flags[offset(physicalRow, physicalColumn)] = flags;
+    }
+
+    /**
+     * Sets the number at the specified index.
+     * @param index The index at which to set the number.
+     * @param number The number to be stored.
+     */
+    public void setNumber(int index, short number){
+        int physicalRow = physicalRow(index);
+        int physicalColumn = physicalColumn(index);
+        writableTile(tileIndex(physicalRow, physicalColumn)).numbers[offset(physicalRow, physicalColumn)] = number;
+    }
+
+    /**
+     * Sets the cell at the specified row and column index. If the position is outside the DynamicLetterMatrix,
+     * the DynamicLetterMatrix will resize to the smallest size containing both old cells and the new one.
+     * Negative indexes shift old cells down or right, so the new cell lands in row or column 0.
+     * @param rowIndex The row index at which to set the cell.
+     * @param columnIndex The column index at which to set the cell.
+     * @param letter The letter to be stored.
+     * @param flags The flag set to be stored.
+     * @param number The number to be stored.
+     */
+    public void setValueOutOfBounds(int rowIndex, int columnIndex, char letter, byte flags, short number){
+        if(isInBounds(rowIndex, columnIndex)){
+            setValue(calculateIndex(rowIndex, columnIndex), letter, flags, number);
+            return;
+        }
+
+        int rowShift = Math.max(0, -rowIndex);
+        int columnShift = Math.max(0, -columnIndex);
+        int newNumberOfRows = Math.max(numberOfRows, rowIndex + 1) + rowShift;
+        int newNumberOfColumns = Math.max(numberOfColumns, columnIndex + 1) + columnShift;
+
+        int newRowOrigin = rowOrigin - rowShift;
+        int newColumnOrigin = columnOrigin - columnShift;
+        if(newRowOrigin < 0 || newRowOrigin + newNumberOfRows > tileRowCapacity * TILE_ROWS
+                || newColumnOrigin < 0 || newColumnOrigin + newNumberOfColumns > tileColumnCapacity * TILE_COLUMNS){
+            // only the sides which ran out of slack get new tiles, as many as the directory already has,
+            // the cells stay in their tiles
+            int topTiles = newRowOrigin < 0 ? tilesFor(-newRowOrigin, TILE_ROW_SHIFT) + tileRowCapacity : 0;
+            int bottomTiles = Math.max(0, tilesFor(newRowOrigin + topTiles * TILE_ROWS + newNumberOfRows, TILE_ROW_SHIFT)
+                    - topTiles - tileRowCapacity);
+            if(bottomTiles > 0) bottomTiles += tileRowCapacity;
+            int leftTiles = newColumnOrigin < 0 ? tilesFor(-newColumnOrigin, TILE_COLUMN_SHIFT) + tileColumnCapacity : 0;
+            int rightTiles = Math.max(0, tilesFor(newColumnOrigin + leftTiles * TILE_COLUMNS + newNumberOfColumns,
+                    TILE_COLUMN_SHIFT) - leftTiles - tileColumnCapacity);
+            if(rightTiles > 0) rightTiles += tileColumnCapacity;
+            relocate(-topTiles, -leftTiles, topTiles + tileRowCapacity + bottomTiles,
+                    leftTiles + tileColumnCapacity + rightTiles);
+            newRowOrigin += topTiles * TILE_ROWS;
+            newColumnOrigin += leftTiles * TILE_COLUMNS;
+        }
+        rowOrigin = newRowOrigin;
+        columnOrigin = newColumnOrigin;
+        numberOfRows = newNumberOfRows;
+        numberOfColumns = newNumberOfColumns;
+        if(letterPositionIndex != null) letterPositionIndex.shift(rowShift, columnShift);
+        setValue(calculateIndex(rowIndex + rowShift, columnIndex + columnShift), letter, flags, number);
+    }
+
+    /**
+     * Shrinks the directory to the tiles covering the DynamicLetterMatrix, dropping the free slack around it.
+     * When the cells straddle more tiles than they would fill from the corner of a tile, they are moved
+     * to new tiles aligned with the first row and column, so a dense grid is not held by half-empty tiles.
+     */
+    public void trimToSize(){
+        if(numberOfRows == 0 || numberOfColumns == 0){
+            relocate(0, 0, 0, 0);
+            rowOrigin = 0;
+            columnOrigin = 0;
+            return;
+        }
+        int firstTileRow = rowOrigin >> TILE_ROW_SHIFT;
+        int firstTileColumn = columnOrigin >> TILE_COLUMN_SHIFT;
+        int newTileRowCapacity = ((rowOrigin + numberOfRows - 1) >> TILE_ROW_SHIFT) - firstTileRow + 1;
+        int newTileColumnCapacity = ((columnOrigin + numberOfColumns - 1) >> TILE_COLUMN_SHIFT) - firstTileColumn + 1;
+        if(newTileRowCapacity * newTileColumnCapacity
+                > tilesFor(numberOfRows, TILE_ROW_SHIFT) * tilesFor(numberOfColumns, TILE_COLUMN_SHIFT)){
+            realign();
+            return;
+        }
+        if(newTileRowCapacity == tileRowCapacity && newTileColumnCapacity == tileColumnCapacity) return;
+        relocate(firstTileRow, firstTileColumn, newTileRowCapacity, newTileColumnCapacity);
+        rowOrigin -= firstTileRow * TILE_ROWS;
+        columnOrigin -= firstTileColumn * TILE_COLUMNS;
+    }
+
+    /**
+     * Copies the cells to a new directory of the fewest tiles, starting at the corner of the first tile.
+     * Tiles are allocated only for cells holding a letter, a flag or a number.
+     */
+    private void realign(){
+        Tile[] oldTiles = tiles;
+        int oldTileColumnCapacity = tileColumnCapacity;
+        tileRowCapacity = tilesFor(numberOfRows, TILE_ROW_SHIFT);
+        tileColumnCapacity = tilesFor(numberOfColumns, TILE_COLUMN_SHIFT);
+        tiles = new Tile[tileRowCapacity * tileColumnCapacity];
+        tilesOwner = owner;
+        for(int rowIndex = 0; rowIndex < numberOfRows; rowIndex++){
+            for(int columnIndex = 0; columnIndex < numberOfColumns; columnIndex++){
+                int oldRow = rowOrigin + rowIndex;
+                int oldColumn = columnOrigin + columnIndex;
+                Tile oldTile = oldTiles[(oldRow >> TILE_ROW_SHIFT) * oldTileColumnCapacity + (oldColumn >> TILE_COLUMN_SHIFT)];
+                if(oldTile == null) continue;
+                int oldOffset = offset(oldRow, oldColumn);
+                if(oldTile.letters[oldOffset] == EMPTY && oldTile.flags[oldOffset] == 0 && oldTile.numbers[oldOffset] == 0)
+                    continue;
+                Tile tile = writableTile(tileIndex(rowIndex, columnIndex));
+                int offset = offset(rowIndex, columnIndex);
+                tile.letters[offset] = oldTile.letters[oldOffset];
+                tile.flags[offset] = oldTile.flags[oldOffset];
+                tile.numbers[offset] = oldTile.numbers[oldOffset];
+            }
+        }
+        rowOrigin = 0;
+        columnOrigin = 0;
+    }
+
+    /**
+     * Retrieves the number of cells the DynamicLetterMatrix can hold without growing its directory.
+     * @return The number of cells of all tiles of the directory, allocated or not.
+     */
+    public int getCapacity(){
+        return tileRowCapacity * tileColumnCapacity * TILE_CELLS;
+    }
+
+    /**
+     * Retrieves the number of cells of the allocated tiles, the cells which take memory.
+     * @return The number of allocated tiles times the number of cells of a tile.
+     */
+    public int getAllocatedCapacity(){
+        int allocated = 0;
+        for(Tile tile : tiles){
+            if(tile != null) allocated++;
+        }
+        return allocated * TILE_CELLS;
+    }
+
+    /**
+     * Moves the tile references to a new directory, the tiles themselves are kept.
+     * Tiles falling outside the new directory are dropped.
+     * @param firstTileRow The row of the old directory which becomes the first row of the new one, may be negative.
+     * @param firstTileColumn The column of the old directory which becomes the first column of the new one,
+     *                        may be negative.
+     * @param newTileRowCapacity The number of rows of tiles of the new directory.
+     * @param newTileColumnCapacity The number of tiles in every row of the new directory.
+     */
+    private void relocate(int firstTileRow, int firstTileColumn, int newTileRowCapacity, int newTileColumnCapacity){
+        Tile[] tempTiles = new Tile[newTileRowCapacity * newTileColumnCapacity];
+        int fromColumn = Math.max(0, firstTileColumn);
+        int toColumn = Math.min(tileColumnCapacity, firstTileColumn + newTileColumnCapacity);
+        for(int tileRow = Math.max(0, firstTileRow);
+            tileRow < Math.min(tileRowCapacity, firstTileRow + newTileRowCapacity) && fromColumn < toColumn; tileRow++){
+            System.arraycopy(tiles, tileRow * tileColumnCapacity + fromColumn, tempTiles,
+                    (tileRow - firstTileRow) * newTileColumnCapacity + fromColumn - firstTileColumn, toColumn - fromColumn);
+        }
+        tiles = tempTiles;
+        tilesOwner = owner;
+        tileRowCapacity = newTileRowCapacity;
+        tileColumnCapacity = newTileColumnCapacity;
+    }
+
+    /**
+     * Retrieves the tile at the specified position of the directory, ready to be written.
+     * A shared tile and a shared directory are copied first, a missing tile is allocated.
+     * @param tileIndex The position in the directory.
+     * @return The tile owned by this DynamicLetterMatrix.
+     */
+    private Tile writableTile(int tileIndex){
+        if(tilesOwner != owner){
+            tiles = tiles.clone();
+            tilesOwner = owner;
+        }
+        Tile tile = tiles[tileIndex];
+        if(tile == null){
+            tile = tiles[tileIndex] = new Tile(owner);
+        }else if(tile.owner != owner){
+            tile = tiles[tileIndex] = new Tile(tile, owner);
+        }
+        return tile;
+    }
+
+    /**
+     * Retrieves linear indexes of all cells holding the specified letter, without scanning the matrix.
+     * @param letter The letter to look for.
+     * @return The indexes in ascending (row-major) order.
+     */
+    public int[] getLetterIndexes(char letter){
+        LetterPositionIndex index = getLetterPositionIndex();
+        int[] indexes = new int[index.count(letter)];
+        index.getIndexes(letter, numberOfColumns, indexes, 0);
+        return indexes;
+    }
+
+    /**
+     * Writes linear indexes of all cells holding the specified letter into the given array,
+     * without scanning the matrix and without allocating.
+     * @param letter The letter to look for.
+     * @param indexes The array to write to, with room for {@link #getLetterCount(char)} indexes from the offset.
+     * @param offset The position of the first index in the array.
+     * @return The number of indexes written, in ascending (row-major) order.
+     */
+    public int getLetterIndexes(char letter, int[] indexes, int offset){
+        return getLetterPositionIndex().getIndexes(letter, numberOfColumns, indexes, offset);
+    }
+
+    /**
+     * Retrieves the number of cells holding the specified letter.
+     * @param letter The letter to look for.
+     * @return The number of cells.
+     */
+    public int getLetterCount(char letter){
+        return getLetterPositionIndex().count(letter);
+    }
+
+    /**
+     * Drops the letter index to save memory. It will be rebuilt with a single scan on the next lookup.
+     */
+    public void releaseLetterIndex(){
+        letterPositionIndex = null;
+    }
+
+    private LetterPositionIndex getLetterPositionIndex(){
+        if(letterPositionIndex == null){
+            letterPositionIndex = new LetterPositionIndex();
+            for(int row = 0; row < numberOfRows; row++){
+                for(int column = 0; column < numberOfColumns; column++){
+                    char letter = getLetter(row, column);
+                    if(letter != EMPTY) letterPositionIndex.add(letter, row, column);
+                }
+            }
+        }
+        return letterPositionIndex;
+    }
+
+    /**
+     * Retrieves the current size of the DynamicLetterMatrix.
+     * @return The number of cells, empty ones included.
+     */
+    public int getSize(){
+        return numberOfRows * numberOfColumns;
+    }
+
+    /**
+     * Retrieves the number of rows in the DynamicLetterMatrix.
+     * @return The number of rows.
+     */
+    public int getNumberOfRows(){
+        return numberOfRows;
+    }
+
+    /**
+     * Retrieves the number of columns in the DynamicLetterMatrix.
+     * @return The number of columns.
+     */
+    public int getNumberOfColumns(){
+        return numberOfColumns;
+    }
+
+    /**
+     * Checks if the specified index is the last index in its row.
+     * @param index The index to check.
+     * @return True if the index is the last index in its row, otherwise false.
+     */
+    public boolean isLastIndexInRow(int index) {
+        if(numberOfColumns == 0) return false;
+        return (index + 1) % numberOfColumns == 0;
+    }
+
+    /**
+     * Calculates the linear index for the given row and column cords.
+     * @param rowIndex The row index.
+     * @param columnIndex The column index.
+     * @return The calculated linear index.
+     */
+    public int calculateIndex(int rowIndex, int columnIndex){
+        return rowIndex * numberOfColumns + columnIndex;
+    }
+
+    /**
+     * Calculates the row index for the given linear index.
+     * @param index The linear index.
+     * @return The calculated row index.
+     */
+    public int calculateRowIndex(int index) {
+        if(numberOfColumns == 0) return 0;
+        return index / numberOfColumns;
+    }
+
+    /**
+     * Calculates the column index for the given linear index.
+     * @param index The linear index.
+     * @return The calculated column index.
+     */
+    public int calculateColumnIndex(int index) {
+        if(numberOfColumns == 0) return 0;
+        return index % numberOfColumns;
+    }
+
+    /**
+     * Translates the linear index of a cell to the row of cells of the directory holding it.
+     * @param index The linear index.
+     * @return The row of cells of the directory.
+     */
+    private int physicalRow(int index){
+        Objects.checkIndex(index, getSize());
+        return rowOrigin + index / numberOfColumns;
+    }
+
+    /**
+     * Translates row and column cords of a cell to the row of cells of the directory holding it.
+     * @param rowIndex The row index.
+     * @param columnIndex The column index.
+     * @return The row of cells of the directory.
+     */
+    private int physicalRow(int rowIndex, int columnIndex){
+        Objects.checkIndex(rowIndex, numberOfRows);
+        Objects.checkIndex(columnIndex, numberOfColumns);
+        return rowOrigin + rowIndex;
+    }
+
+    /**
+     * Translates the linear index of a cell to the column of cells of the directory holding it.
+     * @param index The linear index, already checked.
+     * @return The column of cells of the directory.
+     */
+    private int physicalColumn(int index){
+        return columnOrigin + index % numberOfColumns;
+    }
+
+    /**
+     * Calculates the position in the directory of the tile holding a cell.
+     * @param physicalRow The row of cells of the directory.
+     * @param physicalColumn The column of cells of the directory.
+     * @return The position in the directory.
+     */
+    private int tileIndex(int physicalRow, int physicalColumn){
+        return (physicalRow >> TILE_ROW_SHIFT) * tileColumnCapacity + (physicalColumn >> TILE_COLUMN_SHIFT);
+    }
+
+    /**
+     * Calculates the position of a cell inside its tile.
+     * @param physicalRow The row of cells of the directory.
+     * @param physicalColumn The column of cells of the directory.
+     * @return The position in the arrays of the tile.
+     */
+    private static int offset(int physicalRow, int physicalColumn){
+        return ((physicalRow & (TILE_ROWS - 1)) << TILE_COLUMN_SHIFT) | (physicalColumn & (TILE_COLUMNS - 1));
+    }
+
+    private static int tilesFor(int cells, int shift){
+        return (cells + (1 << shift) - 1) >> shift;
+    }
+
+    /**
+     * Indicates whether some other object is "equal to" this DynamicLetterMatrix.
+     * @param o The reference object with which to compare.
+     * @return True if both matrices have the same dimensions and cells, false otherwise.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DynamicLetterMatrix that = (DynamicLetterMatrix) o;
+        if(numberOfRows != that.numberOfRows || numberOfColumns != that.numberOfColumns) return false;
+        for(int row = 0; row < numberOfRows; row++){
+            for(int column = 0; column < numberOfColumns; column++){
+                int index = calculateIndex(row, column);
+                if(getLetter(index) != that.getLetter(index) || getFlags(index) != that.getFlags(index)
+                        || getNumber(index) != that.getNumber(index)) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code value for this DynamicLetterMatrix.
+     * @return The hash code value for this DynamicLetterMatrix.
+     */
+    @Override
+    public int hashCode() {
+        int result = numberOfColumns;
+        for(int index = 0; index < getSize(); index++){
+            result = 31 * result + getLetter(index);
+        }
+        return result;
+    }
+}
@@ -1,11 +1,14 @@
 package org.project.model.crossword.structures;
 
+import java.util.Objects;
 import java.util.Optional;
 
 /**
  * Class that represent adjustable matrix structure. It's extends DynamicArray class.
  * It uses the same main array and assigns positions for rows and columns based on the array's size,
  * calculating these positions accordingly.
+ * The main array is bigger than the matrix: cells start at a row and column origin and every side can have
+ * free slack, so the matrix grows in any direction without copying until the slack on that side is used up.
  * @param <T>
  *
  * @author Pawe&#x142; Drzazga
@@ -23,6 +26,26 @@ public class DynamicMatrix<T> extends DynamicArray<T> {
      */
     private int numberOfColumns;
 
+    /**
+     * Represents the number of rows the main array can hold.
+     */
+    private int rowCapacity;
+
+    /**
+     * Represents the number of columns the main array can hold.
+     */
+    private int columnCapacity;
+
+    /**
+     * Row of the main array where the first row of the DynamicMatrix is stored.
+     */
+    private int rowOrigin;
+
+    /**
+     * Column of the main array where the first column of the DynamicMatrix is stored.
+     */
+    private int columnOrigin;
+
     /**
      * Constructs a new instance of the DynamicMatrix class with the default size of 0.
      */
@@ -41,6 +64,8 @@ public class DynamicMatrix<T> extends DynamicArray<T> {
         super(rows*columns);
         this.numberOfRows = rows;
         this.numberOfColumns = columns;
+        this.rowCapacity = rows;
+        this.columnCapacity = columns;
     }
 
     /**
@@ -51,6 +76,10 @@ public class DynamicMatrix<T> extends DynamicArray<T> {
         super(dynamicMatrix);
         this.numberOfRows = dynamicMatrix.getNumberOfRows();
         this.numberOfColumns = dynamicMatrix.getNumberOfColumns();
+        this.rowCapacity = dynamicMatrix.rowCapacity;
+        this.columnCapacity = dynamicMatrix.columnCapacity;
+        this.rowOrigin = dynamicMatrix.rowOrigin;
+        this.columnOrigin = dynamicMatrix.columnOrigin;
     }
 
     /**
@@ -60,7 +89,7 @@ public class DynamicMatrix<T> extends DynamicArray<T> {
      * @return The value at the specified row and column index.
      */
     public Optional<T> getValue(int rowIndex, int columnIndex) {
-        return Optional.ofNullable(data[calculateIndex(rowIndex, columnIndex)]);
+        return Optional.ofNullable(data[physicalIndex(rowIndex, columnIndex)]);
     }
 
     /**
@@ -70,7 +99,7 @@ public class DynamicMatrix<T> extends DynamicArray<T> {
      * @param value The value to be stored at the specified index.
      */
     public void setValue(int rowIndex, int columnIndex, T value) {
-        data[calculateIndex(rowIndex, columnIndex)] = value;
+        data[physicalIndex(rowIndex, columnIndex)] = value;
     }
 
     /**
@@ -136,17 +165,36 @@ public class DynamicMatrix<T> extends DynamicArray<T> {
             newNumberOfRows = Math.max(rowIndex + 1, numberOfRows);
             newNumberOfColumns = Math.max(columnIndex + 1, numberOfColumns);
         }
-        T[] tempData = (T[]) new Object[newNumberOfRows * newNumberOfColumns];
-        for(int i = 0; i < data.length; i++){
-            int tempRowIndex = calculateRowIndex(i);
-            int tempColumnIndex = calculateColumnIndex(i);
-            tempData[calculateIndexWithShift(tempRowIndex + rowShift, tempColumnIndex + columnShift, newNumberOfColumns)]
-                    = data[calculateIndex(tempRowIndex, tempColumnIndex)];
+        int newRowOrigin = rowOrigin - rowShift;
+        int newColumnOrigin = columnOrigin - columnShift;
+        if(newRowOrigin < 0 || newRowOrigin + newNumberOfRows > rowCapacity
+                || newColumnOrigin < 0 || newColumnOrigin + newNumberOfColumns > columnCapacity){
+            // only the sides which ran out of slack get a new one, proportional to the matrix size
+            int topSlack = newRowOrigin < 0 ? Math.max(newNumberOfRows, MINIMAL_SLACK) : newRowOrigin;
+            int bottomSlack = newRowOrigin + newNumberOfRows > rowCapacity
+                    ? Math.max(newNumberOfRows, MINIMAL_SLACK) : rowCapacity - newRowOrigin - newNumberOfRows;
+            int leftSlack = newColumnOrigin < 0 ? Math.max(newNumberOfColumns, MINIMAL_SLACK) : newColumnOrigin;
+            int rightSlack = newColumnOrigin + newNumberOfColumns > columnCapacity
+                    ? Math.max(newNumberOfColumns, MINIMAL_SLACK) : columnCapacity - newColumnOrigin - newNumberOfColumns;
+            int newRowCapacity = topSlack + newNumberOfRows + bottomSlack;
+            int newColumnCapacity = leftSlack + newNumberOfColumns + rightSlack;
+
+            T[] tempData = (T[]) new Object[newRowCapacity * newColumnCapacity];
+            for(int row = 0; row < numberOfRows; row++){
+                System.arraycopy(data, (rowOrigin + row) * columnCapacity + columnOrigin, tempData,
+                        (topSlack + rowShift + row) * newColumnCapacity + leftSlack + columnShift, numberOfColumns);
+            }
+            data = tempData;
+            rowCapacity = newRowCapacity;
+            columnCapacity = newColumnCapacity;
+            newRowOrigin = topSlack;
+            newColumnOrigin = leftSlack;
         }
-        data = tempData;
+        rowOrigin = newRowOrigin;
+        columnOrigin = newColumnOrigin;
         numberOfRows = newNumberOfRows;
         numberOfColumns = newNumberOfColumns;
-        data[calculateIndex(rowIndex + rowShift, columnIndex + columnShift)] = value;
+        data[physicalIndex(rowIndex + rowShift, columnIndex + columnShift)] = value;
     }
 
     /**
@@ -186,14 +234,34 @@ public class DynamicMatrix<T> extends DynamicArray<T> {
     }
 
     /**
-     * Calculates the linear index for the given row and column cords, considering a new number of columns.
+     * Retrieves the current size of the DynamicMatrix.
+     * @return The number of cells, rows multiplied by columns.
+     */
+    @Override
+    public int getSize(){
+        return numberOfRows * numberOfColumns;
+    }
+
+    /**
+     * Translates the linear index of a cell to its position in the main array.
+     * @param index The linear index.
+     * @return The position in the main array.
+     */
+    @Override
+    protected int physicalIndex(int index){
+        return physicalIndex(calculateRowIndex(index), calculateColumnIndex(index));
+    }
+
+    /**
+     * Translates row and column cords of a cell to its position in the main array.
      * @param rowIndex The row index.
      * @param columnIndex The column index.
-     * @param newNumberOfColumns The new number of columns to consider.
-     * @return The calculated linear index.
+     * @return The position in the main array.
      */
-    private int calculateIndexWithShift(int rowIndex, int columnIndex, int newNumberOfColumns){
-        return rowIndex * newNumberOfColumns + columnIndex;
+    private int physicalIndex(int rowIndex, int columnIndex){
+        Objects.checkIndex(rowIndex, numberOfRows);
+        Objects.checkIndex(columnIndex, numberOfColumns);
+        return (rowOrigin + rowIndex) * columnCapacity + columnOrigin + columnIndex;
     }
 
     /**
@@ -0,0 +1,120 @@
+package org.project.model.crossword.structures;
+
+import java.util.Arrays;
+
+/**
+ * Number of occurrences of every letter, kept in two parallel primitive arrays sorted by letter,
+ * so a lookup is a binary search over the few distinct letters of a language and nothing is boxed.
+ *
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public final class LetterHistogram {
+
+    private char[] letters;
+
+    private int[] counts;
+
+    private int size;
+
+    private int total;
+
+    public LetterHistogram(){
+        letters = new char[8];
+        counts = new int[8];
+    }
+
+    /**
+     * Creates a histogram with the same counts as the given one.
+     * @param letterHistogram The histogram to copy.
+     */
+    public LetterHistogram(LetterHistogram letterHistogram){
+        letters = letterHistogram.letters.clone();
+        counts = letterHistogram.counts.clone();
+        size = letterHistogram.size;
+        total = letterHistogram.total;
+    }
+
+    /**
+     * Adds an occurrence of the letter.
+     * @param letter The letter.
+     */
+    public void add(char letter){
+        int slot = Arrays.binarySearch(letters, 0, size, letter);
+        if(slot < 0){
+            slot = -slot - 1;
+            if(size == letters.length){
+                letters = Arrays.copyOf(letters, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            System.arraycopy(letters, slot, letters, slot + 1, size - slot);
+            System.arraycopy(counts, slot, counts, slot + 1, size - slot);
+            letters[slot] = letter;
+            counts[slot] = 0;
+            size++;
+        }
+        counts[slot]++;
+        total++;
+    }
+
+    /**
+     * Removes an occurrence of the letter, if it has any.
+     * @param letter The letter.
+     */
+    public void remove(char letter){
+        int slot = Arrays.binarySearch(letters, 0, size, letter);
+        if(slot < 0 || counts[slot] == 0) return;
+        counts[slot]--;
+        total--;
+    }
+
+    /**
+     * Retrieves the number of occurrences of the letter.
+     * @param letter The letter.
+     * @return The number of occurrences.
+     */
+    public int count(char letter){
+        int slot = Arrays.binarySearch(letters, 0, size, letter);
+        return slot < 0 ? 0 : counts[slot];
+    }
+
+    /**
+     * Retrieves the number of occurrences of all letters.
+     * @return The number of occurrences.
+     */
+    public int total(){
+        return total;
+    }
+
+    /**
+     * Retrieves the number of distinct letters ever added.
+     * @return The number of letters.
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Retrieves a distinct letter, letters are sorted.
+     * @param slot The position of the letter, from 0 to {@link #size()} exclusive.
+     * @return The letter.
+     */
+    public char getLetter(int slot){
+        return letters[slot];
+    }
+
+    /**
+     * Checks whether the histogram has at least as many occurrences of every letter as the word.
+     * @param word The word.
+     * @return True if every letter of the word can be taken from the histogram.
+     */
+    public boolean covers(CharSequence word){
+        if(word.length() > total) return false;
+        int[] used = new int[size];
+        for(int i = 0; i < word.length(); i++){
+            int slot = Arrays.binarySearch(letters, 0, size, word.charAt(i));
+            if(slot < 0 || ++used[slot] > counts[slot]) return false;
+        }
+        return true;
+    }
+}
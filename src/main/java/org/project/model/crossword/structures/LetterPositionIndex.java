@@ -0,0 +1,184 @@
+package org.project.model.crossword.structures;
+
+import java.util.Arrays;
+
+/**
+ * Inverted index from a letter to the positions of cells holding it.
+ * Positions are kept relative to the total shift applied to the matrix, so growing the matrix
+ * to the negative side only updates two counters instead of every stored position.
+ * Row and column of a position are packed into a single int, 16 bits each, so packed positions compare
+ * in row-major order and every list is kept sorted, ready to be read without sorting.
+ * Letters are kept in a sorted primitive array next to their lists, as in {@link LetterHistogram}, so nothing is boxed.
+ * Snapshots share the position lists and copy a list only before changing it.
+ *
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+final class LetterPositionIndex {
+
+    /**
+     * Added to a column before packing, so columns left of the first one still compare below it.
+     */
+    private static final int COLUMN_OFFSET = 0x8000;
+
+    /**
+     * Growable sorted list of packed positions, writable only by the index owning it.
+     */
+    private static final class PositionList {
+
+        private int[] data;
+
+        private int length;
+
+        private final Object owner;
+
+        private PositionList(int[] data, int length, Object owner){
+            this.data = data;
+            this.length = length;
+            this.owner = owner;
+        }
+    }
+
+    /**
+     * Distinct letters ever added, sorted.
+     */
+    private char[] letters;
+
+    /**
+     * Positions of the letter at the same slot.
+     */
+    private PositionList[] positions;
+
+    private int size;
+
+    /**
+     * Token identifying position lists this index may change without copying.
+     */
+    private Object owner;
+
+    private int rowShift;
+
+    private int columnShift;
+
+    LetterPositionIndex(){
+        letters = new char[8];
+        positions = new PositionList[8];
+        owner = new Object();
+    }
+
+    private LetterPositionIndex(LetterPositionIndex letterPositionIndex){
+        letters = letterPositionIndex.letters.clone();
+        positions = letterPositionIndex.positions.clone();
+        size = letterPositionIndex.size;
+        owner = new Object();
+        rowShift = letterPositionIndex.rowShift;
+        columnShift = letterPositionIndex.columnShift;
+    }
+
+    /**
+     * Creates an index with the same positions, sharing the position lists with this one.
+     * From now on both indexes copy a list before changing it.
+     * @return The new index.
+     */
+    LetterPositionIndex snapshot(){
+        owner = new Object();
+        return new LetterPositionIndex(this);
+    }
+
+    /**
+     * Adds a position of the letter.
+     * @param letter The letter.
+     * @param rowIndex The current row index of the cell.
+     * @param columnIndex The current column index of the cell.
+     */
+    void add(char letter, int rowIndex, int columnIndex){
+        int slot = Arrays.binarySearch(letters, 0, size, letter);
+        if(slot < 0){
+            slot = -slot - 1;
+            if(size == letters.length){
+                letters = Arrays.copyOf(letters, size * 2);
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            System.arraycopy(letters, slot, letters, slot + 1, size - slot);
+            System.arraycopy(positions, slot, positions, slot + 1, size - slot);
+            letters[slot] = letter;
+            positions[slot] = new PositionList(new int[4], 0, owner);
+            size++;
+        }
+        PositionList list = positions[slot];
+        if(list.owner != owner || list.length == list.data.length){
+            int capacity = list.length == list.data.length ? list.data.length * 2 : list.data.length;
+            list = positions[slot] = new PositionList(Arrays.copyOf(list.data, capacity), list.length, owner);
+        }
+        int position = pack(rowIndex, columnIndex);
+        int i = Arrays.binarySearch(list.data, 0, list.length, position);
+        if(i >= 0) return;
+        i = -i - 1;
+        System.arraycopy(list.data, i, list.data, i + 1, list.length - i);
+        list.data[i] = position;
+        list.length++;
+    }
+
+    /**
+     * Removes a position of the letter, if present.
+     * @param letter The letter.
+     * @param rowIndex The current row index of the cell.
+     * @param columnIndex The current column index of the cell.
+     */
+    void remove(char letter, int rowIndex, int columnIndex){
+        int slot = Arrays.binarySearch(letters, 0, size, letter);
+        if(slot < 0) return;
+        PositionList list = positions[slot];
+        int i = Arrays.binarySearch(list.data, 0, list.length, pack(rowIndex, columnIndex));
+        if(i < 0) return;
+        if(list.owner != owner){
+            list = positions[slot] = new PositionList(list.data.clone(), list.length, owner);
+        }
+        System.arraycopy(list.data, i + 1, list.data, i, list.length - i - 1);
+        list.length--;
+    }
+
+    /**
+     * Moves every stored position by the specified number of rows and columns.
+     * @param rows The number of rows to shift by.
+     * @param columns The number of columns to shift by.
+     */
+    void shift(int rows, int columns){
+        rowShift += rows;
+        columnShift += columns;
+    }
+
+    /**
+     * Retrieves the number of cells holding the letter.
+     * @param letter The letter.
+     * @return The number of cells.
+     */
+    int count(char letter){
+        int slot = Arrays.binarySearch(letters, 0, size, letter);
+        return slot < 0 ? 0 : positions[slot].length;
+    }
+
+    /**
+     * Writes linear indexes of cells holding the letter in ascending (row-major) order into the given array.
+     * @param letter The letter.
+     * @param numberOfColumns The current number of columns of the matrix.
+     * @param indexes The array to write to, with room for {@link #count(char)} indexes from the offset.
+     * @param offset The position of the first index in the array.
+     * @return The number of indexes written.
+     */
+    int getIndexes(char letter, int numberOfColumns, int[] indexes, int offset){
+        int slot = Arrays.binarySearch(letters, 0, size, letter);
+        if(slot < 0) return 0;
+        PositionList list = positions[slot];
+        for(int i = 0; i < list.length; i++){
+            int position = list.data[i];
+            indexes[offset + i] = ((position >> 16) + rowShift) * numberOfColumns
+                    + (position & 0xFFFF) - COLUMN_OFFSET + columnShift;
+        }
+        return list.length;
+    }
+
+    private int pack(int rowIndex, int columnIndex){
+        return ((rowIndex - rowShift) << 16) | (columnIndex - columnShift + COLUMN_OFFSET);
+    }
+}
@@ -0,0 +1,33 @@
+package org.project.model.sjp;
+
+/**
+ * Counters of a {@link SJPDefinitionCache}, taken at one moment.
+ * @param memoryHitCount The number of lookups served from memory.
+ * @param diskHitCount The number of lookups served from disk, missing in memory.
+ * @param missCount The number of lookups of words not cached or expired.
+ * @param evictionCount The number of entries evicted from memory to make room for others, still kept on disk.
+ * @param expirationCount The number of entries found expired and removed.
+ * @param writeFailureCount The number of entries which could not be written to disk, kept in memory only.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public record SJPCacheStatistics(long memoryHitCount, long diskHitCount, long missCount,
+                                 long evictionCount, long expirationCount, long writeFailureCount) {
+
+    /**
+     * Retrieves the number of lookups.
+     * @return The number of lookups.
+     */
+    public long lookupCount(){
+        return memoryHitCount + diskHitCount + missCount;
+    }
+
+    /**
+     * Retrieves the part of lookups served without fetching the word.
+     * @return The hit ratio from 0 to 1, 0 if there were no lookups.
+     */
+    public double hitRatio(){
+        long lookups = lookupCount();
+        return lookups == 0 ? 0 : (double) (memoryHitCount + diskHitCount) / lookups;
+    }
+}
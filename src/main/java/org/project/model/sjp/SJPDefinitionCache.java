@@ -0,0 +1,313 @@
+package org.project.model.sjp;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of parsed sjp.pl entries keyed by word, so a word looked up again with {@link SJPGameParser#lookUp(String)}
+ * is read from memory or disk instead of downloaded. A random word drawn again with {@link SJPGameParser#nextWord()}
+ * is read from the cache too, as the random page of sjp.pl redirects to the page of the word.
+ * The cache has two tiers: the least recently used entries are evicted from memory once it holds the maximal number
+ * of entries, while every entry is also kept on disk, one file per word, so the cache survives restarts.
+ * Entries older than the time to live are treated as missing and removed when found.
+ * Entry file holds a header (magic, version), the time the entry was stored in milliseconds since the epoch,
+ * the flag, the word and the number of meanings followed by the meanings, strings in modified UTF-8.
+ * The cache can be shared by many threads and processes, files are replaced atomically.
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+public final class SJPDefinitionCache {
+
+    /**
+     * Default maximal number of entries held in memory.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    /**
+     * Default time after which an entry is fetched again.
+     */
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofDays(30);
+
+    private static final int MAGIC = 0x534A5043; // "SJPC"
+
+    private static final int VERSION = 1;
+
+    private static final String EXTENSION = ".entry";
+
+    /**
+     * Entry with the time it was stored, in milliseconds since the epoch.
+     */
+    private record Cached(SJPEntry entry, long storedTime) {
+    }
+
+    final private Path directory;
+
+    final private long timeToLive;
+
+    final private Clock clock;
+
+    final private Map<String, Cached> memory;
+
+    final private AtomicLong memoryHitCount = new AtomicLong();
+
+    final private AtomicLong diskHitCount = new AtomicLong();
+
+    final private AtomicLong missCount = new AtomicLong();
+
+    final private AtomicLong evictionCount = new AtomicLong();
+
+    final private AtomicLong expirationCount = new AtomicLong();
+
+    final private AtomicLong writeFailureCount = new AtomicLong();
+
+    /**
+     * Creates a cache with {@link #DEFAULT_MAXIMUM_SIZE} and {@link #DEFAULT_TIME_TO_LIVE}.
+     * @param directory The directory of the entry files, created if missing.
+     * @throws SJPException If the directory cannot be created.
+     */
+    public SJPDefinitionCache(Path directory) throws SJPException{
+        this(directory, DEFAULT_MAXIMUM_SIZE, DEFAULT_TIME_TO_LIVE);
+    }
+
+    /**
+     * Creates a cache over the entry files of the directory, left there by previous runs or not.
+     * @param directory The directory of the entry files, created if missing.
+     * @param maximumSize The maximal number of entries held in memory.
+     * @param timeToLive The time after which an entry is fetched again.
+     * @throws SJPException If the directory cannot be created.
+     */
+    public SJPDefinitionCache(Path directory, int maximumSize, Duration timeToLive) throws SJPException{
+        this(directory, maximumSize, timeToLive, Clock.systemUTC());
+    }
+
+    SJPDefinitionCache(Path directory, int maximumSize, Duration timeToLive, Clock clock) throws SJPException{
+        if(maximumSize <= 0) throw new IllegalArgumentException("Maximum size has to be positive");
+        if(timeToLive.isNegative() || timeToLive.isZero())
+            throw new IllegalArgumentException("Time to live has to be positive");
+        try{
+            Files.createDirectories(directory);
+        }catch(IOException e){
+            throw new SJPException("Cannot create cache directory " + directory);
+        }
+        this.directory = directory;
+        this.timeToLive = timeToLive.toMillis();
+        this.clock = clock;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest){
+                if(size() <= maximumSize) return false;
+                evictionCount.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Looks the word up in memory, then on disk. An entry found on disk is brought back to memory.
+     * @param word The word.
+     * @return The entry of the word, empty if it is not cached or expired.
+     */
+    public Optional<SJPEntry> get(String word){
+        long now = clock.millis();
+        Cached cached;
+        synchronized(memory){
+            cached = memory.get(word);
+            if(cached != null && isExpired(cached, now)) memory.remove(word);
+        }
+        if(cached != null){
+            if(!isExpired(cached, now)){
+                memoryHitCount.incrementAndGet();
+                return Optional.of(cached.entry());
+            }
+            expire(word);
+            missCount.incrementAndGet();
+            return Optional.empty();
+        }
+
+        cached = read(word);
+        if(cached == null || !cached.entry().word().equals(word)){
+            missCount.incrementAndGet();
+            return Optional.empty();
+        }
+        if(isExpired(cached, now)){
+            expire(word);
+            missCount.incrementAndGet();
+            return Optional.empty();
+        }
+        synchronized(memory){
+            memory.putIfAbsent(word, cached);
+        }
+        diskHitCount.incrementAndGet();
+        return Optional.of(cached.entry());
+    }
+
+    /**
+     * Stores the entry under its word in memory and on disk, replacing the previous one.
+     * @param entry The entry, its word cannot be null.
+     * @throws SJPException If the entry cannot be written to disk, it is kept in memory nevertheless
+     * and the failure is counted in the statistics.
+     */
+    public void put(SJPEntry entry) throws SJPException{
+        if(entry.word() == null) throw new IllegalArgumentException("Entry has no word");
+        Cached cached = new Cached(new SJPEntry(entry.word(), entry.isForbiddenInGames(), List.copyOf(entry.meanings())),
+                clock.millis());
+        synchronized(memory){
+            memory.put(entry.word(), cached);
+        }
+        write(cached);
+    }
+
+    /**
+     * Removes the word from memory and disk.
+     * @param word The word.
+     */
+    public void invalidate(String word){
+        synchronized(memory){
+            memory.remove(word);
+        }
+        delete(file(word));
+    }
+
+    /**
+     * Removes all expired entries from memory and disk, entries on disk are otherwise removed only when looked up.
+     * @return The number of entry files removed.
+     * @throws SJPException If the directory cannot be listed.
+     */
+    public int purgeExpired() throws SJPException{
+        long now = clock.millis();
+        synchronized(memory){
+            memory.values().removeIf(cached -> isExpired(cached, now));
+        }
+        List<Path> files = new ArrayList<>();
+        try(DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION)){
+            stream.forEach(files::add);
+        }catch(IOException e){
+            throw new SJPException("Cannot list cache directory " + directory);
+        }
+        int removed = 0;
+        for(Path file : files){
+            Cached cached = read(file);
+            if(cached == null || isExpired(cached, now)){
+                delete(file);
+                expirationCount.incrementAndGet();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Retrieves the number of entries held in memory.
+     * @return The number of entries.
+     */
+    public int getMemorySize(){
+        synchronized(memory){
+            return memory.size();
+        }
+    }
+
+    /**
+     * Retrieves the hit, miss, eviction, expiration and write failure counters since the cache was created.
+     * @return The counters.
+     */
+    public SJPCacheStatistics getStatistics(){
+        return new SJPCacheStatistics(memoryHitCount.get(), diskHitCount.get(), missCount.get(),
+                evictionCount.get(), expirationCount.get(), writeFailureCount.get());
+    }
+
+    private boolean isExpired(Cached cached, long now){
+        return now - cached.storedTime() >= timeToLive;
+    }
+
+    private void expire(String word){
+        delete(file(word));
+        expirationCount.incrementAndGet();
+    }
+
+    /**
+     * Retrieves the entry file of the word, named with the URL-safe Base64 of the word.
+     */
+    private Path file(String word){
+        return directory.resolve(Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(word.getBytes(StandardCharsets.UTF_8)) + EXTENSION);
+    }
+
+    private Cached read(String word){
+        return read(file(word));
+    }
+
+    /**
+     * Reads the entry file, a damaged file is removed.
+     * @return The entry, null if there is none.
+     */
+    private Cached read(Path file){
+        try(DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))){
+            if(input.readInt() != MAGIC || input.readInt() != VERSION) throw new IOException("Not an entry file");
+            long storedTime = input.readLong();
+            boolean isForbiddenInGames = input.readBoolean();
+            String word = input.readUTF();
+            int count = input.readInt();
+            if(count < 0) throw new IOException("Negative number of meanings");
+            List<String> meanings = new ArrayList<>(Math.min(count, 64));
+            for(int i = 0; i < count; i++){
+                meanings.add(input.readUTF());
+            }
+            return new Cached(new SJPEntry(word, isForbiddenInGames, List.copyOf(meanings)), storedTime);
+        }catch(NoSuchFileException e){
+            return null;
+        }catch(IOException e){
+            delete(file);
+            return null;
+        }
+    }
+
+    private void write(Cached cached) throws SJPException{
+        SJPEntry entry = cached.entry();
+        Path temporary = null;
+        try{
+            temporary = Files.createTempFile(directory, "entry", ".tmp");
+            try(DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))){
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeLong(cached.storedTime());
+                output.writeBoolean(entry.isForbiddenInGames());
+                output.writeUTF(entry.word());
+                output.writeInt(entry.meanings().size());
+                for(String meaning : entry.meanings()){
+                    output.writeUTF(meaning);
+                }
+            }
+            Files.move(temporary, file(entry.word()), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }catch(IOException e){
+            if(temporary != null) delete(temporary);
+            writeFailureCount.incrementAndGet();
+            throw new SJPException("Cannot write cache entry of word " + entry.word());
+        }
+    }
+
+    private static void delete(Path file){
+        try{
+            Files.deleteIfExists(file);
+        }catch(IOException e){
+            // removed by another process or left for the next lookup
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package org.project.model.sjp;
+
+import org.project.model.crossword.CrosswordException;
+import org.project.model.crossword.WordEntry;
+import org.project.model.crossword.WordIndex;
+import org.project.model.crossword.WordSource;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Offline dictionary of words with meanings, an alternative to fetching every word from sjp.pl.
+ * The dictionary is compiled once from a text file into a binary file, which is then memory-mapped,
+ * so opening it does not read the words onto the heap and every entry is decoded only when drawn.
+ * Text file holds one word per line: the word, 1 if it is forbidden in games or 0 otherwise,
+ * and any number of meanings, separated with tabs.
+ * Binary file starts with a header (magic, version, number of entries, number of entries allowed in games),
+ * followed by the offset of every entry, the numbers of entries allowed in games and the entries.
+ * An entry is a flag byte, the word and the number of meanings followed by the meanings,
+ * every string stored as its UTF-8 length (unsigned short) and bytes.
+ * The dictionary can be shared by many threads.
+ */
+public class SJPDictionary implements WordSource, AutoCloseable {
+
+    private static final int MAGIC = 0x534A5044; // "SJPD"
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+    private static final byte FORBIDDEN_FLAG = 1;
+
+    private static final char SEPARATOR = '\t';
+
+    final private FileChannel channel;
+
+    final private MappedByteBuffer buffer;
+
+    final private int size;
+
+    final private int allowedSize;
+
+    private SJPDictionary(FileChannel channel, MappedByteBuffer buffer, int size, int allowedSize){
+        this.channel = channel;
+        this.buffer = buffer;
+        this.size = size;
+        this.allowedSize = allowedSize;
+    }
+
+    /**
+     * Opens a dictionary compiled with {@link #compile(Path, Path)}.
+     * @param dictionaryFile The binary dictionary file.
+     * @return The dictionary.
+     * @throws SJPException If the file cannot be read or is not a dictionary.
+     */
+    public static SJPDictionary open(Path dictionaryFile) throws SJPException{
+        FileChannel channel = null;
+        try{
+            channel = FileChannel.open(dictionaryFile, StandardOpenOption.READ);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if(buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+                throw new SJPException("File " + dictionaryFile + " is not a dictionary");
+            if(buffer.getInt(4) != VERSION)
+                throw new SJPException("Unsupported dictionary version " + buffer.getInt(4));
+            int size = buffer.getInt(8);
+            int allowedSize = buffer.getInt(12);
+            if(size < 0 || allowedSize < 0 || allowedSize > size
+                    || HEADER_SIZE + (long) (size + allowedSize) * Integer.BYTES > buffer.limit())
+                throw new SJPException("Dictionary file " + dictionaryFile + " is corrupted");
+            return new SJPDictionary(channel, buffer, size, allowedSize);
+        }catch(IOException e){
+            closeQuietly(channel);
+            throw new SJPException("An error occurred when opening dictionary " + dictionaryFile);
+        }catch(SJPException e){
+            closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    /**
+     * Compiles a text dictionary into the binary format read by {@link #open(Path)}.
+     * @param textFile The text file with one word per line.
+     * @param dictionaryFile The binary file to write.
+     * @throws SJPException If a file cannot be accessed or a line is malformed.
+     */
+    public static void compile(Path textFile, Path dictionaryFile) throws SJPException{
+        List<SJPEntry> entries = new ArrayList<>();
+        try(BufferedReader reader = Files.newBufferedReader(textFile, StandardCharsets.UTF_8)){
+            String line;
+            int lineNumber = 0;
+            while((line = reader.readLine()) != null){
+                lineNumber++;
+                if(line.isBlank()) continue;
+                String[] fields = line.split(String.valueOf(SEPARATOR));
+                if(fields.length < 2 || fields[0].isEmpty() || !(fields[1].equals("0") || fields[1].equals("1")))
+                    throw new SJPException("Malformed dictionary line " + lineNumber);
+                entries.add(new SJPEntry(fields[0], fields[1].equals("1"),
+                        List.of(Arrays.copyOfRange(fields, 2, fields.length))));
+            }
+        }catch(IOException e){
+            throw new SJPException("An error occurred when reading " + textFile);
+        }
+        write(entries, dictionaryFile);
+    }
+
+    /**
+     * Writes entries in the binary format read by {@link #open(Path)}.
+     * @param entries The entries.
+     * @param dictionaryFile The binary file to write.
+     * @throws SJPException If the file cannot be written or an entry does not fit the format.
+     */
+    public static void write(List<SJPEntry> entries, Path dictionaryFile) throws SJPException{
+        int allowedSize = (int) entries.stream().filter(entry -> !entry.isForbiddenInGames()).count();
+        int[] offsets = new int[entries.size()];
+        int[] allowed = new int[allowedSize];
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        DataOutputStream records = new DataOutputStream(recordBytes);
+        long tablesSize = HEADER_SIZE + (long) (entries.size() + allowedSize) * Integer.BYTES;
+        try{
+            int allowedPosition = 0;
+            for(int i = 0; i < entries.size(); i++){
+                SJPEntry entry = entries.get(i);
+                if(tablesSize + recordBytes.size() > Integer.MAX_VALUE)
+                    throw new SJPException("Dictionary is too big");
+                offsets[i] = (int) (tablesSize + recordBytes.size());
+                if(!entry.isForbiddenInGames()) allowed[allowedPosition++] = i;
+                records.writeByte(entry.isForbiddenInGames() ? FORBIDDEN_FLAG : 0);
+                writeString(records, entry.word());
+                if(entry.meanings().size() > 0xFFFF)
+                    throw new SJPException("Too many meanings of " + entry.word());
+                records.writeShort(entry.meanings().size());
+                for(String meaning : entry.meanings()) writeString(records, meaning);
+            }
+            try(DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(dictionaryFile)))){
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(entries.size());
+                output.writeInt(allowedSize);
+                for(int offset : offsets) output.writeInt(offset);
+                for(int index : allowed) output.writeInt(index);
+                recordBytes.writeTo(output);
+            }
+        }catch(IOException e){
+            throw new SJPException("An error occurred when writing " + dictionaryFile);
+        }
+    }
+
+    /**
+     * Retrieves the number of words in the dictionary.
+     * @return The number of words.
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Retrieves the number of words allowed in games.
+     * @return The number of words.
+     */
+    public int allowedSize(){
+        return allowedSize;
+    }
+
+    /**
+     * Decodes the entry with the specified number.
+     * @param index The number of the entry, in the order of the source file.
+     * @return The entry.
+     */
+    public SJPEntry getEntry(int index){
+        int position = buffer.getInt(HEADER_SIZE + Objects.checkIndex(index, size) * Integer.BYTES);
+        boolean isForbidden = (buffer.get(position) & FORBIDDEN_FLAG) != 0;
+        position++;
+        String word = readString(position);
+        position += Short.BYTES + Short.toUnsignedInt(buffer.getShort(position));
+        int meaningsCount = Short.toUnsignedInt(buffer.getShort(position));
+        position += Short.BYTES;
+        String[] meanings = new String[meaningsCount];
+        for(int i = 0; i < meaningsCount; i++){
+            meanings[i] = readString(position);
+            position += Short.BYTES + Short.toUnsignedInt(buffer.getShort(position));
+        }
+        return new SJPEntry(word, isForbidden, List.of(meanings));
+    }
+
+    /**
+     * Draws a random word, like {@link SJPGameParser#nextWord()} does.
+     * @return The entry, forbidden in games or not.
+     * @throws SJPException If the dictionary is empty.
+     */
+    public SJPEntry randomEntry() throws SJPException{
+        if(size == 0) throw new SJPException("Dictionary is empty");
+        return getEntry(ThreadLocalRandom.current().nextInt(size));
+    }
+
+    /**
+     * Draws a random word allowed in games.
+     * @return The entry.
+     * @throws SJPException If the dictionary has no word allowed in games.
+     */
+    public SJPEntry randomAllowedEntry() throws SJPException{
+        if(allowedSize == 0) throw new SJPException("Dictionary has no words allowed in games");
+        return getAllowedEntry(ThreadLocalRandom.current().nextInt(allowedSize));
+    }
+
+    /**
+     * Decodes the entry allowed in games with the specified number.
+     * @param allowedIndex The number of the entry among the entries allowed in games.
+     * @return The entry.
+     */
+    public SJPEntry getAllowedEntry(int allowedIndex){
+        int allowedTable = HEADER_SIZE + size * Integer.BYTES;
+        return getEntry(buffer.getInt(allowedTable + Objects.checkIndex(allowedIndex, allowedSize) * Integer.BYTES));
+    }
+
+    /**
+     * Creates an index of the words allowed in games, for drawing words which fit a crossword.
+     * Every word is decoded once to build the index, the index itself keeps no words.
+     * Looked up words get a random meaning.
+     * @return The index.
+     */
+    public WordIndex createWordIndex(){
+        return new WordIndex(allowedSize, allowedIndex -> {
+            SJPEntry entry = getAllowedEntry(allowedIndex);
+            return new WordEntry(entry.word(), entry.getRandomMeaning().orElse("default"));
+        });
+    }
+
+    @Override
+    public WordEntry nextWord() throws CrosswordException{
+        try{
+            SJPEntry entry = randomAllowedEntry();
+            return new WordEntry(entry.word(), entry.getRandomMeaning().orElse("default"));
+        }catch(SJPException e){
+            throw new CrosswordException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Closes the file. The mapping itself is released once the dictionary is garbage collected.
+     * @throws SJPException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws SJPException{
+        try{
+            channel.close();
+        }catch(IOException e){
+            throw new SJPException("An error occurred when closing dictionary");
+        }
+    }
+
+    private String readString(int position){
+        int length = Short.toUnsignedInt(buffer.getShort(position));
+        byte[] bytes = new byte[length];
+        buffer.get(position + Short.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException, SJPException{
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if(bytes.length > 0xFFFF) throw new SJPException("Text is too long to be stored in dictionary");
+        output.writeShort(bytes.length);
+        output.write(bytes);
+    }
+
+    private static void closeQuietly(FileChannel channel){
+        if(channel == null) return;
+        try{
+            channel.close();
+        }catch(IOException ignored){
+            // the original error is more relevant
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.project.model.sjp;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Word with its meanings, as exposed by {@link SJPGameParser}.
+ * @param word The word.
+ * @param isForbiddenInGames True if the word is not allowed in word games.
+ * @param meanings The meanings of the word, possibly empty.
+ */
+public record SJPEntry(String word, boolean isForbiddenInGames, List<String> meanings) {
+
+    public Optional<String> getRandomMeaning(){
+        if(meanings.isEmpty()) return Optional.empty();
+        return Optional.of(meanings.get(ThreadLocalRandom.current().nextInt(meanings.size())));
+    }
+}
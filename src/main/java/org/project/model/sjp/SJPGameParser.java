@@ -1,17 +1,36 @@
 package org.project.model.sjp;
 
+import org.jsoup.Connection;
 import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class SJPGameParser {
 
-    final private String SEPARATOR = "[END]";
+    /**
+     * Page returning a random word.
+     */
+    public static final String SJP_URL = "https://sjp.pl/sl/los/";
+
+    /**
+     * Address of word pages, followed by the word.
+     */
+    public static final String SJP_WORD_URL = "https://sjp.pl/";
+
+    final private String url;
+
+    final private String wordUrl;
+
+    final private SJPDefinitionCache cache;
 
     private String word;
 
@@ -20,6 +39,35 @@ public class SJPGameParser {
     private boolean isForbiddenInGames;
 
     public SJPGameParser(){
+        this(SJP_URL);
+    }
+
+    /**
+     * Creates a parser fetching random words from the given address instead of sjp.pl, e.g. a mirror or a test server.
+     * @param url The address of a page returning a random word.
+     */
+    public SJPGameParser(String url){
+        this(url, SJP_WORD_URL, null);
+    }
+
+    /**
+     * Creates a parser of sjp.pl storing every parsed word in the cache and looking words up in it first.
+     * @param cache The cache of entries.
+     */
+    public SJPGameParser(SJPDefinitionCache cache){
+        this(SJP_URL, SJP_WORD_URL, cache);
+    }
+
+    /**
+     * Creates a parser fetching words from the given addresses.
+     * @param url The address of a page returning a random word.
+     * @param wordUrl The address of word pages, followed by the word.
+     * @param cache The cache of entries, null if words are always fetched.
+     */
+    public SJPGameParser(String url, String wordUrl, SJPDefinitionCache cache){
+        this.url = url;
+        this.wordUrl = wordUrl;
+        this.cache = cache;
         word = "default";
         meanings = new ArrayList<>();
         meanings.add("Use method nextWord() to get new word and meaning");
@@ -47,6 +95,14 @@ public class SJPGameParser {
         return meanings;
     }
 
+    /**
+     * Copies the current word, its flag and meanings.
+     * @return The entry of the current word.
+     */
+    public SJPEntry toEntry(){
+        return new SJPEntry(word, isForbiddenInGames, List.copyOf(meanings));
+    }
+
     public Map<String, String> getWordsWithMeanings(int wordCount, boolean isForbiddenInGames) throws SJPException{
         Map<String, String> wordsWithMeanings = new HashMap<>();
         while (wordCount > 0) {
@@ -63,196 +119,144 @@ public class SJPGameParser {
         return wordsWithMeanings;
     }
 
+    /**
+     * Fetches a random word. If the random page redirects to the page of a word, as sjp.pl does,
+     * the word is retrieved with {@link #lookUp(String)}, so a word held by the cache is not downloaded again.
+     * Otherwise the page is fetched and the cache, if any, is only filled with the word.
+     * @return This parser.
+     * @throws SJPException If the page cannot be fetched or parsed.
+     */
     public SJPGameParser nextWord() throws SJPException{
         try{
-            // Using Jsoup api to parse html documents
-            String sjpURL = "https://sjp.pl/sl/los/";
-            Document doc = Jsoup.connect(sjpURL).get();
-            String htmlContent = doc.body().text();
-            isForbiddenInGames = isForbiddenInGames(htmlContent);
-            meanings.clear();
-            word = processWord(htmlContent);
-            Optional<String> definitions = getDefinitions(htmlContent);
-            definitions.ifPresent(string -> meanings = extractDefinitions(string));
-        }catch (IOException e){
+            Connection.Response response = Jsoup.connect(url).followRedirects(false).execute();
+            String location = response.statusCode() / 100 == 3 ? response.header("Location") : null;
+            if(location != null){
+                String pageUrl = URI.create(url).resolve(location).toString();
+                String drawnWord = getWordOfPage(pageUrl);
+                if(drawnWord != null) return lookUp(drawnWord);
+                fetch(pageUrl);
+            }else{
+                read(response);
+            }
+        }catch (IOException | IllegalArgumentException e){
             throw new SJPException("An error occurred when connecting to server");
         }
+        if(word != null) store();
         return this;
     }
 
-
-    private String processWord(String text) throws SJPException{
-        if(text == null || text.isEmpty())
-            throw new SJPException("Provided String value is null or empty");
-
-        Pattern pattern = Pattern.compile("\\(i\\) (\\S+)");
-        Matcher matcher = pattern.matcher(text);
-        String word = null;
-        while(matcher.find()){
-            word = matcher.group(1);
+    /**
+     * Retrieves the given word, from the cache if it holds the word, otherwise from its page, which is then cached.
+     * @param word The word.
+     * @return This parser.
+     * @throws SJPException If the page cannot be fetched or parsed, or has no word.
+     */
+    public SJPGameParser lookUp(String word) throws SJPException{
+        if(cache != null){
+            Optional<SJPEntry> cached = cache.get(word);
+            if(cached.isPresent()){
+                this.word = cached.get().word();
+                this.isForbiddenInGames = cached.get().isForbiddenInGames();
+                this.meanings = new ArrayList<>(cached.get().meanings());
+                return this;
+            }
         }
-        return word;
-    }
-
-    private boolean isForbiddenInGames(String input) throws SJPException{
-        if(input == null || input.isEmpty())
-            throw new SJPException("Provided String value is null or empty");
-
-        // Checks if "niedopuszczalne w grach" is before the first "(i)".
-        Pattern pattern = Pattern.compile("niedopuszczalne w grach(?=.*\\(i\\))");
-        Matcher matcher = pattern.matcher(input);
-        return matcher.find();
+        fetch(wordUrl + URLEncoder.encode(word, StandardCharsets.UTF_8));
+        if(this.word == null) throw new SJPException("Word " + word + " was not found");
+        store();
+        return this;
     }
 
-    private String removeComments(String input) throws SJPException{
-        if(input == null || input.isEmpty())
-            throw new SJPException("Provided String value is null or empty");
-
-        int index = input.indexOf("KOMENTARZE"); // Need first index
-        if (index != -1) {
-            return input.substring(0, index);
-        } else {
-            return input;
+    /**
+     * Stores the parsed word in the cache, if any. A word which cannot be written to disk is still returned,
+     * the cache keeps it in memory and counts the failure.
+     */
+    private void store(){
+        if(cache == null) return;
+        try{
+            cache.put(toEntry());
+        }catch(SJPException e){
+            // counted by the cache, the word was fetched and parsed
         }
     }
 
-    private Optional<String> getDefinitions(String input) throws SJPException{
-        if(input == null || input.isEmpty())
-            throw new SJPException("Provided String value is null or empty");
-
-        final String forbiddenString = "niedopuszczalne w grach (i)";
-        final String allowedString = "dopuszczalne w grach (i)";
-        final String relatedString = "POWIĄZANE";
-        final String meaningString = "znaczenie: info (";
-        final String dash = " - ";
-
-        // cut the first occurrence of allowed
-        Optional<String> result = findFirstAndCutItOut(input, allowedString);
-
-        // if there is no allowed cut first occurrence of forbidden
-        if (result.isEmpty()) {
-            result = findFirstAndCutItOut(input, forbiddenString);
+    /**
+     * Reads the word named by the address of its page.
+     * @return The word, null if the address is not a word page.
+     */
+    private String getWordOfPage(String pageUrl){
+        if(!pageUrl.startsWith(wordUrl)) return null;
+        String path = pageUrl.substring(wordUrl.length());
+        if(path.isEmpty() || path.contains("/") || path.contains("?") || path.contains("#")) return null;
+        return URLDecoder.decode(path, StandardCharsets.UTF_8);
+    }
 
-            // return empty if there is nothing else :<
-            if (result.isEmpty()) {
-                return Optional.empty();
-            }
+    private void fetch(String pageUrl) throws SJPException{
+        try{
+            read(Jsoup.connect(pageUrl).execute());
+        }catch (IOException | IllegalArgumentException e){
+            throw new SJPException("An error occurred when connecting to server");
         }
+    }
 
-        input = result.get();
-        input = removeComments(input);
-
-        StringBuilder resultInput = new StringBuilder();
-
-        String tempString;
-        int forbiddenIndex;
-        int allowedIndex;
-        int relatedIndex;
-
-        // while any znaczenie: info ( is still in input
-        while ((result = findFirstAndCutItOut(input, meaningString)).isPresent()) {
-            tempString = result.get();
-
-            //calc and get first occurrence of key word
-            forbiddenIndex = tempString.indexOf(forbiddenString);
-            allowedIndex = tempString.indexOf(allowedString);
-            relatedIndex = tempString.indexOf(relatedString);
-            int minIndex = minIndex(forbiddenIndex, allowedIndex, relatedIndex);
-
-            // if there is keyword
-            if (minIndex != -1) {
-
-                String resultWithoutDash = tempString.substring(3, minIndex);
-
-                // we are going to delete " - "
-                if (forbiddenIndex == minIndex || allowedIndex == minIndex) {
-
-                    // some magic
-                    StringBuilder dashCutter = new StringBuilder(resultWithoutDash);
-                    dashCutter.reverse();
-                    result = findFirstAndCutItOut(dashCutter.toString(), dash);
-                    if (result.isPresent()) {
-                        dashCutter = new StringBuilder(result.get());
-                        resultWithoutDash = dashCutter.reverse().toString();
-                    }
-                }
-
-                // now we have ready output
-                resultInput.append(resultWithoutDash);
-            } else {
-
-                // no keyword, no problem
-                tempString = tempString.trim();
-                resultInput.append(tempString, 3, tempString.length());
-            }
-            // set separator
-            resultInput.append(SEPARATOR);
-            input = tempString;
+    private void read(Connection.Response response) throws IOException, SJPException{
+        // the page is read as a stream, without building its document
+        Charset charset = response.charset() == null ? StandardCharsets.UTF_8 : Charset.forName(response.charset());
+        try(InputStream input = response.bodyStream()){
+            parse(input, charset);
         }
-
-        return Optional.of(resultInput.toString());
     }
 
-    public List<String> extractDefinitions(String input){
-
-        List<String> definitions = new ArrayList<>();
-
-        // pattern to match text within [END] blocks
-        Pattern pattern = Pattern.compile(Pattern.quote(SEPARATOR));
-
-        // split input by [END] and process each block
-        String[] blocks = pattern.split(input);
-        for (String block : blocks) {
-            // remove leading and trailing whitespace
-            block = block.trim();
-            // skip empty blocks
-            if (block.isEmpty()) continue;
-
-            // pattern to match text within [czyt.] blocks
-            Pattern innerPattern = Pattern.compile("\\[([^\\[\\]]*?)]");
-            Matcher innerMatcher = innerPattern.matcher(block);
-            while (innerMatcher.find()) {
-                block = block.replace(innerMatcher.group(), "");
-            }
+    /**
+     * Reads the word, its flag and meanings from a random word page, streaming its HTML.
+     * Gives the same results as parsing the page into a document first.
+     * @param input The stream of the page, not closed by this method.
+     * @param charset The charset of the page.
+     * @return This parser.
+     * @throws SJPException If the page cannot be read or has no text.
+     */
+    public SJPGameParser parse(InputStream input, Charset charset) throws SJPException{
+        return parse(new InputStreamReader(input, charset));
+    }
 
-            // split block into individual definitions
-            String[] definitionsArray = block.split("\\d+\\. ");
-            for (String definition : definitionsArray) {
-                // remove leading and trailing whitespace
-                definition = definition.trim();
-                // remove trailing semicolon if present
-                if (definition.endsWith(";")) {
-                    definition = definition.substring(0, definition.length() - 1);
-                }
-                // skip empty definitions
-                if (!definition.isEmpty()) {
-                    definitions.add(definition);
-                }
-            }
+    /**
+     * Reads the word, its flag and meanings from a random word page, streaming its HTML.
+     * Gives the same results as parsing the page into a document first.
+     * @param reader The reader of the page, not closed by this method.
+     * @return This parser.
+     * @throws SJPException If the page cannot be read or has no text.
+     */
+    public SJPGameParser parse(Reader reader) throws SJPException{
+        String text;
+        try{
+            text = SJPHtmlTextReader.readText(reader);
+        }catch (IOException e){
+            throw new SJPException("An error occurred when reading the page");
         }
-        return definitions;
+        return parseText(text);
     }
 
-    private Optional<String> findFirstAndCutItOut(String input, String text){
-        if(text == null || text.isEmpty() || input == null || input.isEmpty()) return Optional.empty();
-        int startIndex = input.indexOf(text);
-        if(startIndex != -1){
-            return Optional.of(input.substring(startIndex + text.length()));
-        }
-        return Optional.empty();
+    /**
+     * Reads the word, its flag and meanings from the text of a random word page.
+     * @param htmlContent The text of the page body.
+     * @return This parser.
+     * @throws SJPException If the text is empty or its definitions are malformed.
+     */
+    SJPGameParser parseText(String htmlContent) throws SJPException{
+        isForbiddenInGames = SJPPageScanner.scanForbiddenInGames(htmlContent);
+        meanings.clear();
+        word = SJPPageScanner.scanWord(htmlContent);
+        List<String> definitions = SJPPageScanner.scanDefinitions(htmlContent);
+        if(definitions != null) meanings = definitions;
+        return this;
     }
 
-    private int minIndex(int ... arguments){
-        int length = arguments.length;
-        if(length == 0) return -1;
-        int min = -1;
-        for(int index : arguments){
-            if(index != -1 && min == -1){
-                min = index;
-            }else if(index != -1 && index < min){
-                min = index;
-            }
-        }
-        return min;
+    /**
+     * Splits definition blocks, separated with "[END]", into numbered definitions without the bracketed notes.
+     * @param input The definition blocks.
+     * @return The definitions.
+     */
+    public List<String> extractDefinitions(String input){
+        return SJPPageScanner.extractDefinitions(input);
     }
 }
@@ -0,0 +1,590 @@
+package org.project.model.sjp;
+
+import org.jsoup.nodes.Entities;
+import org.jsoup.parser.Tag;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads the text of the body of an HTML page straight from a stream, without building a document tree.
+ * Markup, comments, the head of the page and the content of scripts and styles are dropped as they are read,
+ * only the text is kept. Spaces between elements and whitespace are normalised the way
+ * Jsoup's {@code document.body().text()} does it, so {@link SJPPageScanner} gets the same text from either.
+ * Only the text may differ for formatting elements closed across blocks, like {@code <b><p>a</b>b},
+ * which Jsoup rearranges into a different tree.
+ *
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+final class SJPHtmlTextReader {
+
+    private static final int BUFFER_SIZE = 1024;
+
+    /**
+     * Length of the longest named character reference.
+     */
+    private static final int MAXIMAL_ENTITY_LENGTH = 32;
+
+    /**
+     * Elements whose content is dropped.
+     */
+    private static final Set<String> DATA_ELEMENTS = Set.of("script", "style");
+
+    /**
+     * Elements whose content is text with entities, but without markup.
+     */
+    private static final Set<String> RCDATA_ELEMENTS = Set.of("title", "textarea");
+
+    /**
+     * Elements whose content is text without entities and markup.
+     */
+    private static final Set<String> RAWTEXT_ELEMENTS = Set.of("xmp", "iframe", "noembed", "noframes");
+
+    /**
+     * Elements which may precede the body, along with the ones of the head.
+     */
+    private static final Set<String> HEAD_ELEMENTS = Set.of(
+            "base", "basefont", "bgsound", "link", "meta", "title", "noscript", "noframes", "style", "script", "template");
+
+    /**
+     * Start tags closing an open paragraph.
+     */
+    private static final Set<String> CLOSING_PARAGRAPH = Set.of(
+            "address", "article", "aside", "blockquote", "center", "details", "dialog", "dir", "div", "dl",
+            "fieldset", "figcaption", "figure", "footer", "header", "hgroup", "main", "menu", "nav", "ol", "p",
+            "section", "summary", "ul", "h1", "h2", "h3", "h4", "h5", "h6", "pre", "listing", "form", "hr", "xmp",
+            "li", "dd", "dt");
+
+    /**
+     * Formatting elements, which an end tag closes without closing the special elements opened inside them.
+     */
+    private static final Set<String> FORMATTING_ELEMENTS = Set.of(
+            "a", "b", "big", "code", "em", "font", "i", "nobr", "s", "small", "strike", "strong", "tt", "u");
+
+    /**
+     * Elements with special parsing rules, which end tags of other elements do not close.
+     */
+    private static final Set<String> SPECIAL_ELEMENTS = Set.of(
+            "address", "applet", "area", "article", "aside", "base", "basefont", "bgsound", "blockquote", "body", "br",
+            "button", "caption", "center", "col", "colgroup", "dd", "details", "dir", "div", "dl", "dt", "embed",
+            "fieldset", "figcaption", "figure", "footer", "form", "frame", "frameset", "h1", "h2", "h3", "h4", "h5",
+            "h6", "head", "header", "hgroup", "hr", "html", "iframe", "img", "input", "keygen", "li", "link",
+            "listing", "main", "marquee", "menu", "meta", "nav", "noembed", "noframes", "noscript", "object", "ol",
+            "p", "param", "plaintext", "pre", "script", "section", "select", "source", "style", "summary", "table",
+            "tbody", "td", "template", "textarea", "tfoot", "th", "thead", "title", "tr", "track", "ul", "wbr", "xmp");
+
+    private static final Set<String> HEADINGS = Set.of("h1", "h2", "h3", "h4", "h5", "h6");
+
+    /**
+     * Elements bounding the scope in which end tags look for the element they close.
+     */
+    private static final Set<String> SCOPE_BOUNDARIES = Set.of(
+            "applet", "caption", "html", "table", "td", "th", "marquee", "object", "template");
+
+    private static final Set<String> LIST_ITEM_SCOPE_BOUNDARIES = Set.of("ol", "ul");
+
+    private static final Set<String> BUTTON_SCOPE_BOUNDARIES = Set.of("button");
+
+    /**
+     * Depth of ancestors checked for whitespace preserving elements, as in Jsoup.
+     */
+    private static final int PRESERVE_WHITESPACE_DEPTH = 6;
+
+    final private Reader reader;
+
+    final private char[] buffer = new char[BUFFER_SIZE];
+
+    private int position;
+
+    private int limit;
+
+    final private StringBuilder text = new StringBuilder();
+
+    /**
+     * Open elements of the body.
+     */
+    final private List<Tag> openElements = new ArrayList<>();
+
+    private boolean inBody;
+
+    /**
+     * Number of open elements after which a block element was closed, -1 if none was.
+     * Text or an inline element following it as a sibling is separated with a space.
+     */
+    private int closedBlockDepth = -1;
+
+    /**
+     * True while the characters read belong to a single text node, which is the case after any character read.
+     */
+    private boolean inText;
+
+    private SJPHtmlTextReader(Reader reader){
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the whole page and returns the text of its body.
+     * @param reader The reader of the HTML page, not closed by this method.
+     * @return The text, with whitespace normalised and trimmed.
+     * @throws IOException If reading failed.
+     */
+    static String readText(Reader reader) throws IOException{
+        SJPHtmlTextReader textReader = new SJPHtmlTextReader(reader);
+        textReader.read();
+        return textReader.text.toString().trim();
+    }
+
+    private void read() throws IOException{
+        int character;
+        while((character = next()) != -1){
+            if(character == '<'){
+                readMarkup();
+            }else if(character == '&'){
+                appendText(readCharacterReference());
+            }else{
+                appendText((char) character);
+            }
+        }
+    }
+
+    private void readMarkup() throws IOException{
+        int character = peek(0);
+        if(isAsciiLetter(character)){
+            readStartTag();
+        }else if(character == '/'){
+            position++;
+            if(isAsciiLetter(peek(0))){
+                readEndTag();
+            }else if(peek(0) == '>'){
+                position++;
+            }else{
+                skipPast(">");
+                endOfSibling();
+            }
+        }else if(character == '!'){
+            position++;
+            if(startsWith("--")){
+                position += 2;
+                skipComment();
+            }else{
+                skipPast(">");
+            }
+            endOfSibling();
+        }else if(character == '?'){
+            skipPast(">");
+            endOfSibling();
+        }else{
+            appendText('<');
+        }
+    }
+
+    private void readStartTag() throws IOException{
+        String name = readTagName();
+        boolean selfClosing = skipAttributes();
+        inText = false;
+
+        if(name.equals("html") || name.equals("head")) return;
+        if(name.equals("body")){
+            inBody = true;
+            return;
+        }
+        if(!inBody && HEAD_ELEMENTS.contains(name)){
+            // content of the head of the page is never part of the body text
+            if(!Tag.valueOf(name).isEmpty() && !selfClosing) skipContent(name);
+            return;
+        }
+        inBody = true;
+
+        if(CLOSING_PARAGRAPH.contains(name)) closeParagraph();
+        if(HEADINGS.contains(name) && !openElements.isEmpty() && HEADINGS.contains(openElements.getLast().normalName())){
+            // headings do not nest directly
+            closeElementsFrom(openElements.size() - 1);
+        }
+        if(name.equals("li")) closeListItem(Set.of("li"));
+        if(name.equals("dd") || name.equals("dt")) closeListItem(Set.of("dd", "dt"));
+        // links and nobr elements do not nest, a new one ends the open one
+        if(name.equals("a") || name.equals("nobr")) closeFormattingElement(name);
+
+        Tag tag = Tag.valueOf(name);
+        startElement(tag);
+        if(tag.isEmpty() || (selfClosing && !Tag.isKnownTag(name))){
+            endElement(tag);
+            return;
+        }
+        openElements.add(tag);
+        if((name.equals("pre") || name.equals("listing")) && peek(0) == '\n'){
+            // a newline right after the start tag is not part of the content
+            position++;
+        }else if(DATA_ELEMENTS.contains(name)){
+            skipContent(name);
+            closeElement(name);
+        }else if(RCDATA_ELEMENTS.contains(name) || RAWTEXT_ELEMENTS.contains(name)){
+            readTextContent(name, RCDATA_ELEMENTS.contains(name));
+            closeElement(name);
+        }
+    }
+
+    private void readEndTag() throws IOException{
+        String name = readTagName();
+        skipAttributes();
+        inText = false;
+        if(!inBody || name.equals("html") || name.equals("body") || name.equals("head")) return;
+
+        if(name.equals("br")){
+            Tag tag = Tag.valueOf(name);
+            startElement(tag);
+            endElement(tag);
+        }else if(name.equals("p")){
+            int index = indexInScope(Set.of(name), BUTTON_SCOPE_BOUNDARIES);
+            if(index != -1){
+                closeElementsFrom(index);
+            }else{
+                // a paragraph closed without being opened is an empty one
+                Tag tag = Tag.valueOf(name);
+                startElement(tag);
+                endElement(tag);
+            }
+        }else if(name.equals("li")){
+            int index = indexInScope(Set.of(name), LIST_ITEM_SCOPE_BOUNDARIES);
+            if(index != -1) closeElementsFrom(index);
+        }else if(HEADINGS.contains(name)){
+            int index = indexInScope(HEADINGS, Set.of());
+            if(index != -1) closeElementsFrom(index);
+        }else if(FORMATTING_ELEMENTS.contains(name)){
+            closeFormattingElement(name);
+        }else if(SPECIAL_ELEMENTS.contains(name)){
+            int index = indexInScope(Set.of(name), Set.of());
+            if(index != -1) closeElementsFrom(index);
+        }else{
+            int index = indexOfOpen(name);
+            if(index != -1 && !specialAbove(index)) closeElementsFrom(index);
+        }
+    }
+
+    /**
+     * Closes the open list item a new one starts after, unless it is outside of the current special element.
+     */
+    private void closeListItem(Set<String> names){
+        for(int index = openElements.size() - 1; index >= 0; index--){
+            String name = openElements.get(index).normalName();
+            if(names.contains(name)){
+                closeElementsFrom(index);
+                return;
+            }
+            if(SPECIAL_ELEMENTS.contains(name) && !name.equals("address") && !name.equals("div") && !name.equals("p")){
+                return;
+            }
+        }
+    }
+
+    private void closeFormattingElement(String name){
+        int index = indexOfOpen(name);
+        if(index == -1) return;
+        if(specialAbove(index)){
+            // special elements opened inside stay open, only the formatting element ends
+            openElements.remove(index);
+            closedBlockDepth = -1;
+        }else{
+            closeElementsFrom(index);
+        }
+    }
+
+    private boolean specialAbove(int index){
+        for(int above = index + 1; above < openElements.size(); above++){
+            if(SPECIAL_ELEMENTS.contains(openElements.get(above).normalName())) return true;
+        }
+        return false;
+    }
+
+    private void startElement(Tag tag){
+        if(closedBlockDepth == openElements.size() && !tag.formatAsBlock()) appendSpace();
+        closedBlockDepth = -1;
+        if(!text.isEmpty() && (tag.isBlock() || tag.normalName().equals("br"))) appendSpace();
+    }
+
+    private void endElement(Tag tag){
+        closedBlockDepth = tag.isBlock() ? openElements.size() : -1;
+    }
+
+    private void closeParagraph(){
+        int index = indexInScope(Set.of("p"), BUTTON_SCOPE_BOUNDARIES);
+        if(index != -1) closeElementsFrom(index);
+    }
+
+    private void closeElement(String name){
+        // end tags of elements which are not open are ignored
+        int index = indexOfOpen(name);
+        if(index != -1) closeElementsFrom(index);
+    }
+
+    private void closeElementsFrom(int index){
+        while(openElements.size() > index){
+            endElement(openElements.removeLast());
+        }
+    }
+
+    /**
+     * Finds the innermost open element with one of the names, unless a scope boundary is open inside it.
+     * @return The index of the element, -1 if it is not in scope.
+     */
+    private int indexInScope(Set<String> names, Set<String> boundaries){
+        for(int index = openElements.size() - 1; index >= 0; index--){
+            String name = openElements.get(index).normalName();
+            if(names.contains(name)) return index;
+            if(SCOPE_BOUNDARIES.contains(name) || boundaries.contains(name)) return -1;
+        }
+        return -1;
+    }
+
+    private int indexOfOpen(String name){
+        for(int index = openElements.size() - 1; index >= 0; index--){
+            if(openElements.get(index).normalName().equals(name)) return index;
+        }
+        return -1;
+    }
+
+    /**
+     * Marks a node other than text or element, after which a closed block has no sibling to separate from.
+     */
+    private void endOfSibling(){
+        inText = false;
+        if(closedBlockDepth == openElements.size()) closedBlockDepth = -1;
+    }
+
+    private void appendText(String characters){
+        for(int index = 0; index < characters.length(); index++){
+            appendText(characters.charAt(index));
+        }
+    }
+
+    private void appendText(char character){
+        if(!inBody){
+            if(isWhitespace(character)) return;
+            inBody = true;
+        }
+        if(!inText){
+            inText = true;
+            if(closedBlockDepth == openElements.size()) appendSpace();
+            closedBlockDepth = -1;
+        }
+        if(preservesWhitespace()){
+            text.append(character);
+        }else if(isWhitespace(character)){
+            appendSpace();
+        }else if(character != '\u200B' && character != '\u00AD'){
+            text.append(character);
+        }
+    }
+
+    private void appendSpace(){
+        if(text.isEmpty() || text.charAt(text.length() - 1) != ' ') text.append(' ');
+    }
+
+    private boolean preservesWhitespace(){
+        for(int index = openElements.size() - 1;
+            index >= 0 && index >= openElements.size() - PRESERVE_WHITESPACE_DEPTH; index--){
+            if(openElements.get(index).preserveWhitespace()) return true;
+        }
+        return false;
+    }
+
+    private String readTagName() throws IOException{
+        StringBuilder name = new StringBuilder();
+        int character;
+        while((character = peek(0)) != -1 && !isMarkupWhitespace(character) && character != '/' && character != '>'){
+            name.append(Character.toLowerCase((char) character));
+            position++;
+        }
+        return name.toString();
+    }
+
+    /**
+     * Skips the attributes and the end of the tag.
+     * @return True if the tag is self-closing.
+     */
+    private boolean skipAttributes() throws IOException{
+        boolean selfClosing = false;
+        int character;
+        while((character = next()) != -1){
+            if(character == '>') return selfClosing;
+            selfClosing = character == '/';
+            if(character == '='){
+                while(isMarkupWhitespace(peek(0))) position++;
+                int quote = peek(0);
+                if(quote == '"' || quote == '\''){
+                    position++;
+                    while((character = next()) != -1 && character != quote){
+                        // skipped along with the attribute value
+                    }
+                }else{
+                    while((character = peek(0)) != -1 && !isMarkupWhitespace(character) && character != '>'){
+                        position++;
+                    }
+                }
+            }
+        }
+        return selfClosing;
+    }
+
+    private void skipComment() throws IOException{
+        if(startsWith(">")){
+            position++;
+        }else if(startsWith("->")){
+            position += 2;
+        }else{
+            skipPast("-->");
+        }
+    }
+
+    /**
+     * Skips the content of the element up to and including its end tag.
+     */
+    private void skipContent(String name) throws IOException{
+        while(peek(0) != -1){
+            if(atEndTag(name)) return;
+            position++;
+        }
+    }
+
+    /**
+     * Reads the content of the element as text up to its end tag, which is left to be read.
+     */
+    private void readTextContent(String name, boolean withEntities) throws IOException{
+        inText = false;
+        int character;
+        while((character = peek(0)) != -1){
+            if(atEndTag(name)) return;
+            position++;
+            if(character == '&' && withEntities){
+                appendText(readCharacterReference());
+            }else{
+                appendText((char) character);
+            }
+        }
+    }
+
+    /**
+     * Tells whether an end tag of the element follows and skips it if so.
+     */
+    private boolean atEndTag(String name) throws IOException{
+        if(peek(0) != '<' || peek(1) != '/') return false;
+        for(int index = 0; index < name.length(); index++){
+            if(Character.toLowerCase((char) peek(2 + index)) != name.charAt(index)) return false;
+        }
+        int after = peek(2 + name.length());
+        if(after != '>' && after != '/' && !isMarkupWhitespace(after)) return false;
+        position += 2 + name.length();
+        skipAttributes();
+        return true;
+    }
+
+    private String readCharacterReference() throws IOException{
+        if(peek(0) == '#'){
+            boolean hexadecimal = peek(1) == 'x' || peek(1) == 'X';
+            int offset = hexadecimal ? 2 : 1;
+            if(!isDigit(peek(offset), hexadecimal)) return "&";
+            position += offset;
+            int codePoint = 0;
+            while(isDigit(peek(0), hexadecimal)){
+                codePoint = Math.min(codePoint * (hexadecimal ? 16 : 10) + Character.digit(next(), 16),
+                        Character.MAX_CODE_POINT + 1);
+            }
+            if(peek(0) == ';') position++;
+            if(codePoint > Character.MAX_CODE_POINT || (codePoint >= 0xD800 && codePoint <= 0xDFFF)){
+                return "\uFFFD";
+            }
+            return new String(Character.toChars(codePoint));
+        }
+
+        // letters followed by digits
+        StringBuilder name = new StringBuilder();
+        int character;
+        while(name.length() <= MAXIMAL_ENTITY_LENGTH && isAsciiLetter(character = peek(name.length()))){
+            name.append((char) character);
+        }
+        while(name.length() <= MAXIMAL_ENTITY_LENGTH && isDigit(character = peek(name.length()), false)){
+            name.append((char) character);
+        }
+        if(name.length() > MAXIMAL_ENTITY_LENGTH) return "&";
+        boolean semicolon = peek(name.length()) == ';';
+        String entity = name.toString();
+        if(semicolon ? Entities.isNamedEntity(entity) : Entities.isBaseNamedEntity(entity)){
+            position += name.length() + (semicolon ? 1 : 0);
+            return Entities.getByName(entity);
+        }
+        return "&";
+    }
+
+    private void skipPast(String end) throws IOException{
+        while(peek(0) != -1){
+            if(startsWith(end)){
+                position += end.length();
+                return;
+            }
+            position++;
+        }
+    }
+
+    private boolean startsWith(String string) throws IOException{
+        for(int index = 0; index < string.length(); index++){
+            if(peek(index) != string.charAt(index)) return false;
+        }
+        return true;
+    }
+
+    private int next() throws IOException{
+        int character = peek(0);
+        if(character != -1) position++;
+        return character;
+    }
+
+    /**
+     * Retrieves a character ahead of the current position without consuming it.
+     * @param offset The number of characters to look ahead.
+     * @return The character, -1 at the end of the stream.
+     */
+    private int peek(int offset) throws IOException{
+        while(position + offset >= limit){
+            if(!fill()) return -1;
+        }
+        return buffer[position + offset];
+    }
+
+    private boolean fill() throws IOException{
+        if(position > 0){
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        if(limit == buffer.length) throw new IOException("Markup too long to look ahead");
+        int read = reader.read(buffer, limit, buffer.length - limit);
+        if(read == -1) return false;
+        limit += read;
+        return true;
+    }
+
+    private static boolean isAsciiLetter(int character){
+        return (character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z');
+    }
+
+    private static boolean isDigit(int character, boolean hexadecimal){
+        return (character >= '0' && character <= '9')
+                || (hexadecimal && ((character >= 'a' && character <= 'f') || (character >= 'A' && character <= 'F')));
+    }
+
+    private static boolean isMarkupWhitespace(int character){
+        return character == ' ' || character == '\t' || character == '\n' || character == '\f' || character == '\r';
+    }
+
+    /**
+     * Tells whether the character is whitespace in text, which includes the no-break space.
+     */
+    private static boolean isWhitespace(char character){
+        return character == ' ' || character == '\t' || character == '\n' || character == '\f' || character == '\r'
+                || character == '\u00A0';
+    }
+}
@@ -0,0 +1,242 @@
+package org.project.model.sjp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the word, its flag and definitions from the text of a random word page of sjp.pl.
+ * Fixed phrases are searched for with {@link String#indexOf(String, int)}, the remaining patterns are compiled once,
+ * and the definitions are located as index ranges of the page text walked front to back,
+ * so only the extracted definitions are copied out of it.
+ *
+ * @author Pawe&#x142; Drzazga
+ * @version 1.0
+ */
+final class SJPPageScanner {
+
+    /**
+     * Separator of definition blocks in the text passed to {@link SJPGameParser#extractDefinitions(String)}.
+     */
+    static final String SEPARATOR = "[END]";
+
+    private static final String ALLOWED = "dopuszczalne w grach (i)";
+
+    // the allowed flag prefixed with it is the forbidden flag
+    private static final String NOT = "nie";
+
+    private static final String FORBIDDEN = "niedopuszczalne w grach";
+
+    private static final String WORD_PREFIX = "(i) ";
+
+    private static final String INFO = "(i)";
+
+    private static final String RELATED = "POWIĄZANE";
+
+    private static final String MEANING = "znaczenie: info (";
+
+    private static final String COMMENTS = "KOMENTARZE";
+
+    private static final String DASH = " - ";
+
+    /**
+     * Characters skipped after the meaning marker, the space and the number of the first definition.
+     */
+    private static final int MEANING_PREFIX = 3;
+
+    // text within [czyt.] blocks
+    private static final Pattern BRACKETS_PATTERN = Pattern.compile("\\[([^\\[\\]]*?)]");
+
+    private static final Pattern NUMBERING_PATTERN = Pattern.compile("\\d+\\. ");
+
+    private SJPPageScanner(){
+    }
+
+    /**
+     * Tells whether the word is not allowed in word games.
+     * @param text The text of the page.
+     * @return True if "niedopuszczalne w grach" precedes an "(i)" on the same line.
+     * @throws SJPException If the text is empty.
+     */
+    static boolean scanForbiddenInGames(String text) throws SJPException{
+        checkNotEmpty(text);
+        int flag = text.indexOf(FORBIDDEN);
+        while(flag != -1){
+            int info = text.indexOf(INFO, flag + FORBIDDEN.length());
+            if(info == -1) return false;
+            int lineEnd = lineEnd(text, flag + FORBIDDEN.length(), info);
+            if(lineEnd == -1) return true;
+            flag = text.indexOf(FORBIDDEN, lineEnd);
+        }
+        return false;
+    }
+
+    /**
+     * Retrieves the word, which follows the last "(i)" of the page.
+     * @param text The text of the page.
+     * @return The word, null if there is none.
+     * @throws SJPException If the text is empty.
+     */
+    static String scanWord(String text) throws SJPException{
+        checkNotEmpty(text);
+        int start = -1;
+        int end = -1;
+        int from = 0;
+        int prefix;
+        while((prefix = text.indexOf(WORD_PREFIX, from)) != -1){
+            int wordStart = prefix + WORD_PREFIX.length();
+            int wordEnd = wordStart;
+            while(wordEnd < text.length() && !isWhitespace(text.charAt(wordEnd))) wordEnd++;
+            if(wordEnd > wordStart){
+                start = wordStart;
+                end = wordEnd;
+                from = wordEnd;
+            }else{
+                from = prefix + 1;
+            }
+        }
+        return start == -1 ? null : text.substring(start, end);
+    }
+
+    /**
+     * Retrieves the definitions, which follow every "znaczenie: info (" after the game flag and before the comments.
+     * A definition block ends at the next game flag, with the dash before it, or at the related words.
+     * @param text The text of the page.
+     * @return The definitions, null if the page has no game flag.
+     * @throws SJPException If the text is empty or the definitions are malformed.
+     */
+    static List<String> scanDefinitions(String text) throws SJPException{
+        checkNotEmpty(text);
+        // "niedopuszczalne w grach (i)" contains the allowed flag as well
+        int start = text.indexOf(ALLOWED);
+        if(start == -1) return null;
+        start += ALLOWED.length();
+        if(start == text.length()) throw new SJPException("Provided String value is null or empty");
+        int end = text.indexOf(COMMENTS, start);
+        if(end == -1) end = text.length();
+
+        List<String> definitions = new ArrayList<>();
+        // the first flag and related words at or after the current block, both only move forward
+        int allowed = indexOf(text, ALLOWED, start, end);
+        int related = indexOf(text, RELATED, start, end);
+        int from = start;
+        int marker;
+        while((marker = indexOf(text, MEANING, from, end)) != -1){
+            from = marker + MEANING.length();
+            if(allowed != -1 && allowed < from) allowed = indexOf(text, ALLOWED, from, end);
+            if(related != -1 && related < from) related = indexOf(text, RELATED, from, end);
+            int flag = allowed;
+            if(flag - NOT.length() >= from && text.startsWith(NOT, flag - NOT.length())) flag -= NOT.length();
+            boolean found = flag != -1 || related != -1;
+            int blockStart;
+            int blockEnd;
+            if(found){
+                blockStart = from + MEANING_PREFIX;
+                blockEnd = related == -1 || (flag != -1 && flag < related) ? flag : related;
+                if(blockEnd < blockStart) throw new SJPException("Malformed definitions");
+                if(blockEnd == flag){
+                    int dash = text.lastIndexOf(DASH, blockEnd - DASH.length());
+                    if(dash >= blockStart) blockEnd = dash;
+                }
+            }else{
+                blockStart = from;
+                blockEnd = end;
+                while(blockStart < blockEnd && text.charAt(blockStart) <= ' ') blockStart++;
+                while(blockEnd > blockStart && text.charAt(blockEnd - 1) <= ' ') blockEnd--;
+                if(blockEnd - blockStart < MEANING_PREFIX) throw new SJPException("Malformed definitions");
+                blockStart += MEANING_PREFIX;
+            }
+            addDefinitions(text, blockStart, blockEnd, definitions);
+        }
+        return definitions;
+    }
+
+    /**
+     * Splits the text of blocks separated with {@link #SEPARATOR} into numbered definitions.
+     * @param blocks The blocks.
+     * @return The definitions.
+     */
+    static List<String> extractDefinitions(String blocks){
+        List<String> definitions = new ArrayList<>();
+        addDefinitions(blocks, 0, blocks.length(), definitions);
+        return definitions;
+    }
+
+    private static void addDefinitions(String text, int start, int end, List<String> definitions){
+        int separator;
+        while((separator = text.indexOf(SEPARATOR, start)) != -1 && separator + SEPARATOR.length() <= end){
+            addBlockDefinitions(text, start, separator, definitions);
+            start = separator + SEPARATOR.length();
+        }
+        addBlockDefinitions(text, start, end, definitions);
+    }
+
+    private static void addBlockDefinitions(String text, int start, int end, List<String> definitions){
+        while(start < end && text.charAt(start) <= ' ') start++;
+        while(end > start && text.charAt(end - 1) <= ' ') end--;
+        if(start == end) return;
+
+        CharSequence block = text.subSequence(start, end);
+        Matcher brackets = BRACKETS_PATTERN.matcher(block);
+        if(brackets.find()){
+            // removing a bracket may join the text around it into another one, removed along with the rest
+            String withoutBrackets = block.toString();
+            do{
+                withoutBrackets = withoutBrackets.replace(brackets.group(), "");
+            }while(brackets.find());
+            block = withoutBrackets;
+        }
+
+        Matcher numbering = NUMBERING_PATTERN.matcher(block);
+        int definitionStart = 0;
+        while(true){
+            boolean hasNext = numbering.find();
+            int definitionEnd = hasNext ? numbering.start() : block.length();
+            addDefinition(block, definitionStart, definitionEnd, definitions);
+            if(!hasNext) return;
+            definitionStart = numbering.end();
+        }
+    }
+
+    private static void addDefinition(CharSequence block, int start, int end, List<String> definitions){
+        while(start < end && block.charAt(start) <= ' ') start++;
+        while(end > start && block.charAt(end - 1) <= ' ') end--;
+        if(end > start && block.charAt(end - 1) == ';') end--;
+        if(end > start) definitions.add(block.subSequence(start, end).toString());
+    }
+
+    /**
+     * Finds the string within the range of the text.
+     * @return The index of the first occurrence, -1 if there is none.
+     */
+    private static int indexOf(String text, String string, int from, int end){
+        int index = text.indexOf(string, from);
+        return index != -1 && index + string.length() <= end ? index : -1;
+    }
+
+    /**
+     * Finds the first line terminator, as understood by regular expressions, within the range of the text.
+     * @return The index of the line terminator, -1 if there is none.
+     */
+    private static int lineEnd(String text, int from, int end){
+        for(int index = from; index < end; index++){
+            char character = text.charAt(index);
+            if(character == '\n' || character == '\r' || character == '\u0085'
+                    || character == '\u2028' || character == '\u2029') return index;
+        }
+        return -1;
+    }
+
+    /**
+     * Tells whether the character is whitespace, as understood by regular expressions.
+     */
+    private static boolean isWhitespace(char character){
+        return character == ' ' || (character >= '\t' && character <= '\r');
+    }
+
+    private static void checkNotEmpty(String text) throws SJPException{
+        if(text == null || text.isEmpty())
+            throw new SJPException("Provided String value is null or empty");
+    }
+}
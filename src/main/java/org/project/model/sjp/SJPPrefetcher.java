@@ -0,0 +1,208 @@
+package org.project.model.sjp;
+
+import org.project.model.crossword.CrosswordException;
+import org.project.model.crossword.WordEntry;
+import org.project.model.crossword.WordSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fetches random words from sjp.pl ahead of the generator. Several fetchers, each with its own {@link SJPGameParser},
+ * keep a bounded queue of parsed entries filled, so the generator does not wait for the network
+ * as long as it consumes words slower than they are fetched. Fetchers stop while the queue is full.
+ * Time the generator spent waiting on an empty queue is measured, to tell whether more fetchers are needed.
+ */
+public class SJPPrefetcher implements WordSource, AutoCloseable {
+
+    /**
+     * Default number of entries fetched ahead.
+     */
+    public static final int DEFAULT_DEPTH = 16;
+
+    /**
+     * Default number of fetchers working at the same time.
+     */
+    public static final int DEFAULT_CONCURRENCY = 4;
+
+    /**
+     * Time a fetcher waits after a failed fetch, doubled after every next failure up to {@link #MAX_RETRY_DELAY},
+     * so a server which is down is not asked again in a tight loop.
+     */
+    private static final long MIN_RETRY_DELAY = 100;
+
+    private static final long MAX_RETRY_DELAY = 5_000;
+
+    /**
+     * Fetched entry or the error which occurred instead.
+     */
+    private record Fetched(SJPEntry entry, SJPException failure) {
+    }
+
+    /**
+     * Put into the queue by {@link #close()} to wake callers waiting for a word, and kept there for the next ones.
+     */
+    private static final Fetched CLOSED = new Fetched(null, null);
+
+    final private String url;
+
+    final private SJPDefinitionCache cache;
+
+    final private BlockingQueue<Fetched> queue;
+
+    final private List<Thread> fetchers;
+
+    final private AtomicLong starvedTime;
+
+    final private AtomicLong fetchedCount;
+
+    private volatile boolean closed;
+
+    /**
+     * Creates a prefetcher of sjp.pl words with {@link #DEFAULT_DEPTH} and {@link #DEFAULT_CONCURRENCY}.
+     */
+    public SJPPrefetcher(){
+        this(SJPGameParser.SJP_URL, DEFAULT_DEPTH, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Creates a prefetcher and starts its fetchers.
+     * @param url The address of a page returning a random word.
+     * @param depth The maximal number of entries fetched ahead.
+     * @param concurrency The number of fetchers working at the same time.
+     */
+    public SJPPrefetcher(String url, int depth, int concurrency){
+        this(url, depth, concurrency, null);
+    }
+
+    /**
+     * Creates a prefetcher whose fetchers store every fetched word in the cache, and starts them.
+     * @param url The address of a page returning a random word.
+     * @param depth The maximal number of entries fetched ahead.
+     * @param concurrency The number of fetchers working at the same time.
+     * @param cache The cache of entries, null if words are not cached.
+     */
+    public SJPPrefetcher(String url, int depth, int concurrency, SJPDefinitionCache cache){
+        if(depth <= 0 || concurrency <= 0) throw new IllegalArgumentException("Depth and concurrency have to be positive");
+        this.url = url;
+        this.cache = cache;
+        this.queue = new ArrayBlockingQueue<>(depth);
+        this.starvedTime = new AtomicLong();
+        this.fetchedCount = new AtomicLong();
+        this.fetchers = new ArrayList<>(concurrency);
+        for(int i = 0; i < concurrency; i++){
+            fetchers.add(Thread.ofVirtual().name("sjp-fetcher-" + i).start(this::fetch));
+        }
+    }
+
+    private void fetch(){
+        SJPGameParser sjpGameParser = new SJPGameParser(url, SJPGameParser.SJP_WORD_URL, cache);
+        long retryDelay = MIN_RETRY_DELAY;
+        try{
+            while(!closed){
+                try{
+                    Fetched fetched = new Fetched(sjpGameParser.nextWord().toEntry(), null);
+                    fetchedCount.incrementAndGet();
+                    queue.put(fetched);
+                    retryDelay = MIN_RETRY_DELAY;
+                }catch(SJPException e){
+                    queue.put(new Fetched(null, e));
+                    Thread.sleep(retryDelay);
+                    retryDelay = Math.min(retryDelay * 2, MAX_RETRY_DELAY);
+                }
+            }
+        }catch(InterruptedException e){
+            // closed
+        }
+    }
+
+    /**
+     * Takes the next fetched entry, waiting if none is ready.
+     * @return The entry, forbidden in games or not.
+     * @throws SJPException If fetching the word failed or the prefetcher is closed.
+     */
+    public SJPEntry nextEntry() throws SJPException{
+        return nextEntry(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Takes the next fetched entry, waiting at most the specified time if none is ready.
+     * @param timeout The maximal time to wait.
+     * @param unit The unit of the timeout.
+     * @return The entry, forbidden in games or not, or null if none was fetched in time.
+     * @throws SJPException If fetching the word failed or the prefetcher is closed.
+     */
+    public SJPEntry nextEntry(long timeout, TimeUnit unit) throws SJPException{
+        if(closed) throw new SJPException("Prefetcher is closed");
+        Fetched fetched = queue.poll();
+        if(fetched == null){
+            long start = System.nanoTime();
+            try{
+                fetched = queue.poll(timeout, unit);
+            }catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+                throw new SJPException("Interrupted while waiting for a word");
+            }finally{
+                starvedTime.addAndGet(System.nanoTime() - start);
+            }
+            if(fetched == null) return null;
+        }
+        if(fetched == CLOSED || closed){
+            queue.offer(CLOSED);
+            throw new SJPException("Prefetcher is closed");
+        }
+        if(fetched.failure() != null) throw fetched.failure();
+        return fetched.entry();
+    }
+
+    @Override
+    public WordEntry nextWord() throws CrosswordException{
+        return nextWord(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public WordEntry nextWord(long timeout, TimeUnit unit) throws CrosswordException{
+        long deadline = System.nanoTime() + Math.min(unit.toNanos(timeout), Long.MAX_VALUE / 2);
+        try{
+            SJPEntry entry;
+            do{
+                entry = nextEntry(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if(entry == null) return null;
+            }while(entry.isForbiddenInGames());
+            return new WordEntry(entry.word(), entry.getRandomMeaning().orElse("default"));
+        }catch(SJPException e){
+            throw new CrosswordException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Retrieves the total time callers spent waiting for a word because none was fetched ahead.
+     * @return The time in milliseconds.
+     */
+    public double getStarvedTimeInMilliseconds(){
+        return starvedTime.get() / (double) 1_000_000;
+    }
+
+    /**
+     * Retrieves the number of words fetched so far, taken or not.
+     * @return The number of words.
+     */
+    public long getFetchedCount(){
+        return fetchedCount.get();
+    }
+
+    /**
+     * Stops the fetchers. Entries fetched ahead are dropped, callers waiting for a word are woken with an exception.
+     */
+    @Override
+    public void close(){
+        closed = true;
+        fetchers.forEach(Thread::interrupt);
+        queue.clear();
+        queue.offer(CLOSED);
+    }
+}
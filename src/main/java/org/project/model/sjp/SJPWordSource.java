@@ -0,0 +1,25 @@
+package org.project.model.sjp;
+
+import org.project.model.crossword.CrosswordException;
+import org.project.model.crossword.WordEntry;
+import org.project.model.crossword.WordSource;
+
+/**
+ * Word source drawing random words from sjp.pl. Words forbidden in games are skipped.
+ * Every call uses its own parser, so the source can be shared by many threads.
+ */
+public class SJPWordSource implements WordSource {
+
+    @Override
+    public WordEntry nextWord() throws CrosswordException{
+        SJPGameParser sjpGameParser = new SJPGameParser();
+        try{
+            while(sjpGameParser.nextWord().isForbiddenInGames()){
+                // draw again
+            }
+        }catch(SJPException e){
+            throw new CrosswordException(e.getMessage(), e);
+        }
+        return new WordEntry(sjpGameParser.getWord(), sjpGameParser.getRandomMeaning().orElse("default"));
+    }
+}
@@ -0,0 +1,134 @@
+package org.project.model.crossword;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrosswordBatchGeneratorTest {
+
+    /**
+     * Cycles through the reference words, safe to call from many threads.
+     */
+    private static WordSource cyclingSource(AtomicInteger calls){
+        return () -> {
+            String word = CrosswordFactoryTest.WORDS[Math.floorMod(calls.getAndIncrement(), CrosswordFactoryTest.WORDS.length)];
+            return new WordEntry(word, "meaning " + word);
+        };
+    }
+
+    @Test
+    public void generateStreamsRequestedCrosswordsTest(){
+        CrosswordBatchGenerator generator = new CrosswordBatchGenerator(cyclingSource(new AtomicInteger()), 4);
+        try(CrosswordBatch batch = generator.generate(20, new CrosswordParameters(10, true))){
+            List<Crossword> crosswords = batch.stream().toList();
+            assertEquals(20, crosswords.size());
+            crosswords.forEach(crossword -> assertEquals(10, crossword.getWordsCount()));
+            assertTrue(crosswords.stream().allMatch(crossword -> crossword.getCrosswordClueWord().isPresent()));
+
+            CrosswordBatchStatistics statistics = batch.getStatistics();
+            assertEquals(20, statistics.getGeneratedCount());
+            assertEquals(0, statistics.getFailedCount());
+            assertTrue(statistics.getThroughputPerSecond() > 0);
+            assertTrue(statistics.getLatencyPercentileInMilliseconds(50) <= statistics.getMaxLatencyInMilliseconds());
+        }
+    }
+
+    @Test
+    public void generationWaitsForSlowCallerTest() throws InterruptedException{
+        AtomicInteger calls = new AtomicInteger();
+        CrosswordBatchGenerator generator = new CrosswordBatchGenerator(cyclingSource(calls), 2);
+        try(CrosswordBatch batch = generator.generate(50, new CrosswordParameters(3, false, 1))){
+            batch.next();
+            Thread.sleep(200);
+            // two crosswords generating or waiting to be queued, two queued, one taken
+            assertTrue(batch.getStatistics().getGeneratedCount() <= 5, batch.getStatistics().toString());
+            int taken = 1;
+            while(batch.hasNext()){
+                batch.next();
+                taken++;
+            }
+            assertEquals(50, taken);
+        }
+    }
+
+    @Test
+    public void errorsOfGenerationAreReportedTest(){
+        CrosswordBatchGenerator generator = new CrosswordBatchGenerator(() -> {
+            throw new AssertionError("source is broken");
+        }, 2);
+        try(CrosswordBatch batch = generator.generate(3, new CrosswordParameters(5, false))){
+            for(int i = 0; i < 3; i++){
+                CrosswordException exception = assertThrows(CrosswordException.class, batch::next);
+                assertInstanceOf(AssertionError.class, exception.getCause());
+            }
+            assertFalse(batch.hasNext());
+            assertEquals(3, batch.getStatistics().getFailedCount());
+        }
+    }
+
+    @Test
+    public void closeWakesWaitingCallerTest() throws InterruptedException{
+        CountDownLatch release = new CountDownLatch(1);
+        CrosswordBatchGenerator generator = new CrosswordBatchGenerator(() -> {
+            try{
+                release.await();
+            }catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+            }
+            throw new CrosswordException("source is down");
+        }, 2);
+        CrosswordBatch batch = generator.generate(3, new CrosswordParameters(5, false));
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread caller = Thread.ofVirtual().start(() -> failure.set(assertThrows(CrosswordException.class, batch::next)));
+        Thread.sleep(100);
+        batch.close();
+        caller.join(1000);
+        assertFalse(caller.isAlive());
+        assertEquals("Batch was closed while waiting for crossword", failure.get().getMessage());
+        assertFalse(batch.hasNext());
+        assertThrows(NoSuchElementException.class, batch::next);
+        release.countDown();
+    }
+
+    @Test
+    public void closeStopsGenerationInFlightTest() throws InterruptedException{
+        AtomicInteger calls = new AtomicInteger();
+        WordSource words = cyclingSource(calls);
+        CrosswordBatchGenerator generator = new CrosswordBatchGenerator(() -> {
+            try{
+                Thread.sleep(10);
+            }catch(InterruptedException e){
+                // interruption is ignored, only the deadline may stop the generation
+            }
+            return words.nextWord();
+        }, 2);
+        CrosswordBatch batch = generator.generate(2, new CrosswordParameters(1000, false));
+        while(calls.get() < 10) Thread.sleep(10);
+        batch.close();
+        // each generation may finish the word it is drawing
+        int drawn = calls.get() + 2;
+        Thread.sleep(200);
+        assertTrue(calls.get() <= drawn, calls.get() + " words drawn after close, " + drawn + " expected at most");
+    }
+
+    @Test
+    public void failedGenerationIsReportedTest(){
+        CrosswordBatchGenerator generator = new CrosswordBatchGenerator(() -> {
+            throw new CrosswordException("source is down");
+        }, 2);
+        try(CrosswordBatch batch = generator.generate(3, new CrosswordParameters(5, false))){
+            for(int i = 0; i < 3; i++){
+                CrosswordException exception = assertThrows(CrosswordException.class, batch::next);
+                assertEquals("source is down", exception.getMessage());
+            }
+            assertFalse(batch.hasNext());
+            assertEquals(3, batch.getStatistics().getFailedCount());
+        }
+    }
+}
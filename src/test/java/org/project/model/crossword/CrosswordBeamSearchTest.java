@@ -0,0 +1,60 @@
+package org.project.model.crossword;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrosswordBeamSearchTest {
+
+    private static final List<WordEntry> ENTRIES = Arrays.stream(CrosswordFactoryTest.WORDS)
+            .map(word -> new WordEntry(word, "meaning " + word))
+            .toList();
+
+    private static float score(Crossword crossword){
+        return new CrosswordFactory().getCrosswordScore((CrosswordMatrixModel) crossword);
+    }
+
+    @Test
+    public void beamOfOneBuildsGreedyCrosswordTest(){
+        Crossword crossword = new CrosswordBeamSearch(1, null).generate(ENTRIES);
+        assertEquals(CrosswordFactoryTest.EXPECTED_GRID, CrosswordFactoryTest.render(crossword));
+        assertEquals(28, crossword.getWordsCount());
+    }
+
+    @Test
+    public void widerBeamIsNotWorseThanGreedyTest(){
+        CrosswordFactory factory = new CrosswordFactory();
+        CrosswordFactoryTest.insertAll(factory);
+        Crossword greedy = factory.build();
+
+        Crossword beam = new CrosswordBeamSearch(8, null).generate(ENTRIES);
+        assertTrue(beam.getWordsCount() > greedy.getWordsCount()
+                || (beam.getWordsCount() == greedy.getWordsCount() && score(beam) >= score(greedy)),
+                "beam: " + beam.getWordsCount() + " words, " + score(beam)
+                        + ", greedy: " + greedy.getWordsCount() + " words, " + score(greedy));
+        assertEquals(beam.getWordsCount(), beam.getDescriptions().size());
+    }
+
+    @Test
+    public void parallelSearchBuildsSameCrosswordTest(){
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try{
+            Crossword sequential = new CrosswordBeamSearch(6, null).generate(ENTRIES);
+            Crossword parallel = new CrosswordBeamSearch(6, pool).generate(ENTRIES);
+            assertEquals(CrosswordFactoryTest.render(sequential), CrosswordFactoryTest.render(parallel));
+        }finally{
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void invalidBeamWidthIsRejectedTest(){
+        assertThrows(CrosswordException.class, () -> new CrosswordBeamSearch(0, null));
+        assertThrows(CrosswordException.class,
+                () -> new CrosswordBeamSearch().generate(List.of(new WordEntry("kot", ""))));
+    }
+}
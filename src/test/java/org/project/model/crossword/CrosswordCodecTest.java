@@ -0,0 +1,132 @@
+package org.project.model.crossword;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrosswordCodecTest {
+
+    private static Crossword buildCrossword(){
+        CrosswordFactory factory = new CrosswordFactory();
+        CrosswordFactoryTest.insertAll(factory);
+        for(String clue : List.of("KOTY", "MAPA", "OKO", "LAS")){
+            if(factory.tryToInsertClueWord(clue, "zażółć gęślą jaźń " + clue)) break;
+        }
+        Crossword crossword = factory.build();
+        CrosswordLetter letter = crossword.streamLetters().filter(Objects::nonNull).findFirst().orElseThrow();
+        letter.guessLetter(letter.getLetter());
+        return crossword;
+    }
+
+    private static void assertSameCrossword(Crossword expected, Crossword actual){
+        assertEquals(expected.getNumberOfRows(), actual.getNumberOfRows());
+        assertEquals(expected.getNumberOfColumns(), actual.getNumberOfColumns());
+        assertEquals(expected.getSize(), actual.getSize());
+        assertEquals(expected.getWordsCount(), actual.getWordsCount());
+        assertEquals(expected.getLettersCount(), actual.getLettersCount());
+        assertEquals(expected.getGuessedLettersCount(), actual.getGuessedLettersCount());
+        assertEquals(expected.getTimeInMilliseconds(), actual.getTimeInMilliseconds());
+        assertEquals(expected.getCrosswordClueWord(), actual.getCrosswordClueWord());
+        assertEquals(expected.getCrosswordClueDefinition(), actual.getCrosswordClueDefinition());
+        assertEquals(expected.getDescriptions(), actual.getDescriptions());
+        for(int index = 0; index < expected.getSize(); index++){
+            Optional<CrosswordLetter> expectedLetter = expected.getCrosswordLetter(index);
+            Optional<CrosswordLetter> actualLetter = actual.getCrosswordLetter(index);
+            assertEquals(expectedLetter.isPresent(), actualLetter.isPresent());
+            if(expectedLetter.isEmpty()) continue;
+            assertEquals(expectedLetter.get().getLetter(), actualLetter.get().getLetter());
+            assertEquals(expectedLetter.get().getWordNumber(), actualLetter.get().getWordNumber());
+            assertEquals(expectedLetter.get().isFirstLetter(), actualLetter.get().isFirstLetter());
+            assertEquals(expectedLetter.get().isClueLetter(), actualLetter.get().isClueLetter());
+            assertEquals(expectedLetter.get().isGuessed(), actualLetter.get().isGuessed());
+        }
+        assertEquals(CrosswordFactoryTest.render(expected), CrosswordFactoryTest.render(actual));
+    }
+
+    @Test
+    public void readCrosswordIsSameAsWrittenTest(){
+        Crossword crossword = buildCrossword();
+        assertTrue(crossword.getCrosswordClueWord().isPresent());
+        ByteBuffer buffer = CrosswordCodec.encode(crossword);
+        assertEquals(CrosswordCodec.encodedSize(crossword), buffer.remaining());
+
+        Crossword read = CrosswordCodec.read(buffer);
+        assertFalse(buffer.hasRemaining());
+        assertSameCrossword(crossword, read);
+        // the view is written the same way as the crossword it was read from
+        assertEquals(CrosswordCodec.encode(crossword), CrosswordCodec.encode(read));
+    }
+
+    @Test
+    public void crosswordsAreReadInTurnFromReadOnlyBufferTest(){
+        List<Crossword> crosswords = List.of(buildCrossword(), new CrosswordFactory().build(),
+                new CrosswordBeamSearch(2, null).generate(List.of(new WordEntry("KOT", "zwierzę"),
+                        new WordEntry("TOR", "droga"))));
+        int size = crosswords.stream().mapToInt(CrosswordCodec::encodedSize).sum();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+        crosswords.forEach(crossword -> CrosswordCodec.write(crossword, buffer));
+        assertFalse(buffer.hasRemaining());
+
+        ByteBuffer readOnly = buffer.flip().asReadOnlyBuffer();
+        List<Crossword> read = new ArrayList<>();
+        while(readOnly.hasRemaining()){
+            read.add(CrosswordCodec.read(readOnly));
+        }
+        assertEquals(crosswords.size(), read.size());
+        for(int i = 0; i < crosswords.size(); i++){
+            assertSameCrossword(crosswords.get(i), read.get(i));
+        }
+    }
+
+    @Test
+    public void guessesAreKeptByViewTest(){
+        ByteBuffer buffer = CrosswordCodec.encode(buildCrossword()).asReadOnlyBuffer();
+        Crossword first = CrosswordCodec.read(buffer.duplicate());
+        Crossword second = CrosswordCodec.read(buffer.duplicate());
+        int guessed = first.getGuessedLettersCount();
+
+        CrosswordLetter letter = first.streamLetters().filter(l -> l != null && !l.isGuessed()).findFirst().orElseThrow();
+        assertFalse(letter.guessLetter((char) (letter.getLetter() + 1)));
+        assertTrue(letter.guessLetter(Character.toLowerCase(letter.getLetter())));
+        assertEquals(guessed + 1, first.getGuessedLettersCount());
+        assertEquals(first.getLettersCount() - guessed - 1, first.getRemainingLettersCount());
+        assertEquals(guessed, second.getGuessedLettersCount());
+    }
+
+    @Test
+    public void invalidBufferIsRejectedTest(){
+        ByteBuffer buffer = CrosswordCodec.encode(buildCrossword());
+        assertThrows(CrosswordException.class, () -> CrosswordCodec.read(buffer.slice(0, buffer.limit() - 1)));
+        assertThrows(CrosswordException.class, () -> CrosswordCodec.read(ByteBuffer.allocate(64)));
+        buffer.putShort(4, (short) 2);
+        assertThrows(CrosswordException.class, () -> CrosswordCodec.read(buffer));
+    }
+
+    @Test
+    public void corruptStringsAreRejectedTest(){
+        Crossword crossword = buildCrossword();
+        ByteBuffer buffer = CrosswordCodec.encode(crossword);
+        assertEquals(CrosswordCodec.encodedSize(crossword), buffer.limit());
+        int strings = CrosswordCodec.HEADER_SIZE + crossword.getSize() * (Character.BYTES + Byte.BYTES)
+                + buffer.getInt(CrosswordCodec.NUMBERED_COUNT_OFFSET) * CrosswordCodec.NUMBERED_CELL_SIZE;
+
+        // offset of the clue word outside the crossword
+        buffer.putInt(strings, buffer.limit());
+        assertThrows(CrosswordException.class, () -> CrosswordCodec.read(buffer.duplicate()).getCrosswordClueWord());
+        buffer.putInt(strings, -8);
+        assertThrows(CrosswordException.class, () -> CrosswordCodec.read(buffer.duplicate()).getCrosswordClueWord());
+
+        // length of the first description past the end, then negative
+        int description = buffer.getInt(strings + CrosswordCodec.CLUE_STRINGS * Integer.BYTES);
+        buffer.putInt(description, buffer.limit());
+        assertThrows(CrosswordException.class, () -> CrosswordCodec.read(buffer.duplicate()).getDescriptions().get(0));
+        buffer.putInt(description, -2);
+        assertThrows(CrosswordException.class, () -> CrosswordCodec.read(buffer.duplicate()).getDescriptions().get(0));
+    }
+}
@@ -0,0 +1,239 @@
+package org.project.model.crossword;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrosswordFactoryTest {
+
+    static final String[] WORDS = {
+            "KRZYZOWKA", "SLOWO", "LITERA", "KOT", "DOM", "OKNO", "ZAMEK", "RZEKA", "MORZE", "KLUCZ",
+            "OWOC", "SOWA", "AKTOR", "TRAKTOR", "KAWA", "ANANAS", "BANAN", "PAPUGA", "ROWER", "LAMPA",
+            "KOSZYK", "MOTYL", "OGIEN", "WODA", "ZIEMIA", "POWIETRZE", "KOLANO", "PIES", "KRETKA", "OLOWEK"
+    };
+
+    static final String EXPECTED_INSERTED = "111101011111111111111111111111";
+
+    static final String EXPECTED_GRID = ".........baNAN........|..........N.....z.....|..kRETkA.pAPUGA.I.....|"
+            + "......O...N.....E.....|......lAMPA..k..M.....|......A...soWA..I.o...|......N....W.wODA.G...|"
+            + "......O....O.A....I...|........klUCZ.mOrZE.m.|.........I......Z.N.O.|.....traKTOR.s..E...T.|"
+            + "..o...O..E...L..kOSZYK|..L.p.W.kRZYZOWkA...L.|..O.I.E..A...W.O......|pOWIETRZE.oKNO.T......|"
+            + "..E.S.................|..K...................|";
+
+    /**
+     * Renders the grid row by row, first letters in lower case and empty cells as dots.
+     */
+    static String render(Crossword crossword){
+        StringBuilder builder = new StringBuilder();
+        for(int row = 0; row < crossword.getNumberOfRows(); row++){
+            for(int column = 0; column < crossword.getNumberOfColumns(); column++){
+                Optional<CrosswordLetter> letter = crossword.getCrosswordLetter(row, column);
+                builder.append(letter
+                        .map(l -> l.isFirstLetter() ? Character.toLowerCase(l.getLetter()) : l.getLetter())
+                        .orElse('.'));
+            }
+            builder.append('|');
+        }
+        return builder.toString();
+    }
+
+    static String insertAll(CrosswordFactory factory){
+        StringBuilder inserted = new StringBuilder();
+        for(String word : WORDS){
+            inserted.append(factory.insertWord(word, "meaning " + word) ? '1' : '0');
+        }
+        return inserted.toString();
+    }
+
+    @Test
+    public void insertWordProducesReferenceGridTest(){
+        CrosswordFactory factory = new CrosswordFactory();
+        assertEquals(EXPECTED_INSERTED, insertAll(factory));
+        Crossword crossword = factory.build();
+        assertEquals(17, crossword.getNumberOfRows());
+        assertEquals(22, crossword.getNumberOfColumns());
+        assertEquals(EXPECTED_GRID, render(crossword));
+        assertEquals(28, crossword.getWordsCount());
+    }
+
+    @Test
+    public void parallelInsertWordProducesReferenceGridTest(){
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try{
+            CrosswordFactory factory = new CrosswordFactory(pool, 0);
+            assertEquals(EXPECTED_INSERTED, insertAll(factory));
+            assertEquals(EXPECTED_GRID, render(factory.build()));
+        }finally{
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void insertWordRejectsEmptyValuesTest(){
+        CrosswordFactory factory = new CrosswordFactory();
+        assertThrows(CrosswordException.class, () -> factory.insertWord("", "meaning"));
+        assertThrows(CrosswordException.class, () -> factory.insertWord("word", null));
+    }
+
+    @Test
+    public void tryToInsertClueWordTest(){
+        CrosswordFactory factory = new CrosswordFactory();
+        insertAll(factory);
+        assertTrue(factory.tryToInsertClueWord("TORT", "cake"));
+        Crossword crossword = factory.build();
+        assertEquals(Optional.of("TORT"), crossword.getCrosswordClueWord());
+        long clueLetters = crossword.streamLetters()
+                .filter(letter -> letter != null && letter.isClueLetter())
+                .count();
+        assertEquals(4, clueLetters);
+        assertFalse(factory.tryToInsertClueWord("QQQQ", "nothing"));
+    }
+
+    private static long countClueLetters(Crossword crossword){
+        return crossword.streamLetters()
+                .filter(letter -> letter != null && letter.isClueLetter())
+                .count();
+    }
+
+    @Test
+    public void batchInsertsFirstFittingClueWordTest(){
+        CrosswordFactory factory = new CrosswordFactory();
+        insertAll(factory);
+        Optional<WordEntry> clue = factory.tryToInsertClueWord(List.of(
+                new WordEntry("QQQQ", "nothing"),
+                new WordEntry("TORT", "cake"),
+                new WordEntry("KOT", "animal")));
+        assertEquals(Optional.of(new WordEntry("TORT", "cake")), clue);
+        Crossword crossword = factory.build();
+        assertEquals(Optional.of("TORT"), crossword.getCrosswordClueWord());
+        assertEquals(Optional.of("cake"), crossword.getCrosswordClueDefinition());
+        assertEquals(4, countClueLetters(crossword));
+        assertEquals(Optional.empty(), factory.tryToInsertClueWord(List.of(new WordEntry("QQQQ", "nothing"))));
+        assertEquals(Optional.of("TORT"), crossword.getCrosswordClueWord());
+    }
+
+    @Test
+    public void newClueWordReplacesAllClueLettersTest(){
+        CrosswordFactory factory = new CrosswordFactory();
+        insertAll(factory);
+        assertTrue(factory.tryToInsertClueWord("TORT", "cake"));
+        assertTrue(factory.tryToInsertClueWord("KAL", "mud"));
+        Crossword crossword = factory.build();
+        assertEquals(3, countClueLetters(crossword));
+        crossword.streamLetters()
+                .filter(letter -> letter != null && letter.isClueLetter())
+                .forEach(letter -> assertTrue("KAL".indexOf(letter.getLetter()) >= 0));
+    }
+
+    @Test
+    public void clueWordFitsOnlyWithEnoughMarkableLettersTest(){
+        CrosswordFactory factory = new CrosswordFactory();
+        insertAll(factory);
+        CrosswordMatrixModel crossword = (CrosswordMatrixModel) factory.build();
+        for(String word : List.of("TORT", "AAAAAAAA", "ZZZ", "KOTARA", "ŻÓŁW", "MOTORÓWKA", "RAK")){
+            boolean fits = true;
+            for(char letter : word.toCharArray()){
+                long needed = word.chars().filter(c -> c == letter).count();
+                long markable = 0;
+                for(int index = 0; index < crossword.getSize(); index++){
+                    if(crossword.getLetter(index) == letter && !crossword.isFirstLetter(index)) markable++;
+                }
+                if(needed > markable) fits = false;
+            }
+            assertEquals(fits, crossword.canMarkClueWord(word), word);
+            assertEquals(fits, factory.tryToInsertClueWord(word, "definition"), word);
+        }
+    }
+
+    @Test
+    public void placementScoreMatchesScoreOfPlacedCopyTest(){
+        CrosswordFactory factory = new CrosswordFactory();
+        int checked = 0;
+        for(String word : WORDS){
+            CrosswordMatrixModel model = (CrosswordMatrixModel) factory.build();
+            if(model.getSize() > 0){
+                int filled = model.getLettersCount();
+                List<CrosswordWordPlacement> placements = factory.getPlacements(word);
+                for(CrosswordWordPlacement placement : placements){
+                    CrosswordMatrixModel copy = new CrosswordMatrixModel(model);
+                    placement.placeWord(copy);
+                    assertEquals(copy.getNumberOfRows(), placement.getNumberOfRowsAfterPlacement(model));
+                    assertEquals(copy.getNumberOfColumns(), placement.getNumberOfColumnsAfterPlacement(model));
+                    assertEquals(copy.getLettersCount(), filled + placement.countNewLetters(model));
+                    assertEquals(factory.getCrosswordScore(copy), factory.getPlacementScore(placement, filled));
+                    checked++;
+                }
+            }
+            factory.insertWord(word, "meaning");
+        }
+        assertTrue(checked > 50);
+    }
+
+    /**
+     * Source handing out the test words over and over.
+     */
+    private static WordSource cyclingSource(){
+        AtomicInteger next = new AtomicInteger();
+        return () -> {
+            String word = WORDS[next.getAndIncrement() % WORDS.length];
+            return new WordEntry(word, "meaning " + word);
+        };
+    }
+
+    @Test
+    public void generateReachesTargetTest(){
+        CrosswordResult result = new CrosswordFactory()
+                .generate(cyclingSource(), new CrosswordParameters(10, true), CrosswordDeadline.none());
+        assertTrue(result.targetReached());
+        assertEquals(10, result.crossword().getWordsCount());
+        assertTrue(result.crossword().getCrosswordClueWord().isPresent());
+    }
+
+    @Test
+    public void generateStopsAtDeadlineWhenNoWordFitsTest(){
+        // nothing crosses the first word, so without the deadline the attempts would never run out
+        AtomicInteger calls = new AtomicInteger();
+        WordSource source = () -> new WordEntry(calls.getAndIncrement() == 0 ? "KOT" : "XYZ", "meaning");
+        long start = System.nanoTime();
+        CrosswordResult result = new CrosswordFactory().generate(source,
+                new CrosswordParameters(5, false, Integer.MAX_VALUE), CrosswordDeadline.after(Duration.ofMillis(100)));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertFalse(result.targetReached());
+        assertEquals(1, result.crossword().getWordsCount());
+        assertTrue(elapsed >= 100 && elapsed < 1000, "took " + elapsed + " ms");
+    }
+
+    @Test
+    public void generateStopsWhenCancelledWhileWaitingForWordsTest() throws InterruptedException{
+        // source which never has a word ready, but respects the timeout
+        WordSource source = new WordSource() {
+            @Override
+            public WordEntry nextWord(){
+                throw new AssertionError("untimed wait");
+            }
+
+            @Override
+            public WordEntry nextWord(long timeout, TimeUnit unit){
+                LockSupport.parkNanos(unit.toNanos(timeout));
+                return null;
+            }
+        };
+        CrosswordDeadline deadline = CrosswordDeadline.none();
+        Thread.ofVirtual().start(() -> {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+            deadline.cancel();
+        });
+        CrosswordResult result = new CrosswordFactory().generate(source, new CrosswordParameters(3, false), deadline);
+        assertTrue(deadline.isCancelled());
+        assertFalse(result.targetReached());
+        assertEquals(0, result.crossword().getWordsCount());
+    }
+}
@@ -0,0 +1,76 @@
+package org.project.model.crossword;
+
+import org.junit.jupiter.api.Test;
+import org.project.model.crossword.structures.DynamicMatrix;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares heap used by the packed grid of CrosswordMatrixModel against the object per cell layout
+ * of DynamicMatrix&lt;CrosswordLetterModel&gt;. Bytes are counted with the allocation counter of the current thread.
+ */
+class CrosswordFootprintTest {
+
+    private static final int ROWS = 20;
+
+    private static final int COLUMNS = 25;
+
+    private static final int GRIDS = 200;
+
+    private static long allocatedBytes(){
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    // every second cell holds a letter, every seventh letter starts a word
+    private static boolean isFilled(int row, int column){
+        return (row + column) % 2 == 0;
+    }
+
+    private static Object buildObjectGrid(){
+        DynamicMatrix<CrosswordLetterModel> matrix = new DynamicMatrix<>(ROWS, COLUMNS);
+        for(int row = 0; row < ROWS; row++){
+            for(int column = 0; column < COLUMNS; column++){
+                if(!isFilled(row, column)) continue;
+                CrosswordLetterModel letter = new CrosswordLetterModel((char) ('A' + column));
+                if(column % 7 == 0) letter.setFirstLetter(row + 200);
+                matrix.setValue(row, column, letter);
+            }
+        }
+        return matrix;
+    }
+
+    private static Object buildPackedGrid(){
+        CrosswordMatrixModel matrix = new CrosswordMatrixModel(ROWS, COLUMNS);
+        for(int row = 0; row < ROWS; row++){
+            for(int column = 0; column < COLUMNS; column++){
+                if(!isFilled(row, column)) continue;
+                if(column % 7 == 0){
+                    matrix.placeFirstLetter(row, column, (char) ('A' + column), row + 200);
+                }else{
+                    matrix.placeLetter(row, column, (char) ('A' + column));
+                }
+            }
+        }
+        return matrix;
+    }
+
+    @Test
+    public void packedGridUsesLessHeapThanObjectGridTest(){
+        Object[] keep = new Object[GRIDS];
+
+        long start = allocatedBytes();
+        for(int i = 0; i < GRIDS; i++) keep[i] = buildObjectGrid();
+        long objectBytes = allocatedBytes() - start;
+
+        start = allocatedBytes();
+        for(int i = 0; i < GRIDS; i++) keep[i] = buildPackedGrid();
+        long packedBytes = allocatedBytes() - start;
+
+        assertNotNull(keep[GRIDS - 1]);
+        // packed cell takes 5 bytes, object cell takes a reference plus a letter object for filled cells
+        assertTrue(packedBytes * 2 < objectBytes,
+                "packed: " + packedBytes / GRIDS + " B/grid, objects: " + objectBytes / GRIDS + " B/grid");
+    }
+}
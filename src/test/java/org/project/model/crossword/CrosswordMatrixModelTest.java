@@ -0,0 +1,153 @@
+package org.project.model.crossword;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the counts kept by the model against full scans of its cells.
+ */
+class CrosswordMatrixModelTest {
+
+    private static CrosswordMatrixModel buildCrossword(){
+        CrosswordFactory factory = new CrosswordFactory();
+        CrosswordFactoryTest.insertAll(factory);
+        CrosswordMatrixModel crossword = (CrosswordMatrixModel) factory.build();
+        crossword.checkConsistency();
+        return crossword;
+    }
+
+    private static List<Integer> letterIndexes(CrosswordMatrixModel crossword){
+        List<Integer> indexes = new ArrayList<>();
+        for(int index = 0; index < crossword.getSize(); index++){
+            if(!crossword.isEmpty(index)) indexes.add(index);
+        }
+        return indexes;
+    }
+
+    @Test
+    public void countsFollowGuessesTest(){
+        CrosswordMatrixModel crossword = buildCrossword();
+        List<Integer> indexes = letterIndexes(crossword);
+        assertEquals(indexes.size(), crossword.getLettersCount());
+        assertEquals(0, crossword.getGuessedWordsCount());
+        Collections.shuffle(indexes, new Random(5));
+
+        int guessed = 0;
+        for(int index : indexes){
+            char letter = crossword.getLetter(index);
+            assertFalse(crossword.guessLetter(index, (char) (letter + 1)));
+            assertTrue(crossword.guessLetter(index, Character.toLowerCase(letter)));
+            // guessing again changes nothing
+            assertTrue(crossword.guessLetter(index, letter));
+            guessed++;
+            assertEquals(guessed, crossword.getGuessedLettersCount());
+            assertEquals(indexes.size() - guessed, crossword.getRemainingLettersCount());
+            crossword.checkConsistency();
+        }
+        assertEquals(crossword.getWordsCount(), crossword.getGuessedWordsCount());
+        for(int wordNumber = 1; wordNumber <= crossword.getWordsCount(); wordNumber++){
+            assertTrue(crossword.isWordGuessed(wordNumber));
+        }
+        assertFalse(crossword.isWordGuessed(0));
+        assertFalse(crossword.isWordGuessed(crossword.getWordsCount() + 1));
+    }
+
+    @Test
+    public void wordIsGuessedWithItsLastLetterTest(){
+        CrosswordMatrixModel crossword = buildCrossword();
+        int first = crossword.calculateIndex(0, 0);
+        for(int index = 0; index < crossword.getSize(); index++){
+            if(crossword.isFirstLetter(index)){
+                first = index;
+                break;
+            }
+        }
+        int wordNumber = crossword.getNumber(first);
+        int row = crossword.calculateRowIndex(first);
+        int column = crossword.calculateColumnIndex(first);
+        boolean vertical = crossword.getLetterIfInBounds(row + 1, column) != CrosswordMatrixModel.EMPTY
+                && crossword.getLetterIfInBounds(row, column + 1) == CrosswordMatrixModel.EMPTY;
+        List<Integer> word = new ArrayList<>();
+        while(crossword.getLetterIfInBounds(row, column) != CrosswordMatrixModel.EMPTY){
+            word.add(crossword.calculateIndex(row, column));
+            if(vertical) row++; else column++;
+        }
+
+        for(int index : word){
+            assertFalse(crossword.isWordGuessed(wordNumber));
+            crossword.guessLetter(index, crossword.getLetter(index));
+        }
+        assertTrue(crossword.isWordGuessed(wordNumber));
+        assertTrue(crossword.getGuessedWordsCount() >= 1);
+        crossword.checkConsistency();
+    }
+
+    @Test
+    public void repeatedWordIsGuessedPerPlacementTest(){
+        CrosswordFactory factory = new CrosswordFactory();
+        assertTrue(factory.insertWord("kajak", "m KAJAK"));
+        assertTrue(factory.insertWord("kajak", "m KAJAK"));
+        assertTrue(factory.insertWord("akt", "m AKT"));
+        CrosswordMatrixModel crossword = (CrosswordMatrixModel) factory.build();
+        CrosswordWordGraph graph = crossword.getWordGraph();
+        int akt = 2;
+        assertEquals("AKT", crossword.getWord(akt));
+
+        for(int i = 0; i < graph.getLength(akt); i++){
+            assertFalse(crossword.isWordGuessed(graph.getNumber(akt)));
+            int index = crossword.calculateIndex(
+                    crossword.getWordRowIndex(akt) + (graph.isVertical(akt) ? i : 0),
+                    crossword.getWordColumnIndex(akt) + (graph.isVertical(akt) ? 0 : i));
+            crossword.guessLetter(index, crossword.getLetter(index));
+        }
+        // the second KAJAK is not guessed, it does not hold back the word placed after it
+        assertTrue(crossword.isWordGuessed(graph.getNumber(akt)));
+        assertFalse(crossword.isWordGuessed(graph.getNumber(1)));
+        assertEquals(1, crossword.getGuessedWordsCount());
+        crossword.checkConsistency();
+    }
+
+    @Test
+    public void copiesKeepTheirOwnCountsTest(){
+        CrosswordMatrixModel crossword = buildCrossword();
+        List<Integer> indexes = letterIndexes(crossword);
+        for(int i = 0; i < indexes.size(); i += 2){
+            crossword.guessLetter(indexes.get(i), crossword.getLetter(indexes.get(i)));
+        }
+        int guessed = crossword.getGuessedLettersCount();
+        int guessedWords = crossword.getGuessedWordsCount();
+
+        CrosswordMatrixModel copy = new CrosswordMatrixModel(crossword);
+        for(int index : indexes) copy.guessLetter(index, copy.getLetter(index));
+        copy.checkConsistency();
+        assertEquals(copy.getLettersCount(), copy.getGuessedLettersCount());
+        assertEquals(copy.getWordsCount(), copy.getGuessedWordsCount());
+
+        assertEquals(guessed, crossword.getGuessedLettersCount());
+        assertEquals(guessedWords, crossword.getGuessedWordsCount());
+        crossword.checkConsistency();
+    }
+
+    @Test
+    public void wordsPlacedOverGuessedLettersAreCountedTest(){
+        CrosswordFactory factory = new CrosswordFactory();
+        CrosswordMatrixModel crossword = null;
+        for(int i = 0; i < CrosswordFactoryTest.WORDS.length; i++){
+            factory.insertWord(CrosswordFactoryTest.WORDS[i], "meaning");
+            crossword = (CrosswordMatrixModel) factory.build();
+            // guess every third letter between insertions, some are crossed or written again by later words
+            List<Integer> indexes = letterIndexes(crossword);
+            for(int j = i % 3; j < indexes.size(); j += 3){
+                crossword.guessLetter(indexes.get(j), crossword.getLetter(indexes.get(j)));
+            }
+            crossword.checkConsistency();
+        }
+        assertTrue(crossword.getGuessedLettersCount() > 0);
+    }
+}
@@ -0,0 +1,106 @@
+package org.project.model.crossword;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrosswordMetricsTest {
+
+    private static CrosswordMetrics insertAll(CrosswordFactory factory){
+        CrosswordMetrics metrics = new CrosswordMetrics();
+        factory.setMetricsRecorder(metrics);
+        assertEquals(CrosswordFactoryTest.EXPECTED_INSERTED, CrosswordFactoryTest.insertAll(factory));
+        assertEquals(CrosswordFactoryTest.EXPECTED_GRID, CrosswordFactoryTest.render(factory.build()));
+        return metrics;
+    }
+
+    @Test
+    public void insertionPhasesAreRecordedTest(){
+        CrosswordFactory factory = new CrosswordFactory();
+        CrosswordMetrics metrics = insertAll(factory);
+        int words = CrosswordFactoryTest.WORDS.length;
+        // every word but the first is searched for, the 28 inserted ones are placed
+        assertEquals(words - 1, metrics.getCount(CrosswordPhase.CANDIDATE_SCAN));
+        assertEquals(words - 1, metrics.getCount(CrosswordPhase.PLACEMENT_VALIDATION));
+        assertEquals(28, metrics.getCount(CrosswordPhase.GRID_UPDATE));
+        assertEquals(0, metrics.getCount(CrosswordPhase.CLUE_INSERTION));
+        assertTrue(metrics.getTotalTimeInMilliseconds(CrosswordPhase.PLACEMENT_VALIDATION) > 0);
+
+        long rejected = 0;
+        for(CrosswordRejection rejection : CrosswordRejection.values()) rejected += metrics.getRejectionCount(rejection);
+        assertTrue(rejected > 0);
+        assertTrue(metrics.getRejectionCount(CrosswordRejection.ADJACENT_LETTER) > 0);
+
+        factory.tryToInsertClueWord("KOT", "zwierzę");
+        assertEquals(1, metrics.getCount(CrosswordPhase.CLUE_INSERTION));
+    }
+
+    @Test
+    public void parallelFactoryRecordsSameRejectionsTest(){
+        CrosswordMetrics sequential = insertAll(new CrosswordFactory());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try{
+            CrosswordMetrics parallel = insertAll(new CrosswordFactory(pool, 0));
+            for(CrosswordRejection rejection : CrosswordRejection.values()){
+                assertEquals(sequential.getRejectionCount(rejection), parallel.getRejectionCount(rejection), rejection.name());
+            }
+        }finally{
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void wordFetchIsRecordedTest(){
+        CrosswordFactory factory = new CrosswordFactory();
+        CrosswordMetrics metrics = new CrosswordMetrics();
+        factory.setMetricsRecorder(metrics);
+        int[] calls = {0};
+        factory.generate(() -> {
+            String word = CrosswordFactoryTest.WORDS[calls[0]++ % CrosswordFactoryTest.WORDS.length];
+            return new WordEntry(word, "meaning " + word);
+        }, new CrosswordParameters(5, false), CrosswordDeadline.none());
+        assertEquals(calls[0], metrics.getCount(CrosswordPhase.WORD_FETCH));
+    }
+
+    @Test
+    public void percentilesAreBucketBoundsTest(){
+        CrosswordMetrics metrics = new CrosswordMetrics();
+        assertEquals(0, metrics.getPercentileInMicroseconds(CrosswordPhase.SCORING, 50));
+        for(int i = 0; i < 99; i++) metrics.recordPhase(CrosswordPhase.SCORING, 1_000);
+        metrics.recordPhase(CrosswordPhase.SCORING, 1_000_000);
+        assertEquals(1.023, metrics.getPercentileInMicroseconds(CrosswordPhase.SCORING, 50), 1e-9);
+        assertEquals(1.023, metrics.getPercentileInMicroseconds(CrosswordPhase.SCORING, 99), 1e-9);
+        assertEquals(1_000, metrics.getPercentileInMicroseconds(CrosswordPhase.SCORING, 100), 1e-9);
+        assertEquals(1_000, metrics.getMaxTimeInMicroseconds(CrosswordPhase.SCORING), 1e-9);
+        assertThrows(CrosswordException.class, () -> metrics.getPercentileInMicroseconds(CrosswordPhase.SCORING, 101));
+    }
+
+    @Test
+    public void metricsAreExposedAsMBeansTest() throws JMException{
+        CrosswordMetrics metrics = new CrosswordMetrics();
+        metrics.recordPhase(CrosswordPhase.WORD_FETCH, 2_000);
+        metrics.recordRejection(CrosswordRejection.LETTER_MISMATCH);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName phase = new ObjectName(CrosswordMetrics.JMX_DOMAIN + ":type=CrosswordMetrics,name=\"test\",phase=WORD_FETCH");
+        ObjectName rejections = new ObjectName(CrosswordMetrics.JMX_DOMAIN + ":type=CrosswordMetrics,name=\"test\",phase=REJECTIONS");
+
+        metrics.registerMBeans("test");
+        try{
+            assertThrows(CrosswordException.class, () -> metrics.registerMBeans("test"));
+            assertEquals(1L, server.getAttribute(phase, "Count"));
+            assertEquals(2.0, server.getAttribute(phase, "MeanTimeInMicroseconds"));
+            assertEquals(1L, server.getAttribute(rejections, "LetterMismatchCount"));
+            assertEquals(1L, server.getAttribute(rejections, "TotalCount"));
+        }finally{
+            metrics.unregisterMBeans();
+        }
+        assertFalse(server.isRegistered(phase));
+        assertFalse(server.isRegistered(rejections));
+    }
+}
@@ -0,0 +1,130 @@
+package org.project.model.crossword;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrosswordOptimizerTest {
+
+    private static final CrosswordDeadline NO_DEADLINE = CrosswordDeadline.after(Duration.ofMinutes(10));
+
+    private static CrosswordMatrixModel buildCrossword(){
+        CrosswordFactory factory = new CrosswordFactory();
+        CrosswordFactoryTest.insertAll(factory);
+        return (CrosswordMatrixModel) factory.build();
+    }
+
+    private static Set<String> words(CrosswordMatrixModel crossword){
+        Set<String> words = new TreeSet<>();
+        CrosswordWordGraph graph = crossword.getWordGraph();
+        for(int id = 0; id < graph.size(); id++){
+            if(graph.contains(id)) words.add(crossword.getWord(id));
+        }
+        return words;
+    }
+
+    @Test
+    public void optimizationKeepsWordsAndImprovesScoreTest(){
+        CrosswordMatrixModel crossword = buildCrossword();
+        String before = CrosswordFactoryTest.render(crossword);
+        CrosswordOptimization optimization = new CrosswordOptimizer(2, 300, 7, null)
+                .optimize(crossword, List.of(), NO_DEADLINE);
+
+        assertEquals(new CrosswordFactory().getCrosswordScore(crossword), optimization.initialScore());
+        assertTrue(optimization.score() > optimization.initialScore(), optimization.toString());
+        assertEquals(600, optimization.iterations());
+        assertTrue(optimization.getScoreGainPerMillisecond() > 0);
+
+        CrosswordMatrixModel optimized = (CrosswordMatrixModel) optimization.crossword();
+        assertEquals(optimization.score(), new CrosswordFactory().getCrosswordScore(optimized));
+        assertEquals(crossword.getWordsCount(), optimized.getWordsCount());
+        assertEquals(words(crossword), words(optimized));
+        assertTrue(optimized.getTimeInMilliseconds() >= crossword.getTimeInMilliseconds());
+        optimized.checkConsistency();
+        // placements are numbered in turn, as the factory numbers them
+        CrosswordWordGraph graph = optimized.getWordGraph();
+        for(int id = 0; id < graph.size(); id++) assertEquals(id + 1, graph.getNumber(id));
+        assertEquals(graph.size() + 1, optimized.getNextWordNumber());
+        // the given crossword is not changed
+        assertEquals(before, CrosswordFactoryTest.render(crossword));
+
+        // the clue word can be inserted into the optimized crossword
+        assertTrue(new CrosswordFactory(optimized).tryToInsertClueWord("kot", "clue"));
+    }
+
+    @Test
+    public void reusedNumberKeepsNextWordNumberTest(){
+        CrosswordMatrixModel crossword = buildCrossword();
+        int nextWordNumber = crossword.getNextWordNumber();
+        int id = crossword.getWordGraph().size() - 1;
+        int wordNumber = crossword.getWordGraph().getNumber(id);
+        String word = crossword.removeWord(id);
+        assertThrows(CrosswordException.class, () -> crossword.reuseWordNumber(nextWordNumber));
+
+        crossword.reuseWordNumber(wordNumber);
+        CrosswordWordPlacement placement = new CrosswordFactory(crossword).getPlacements(word).get(0);
+        placement.withWordNumber(wordNumber).placeWord(crossword);
+        crossword.addWordWithMeaning(word, "meaning " + word);
+        assertEquals(nextWordNumber, crossword.getNextWordNumber());
+        assertThrows(CrosswordException.class, () -> crossword.reuseWordNumber(wordNumber));
+        crossword.checkConsistency();
+    }
+
+    @Test
+    public void alternativesReplaceWordsTest(){
+        CrosswordMatrixModel crossword = buildCrossword();
+        List<WordEntry> alternatives = List.of(new WordEntry("dom", "meaning DOM"), new WordEntry("zamek", "meaning ZAMEK"),
+                new WordEntry("las", "meaning LAS"), new WordEntry("torba", "meaning TORBA"));
+        CrosswordOptimization optimization = new CrosswordOptimizer(2, 300, 11, null)
+                .optimize(crossword, alternatives, NO_DEADLINE);
+
+        CrosswordMatrixModel optimized = (CrosswordMatrixModel) optimization.crossword();
+        assertEquals(crossword.getWordsCount(), optimized.getWordsCount());
+        assertEquals(optimized.getWordsCount(), optimized.getDescriptions().size());
+        for(String word : words(optimized)) assertEquals("meaning " + word, optimized.getMeaning(word));
+        assertNotEquals(words(crossword), words(optimized));
+        optimized.checkConsistency();
+    }
+
+    @Test
+    public void parallelRestartsFindSameCrosswordTest(){
+        CrosswordMatrixModel crossword = buildCrossword();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try{
+            CrosswordOptimization sequential = new CrosswordOptimizer(4, 200, 3, null)
+                    .optimize(crossword, List.of(), NO_DEADLINE);
+            CrosswordOptimization parallel = new CrosswordOptimizer(4, 200, 3, pool)
+                    .optimize(crossword, List.of(), NO_DEADLINE);
+            assertEquals(sequential.score(), parallel.score());
+            assertEquals(CrosswordFactoryTest.render(sequential.crossword()), CrosswordFactoryTest.render(parallel.crossword()));
+        }finally{
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void invalidOptimizationsAreRejectedTest(){
+        assertThrows(CrosswordException.class, () -> new CrosswordOptimizer(0, 10, 1, null));
+        assertThrows(CrosswordException.class, () -> new CrosswordOptimizer(1, -1, 1, null));
+
+        CrosswordMatrixModel crossword = buildCrossword();
+        CrosswordOptimizer optimizer = new CrosswordOptimizer(1, 10, 1, null);
+        assertThrows(CrosswordException.class,
+                () -> optimizer.optimize(crossword, List.of(new WordEntry("kot", "")), NO_DEADLINE));
+        assertTrue(new CrosswordFactory(crossword).tryToInsertClueWord("kot", "clue"));
+        assertThrows(CrosswordException.class, () -> optimizer.optimize(crossword, Duration.ofSeconds(1)));
+
+        // an expired deadline leaves the crossword as it is
+        CrosswordMatrixModel other = buildCrossword();
+        CrosswordOptimization optimization = optimizer.optimize(other, Duration.ZERO);
+        assertSame(other, optimization.crossword());
+        assertEquals(0, optimization.iterations());
+        assertEquals(0, optimization.getScoreGain());
+    }
+}
@@ -0,0 +1,151 @@
+package org.project.model.crossword;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Optional;
+
+/**
+ * Placement validation of CrosswordFactory before it was replaced by {@link CrosswordPlacementValidator},
+ * kept verbatim to check that both take the same decisions.
+ */
+final class CrosswordPlacementReference {
+
+    final private CrosswordMatrixModel crosswordModel;
+
+    private CrosswordRejection rejection;
+
+    CrosswordPlacementReference(CrosswordMatrixModel crosswordModel){
+        this.crosswordModel = crosswordModel;
+    }
+
+    /**
+     * Retrieves the reason of the last rejection.
+     */
+    CrosswordRejection getRejection(){
+        return rejection;
+    }
+
+    Optional<CrosswordWordPlacement> getVerticalPlacement(@NotNull CrosswordMatrixModel crosswordData, int rowIndex, int columnIndex, int letterIndex, String word){
+        final int numberOfRows = crosswordData.getNumberOfRows();
+        final int numberOfColumns = crosswordData.getNumberOfColumns();
+
+        int startRowIndex = rowIndex - letterIndex;
+
+        Optional<CrosswordWordPlacement> optionalCWP = Optional.of( new CrosswordWordPlacement(
+                startRowIndex,
+                columnIndex,
+                CrosswordWordPlacement.Direction.VERTICAL,
+                word,
+                crosswordModel.getWordsCount() + 1
+        ));
+
+        if(startRowIndex < 0){
+            letterIndex = Math.abs(startRowIndex);
+            startRowIndex = 0;
+        }else{
+            letterIndex = 0;
+        }
+
+        // check one behind
+        if(startRowIndex - 1 > 0 && crosswordModel.getCrosswordLetter(startRowIndex - 1, columnIndex).isPresent()){
+            return reject(CrosswordRejection.BLOCKED_BEFORE);
+        }
+
+        // check top, bottom, letter
+        for(; letterIndex < word.length(); letterIndex++){
+
+            Optional<CrosswordLetter> optionalLetter = crosswordModel.getCrosswordLetter(startRowIndex, columnIndex);
+
+            if(optionalLetter.isEmpty()){
+                if((columnIndex > 0 && crosswordModel.getCrosswordLetter(startRowIndex, columnIndex - 1).isPresent())
+                        || (columnIndex < numberOfColumns - 1 && crosswordModel.getCrosswordLetter(startRowIndex, columnIndex + 1).isPresent())){
+                    return reject(CrosswordRejection.ADJACENT_LETTER);
+                }
+                if((columnIndex == 0 && crosswordModel.getCrosswordLetter(startRowIndex, columnIndex + 1).isPresent())
+                        || (columnIndex == numberOfColumns - 1 && crosswordModel.getCrosswordLetter(startRowIndex, columnIndex - 1).isPresent())){
+                    return reject(CrosswordRejection.ADJACENT_LETTER);
+                }
+            }else if(optionalLetter.get().getLetter() != word.charAt(letterIndex)){
+                return reject(CrosswordRejection.LETTER_MISMATCH);
+            }else if(optionalLetter.get().isFirstLetter() && letterIndex == 0){
+                return reject(CrosswordRejection.FIRST_LETTER_CROSSING);
+            }
+
+            if(startRowIndex >= numberOfRows){
+                return optionalCWP;
+            }
+            startRowIndex++;
+
+        }
+        // check one forward
+        if(startRowIndex >= numberOfRows || crosswordModel.getCrosswordLetter(startRowIndex, columnIndex).isEmpty()){
+            return optionalCWP;
+        }else{
+            return reject(CrosswordRejection.BLOCKED_AFTER);
+        }
+    }
+
+    Optional<CrosswordWordPlacement> getHorizontalPlacement(@NotNull CrosswordMatrixModel crosswordData, int rowIndex, int columnIndex, int letterIndex, String word){
+        final int numberOfRows = crosswordData.getNumberOfRows();
+        final int numberOfColumns = crosswordData.getNumberOfColumns();
+
+        int startColumnIndex = columnIndex - letterIndex;
+
+        Optional<CrosswordWordPlacement> optionalCWP = Optional.of( new CrosswordWordPlacement(
+                rowIndex,
+                startColumnIndex,
+                CrosswordWordPlacement.Direction.HORIZONTAL,
+                word,
+                crosswordModel.getWordsCount() + 1
+        ));
+
+        if(startColumnIndex < 0){
+            letterIndex = Math.abs(startColumnIndex);
+            startColumnIndex = 0;
+        }else{
+            letterIndex = 0;
+        }
+        // check one behind
+        if(startColumnIndex - 1 > 0 && crosswordModel.getCrosswordLetter(rowIndex, startColumnIndex - 1).isPresent()){
+            return reject(CrosswordRejection.BLOCKED_BEFORE);
+        }
+
+        // check top, bottom, letter
+
+        for(; letterIndex < word.length(); letterIndex++){
+
+            Optional<CrosswordLetter> optionalLetter = crosswordModel.getCrosswordLetter(rowIndex, startColumnIndex);
+
+            if(optionalLetter.isEmpty()){
+                if((rowIndex > 0 && crosswordModel.getCrosswordLetter(rowIndex - 1, startColumnIndex).isPresent())
+                        || (rowIndex < numberOfRows - 1 && crosswordModel.getCrosswordLetter(rowIndex + 1, startColumnIndex).isPresent())){
+                    return reject(CrosswordRejection.ADJACENT_LETTER);
+                }
+                if((rowIndex == 0 && crosswordModel.getCrosswordLetter(rowIndex + 1, startColumnIndex).isPresent())
+                        || (rowIndex == numberOfRows - 1 && crosswordModel.getCrosswordLetter(rowIndex - 1, startColumnIndex).isPresent())){
+                    return reject(CrosswordRejection.ADJACENT_LETTER);
+                }
+            }else if(optionalLetter.get().getLetter() != word.charAt(letterIndex)){
+                return reject(CrosswordRejection.LETTER_MISMATCH);
+            }else if(optionalLetter.get().isFirstLetter() && letterIndex == 0){
+                return reject(CrosswordRejection.FIRST_LETTER_CROSSING);
+            }
+
+            if(startColumnIndex >= numberOfColumns){
+                return optionalCWP;
+            }
+            startColumnIndex++;
+        }
+        // check one forward
+        if(startColumnIndex >= numberOfColumns || crosswordModel.getCrosswordLetter(rowIndex, startColumnIndex).isEmpty()){
+            return optionalCWP;
+        }else{
+            return reject(CrosswordRejection.BLOCKED_AFTER);
+        }
+    }
+
+    private Optional<CrosswordWordPlacement> reject(CrosswordRejection rejection){
+        this.rejection = rejection;
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,80 @@
+package org.project.model.crossword;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the validation kernel against the validation it replaced, on grids built from random words.
+ */
+class CrosswordPlacementValidatorTest {
+
+    private static final String LETTERS = "AKLMORST";
+
+    private static String randomWord(Random random){
+        StringBuilder word = new StringBuilder();
+        int length = 2 + random.nextInt(7);
+        for(int i = 0; i < length; i++) word.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        return word.toString();
+    }
+
+    /**
+     * Validates the word across every cell of the grid, and the cells around it, with every letter of the word.
+     * @return The number of accepted placements.
+     */
+    private static int assertSameDecisions(CrosswordMatrixModel crossword, String word){
+        CrosswordPlacementReference reference = new CrosswordPlacementReference(crossword);
+        int accepted = 0;
+        for(int row = -1; row <= crossword.getNumberOfRows(); row++){
+            for(int column = -1; column <= crossword.getNumberOfColumns(); column++){
+                for(int letterIndex = 0; letterIndex < word.length(); letterIndex++){
+                    String position = word + " " + letterIndex + " at " + row + "," + column;
+
+                    CrosswordRejection vertical = CrosswordPlacementValidator.validateVertical(
+                            crossword, row, column, letterIndex, word);
+                    boolean verticalAccepted = reference.getVerticalPlacement(crossword, row, column, letterIndex, word).isPresent();
+                    assertEquals(verticalAccepted, vertical == null, position);
+                    if(!verticalAccepted) assertEquals(reference.getRejection(), vertical, position);
+
+                    CrosswordRejection horizontal = CrosswordPlacementValidator.validateHorizontal(
+                            crossword, row, column, letterIndex, word);
+                    boolean horizontalAccepted = reference.getHorizontalPlacement(crossword, row, column, letterIndex, word).isPresent();
+                    assertEquals(horizontalAccepted, horizontal == null, position);
+                    if(!horizontalAccepted) assertEquals(reference.getRejection(), horizontal, position);
+
+                    if(verticalAccepted) accepted++;
+                    if(horizontalAccepted) accepted++;
+                }
+            }
+        }
+        return accepted;
+    }
+
+    @Test
+    public void referenceGridGivesSameDecisionsTest(){
+        CrosswordFactory factory = new CrosswordFactory();
+        CrosswordFactoryTest.insertAll(factory);
+        CrosswordMatrixModel crossword = (CrosswordMatrixModel) factory.build();
+        for(String word : CrosswordFactoryTest.WORDS){
+            assertSameDecisions(crossword, word);
+        }
+    }
+
+    @Test
+    public void randomGridsGiveSameDecisionsTest(){
+        Random random = new Random(11);
+        int accepted = 0;
+        for(int grid = 0; grid < 20; grid++){
+            CrosswordFactory factory = new CrosswordFactory();
+            int words = 1 + random.nextInt(25);
+            for(int i = 0; i < words; i++) factory.insertWord(randomWord(random), "meaning");
+            CrosswordMatrixModel crossword = (CrosswordMatrixModel) factory.build();
+            for(int i = 0; i < 10; i++){
+                accepted += assertSameDecisions(crossword, randomWord(random));
+            }
+        }
+        assertTrue(accepted > 0);
+    }
+}
@@ -0,0 +1,162 @@
+package org.project.model.crossword;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrosswordPoolTest {
+
+    private static final CrosswordParameters SMALL = new CrosswordParameters(3, false);
+
+    private static final CrosswordParameters WITH_CLUE = new CrosswordParameters(8, true);
+
+    private static WordSource cyclingSource(){
+        AtomicInteger calls = new AtomicInteger();
+        return () -> {
+            String word = CrosswordFactoryTest.WORDS[Math.floorMod(calls.getAndIncrement(), CrosswordFactoryTest.WORDS.length)];
+            return new WordEntry(word, "meaning " + word);
+        };
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException{
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while(!condition.getAsBoolean()){
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void poolIsFilledAndRefilledBelowLowWatermarkTest() throws InterruptedException{
+        try(CrosswordPool pool = new CrosswordPool(cyclingSource(), Map.of(SMALL, 6, WITH_CLUE, 2), 3)){
+            awaitUntil(() -> pool.getDepth(SMALL) == 6 && pool.getDepth(WITH_CLUE) == 2);
+            // a refill runs until the stock is full, its workers have to notice it before stopping
+            Thread.sleep(100);
+            assertEquals(8, pool.poll(WITH_CLUE).orElseThrow().getWordsCount());
+            for(int i = 0; i < 3; i++){
+                assertEquals(3, pool.poll(SMALL).orElseThrow().getWordsCount());
+            }
+            // at the low watermark of 3 the stock is refilled to the target
+            awaitUntil(() -> pool.getDepth(SMALL) == 6);
+            Thread.sleep(100);
+            assertEquals(9, pool.getStatistics(SMALL).refilledCount());
+            assertEquals(3, pool.getStatistics(SMALL).hitCount());
+
+            // above the low watermark nothing is generated
+            pool.poll(SMALL);
+            pool.poll(SMALL);
+            Thread.sleep(100);
+            CrosswordPoolStatistics statistics = pool.getStatistics(SMALL);
+            assertEquals(4, statistics.depth());
+            assertEquals(9, statistics.refilledCount());
+            assertEquals(1, statistics.hitRatio());
+            assertTrue(statistics.refillRatePerSecond() > 0);
+        }
+    }
+
+    @Test
+    public void emptyStockIsAMissTest() throws InterruptedException{
+        AtomicInteger generated = new AtomicInteger();
+        CrosswordPool pool = new CrosswordPool((parameters, deadline) -> {
+            generated.incrementAndGet();
+            return new CrosswordFactory().build();
+        }, Map.of(SMALL, 1), 1, 0);
+        try{
+            awaitUntil(() -> pool.getDepth(SMALL) == 1);
+        }finally{
+            pool.close();
+        }
+        // ready crosswords are still handed out, but not refilled
+        assertTrue(pool.poll(SMALL).isPresent());
+        assertTrue(pool.poll(SMALL).isEmpty());
+        // generated on the calling thread
+        assertNotNull(pool.take(SMALL));
+        assertEquals(2, pool.getStatistics(SMALL).missCount());
+        assertEquals(2, generated.get());
+    }
+
+    @Test
+    public void workersAreBoundedTest() throws InterruptedException{
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maximumRunning = new AtomicInteger();
+        try(CrosswordPool pool = new CrosswordPool((parameters, deadline) -> {
+            maximumRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try{
+                Thread.sleep(10);
+            }catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return new CrosswordFactory().build();
+        }, Map.of(SMALL, 10, WITH_CLUE, 10), 4, 0.5)){
+            awaitUntil(() -> pool.getDepth(SMALL) == 10 && pool.getDepth(WITH_CLUE) == 10);
+            assertTrue(maximumRunning.get() <= 4, "running " + maximumRunning.get());
+        }
+    }
+
+    @Test
+    public void failedRefillIsRetriedWithNextRequestTest() throws InterruptedException{
+        AtomicInteger calls = new AtomicInteger();
+        try(CrosswordPool pool = new CrosswordPool((parameters, deadline) -> {
+            if(calls.incrementAndGet() == 1) throw new CrosswordException("source is down");
+            return new CrosswordFactory().build();
+        }, Map.of(SMALL, 2), 1, 0.5)){
+            awaitUntil(() -> pool.getStatistics(SMALL).failedCount() == 1);
+            Thread.sleep(50);
+            assertEquals(0, pool.getDepth(SMALL));
+            assertTrue(pool.poll(SMALL).isEmpty());
+            awaitUntil(() -> pool.getDepth(SMALL) == 2);
+        }
+    }
+
+    @Test
+    public void workerSurvivesErrorOfGeneratorTest() throws InterruptedException{
+        AtomicInteger calls = new AtomicInteger();
+        try(CrosswordPool pool = new CrosswordPool((parameters, deadline) -> {
+            if(calls.incrementAndGet() == 1) throw new AssertionError("generator is broken");
+            return new CrosswordFactory().build();
+        }, Map.of(SMALL, 2), 1, 0.5)){
+            awaitUntil(() -> pool.getStatistics(SMALL).failedCount() == 1);
+            // the only worker refills the stock after the next request
+            assertTrue(pool.poll(SMALL).isEmpty());
+            awaitUntil(() -> pool.getDepth(SMALL) == 2);
+        }
+    }
+
+    @Test
+    public void closeDropsCrosswordsInFlightTest() throws InterruptedException{
+        AtomicInteger calls = new AtomicInteger();
+        WordSource words = cyclingSource();
+        CrosswordPool pool = new CrosswordPool(() -> {
+            calls.incrementAndGet();
+            try{
+                Thread.sleep(10);
+            }catch(InterruptedException e){
+                // interruption is ignored, only the deadline may stop the generation
+            }
+            return words.nextWord();
+        }, Map.of(new CrosswordParameters(1000, false), 1), 1);
+        awaitUntil(() -> calls.get() >= 10);
+        pool.close();
+        // the generation may finish the word it is drawing
+        int drawn = calls.get() + 1;
+        Thread.sleep(200);
+        assertTrue(calls.get() <= drawn, calls.get() + " words drawn after close, " + drawn + " expected at most");
+        assertEquals(0, pool.getDepth(new CrosswordParameters(1000, false)));
+    }
+
+    @Test
+    public void invalidPoolsAreRejectedTest(){
+        assertThrows(CrosswordException.class, () -> new CrosswordPool(cyclingSource(), Map.of(SMALL, 0), 1));
+        assertThrows(CrosswordException.class, () -> new CrosswordPool(cyclingSource(), Map.of(SMALL, 1), 0));
+        assertThrows(CrosswordException.class, () -> new CrosswordPool(cyclingSource(), Map.of(SMALL, 1), 1, 1));
+        try(CrosswordPool pool = new CrosswordPool(cyclingSource(), Map.of(SMALL, 1), 1)){
+            assertThrows(CrosswordException.class, () -> pool.poll(WITH_CLUE));
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package org.project.model.crossword;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the word graph kept by the model against the cells of the grid.
+ */
+class CrosswordWordGraphTest {
+
+    private static CrosswordMatrixModel buildCrossword(){
+        CrosswordFactory factory = new CrosswordFactory();
+        CrosswordFactoryTest.insertAll(factory);
+        return (CrosswordMatrixModel) factory.build();
+    }
+
+    /**
+     * Counts the words covering every cell by walking all words.
+     */
+    private static Map<Integer, Integer> coverage(CrosswordMatrixModel crossword){
+        CrosswordWordGraph graph = crossword.getWordGraph();
+        Map<Integer, Integer> coverage = new HashMap<>();
+        for(int id = 0; id < graph.size(); id++){
+            if(!graph.contains(id)) continue;
+            boolean vertical = graph.isVertical(id);
+            for(int i = 0; i < graph.getLength(id); i++){
+                int row = crossword.getWordRowIndex(id) + (vertical ? i : 0);
+                int column = crossword.getWordColumnIndex(id) + (vertical ? 0 : i);
+                coverage.merge(crossword.calculateIndex(row, column), 1, Integer::sum);
+            }
+        }
+        return coverage;
+    }
+
+    private static void assertGraphMatchesGrid(CrosswordMatrixModel crossword){
+        CrosswordWordGraph graph = crossword.getWordGraph();
+        Map<Integer, Integer> coverage = coverage(crossword);
+        for(int index = 0; index < crossword.getSize(); index++){
+            assertEquals(!crossword.isEmpty(index), coverage.containsKey(index), "cell " + index);
+        }
+        for(int id = 0; id < graph.size(); id++){
+            if(!graph.contains(id)) continue;
+            assertTrue(crossword.isFirstLetter(crossword.calculateIndex(crossword.getWordRowIndex(id),
+                    crossword.getWordColumnIndex(id))));
+            int shared = 0;
+            for(int i = 0; i < graph.getLength(id); i++){
+                int row = graph.getCellRow(id, i);
+                int column = graph.getCellColumn(id, i);
+                int index = crossword.calculateIndex(row - graph.getRow(id) + crossword.getWordRowIndex(id),
+                        column - graph.getColumn(id) + crossword.getWordColumnIndex(id));
+                // the ring of the cell goes through every word covering it once
+                int ringSize = 1;
+                for(int other = graph.getNextWordOnCell(id, i); other != CrosswordWordGraph.NONE && other != id; ringSize++){
+                    assertTrue(ringSize <= coverage.get(index));
+                    int letterIndex = graph.isVertical(other) ? row - graph.getRow(other) : column - graph.getColumn(other);
+                    other = graph.getNextWordOnCell(other, letterIndex);
+                }
+                assertEquals(coverage.get(index), ringSize, "word " + id + " letter " + i);
+                if(ringSize > 1) shared++;
+            }
+            assertEquals(shared, graph.getSharedLettersCount(id));
+            int row = crossword.getWordRowIndex(id);
+            int column = crossword.getWordColumnIndex(id);
+            assertNotEquals(CrosswordWordGraph.NONE, crossword.getWordAt(row, column, graph.isVertical(id)));
+        }
+    }
+
+    @Test
+    public void graphFollowsPlacedWordsTest(){
+        CrosswordMatrixModel crossword = buildCrossword();
+        CrosswordWordGraph graph = crossword.getWordGraph();
+        assertEquals(crossword.getWordsCount(), graph.getWordsCount());
+        assertGraphMatchesGrid(crossword);
+        assertEquals(CrosswordWordGraph.NONE, crossword.getWordAt(-1, 0, false));
+        assertEquals(CrosswordWordGraph.NONE, crossword.getWordAt(0, crossword.getNumberOfColumns(), true));
+    }
+
+    @Test
+    public void removeWordKeepsCrossedLettersTest(){
+        CrosswordMatrixModel crossword = buildCrossword();
+        CrosswordWordGraph graph = crossword.getWordGraph();
+        int lettersCount = crossword.getLettersCount();
+        int wordsCount = crossword.getWordsCount();
+        int nextWordNumber = crossword.getNextWordNumber();
+
+        int removed = 0;
+        for(int id = 0; id < graph.size(); id++){
+            if(graph.getSharedLettersCount(id) > 0 && graph.getSharedLettersCount(id) < graph.getLength(id)){
+                removed = id;
+                break;
+            }
+        }
+        int removedNumber = graph.getNumber(removed);
+        int kept = graph.getSharedLettersCount(removed);
+        int length = graph.getLength(removed);
+        int neighbour = CrosswordWordGraph.NONE;
+        for(int i = 0; i < length && neighbour == CrosswordWordGraph.NONE; i++) neighbour = graph.getNextWordOnCell(removed, i);
+
+        String word = crossword.removeWord(removed);
+        graph = crossword.getWordGraph();
+        assertEquals(length, word.length());
+        assertFalse(crossword.containsWord(word));
+        assertFalse(graph.contains(removed));
+        assertEquals(wordsCount - 1, crossword.getWordsCount());
+        assertEquals(wordsCount - 1, graph.getWordsCount());
+        assertEquals(lettersCount - length + kept, crossword.getLettersCount());
+        assertEquals(nextWordNumber, crossword.getNextWordNumber());
+        for(int i = 0; i < graph.getLength(neighbour); i++){
+            assertNotEquals(removed, graph.getNextWordOnCell(neighbour, i));
+        }
+        int removedId = removed;
+        assertThrows(CrosswordException.class, () -> crossword.removeWord(removedId));
+        assertGraphMatchesGrid(crossword);
+        crossword.checkConsistency();
+
+        // the word fits again, under a new number, the number of the removed word is not reused
+        CrosswordFactory factory = new CrosswordFactory(crossword);
+        assertTrue(factory.insertWord(word, "meaning"));
+        assertGraphMatchesGrid(crossword);
+        crossword.checkConsistency();
+        graph = crossword.getWordGraph();
+        assertEquals(nextWordNumber, graph.getNumber(graph.size() - 1));
+        for(int id = 0; id < graph.size(); id++){
+            if(graph.contains(id)) assertNotEquals(removedNumber, graph.getNumber(id));
+        }
+    }
+
+    @Test
+    public void repeatedWordKeepsMeaningUntilLastPlacementTest(){
+        CrosswordFactory factory = new CrosswordFactory();
+        assertTrue(factory.insertWord("kajak", "m KAJAK"));
+        assertTrue(factory.insertWord("kajak", "m KAJAK"));
+        assertTrue(factory.insertWord("akt", "m AKT"));
+        CrosswordMatrixModel crossword = (CrosswordMatrixModel) factory.build();
+        CrosswordWordGraph graph = crossword.getWordGraph();
+        assertEquals(3, graph.getWordsCount());
+        assertEquals(2, crossword.getWordsCount());
+        // every placement has its own number, a repeated word too
+        assertEquals(1, graph.getNumber(0));
+        assertEquals(2, graph.getNumber(1));
+        assertEquals(3, graph.getNumber(2));
+        assertEquals("AKT", crossword.getWord(2));
+
+        crossword.removeWord(2);
+        assertFalse(crossword.getDescriptions().contains("m AKT"));
+        assertEquals(1, crossword.getWordsCount());
+        assertEquals(4, crossword.getNextWordNumber());
+        crossword.checkConsistency();
+
+        crossword.removeWord(1);
+        assertEquals(List.of("m KAJAK"), crossword.getDescriptions());
+        assertTrue(crossword.containsWord("KAJAK"));
+        assertGraphMatchesGrid(crossword);
+        crossword.checkConsistency();
+
+        crossword.removeWord(0);
+        assertTrue(crossword.getDescriptions().isEmpty());
+        assertEquals(0, crossword.getLettersCount());
+        crossword.checkConsistency();
+    }
+
+    @Test
+    public void removeEveryWordEmptiesGridTest(){
+        CrosswordMatrixModel crossword = buildCrossword();
+        CrosswordWordGraph graph = crossword.getWordGraph();
+        for(int id = graph.size() - 1; id >= 0; id--){
+            crossword.removeWord(id);
+            graph = crossword.getWordGraph();
+            assertGraphMatchesGrid(crossword);
+            crossword.checkConsistency();
+        }
+        assertEquals(0, crossword.getLettersCount());
+        assertEquals(0, crossword.getWordsCount());
+        assertEquals(0, crossword.getClueLettersCount());
+    }
+
+    @Test
+    public void copiesKeepTheirOwnWordsTest(){
+        CrosswordMatrixModel crossword = buildCrossword();
+        String before = CrosswordFactoryTest.render(crossword);
+        CrosswordMatrixModel copy = new CrosswordMatrixModel(crossword);
+        for(int id = 0; id < copy.getWordGraph().size(); id += 2){
+            copy.removeWord(id);
+        }
+        assertGraphMatchesGrid(copy);
+        copy.checkConsistency();
+
+        assertEquals(before, CrosswordFactoryTest.render(crossword));
+        assertEquals(crossword.getWordsCount(), crossword.getWordGraph().getWordsCount());
+        assertGraphMatchesGrid(crossword);
+        crossword.checkConsistency();
+    }
+}
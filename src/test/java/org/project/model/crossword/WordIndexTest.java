@@ -0,0 +1,95 @@
+package org.project.model.crossword;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WordIndexTest {
+
+    private static final List<WordEntry> ENTRIES = Arrays.stream(CrosswordFactoryTest.WORDS)
+            .map(word -> new WordEntry(word.toLowerCase(), "meaning " + word))
+            .toList();
+
+    private static BitSet bruteForce(String pattern){
+        BitSet expected = new BitSet();
+        for(int number = 0; number < ENTRIES.size(); number++){
+            String word = ENTRIES.get(number).word().toUpperCase();
+            if(word.length() != pattern.length()) continue;
+            boolean matches = true;
+            for(int position = 0; position < word.length(); position++){
+                char letter = pattern.charAt(position);
+                if(letter != WordIndex.ANY_LETTER && letter != word.charAt(position)) matches = false;
+            }
+            if(matches) expected.set(number);
+        }
+        return expected;
+    }
+
+    @Test
+    public void matchingAgreesWithBruteForceTest(){
+        WordIndex index = WordIndex.of(ENTRIES);
+        for(String pattern : List.of("K.T", "....", "..W..", "KRZYZOWKA", "R.E..", "Q..", "", "...........")){
+            assertEquals(bruteForce(pattern), index.matching(pattern), pattern);
+        }
+        assertEquals(bruteForce("K.T"), index.matching("k.t"));
+    }
+
+    @Test
+    public void containingAndLengthQueriesTest(){
+        WordIndex index = WordIndex.of(ENTRIES);
+        BitSet withZ = index.containing('z');
+        withZ.stream().forEach(number -> assertTrue(index.get(number).word().contains("z")));
+        assertEquals(ENTRIES.stream().filter(entry -> entry.word().contains("z")).count(), withZ.cardinality());
+        assertEquals(index.withLength(3).cardinality() + index.withLength(4).cardinality(), index.withLength(3, 4).cardinality());
+        assertTrue(index.withLetterAt('W', 2).get(ENTRIES.indexOf(new WordEntry("sowa", "meaning SOWA"))));
+        // returned sets are copies
+        index.containing('z').clear();
+        assertEquals(withZ, index.containing('z'));
+    }
+
+    @Test
+    public void pickDrawsOnlyFromSetTest(){
+        BitSet words = new BitSet();
+        words.set(3);
+        words.set(17);
+        words.set(40);
+        Random random = new Random(1);
+        BitSet drawn = new BitSet();
+        for(int i = 0; i < 100; i++){
+            int number = WordIndex.pick(words, random);
+            assertTrue(words.get(number));
+            drawn.set(number);
+        }
+        assertEquals(words, drawn);
+        assertEquals(-1, WordIndex.pick(new BitSet(), random));
+    }
+
+    @Test
+    public void factoryDrawsOnlyFittingWordsTest(){
+        AtomicInteger lookups = new AtomicInteger();
+        WordIndex index = new WordIndex(ENTRIES.size(), number -> {
+            lookups.incrementAndGet();
+            return ENTRIES.get(number);
+        });
+        lookups.set(0);
+
+        CrosswordFactory factory = new CrosswordFactory();
+        Random random = new Random(5);
+        int inserted = 0;
+        while(factory.insertWordFrom(index, random, 50).isPresent()) inserted++;
+        Crossword crossword = factory.build();
+        assertEquals(inserted, crossword.getWordsCount());
+        assertTrue(inserted >= 20, "inserted " + inserted);
+        // every word is looked up at most once per insertion
+        assertTrue(lookups.get() <= ENTRIES.size() * (inserted + 1));
+
+        assertTrue(factory.tryToInsertClueWordFrom(index, random, 50).isPresent());
+        assertTrue(crossword.getCrosswordClueWord().isPresent());
+    }
+}
@@ -0,0 +1,212 @@
+package org.project.model.sjp;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SJPDefinitionCacheTest {
+
+    private static final SJPEntry KOT = new SJPEntry("kot", false,
+            List.of("zwierzę domowe z rodziny kotowatych", "przebiegły człowiek"));
+
+    private static final SJPEntry PIES = new SJPEntry("pies", false, List.of("zwierzę domowe, przyjaciel człowieka"));
+
+    private static final SJPEntry ZAMEK = new SJPEntry("zamek", false, List.of("budowla obronna, siedziba władcy"));
+
+    /**
+     * Clock moved forward by the test.
+     */
+    private static final class TestClock extends Clock {
+
+        private long millis = 1_000_000;
+
+        @Override
+        public ZoneId getZone(){
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone){
+            return this;
+        }
+
+        @Override
+        public Instant instant(){
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvictedToDiskTest() throws SJPException{
+        SJPDefinitionCache cache = new SJPDefinitionCache(directory, 2, Duration.ofDays(1));
+        cache.put(KOT);
+        cache.put(PIES);
+        assertEquals(Optional.of(KOT), cache.get("kot"));
+        cache.put(ZAMEK);
+        assertEquals(2, cache.getMemorySize());
+
+        // pies was evicted from memory and is read back from disk
+        assertEquals(Optional.of(PIES), cache.get("pies"));
+        assertEquals(Optional.empty(), cache.get("qwerty"));
+        assertEquals(new SJPCacheStatistics(1, 1, 1, 2, 0, 0), cache.getStatistics());
+        assertEquals(2.0 / 3, cache.getStatistics().hitRatio(), 1e-9);
+    }
+
+    @Test
+    public void entriesSurviveRestartTest() throws SJPException{
+        new SJPDefinitionCache(directory).put(KOT);
+        SJPDefinitionCache restarted = new SJPDefinitionCache(directory);
+        assertEquals(Optional.of(KOT), restarted.get("kot"));
+        assertEquals(Optional.of(KOT), restarted.get("kot"));
+        assertEquals(new SJPCacheStatistics(1, 1, 0, 0, 0, 0), restarted.getStatistics());
+    }
+
+    @Test
+    public void expiredEntriesAreRemovedTest() throws SJPException, IOException{
+        TestClock clock = new TestClock();
+        SJPDefinitionCache cache = new SJPDefinitionCache(directory, 10, Duration.ofHours(1), clock);
+        cache.put(KOT);
+        cache.put(PIES);
+        clock.millis += Duration.ofMinutes(59).toMillis();
+        cache.put(ZAMEK);
+        assertTrue(cache.get("kot").isPresent());
+
+        clock.millis += Duration.ofMinutes(1).toMillis();
+        assertEquals(Optional.empty(), cache.get("kot"));
+        assertEquals(Optional.empty(), new SJPDefinitionCache(directory, 10, Duration.ofHours(1), clock).get("kot"));
+        assertEquals(1, cache.purgeExpired());
+        try(Stream<Path> files = Files.list(directory)){
+            assertEquals(1, files.count());
+        }
+        assertEquals(Optional.of(ZAMEK), cache.get("zamek"));
+        assertEquals(2, cache.getStatistics().expirationCount());
+    }
+
+    @Test
+    public void damagedEntryIsAMissTest() throws SJPException, IOException{
+        SJPDefinitionCache cache = new SJPDefinitionCache(directory, 1, Duration.ofDays(1));
+        cache.put(KOT);
+        try(Stream<Path> files = Files.list(directory)){
+            Files.write(files.findFirst().orElseThrow(), new byte[]{1, 2, 3});
+        }
+        cache.put(PIES);
+        assertEquals(Optional.empty(), cache.get("kot"));
+        assertEquals(Optional.of(PIES), cache.get("pies"));
+    }
+
+    @Test
+    public void failedWriteKeepsEntryInMemoryTest() throws SJPException, IOException{
+        SJPDefinitionCache cache = new SJPDefinitionCache(directory);
+        Files.delete(directory);
+        Files.writeString(directory, "not a directory");
+        assertThrows(SJPException.class, () -> cache.put(KOT));
+        assertEquals(Optional.of(KOT), cache.get("kot"));
+        assertEquals(1, cache.getStatistics().writeFailureCount());
+    }
+
+    @Test
+    public void drawnWordsAreFetchedOnceTest() throws IOException, SJPException{
+        AtomicInteger draws = new AtomicInteger();
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        // the random page redirects to the page of the word, as sjp.pl does
+        server.createContext("/sl/los/", exchange -> {
+            draws.incrementAndGet();
+            exchange.getResponseHeaders().set("Location", "/kot");
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+        });
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            String page = exchange.getRequestURI().getPath().substring(1) + ".html";
+            byte[] body;
+            try(InputStream input = SJPDefinitionCacheTest.class.getResourceAsStream(page)){
+                body = input.readAllBytes();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try(OutputStream output = exchange.getResponseBody()){
+                output.write(body);
+            }
+        });
+        server.start();
+        try{
+            String url = "http://localhost:" + server.getAddress().getPort() + "/";
+            SJPDefinitionCache cache = new SJPDefinitionCache(directory);
+            SJPGameParser parser = new SJPGameParser(url + "sl/los/", url, cache);
+            assertEquals(KOT, parser.nextWord().toEntry());
+            assertEquals(KOT, parser.nextWord().toEntry());
+            assertEquals(KOT, new SJPGameParser(url + "sl/los/", url, new SJPDefinitionCache(directory))
+                    .nextWord().toEntry());
+            assertEquals(3, draws.get());
+            assertEquals(1, requests.get());
+            assertEquals(new SJPCacheStatistics(1, 0, 1, 0, 0, 0), cache.getStatistics());
+        }finally{
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void lookedUpWordsAreFetchedOnceTest() throws IOException, SJPException{
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            String page = exchange.getRequestURI().getPath().substring(1) + ".html";
+            byte[] body;
+            try(InputStream input = SJPDefinitionCacheTest.class.getResourceAsStream(page)){
+                body = input.readAllBytes();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try(OutputStream output = exchange.getResponseBody()){
+                output.write(body);
+            }
+        });
+        server.start();
+        try{
+            String url = "http://localhost:" + server.getAddress().getPort() + "/";
+            SJPDefinitionCache cache = new SJPDefinitionCache(directory);
+            SJPGameParser parser = new SJPGameParser(url + "pies", url, cache);
+            assertEquals(KOT, parser.lookUp("kot").toEntry());
+            assertEquals(KOT, parser.lookUp("kot").toEntry());
+            // random words are always fetched, but cached
+            assertEquals(PIES, parser.nextWord().toEntry());
+            assertEquals(PIES, new SJPGameParser(url + "pies", url, new SJPDefinitionCache(directory))
+                    .lookUp("pies").toEntry());
+            assertEquals(2, requests.get());
+            assertEquals(new SJPCacheStatistics(1, 0, 1, 0, 0, 0), cache.getStatistics());
+
+            // a word which cannot be cached is still returned
+            Path brokenDirectory = directory.resolve("broken");
+            SJPDefinitionCache broken = new SJPDefinitionCache(brokenDirectory);
+            Files.delete(brokenDirectory);
+            Files.writeString(brokenDirectory, "not a directory");
+            assertEquals(PIES, new SJPGameParser(url + "pies", url, broken).nextWord().toEntry());
+            assertEquals(1, broken.getStatistics().writeFailureCount());
+        }finally{
+            server.stop(0);
+        }
+    }
+}
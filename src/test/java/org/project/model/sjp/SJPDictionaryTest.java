@@ -0,0 +1,82 @@
+package org.project.model.sjp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.project.model.crossword.WordEntry;
+import org.project.model.crossword.WordIndex;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SJPDictionaryTest {
+
+    private static final String TEXT = """
+            żółw\t0\tgad z twardym pancerzem\tpowolny człowiek
+            xyz\t1
+            kot\t0\tzwierzę domowe
+
+            ąę\t1\tniedopuszczalne znaczenie
+            """;
+
+    @TempDir
+    Path directory;
+
+    private SJPDictionary compileAndOpen() throws IOException, SJPException{
+        Path text = directory.resolve("words.txt");
+        Path binary = directory.resolve("words.dict");
+        Files.writeString(text, TEXT, StandardCharsets.UTF_8);
+        SJPDictionary.compile(text, binary);
+        return SJPDictionary.open(binary);
+    }
+
+    @Test
+    public void compiledEntriesAreReadBackTest() throws IOException, SJPException{
+        try(SJPDictionary dictionary = compileAndOpen()){
+            assertEquals(4, dictionary.size());
+            assertEquals(2, dictionary.allowedSize());
+            assertEquals(new SJPEntry("żółw", false, List.of("gad z twardym pancerzem", "powolny człowiek")),
+                    dictionary.getEntry(0));
+            assertEquals(new SJPEntry("xyz", true, List.of()), dictionary.getEntry(1));
+            assertTrue(dictionary.getEntry(1).getRandomMeaning().isEmpty());
+            assertEquals("ąę", dictionary.getEntry(3).word());
+            assertThrows(IndexOutOfBoundsException.class, () -> dictionary.getEntry(4));
+        }
+    }
+
+    @Test
+    public void nextWordDrawsOnlyAllowedWordsTest() throws IOException, SJPException{
+        try(SJPDictionary dictionary = compileAndOpen()){
+            for(int i = 0; i < 100; i++){
+                WordEntry entry = dictionary.nextWord();
+                assertTrue(entry.word().equals("żółw") || entry.word().equals("kot"), entry.word());
+                assertNotEquals("default", entry.meaning());
+                assertNotNull(dictionary.randomEntry());
+            }
+        }
+    }
+
+    @Test
+    public void wordIndexCoversAllowedWordsTest() throws IOException, SJPException{
+        try(SJPDictionary dictionary = compileAndOpen()){
+            WordIndex index = dictionary.createWordIndex();
+            assertEquals(2, index.size());
+            int number = index.matching("K.T").nextSetBit(0);
+            assertEquals("kot", index.get(number).word());
+            assertEquals("zwierzę domowe", index.get(number).meaning());
+            assertTrue(index.containing('Ą').isEmpty());
+        }
+    }
+
+    @Test
+    public void invalidFilesAreRejectedTest() throws IOException{
+        Path text = directory.resolve("broken.txt");
+        Files.writeString(text, "kot\tmaybe\tzwierzę\n", StandardCharsets.UTF_8);
+        assertThrows(SJPException.class, () -> SJPDictionary.compile(text, directory.resolve("broken.dict")));
+        assertThrows(SJPException.class, () -> SJPDictionary.open(text));
+    }
+}
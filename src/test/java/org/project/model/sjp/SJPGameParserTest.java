@@ -0,0 +1,146 @@
+package org.project.model.sjp;
+
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the page scanner against the parsing it replaced, on saved pages and on generated page texts.
+ */
+class SJPGameParserTest {
+
+    /**
+     * Pieces of page texts, mostly the ones the parsing depends on.
+     */
+    private static final String[] FRAGMENTS = {
+            "dopuszczalne w grach (i) ", "niedopuszczalne w grach (i) ", "niedopuszczalne w grach", "(i) ", "(i)",
+            "znaczenie: info ( ", "znaczenie: info (", "POWIĄZANE: ", "KOMENTARZE ", " - ", "-", "1. ", "2. ", "10. ",
+            "[pot.] ", "[", "]", "[END]", "; ", ";", " ", "  ", "\n", "\r", "\t", "\u2028", "dopuszczalne w grach (i)",
+            "kot ", "pies", "zwierzę domowe", "ą", "x"
+    };
+
+    /**
+     * Pieces of pages, mostly the markup the text extraction depends on.
+     */
+    private static final String[] HTML_FRAGMENTS = {
+            "<p>", "</p>", "<div class=\"a>b\">", "</div>", "<span>", "</span>", "<b>", "</b>", "<i>", "</i>",
+            "<br>", "<br/>", "</br>", "<hr>", "<h1>", "</h1>", "<a href='x' title=y>", "</a>", "<ul>", "</ul>", "<li>",
+            "</li>", "<x-custom>", "</x-custom>", "<unknown/>", "<img src=a.png>", "<!-- <p>comment</p> -->", "<!---->",
+            "<script>var a = '<p>';</script>", "<style>p{}</style>", "<textarea>a &amp; <b>b</b></textarea>",
+            "<pre>", "</pre>", "&amp;", "&amp", "&nbsp;", "&#261;", "&#x105;", "&lt;", "&unknown;", "& ", "< ", "<>",
+            "</>", "<?php ?>", "</ x>", "\u00a0", "\u200b", " ", "  ", "\n", "\t", "kot", "pies", "(i) ",
+            "dopuszczalne w grach (i) ", "niedopuszczalne w grach", "znaczenie: info ( ", "1. ", "POWIĄZANE",
+            "KOMENTARZE"
+    };
+
+    private static String pageHtml(String page) throws IOException{
+        try(InputStream input = SJPGameParserTest.class.getResourceAsStream(page)){
+            assertNotNull(input, page);
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String pageText(String page) throws IOException{
+        return Jsoup.parse(pageHtml(page)).body().text();
+    }
+
+    private static String streamedText(String html) throws IOException{
+        return SJPHtmlTextReader.readText(new StringReader(html));
+    }
+
+    /**
+     * Parses the text both ways, the outcome has to be the same entry or a failure of both.
+     */
+    private static void assertSameAsReference(String text){
+        SJPEntry expected;
+        try{
+            expected = new SJPGameParserReference().parseText(text);
+        }catch(SJPException | RuntimeException e){
+            assertThrows(SJPException.class, () -> new SJPGameParser().parseText(text), text);
+            return;
+        }
+        SJPEntry actual = assertDoesNotThrow(() -> new SJPGameParser().parseText(text).toEntry(), text);
+        assertEquals(expected, actual, text);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"kot.html", "pies.html", "qwerty.html", "zamek.html", "xyz.html"})
+    public void savedPagesGiveSameEntriesTest(String page) throws IOException{
+        assertSameAsReference(pageText(page));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"kot.html", "pies.html", "qwerty.html", "zamek.html", "xyz.html"})
+    public void streamedPagesGiveSameEntriesTest(String page) throws IOException, SJPException{
+        assertEquals(pageText(page), streamedText(pageHtml(page)));
+        try(InputStream input = SJPGameParserTest.class.getResourceAsStream(page)){
+            assertEquals(new SJPGameParser().parseText(pageText(page)).toEntry(),
+                    new SJPGameParser().parse(input, StandardCharsets.UTF_8).toEntry());
+        }
+    }
+
+    @Test
+    public void generatedPagesGiveSameTextTest() throws IOException{
+        Random random = new Random(5);
+        for(int i = 0; i < 20_000; i++){
+            StringBuilder html = new StringBuilder(random.nextBoolean()
+                    ? "<!DOCTYPE html><html><head><title>t &amp; t</title><meta charset=utf-8>\n</head>\n<body>" : "");
+            int fragments = random.nextInt(25);
+            for(int fragment = 0; fragment < fragments; fragment++){
+                html.append(HTML_FRAGMENTS[random.nextInt(HTML_FRAGMENTS.length)]);
+            }
+            if(random.nextBoolean()) html.append("</body></html>");
+            assertEquals(Jsoup.parse(html.toString()).body().text(), streamedText(html.toString()), html.toString());
+        }
+    }
+
+    @Test
+    public void longerThanBufferContentIsStreamedTest() throws IOException{
+        String html = "<html><body><p>" + "kot ".repeat(1000) + "&" + "a".repeat(100) + "; &#" + "0".repeat(50)
+                + "65; <!-- " + "-".repeat(3000) + " --> <script>" + "<p>".repeat(1000) + "</script>"
+                + "<textarea>" + "&amp; ".repeat(1000) + "</textarea><div " + "a=b ".repeat(1000) + ">pies</div>";
+        assertEquals(Jsoup.parse(html).body().text(), streamedText(html));
+    }
+
+    @Test
+    public void homonymsAreParsedTest() throws IOException, SJPException{
+        SJPEntry entry = new SJPGameParser().parseText(pageText("zamek.html")).toEntry();
+        assertEquals("zamek", entry.word());
+        assertFalse(entry.isForbiddenInGames());
+        assertEquals(List.of("budowla obronna, siedziba władcy", "urządzenie do zamykania drzwi",
+                "część broni palnej", "zamknięcie - zapięcie ubrania"), entry.meanings());
+
+        SJPEntry withoutMeanings = new SJPGameParser().parseText(pageText("xyz.html")).toEntry();
+        assertTrue(withoutMeanings.isForbiddenInGames());
+        assertEquals(List.of(), withoutMeanings.meanings());
+    }
+
+    @Test
+    public void generatedTextsGiveSameEntriesTest(){
+        Random random = new Random(3);
+        for(int i = 0; i < 20_000; i++){
+            StringBuilder text = new StringBuilder();
+            int fragments = random.nextInt(30);
+            for(int fragment = 0; fragment < fragments; fragment++){
+                text.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            }
+            assertSameAsReference(text.toString());
+        }
+    }
+
+    @Test
+    public void extractDefinitionsTest(){
+        assertEquals(List.of("a", "b [c", "d"),
+                new SJPGameParser().extractDefinitions(" 1. a; 2. [pot.] b [c;[END] [x]d [END][END]"));
+    }
+}
@@ -0,0 +1,169 @@
+package org.project.model.sjp;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.project.model.crossword.CrosswordException;
+import org.project.model.crossword.WordEntry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the prefetcher against a local server serving saved sjp.pl pages in turn.
+ */
+class SJPPrefetcherTest {
+
+    private static final List<String> PAGES = List.of("kot.html", "pies.html", "qwerty.html");
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private volatile long delayMilliseconds;
+
+    private HttpServer server;
+
+    private String url;
+
+    @BeforeEach
+    public void startServer() throws IOException{
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/sl/los/", exchange -> {
+            String page = PAGES.get(Math.floorMod(requests.getAndIncrement(), PAGES.size()));
+            byte[] body;
+            try(InputStream input = SJPPrefetcherTest.class.getResourceAsStream(page)){
+                body = input.readAllBytes();
+            }
+            try{
+                Thread.sleep(delayMilliseconds);
+            }catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try(OutputStream output = exchange.getResponseBody()){
+                output.write(body);
+            }
+        });
+        server.setExecutor(java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/sl/los/";
+    }
+
+    @AfterEach
+    public void stopServer(){
+        server.stop(0);
+    }
+
+    @Test
+    public void savedPagesAreParsedTest() throws SJPException{
+        SJPGameParser parser = new SJPGameParser(url);
+        assertEquals(new SJPEntry("kot", false, List.of("zwierzę domowe z rodziny kotowatych", "przebiegły człowiek")),
+                parser.nextWord().toEntry());
+        assertEquals(new SJPEntry("pies", false, List.of("zwierzę domowe, przyjaciel człowieka")),
+                parser.nextWord().toEntry());
+        assertTrue(parser.nextWord().toEntry().isForbiddenInGames());
+    }
+
+    @Test
+    public void prefetcherDeliversAllowedWordsTest(){
+        try(SJPPrefetcher prefetcher = new SJPPrefetcher(url, 4, 3)){
+            Set<String> words = new HashSet<>();
+            for(int i = 0; i < 12; i++){
+                WordEntry entry = prefetcher.nextWord();
+                words.add(entry.word());
+                assertTrue(entry.meaning().startsWith("zwierzę") || entry.meaning().startsWith("przebiegły"));
+            }
+            assertEquals(Set.of("kot", "pies"), words);
+            assertTrue(prefetcher.getFetchedCount() >= 12);
+        }
+    }
+
+    @Test
+    public void prefetcherFillsQueueAheadAndMeasuresStarvationTest() throws InterruptedException, SJPException{
+        delayMilliseconds = 50;
+        try(SJPPrefetcher prefetcher = new SJPPrefetcher(url, 6, 3)){
+            prefetcher.nextEntry();
+            assertTrue(prefetcher.getStarvedTimeInMilliseconds() >= 40, "starved " + prefetcher.getStarvedTimeInMilliseconds());
+
+            // fetchers stop once the queue is full
+            Thread.sleep(500);
+            assertTrue(prefetcher.getFetchedCount() <= 1 + 6 + 3, "fetched " + prefetcher.getFetchedCount());
+            double starved = prefetcher.getStarvedTimeInMilliseconds();
+            for(int i = 0; i < 6; i++) prefetcher.nextEntry();
+            assertTrue(prefetcher.getStarvedTimeInMilliseconds() - starved < 40);
+        }
+    }
+
+    @Test
+    public void timedTakeGivesUpWhenNothingIsFetchedTest() throws SJPException{
+        delayMilliseconds = 2000;
+        try(SJPPrefetcher prefetcher = new SJPPrefetcher(url, 2, 1)){
+            long start = System.nanoTime();
+            assertNull(prefetcher.nextEntry(100, TimeUnit.MILLISECONDS));
+            assertNull(prefetcher.nextWord(100, TimeUnit.MILLISECONDS));
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(elapsed < 1000, "waited " + elapsed + " ms");
+        }
+    }
+
+    @Test
+    public void fetchErrorsAreReportedTest(){
+        server.stop(0);
+        try(SJPPrefetcher prefetcher = new SJPPrefetcher(url, 2, 1)){
+            assertThrows(SJPException.class, prefetcher::nextEntry);
+        }
+    }
+
+    @Test
+    public void failedFetchesAreRetriedAfterPauseTest(){
+        AtomicInteger failedRequests = new AtomicInteger();
+        server.createContext("/broken/", exchange -> {
+            failedRequests.incrementAndGet();
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        String brokenUrl = url.replace("/sl/los/", "/broken/");
+        try(SJPPrefetcher prefetcher = new SJPPrefetcher(brokenUrl, 2, 1)){
+            long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+            // failures are taken as soon as they come, so fetchers never wait on a full queue
+            while(System.nanoTime() < end){
+                try{
+                    assertNull(prefetcher.nextEntry(50, TimeUnit.MILLISECONDS));
+                }catch(SJPException e){
+                    assertEquals("An error occurred when connecting to server", e.getMessage());
+                }
+            }
+        }
+        // pauses of 100, 200 and 400 ms leave room for at most four requests
+        assertTrue(failedRequests.get() <= 4, "requests " + failedRequests.get());
+    }
+
+    @Test
+    public void closeWakesWaitingCallersTest() throws InterruptedException{
+        delayMilliseconds = 5000;
+        SJPPrefetcher prefetcher = new SJPPrefetcher(url, 2, 1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> callers = List.of(
+                Thread.ofVirtual().start(() -> failure.compareAndSet(null, assertThrows(SJPException.class, prefetcher::nextEntry))),
+                Thread.ofVirtual().start(() -> assertThrows(CrosswordException.class, prefetcher::nextWord)));
+        Thread.sleep(100);
+        prefetcher.close();
+        for(Thread caller : callers){
+            caller.join(1000);
+            assertFalse(caller.isAlive());
+        }
+        assertEquals("Prefetcher is closed", failure.get().getMessage());
+        assertThrows(SJPException.class, prefetcher::nextEntry);
+    }
+}
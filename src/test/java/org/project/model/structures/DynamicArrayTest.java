@@ -1,10 +1,12 @@
 package org.project.model.structures;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.project.model.crossword.structures.DynamicArray;
 
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -103,4 +105,22 @@ class DynamicArrayTest {
         assertEquals(excepted, dynamicArrayA.equals(dynamicArrayB));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void growthIsAmortizedTest(){
+        DynamicArray<Integer> dynamicArray = new DynamicArray<>();
+        int reallocations = 0;
+        int capacity = dynamicArray.getCapacity();
+        for(int i = 0; i < 1000; i++){
+            dynamicArray.setValueOutOfBounds(i % 2 == 0 ? dynamicArray.getSize() : -1, i);
+            if(dynamicArray.getCapacity() != capacity){
+                reallocations++;
+                capacity = dynamicArray.getCapacity();
+            }
+        }
+        assertEquals(1000, dynamicArray.getSize());
+        assertEquals(Optional.of(999), dynamicArray.getValue(0));
+        assertEquals(Optional.of(998), dynamicArray.getValue(999));
+        assertTrue(reallocations <= 20, "reallocations: " + reallocations);
+    }
+
+}
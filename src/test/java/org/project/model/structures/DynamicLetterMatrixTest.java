@@ -0,0 +1,185 @@
+package org.project.model.structures;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.project.model.crossword.structures.DynamicLetterMatrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DynamicLetterMatrixTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, 0, 1, 1, 0, 0",
+            "2, 3, 3, 4, 2, 3",
+            "-1, 0, 2, 1, 0, 0",
+            "0, -2, 1, 3, 0, 0",
+            "-2, -3, 3, 4, 0, 0"
+    })
+    public void setValueOutOfBoundsTest(int rowIndex, int columnIndex, int expectedRows, int expectedColumns,
+                                        int expectedRow, int expectedColumn){
+        DynamicLetterMatrix matrix = new DynamicLetterMatrix();
+        matrix.setValueOutOfBounds(0, 0, 'A', (byte) 1, (short) 1);
+        matrix.setValueOutOfBounds(rowIndex, columnIndex, 'B', (byte) 0, (short) 2);
+        assertEquals(expectedRows, matrix.getNumberOfRows());
+        assertEquals(expectedColumns, matrix.getNumberOfColumns());
+        assertEquals(expectedRows * expectedColumns, matrix.getSize());
+        assertEquals('B', matrix.getLetter(expectedRow, expectedColumn));
+        assertEquals(2, matrix.getNumber(matrix.calculateIndex(expectedRow, expectedColumn)));
+    }
+
+    @Test
+    public void resizeKeepsCellsTest(){
+        DynamicLetterMatrix matrix = new DynamicLetterMatrix();
+        matrix.setValueOutOfBounds(0, 0, 'A', (byte) 1, (short) 7);
+        matrix.setValueOutOfBounds(0, 1, 'B', (byte) 0, (short) 0);
+        matrix.setValueOutOfBounds(-1, -1, 'C', (byte) 0, (short) 0);
+        assertEquals('A', matrix.getLetter(1, 1));
+        assertEquals('B', matrix.getLetter(1, 2));
+        assertEquals('C', matrix.getLetter(0, 0));
+        assertEquals(1, matrix.getFlags(matrix.calculateIndex(1, 1)));
+        assertEquals(7, matrix.getNumber(matrix.calculateIndex(1, 1)));
+        assertTrue(matrix.isEmpty(matrix.calculateIndex(0, 1)));
+        assertEquals(DynamicLetterMatrix.EMPTY, matrix.getLetterIfInBounds(5, 5));
+    }
+
+    @Test
+    public void copyAndEqualsTest(){
+        DynamicLetterMatrix matrix = new DynamicLetterMatrix();
+        matrix.setValueOutOfBounds(1, 2, 'A', (byte) 0, (short) 0);
+        DynamicLetterMatrix copy = new DynamicLetterMatrix(matrix);
+        assertEquals(matrix, copy);
+        copy.setValueOutOfBounds(0, 0, 'Z', (byte) 0, (short) 0);
+        assertNotEquals(matrix, copy);
+        assertTrue(matrix.isEmpty(0));
+    }
+
+    @Test
+    public void letterIndexesMatchFullScanTest(){
+        Random random = new Random(7);
+        DynamicLetterMatrix matrix = new DynamicLetterMatrix();
+        for(int i = 0; i < 400; i++){
+            // writes around the current bounds, so the matrix keeps growing in every direction
+            int rowIndex = random.nextInt(matrix.getNumberOfRows() + 3) - 1;
+            int columnIndex = random.nextInt(matrix.getNumberOfColumns() + 3) - 1;
+            char letter = random.nextInt(5) == 0 ? DynamicLetterMatrix.EMPTY : (char) ('A' + random.nextInt(4));
+            matrix.setValueOutOfBounds(rowIndex, columnIndex, letter, (byte) 0, (short) 0);
+            if(i == 200) matrix.releaseLetterIndex();
+            if(i % 50 == 0 || i == 399){
+                for(char checked = 'A'; checked < 'E'; checked++){
+                    final char expectedLetter = checked;
+                    int[] expected = IntStream.range(0, matrix.getSize())
+                            .filter(index -> matrix.getLetter(index) == expectedLetter)
+                            .toArray();
+                    assertArrayEquals(expected, matrix.getLetterIndexes(checked));
+                    assertEquals(expected.length, matrix.getLetterCount(checked));
+                    int[] indexes = new int[expected.length + 2];
+                    assertEquals(expected.length, matrix.getLetterIndexes(checked, indexes, 2));
+                    assertArrayEquals(expected, Arrays.copyOfRange(indexes, 2, indexes.length));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void trimToSizeKeepsCellsTest(){
+        DynamicLetterMatrix matrix = new DynamicLetterMatrix();
+        for(int i = 0; i < 20; i++){
+            matrix.setValueOutOfBounds(-1, i, (char) ('A' + i), (byte) 0, (short) i);
+        }
+        DynamicLetterMatrix copy = new DynamicLetterMatrix(matrix);
+        int capacity = matrix.getCapacity();
+        assertTrue(capacity > matrix.getSize());
+        matrix.trimToSize();
+        // the directory keeps whole tiles, at most one partly used tile row and column
+        assertTrue(matrix.getCapacity() < capacity);
+        assertTrue(matrix.getCapacity() >= matrix.getSize());
+        assertTrue(matrix.getCapacity() < (matrix.getNumberOfRows() + 4) * (matrix.getNumberOfColumns() + 32));
+        assertEquals(copy, matrix);
+        assertEquals('T', matrix.getLetter(0, 19));
+        assertEquals(0, matrix.getNumber(matrix.calculateIndex(19, 0)));
+    }
+
+    @Test
+    public void sparseGridAllocatesOnlyTilesWithLettersTest(){
+        DynamicLetterMatrix matrix = new DynamicLetterMatrix();
+        // letters far apart, growing the grid to the negative side every time
+        for(int i = 0; i < 50; i++){
+            matrix.setValueOutOfBounds(-20, -20, (char) ('A' + i % 26), (byte) 0, (short) i);
+        }
+        assertEquals(50 * 20, matrix.getNumberOfRows());
+        assertEquals(50 * 20, matrix.getNumberOfColumns());
+        // a tile per letter, out of a million cells
+        assertTrue(matrix.getAllocatedCapacity() <= 50 * 4 * 32, "allocated " + matrix.getAllocatedCapacity());
+        for(int i = 0; i < 50; i++){
+            int position = (49 - i) * 20;
+            assertEquals((char) ('A' + i % 26), matrix.getLetter(position, position));
+            assertEquals(i, matrix.getNumber(matrix.calculateIndex(position, position)));
+        }
+        assertEquals(DynamicLetterMatrix.EMPTY, matrix.getLetter(1, 0));
+
+        int allocated = matrix.getAllocatedCapacity();
+        matrix.trimToSize();
+        assertEquals(allocated, matrix.getAllocatedCapacity());
+        assertEquals('A', matrix.getLetter(49 * 20, 49 * 20));
+    }
+
+    @Test
+    public void snapshotsAreIndependentTest(){
+        Random random = new Random(11);
+        List<DynamicLetterMatrix> matrices = new ArrayList<>();
+        // every matrix keeps the writes it went through, replaying them must give the same cells
+        List<List<int[]>> writes = new ArrayList<>();
+        matrices.add(new DynamicLetterMatrix());
+        writes.add(new ArrayList<>());
+        for(int i = 0; i < 600; i++){
+            int branch = random.nextInt(matrices.size());
+            DynamicLetterMatrix matrix = matrices.get(branch);
+            if(i % 40 == 0) matrix.getLetterIndexes('A');
+            if(random.nextInt(10) == 0){
+                matrices.add(new DynamicLetterMatrix(matrix));
+                writes.add(new ArrayList<>(writes.get(branch)));
+                continue;
+            }
+            int rowIndex = random.nextInt(matrix.getNumberOfRows() + 3) - 1;
+            int columnIndex = random.nextInt(matrix.getNumberOfColumns() + 3) - 1;
+            char letter = (char) ('A' + random.nextInt(4));
+            matrix.setValueOutOfBounds(rowIndex, columnIndex, letter, (byte) 0, (short) i);
+            writes.get(branch).add(new int[]{rowIndex, columnIndex, letter, i});
+        }
+        for(int branch = 0; branch < matrices.size(); branch++){
+            DynamicLetterMatrix replayed = new DynamicLetterMatrix();
+            for(int[] write : writes.get(branch)){
+                replayed.setValueOutOfBounds(write[0], write[1], (char) write[2], (byte) 0, (short) write[3]);
+            }
+            DynamicLetterMatrix matrix = matrices.get(branch);
+            assertEquals(replayed, matrix);
+            for(char checked = 'A'; checked < 'E'; checked++){
+                assertArrayEquals(replayed.getLetterIndexes(checked), matrix.getLetterIndexes(checked));
+            }
+        }
+    }
+
+    @Test
+    public void snapshotWriteKeepsOriginalTest(){
+        DynamicLetterMatrix matrix = new DynamicLetterMatrix(3, 3);
+        matrix.setValue(4, 'A', (byte) 1, (short) 1);
+        DynamicLetterMatrix snapshot = new DynamicLetterMatrix(matrix);
+        snapshot.setValue(4, 'B', (byte) 0, (short) 2);
+        snapshot.setValueOutOfBounds(-1, 0, 'C', (byte) 0, (short) 0);
+        matrix.setValue(0, 'D', (byte) 0, (short) 0);
+        assertEquals('A', matrix.getLetter(1, 1));
+        assertEquals(1, matrix.getNumber(4));
+        assertEquals(3, matrix.getNumberOfRows());
+        assertEquals('B', snapshot.getLetter(2, 1));
+        assertEquals('C', snapshot.getLetter(0, 0));
+        assertTrue(snapshot.isEmpty(snapshot.calculateIndex(1, 0)));
+    }
+}
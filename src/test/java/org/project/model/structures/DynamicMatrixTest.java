@@ -0,0 +1,100 @@
+package org.project.model.structures;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.project.model.crossword.structures.DynamicMatrix;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DynamicMatrixTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, 0, 1, 1",
+            "2, 3, 3, 4",
+            "-1, 0, 2, 1",
+            "0, -2, 1, 3",
+            "-2, -3, 3, 4"
+    })
+    public void setValueOutOfBoundsOnEmptyMatrixTest(int rowIndex, int columnIndex, int expectedRows, int expectedColumns){
+        DynamicMatrix<Integer> matrix = new DynamicMatrix<>();
+        matrix.setValueOutOfBounds(rowIndex, columnIndex, 1);
+        assertEquals(expectedRows, matrix.getNumberOfRows());
+        assertEquals(expectedColumns, matrix.getNumberOfColumns());
+        assertEquals(expectedRows * expectedColumns, matrix.getSize());
+        assertEquals(1, matrix.stream().filter(value -> value != null).count());
+    }
+
+    @Test
+    public void growthInEveryDirectionKeepsValuesTest(){
+        Random random = new Random(3);
+        DynamicMatrix<Integer> matrix = new DynamicMatrix<>();
+        // reference cells keyed by position relative to the first cell
+        Map<List<Integer>, Integer> expected = new HashMap<>();
+        int firstRow = 0;
+        int firstColumn = 0;
+        matrix.setValueOutOfBounds(0, 0, 0);
+        expected.put(List.of(0, 0), 0);
+        for(int i = 1; i < 500; i++){
+            int rowIndex = random.nextInt(matrix.getNumberOfRows() + 4) - 2;
+            int columnIndex = random.nextInt(matrix.getNumberOfColumns() + 4) - 2;
+            expected.put(List.of(rowIndex - firstRow, columnIndex - firstColumn), i);
+            matrix.setValueOutOfBounds(rowIndex, columnIndex, i);
+            firstRow += Math.max(0, -rowIndex);
+            firstColumn += Math.max(0, -columnIndex);
+        }
+        for(int row = 0; row < matrix.getNumberOfRows(); row++){
+            for(int column = 0; column < matrix.getNumberOfColumns(); column++){
+                Integer value = expected.get(List.of(row - firstRow, column - firstColumn));
+                assertEquals(Optional.ofNullable(value), matrix.getValue(row, column));
+                assertEquals(Optional.ofNullable(value), matrix.getValue(matrix.calculateIndex(row, column)));
+            }
+        }
+        assertEquals(expected.size(), matrix.stream().filter(value -> value != null).count());
+    }
+
+    @Test
+    public void growthIsAmortizedTest(){
+        DynamicMatrix<Integer> matrix = new DynamicMatrix<>();
+        int reallocations = 0;
+        int capacity = matrix.getCapacity();
+        for(int i = 0; i < 1000; i++){
+            matrix.setValueOutOfBounds(-1, 0, i);
+            if(matrix.getCapacity() != capacity){
+                reallocations++;
+                capacity = matrix.getCapacity();
+            }
+        }
+        assertEquals(1001, matrix.getNumberOfRows());
+        assertTrue(reallocations <= 10, "reallocations: " + reallocations);
+    }
+
+    @Test
+    public void valueOutsideOfMatrixIsNotAccessibleTest(){
+        DynamicMatrix<Integer> matrix = new DynamicMatrix<>();
+        matrix.setValueOutOfBounds(1, 1, 1);
+        assertThrows(IndexOutOfBoundsException.class, () -> matrix.setValue(0, 2, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> matrix.getValue(4));
+        assertEquals(Optional.empty(), matrix.getValueIfInBounds(2, 0));
+    }
+
+    @Test
+    public void copyAndEqualsTest(){
+        DynamicMatrix<Integer> matrix = new DynamicMatrix<>();
+        matrix.setValueOutOfBounds(2, 2, 1);
+        DynamicMatrix<Integer> compact = new DynamicMatrix<>(3, 3);
+        compact.setValue(2, 2, 1);
+        assertEquals(compact, matrix);
+        assertEquals(compact.hashCode(), matrix.hashCode());
+        DynamicMatrix<Integer> copy = new DynamicMatrix<>(matrix);
+        copy.setValue(0, 0, 5);
+        assertEquals(Optional.empty(), matrix.getValue(0, 0));
+    }
+}